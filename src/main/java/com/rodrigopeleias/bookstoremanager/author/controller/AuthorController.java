@@ -1,10 +1,17 @@
 package com.rodrigopeleias.bookstoremanager.author.controller;
 
 import com.rodrigopeleias.bookstoremanager.author.dto.AuthorDTO;
+import com.rodrigopeleias.bookstoremanager.author.dto.AuthorMatchDTO;
+import com.rodrigopeleias.bookstoremanager.author.dto.AuthorSuggestionDTO;
 import com.rodrigopeleias.bookstoremanager.author.service.AuthorService;
+import com.rodrigopeleias.bookstoremanager.entity.ResourceVersion;
+import com.rodrigopeleias.bookstoremanager.pagination.dto.CursorPageDTO;
+import com.rodrigopeleias.bookstoremanager.pagination.dto.MultiGetDTO;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.context.request.WebRequest;
 
 import javax.validation.Valid;
 import java.util.List;
@@ -27,18 +34,61 @@ public class AuthorController implements AuthorControllerDocs {
     }
 
     @GetMapping("/{id}")
-    public AuthorDTO findById(@PathVariable Long id) {
+    public AuthorDTO findById(@PathVariable Long id, WebRequest request) {
+        ResourceVersion version = authorService.findVersionById(id);
+        if (request.checkNotModified(version.getETag(), version.getLastModified())) {
+            return null;
+        }
         return authorService.findById(id);
     }
 
+    @GetMapping("/name/{name}")
+    public AuthorDTO findByName(@PathVariable String name) {
+        return authorService.findByName(name);
+    }
+
+    @GetMapping(params = "ids")
+    public MultiGetDTO<AuthorDTO> findAllById(@RequestParam List<Long> ids) {
+        return authorService.findAllById(ids);
+    }
+
     @GetMapping
-    public List<AuthorDTO> findAll() {
+    public List<AuthorDTO> findAll(WebRequest request) {
+        if (request.checkNotModified(authorService.findAllVersion().getETag())) {
+            return null;
+        }
         return authorService.findAll();
     }
 
+    @GetMapping("/autocomplete")
+    public List<AuthorSuggestionDTO> suggest(@RequestParam String prefix,
+                                             @RequestParam(required = false) Integer size) {
+        return authorService.suggest(prefix, size);
+    }
+
+    @GetMapping("/search")
+    public List<AuthorMatchDTO> fuzzySearch(@RequestParam String name,
+                                            @RequestParam(required = false) Integer size) {
+        return authorService.fuzzySearch(name, size);
+    }
+
+    @GetMapping("/page")
+    public CursorPageDTO<AuthorDTO> findPage(@RequestParam(required = false) String cursor,
+                                             @RequestParam(required = false) Integer size) {
+        return authorService.findPage(cursor, size);
+    }
+
+    @GetMapping("/sorted")
+    public CursorPageDTO<AuthorDTO> findCollatedPage(@RequestParam String locale,
+                                                     @RequestParam(required = false) String cursor,
+                                                     @RequestParam(required = false) Integer size) {
+        return authorService.findCollatedPage(locale, cursor, size);
+    }
+
     @DeleteMapping("/{id}")
     @ResponseStatus(HttpStatus.NO_CONTENT)
-    public void delete(@PathVariable Long id) {
-        authorService.delete(id);
+    public void delete(@PathVariable Long id,
+                       @RequestHeader(value = HttpHeaders.IF_MATCH, required = false) String ifMatch) {
+        authorService.delete(id, ifMatch);
     }
 }
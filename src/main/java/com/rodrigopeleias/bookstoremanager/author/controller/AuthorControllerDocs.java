@@ -1,11 +1,16 @@
 package com.rodrigopeleias.bookstoremanager.author.controller;
 
 import com.rodrigopeleias.bookstoremanager.author.dto.AuthorDTO;
+import com.rodrigopeleias.bookstoremanager.author.dto.AuthorMatchDTO;
+import com.rodrigopeleias.bookstoremanager.author.dto.AuthorSuggestionDTO;
+import com.rodrigopeleias.bookstoremanager.pagination.dto.CursorPageDTO;
+import com.rodrigopeleias.bookstoremanager.pagination.dto.MultiGetDTO;
 import io.swagger.annotations.Api;
 import io.swagger.annotations.ApiOperation;
 import io.swagger.annotations.ApiResponse;
 import io.swagger.annotations.ApiResponses;
 import org.springframework.web.bind.annotation.PathVariable;
+import org.springframework.web.context.request.WebRequest;
 
 import java.util.List;
 
@@ -22,20 +27,65 @@ public interface AuthorControllerDocs {
     @ApiOperation(value = "Find author by id operation")
     @ApiResponses(value = {
             @ApiResponse(code = 200, message = "Success author found"),
+            @ApiResponse(code = 304, message = "Author not modified since the version in If-None-Match"),
             @ApiResponse(code = 404, message = "Author not found error code")
     })
-    AuthorDTO findById(Long id);
+    AuthorDTO findById(Long id, WebRequest request);
+
+    @ApiOperation(value = "Find author by exact name operation")
+    @ApiResponses(value = {
+            @ApiResponse(code = 200, message = "Success author found"),
+            @ApiResponse(code = 404, message = "Author not found error code")
+    })
+    AuthorDTO findByName(String name);
+
+    @ApiOperation(value = "Find many authors by id in a single request")
+    @ApiResponses(value = {
+            @ApiResponse(code = 200, message = "Authors found in the requested order, plus the ids not found"),
+            @ApiResponse(code = 400, message = "More ids than the maximum page size were requested")
+    })
+    MultiGetDTO<AuthorDTO> findAllById(List<Long> ids);
 
     @ApiOperation(value = "List all registered authors")
     @ApiResponses(value = {
-            @ApiResponse(code = 200, message = "Return all registered authors")
+            @ApiResponse(code = 200, message = "Return all registered authors"),
+            @ApiResponse(code = 304, message = "Authors not modified since the version in If-None-Match")
+    })
+    List<AuthorDTO> findAll(WebRequest request);
+
+    @ApiOperation(value = "List registered authors one page at a time, ordered by name")
+    @ApiResponses(value = {
+            @ApiResponse(code = 200, message = "Return a page of authors and the cursor of the next one"),
+            @ApiResponse(code = 400, message = "Informed cursor is not valid")
     })
-    List<AuthorDTO> findAll();
+    CursorPageDTO<AuthorDTO> findPage(String cursor, Integer size);
+
+    @ApiOperation(value = "List registered authors one page at a time, ordered by name following the collation rules of the informed locale")
+    @ApiResponses(value = {
+            @ApiResponse(code = 200, message = "Return a page of authors and the cursor of the next one"),
+            @ApiResponse(code = 400, message = "Informed cursor is not valid or locale is not supported"),
+            @ApiResponse(code = 503, message = "Sorted listings are still being built, retry after the informed delay")
+    })
+    CursorPageDTO<AuthorDTO> findCollatedPage(String locale, String cursor, Integer size);
+
+    @ApiOperation(value = "Suggest authors whose name starts with the typed prefix, ignoring case and accents, in name order")
+    @ApiResponses(value = {
+            @ApiResponse(code = 200, message = "Return up to size author suggestions")
+    })
+    List<AuthorSuggestionDTO> suggest(String prefix, Integer size);
+
+    @ApiOperation(value = "Find authors whose name is close to the typed one, tolerating typos, closest first")
+    @ApiResponses(value = {
+            @ApiResponse(code = 200, message = "Return up to size authors with their edit distance to the typed name"),
+            @ApiResponse(code = 503, message = "Author name index is still being built, retry after the informed delay")
+    })
+    List<AuthorMatchDTO> fuzzySearch(String name, Integer size);
 
     @ApiOperation(value = "Delete author by Id operation")
     @ApiResponses(value = {
             @ApiResponse(code = 204, message = "Success Author deleted"),
-            @ApiResponse(code = 404, message = "Author not found error code")
+            @ApiResponse(code = 404, message = "Author not found error code"),
+            @ApiResponse(code = 412, message = "Author modified since the version in If-Match, or concurrently")
     })
-    void delete(@PathVariable Long id);
+    void delete(@PathVariable Long id, String ifMatch);
 }
@@ -0,0 +1,17 @@
+package com.rodrigopeleias.bookstoremanager.author.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@AllArgsConstructor
+@NoArgsConstructor
+public class AuthorMatchDTO {
+
+    private Long id;
+
+    private String name;
+
+    private Integer distance;
+}
@@ -0,0 +1,15 @@
+package com.rodrigopeleias.bookstoremanager.author.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@AllArgsConstructor
+@NoArgsConstructor
+public class AuthorSuggestionDTO {
+
+    private Long id;
+
+    private String name;
+}
@@ -3,15 +3,23 @@ package com.rodrigopeleias.bookstoremanager.author.entity;
 import com.rodrigopeleias.bookstoremanager.books.entity.Book;
 import com.rodrigopeleias.bookstoremanager.entity.Auditable;
 import lombok.Data;
+import org.hibernate.annotations.Cache;
+import org.hibernate.annotations.CacheConcurrencyStrategy;
 
 import javax.persistence.*;
 import java.util.List;
 
 @Data
 @Entity
+@Cacheable
+@Cache(usage = CacheConcurrencyStrategy.READ_WRITE, region = Author.CACHE_REGION)
 public class Author extends Auditable {
+
+    public static final String CACHE_REGION = "authors";
+
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "author_sequence")
+    @SequenceGenerator(name = "author_sequence", sequenceName = "author_sequence", allocationSize = 50)
     private Long id;
 
     @Column(nullable = false, unique = true)
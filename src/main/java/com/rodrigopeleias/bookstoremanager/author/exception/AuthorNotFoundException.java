@@ -6,4 +6,8 @@ public class AuthorNotFoundException extends EntityNotFoundException {
     public AuthorNotFoundException(Long id) {
         super(String.format("Author with id %s not exists", id));
     }
+
+    public AuthorNotFoundException(String name) {
+        super(String.format("Author with name %s not exists", name));
+    }
 }
@@ -1,6 +1,7 @@
 package com.rodrigopeleias.bookstoremanager.author.mapper;
 
 import com.rodrigopeleias.bookstoremanager.author.dto.AuthorDTO;
+import com.rodrigopeleias.bookstoremanager.author.dto.AuthorSuggestionDTO;
 import com.rodrigopeleias.bookstoremanager.author.entity.Author;
 import org.mapstruct.Mapper;
 import org.mapstruct.factory.Mappers;
@@ -13,4 +14,6 @@ public interface AuthorMapper {
     Author toModel(AuthorDTO authorDTO);
 
     AuthorDTO toDTO(Author author);
+
+    AuthorSuggestionDTO toSuggestionDTO(Author author);
 }
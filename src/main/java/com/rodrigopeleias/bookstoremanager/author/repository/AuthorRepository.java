@@ -1,10 +1,60 @@
 package com.rodrigopeleias.bookstoremanager.author.repository;
 
+import com.rodrigopeleias.bookstoremanager.author.dto.AuthorDTO;
 import com.rodrigopeleias.bookstoremanager.author.entity.Author;
+import com.rodrigopeleias.bookstoremanager.config.SecondLevelCacheConfig;
+import com.rodrigopeleias.bookstoremanager.entity.ResourceVersion;
+import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
+import org.springframework.data.repository.query.Param;
 
+import javax.persistence.QueryHint;
+import java.util.List;
 import java.util.Optional;
+import java.util.stream.Stream;
 
 public interface AuthorRepository extends JpaRepository<Author, Long> {
+
+    @QueryHints({
+            @QueryHint(name = org.hibernate.annotations.QueryHints.CACHEABLE, value = "true"),
+            @QueryHint(name = org.hibernate.annotations.QueryHints.CACHE_REGION, value = SecondLevelCacheConfig.REFERENCE_QUERIES_REGION)
+    })
     Optional<Author> findByName(String name);
+
+    @QueryHints({
+            @QueryHint(name = org.hibernate.annotations.QueryHints.CACHEABLE, value = "true"),
+            @QueryHint(name = org.hibernate.annotations.QueryHints.CACHE_REGION, value = SecondLevelCacheConfig.REFERENCE_QUERIES_REGION)
+    })
+    @Override
+    List<Author> findAll();
+
+    @QueryHints({
+            @QueryHint(name = org.hibernate.annotations.QueryHints.CACHEABLE, value = "true"),
+            @QueryHint(name = org.hibernate.annotations.QueryHints.CACHE_REGION, value = SecondLevelCacheConfig.REFERENCE_QUERIES_REGION)
+    })
+    @Query("select new com.rodrigopeleias.bookstoremanager.author.dto.AuthorDTO(a.id, a.name, a.age) from Author a")
+    List<AuthorDTO> findAllAuthorDTOs();
+
+    @QueryHints({
+            @QueryHint(name = org.hibernate.annotations.QueryHints.CACHEABLE, value = "true"),
+            @QueryHint(name = org.hibernate.annotations.QueryHints.CACHE_REGION, value = SecondLevelCacheConfig.REFERENCE_QUERIES_REGION)
+    })
+    @Query("select new com.rodrigopeleias.bookstoremanager.entity.ResourceVersion(count(a), sum(a.version), max(a.lastModifiedDate)) from Author a")
+    ResourceVersion findCollectionVersion();
+
+    List<Author> findAllByOrderByNameAscIdAsc(Pageable pageable);
+
+    List<Author> findAllByNameStartingWithIgnoreCaseOrderByNameAsc(String prefix, Pageable pageable);
+
+    @Query("select a from Author a where a.name > :name or (a.name = :name and a.id > :id) order by a.name, a.id")
+    List<Author> findPageAfter(@Param("name") String name, @Param("id") Long id, Pageable pageable);
+
+    @QueryHints({
+            @QueryHint(name = org.hibernate.annotations.QueryHints.FETCH_SIZE, value = "500"),
+            @QueryHint(name = org.hibernate.annotations.QueryHints.READ_ONLY, value = "true")
+    })
+    @Query("select a from Author a")
+    Stream<Author> streamAll();
 }
@@ -0,0 +1,172 @@
+package com.rodrigopeleias.bookstoremanager.author.service;
+
+import com.rodrigopeleias.bookstoremanager.author.dto.AuthorDTO;
+import com.rodrigopeleias.bookstoremanager.author.dto.AuthorMatchDTO;
+import com.rodrigopeleias.bookstoremanager.author.dto.AuthorSuggestionDTO;
+import com.rodrigopeleias.bookstoremanager.author.repository.AuthorRepository;
+import com.rodrigopeleias.bookstoremanager.exception.ServiceOverloadedException;
+import com.rodrigopeleias.bookstoremanager.pagination.CollatedIndex;
+import com.rodrigopeleias.bookstoremanager.pagination.CollationLocales;
+import com.rodrigopeleias.bookstoremanager.pagination.Cursor;
+import com.rodrigopeleias.bookstoremanager.utils.RadixTrie;
+import com.rodrigopeleias.bookstoremanager.utils.SearchTerms;
+import com.rodrigopeleias.bookstoremanager.utils.TrigramIndex;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+import java.util.stream.Collectors;
+
+/**
+ * In-memory views of the author names, all rebuilt together and kept in step on every author write.
+ * The exact name map answers name lookups without a database query. Only writes made on this node are applied
+ * in between rebuilds, so it is never asked whether an author is missing.
+ * The radix trie over the normalized names answers type-ahead suggestions in name order.
+ * The trigram index answers misspelled names, and the collated index holds the author ids in the name order
+ * of each supported locale.
+ */
+@Slf4j
+@Component
+public class AuthorNameIndex {
+
+    private final AuthorRepository authorRepository;
+    private final CollationLocales collationLocales;
+    private final int fuzzyMaxCandidates;
+    private final int fuzzyMaxScannedPostings;
+    private final long retryAfterSeconds;
+    private final ReadWriteLock lock = new ReentrantReadWriteLock();
+
+    // null until the first rebuild completes, meanwhile callers fall back to the database
+    private volatile Map<String, Long> authorIdsByName;
+    private RadixTrie<AuthorSuggestionDTO> suggestions;
+    private TrigramIndex fuzzyNames;
+    private CollatedIndex collatedNames;
+
+    @Autowired
+    public AuthorNameIndex(AuthorRepository authorRepository,
+                           CollationLocales collationLocales,
+                           @Value("${authors.fuzzy-search.max-candidates:200}") int fuzzyMaxCandidates,
+                           @Value("${authors.fuzzy-search.max-scanned-postings:20000}") int fuzzyMaxScannedPostings,
+                           @Value("${authors.name-index.retry-after:5}") long retryAfterSeconds) {
+        this.authorRepository = authorRepository;
+        this.collationLocales = collationLocales;
+        this.fuzzyMaxCandidates = fuzzyMaxCandidates;
+        this.fuzzyMaxScannedPostings = fuzzyMaxScannedPostings;
+        this.retryAfterSeconds = retryAfterSeconds;
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    @Scheduled(initialDelayString = "${authors.name-index.rebuild-interval-millis:300000}",
+            fixedDelayString = "${authors.name-index.rebuild-interval-millis:300000}")
+    public synchronized void rebuild() {
+        List<AuthorDTO> authors = authorRepository.findAllAuthorDTOs();
+        Map<String, Long> rebuilt = new ConcurrentHashMap<>(Math.max(16, authors.size() * 2));
+        RadixTrie<AuthorSuggestionDTO> rebuiltSuggestions = new RadixTrie<>();
+        TrigramIndex rebuiltFuzzyNames = new TrigramIndex(fuzzyMaxCandidates, fuzzyMaxScannedPostings);
+        CollatedIndex rebuiltCollatedNames = collationLocales.newIndex();
+        authors.forEach(author -> {
+            rebuilt.put(author.getName(), author.getId());
+            rebuiltSuggestions.put(SearchTerms.toKey(author.getName()), new AuthorSuggestionDTO(author.getId(), author.getName()));
+            rebuiltFuzzyNames.put(author.getId(), author.getName());
+            rebuiltCollatedNames.add(author.getId(), author.getName());
+        });
+        update(() -> {
+            suggestions = rebuiltSuggestions;
+            fuzzyNames = rebuiltFuzzyNames;
+            collatedNames = rebuiltCollatedNames;
+            authorIdsByName = rebuilt;
+        });
+        log.info("Rebuilt author name index with {} authors", authors.size());
+    }
+
+    public Optional<Long> findIdByName(String name) {
+        Map<String, Long> index = authorIdsByName;
+        return index == null ? Optional.empty() : Optional.ofNullable(index.get(name));
+    }
+
+    public Optional<List<AuthorSuggestionDTO>> suggest(String prefix, int limit) {
+        lock.readLock().lock();
+        try {
+            if (suggestions == null) {
+                return Optional.empty();
+            }
+            List<AuthorSuggestionDTO> found = new ArrayList<>(limit);
+            suggestions.forEachWithPrefix(SearchTerms.toKey(prefix), suggestion -> found.add(suggestion) && found.size() < limit);
+            return Optional.of(found);
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    public List<AuthorMatchDTO> fuzzySearch(String name, int limit) {
+        lock.readLock().lock();
+        try {
+            if (fuzzyNames == null) {
+                throw notReady();
+            }
+            return fuzzyNames.search(name, limit).stream()
+                    .map(match -> new AuthorMatchDTO(match.getId(), match.getText(), match.getDistance()))
+                    .collect(Collectors.toList());
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    public List<Long> collatedPage(String languageTag, Optional<Cursor> after, int limit) {
+        lock.readLock().lock();
+        try {
+            if (collatedNames == null) {
+                throw notReady();
+            }
+            return collatedNames.page(collatedNames.resolve(languageTag), after, limit);
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    public synchronized void add(Long id, String name) {
+        if (authorIdsByName != null) {
+            authorIdsByName.put(name, id);
+            update(() -> {
+                suggestions.put(SearchTerms.toKey(name), new AuthorSuggestionDTO(id, name));
+                fuzzyNames.put(id, name);
+                collatedNames.add(id, name);
+            });
+        }
+    }
+
+    public synchronized void remove(Long id, String name) {
+        if (authorIdsByName != null) {
+            authorIdsByName.remove(name, id);
+            update(() -> {
+                suggestions.remove(SearchTerms.toKey(name), new AuthorSuggestionDTO(id, name));
+                fuzzyNames.remove(id);
+                collatedNames.remove(id, name);
+            });
+        }
+    }
+
+    private void update(Runnable update) {
+        lock.writeLock().lock();
+        try {
+            update.run();
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    private ServiceOverloadedException notReady() {
+        return new ServiceOverloadedException("Author name index is still being built, try again later", retryAfterSeconds);
+    }
+}
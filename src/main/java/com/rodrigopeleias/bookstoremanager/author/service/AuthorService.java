@@ -1,15 +1,32 @@
 package com.rodrigopeleias.bookstoremanager.author.service;
 
 import com.rodrigopeleias.bookstoremanager.author.dto.AuthorDTO;
+import com.rodrigopeleias.bookstoremanager.author.dto.AuthorMatchDTO;
+import com.rodrigopeleias.bookstoremanager.author.dto.AuthorSuggestionDTO;
 import com.rodrigopeleias.bookstoremanager.author.entity.Author;
 import com.rodrigopeleias.bookstoremanager.author.exception.AuthorAlreadyExistsException;
 import com.rodrigopeleias.bookstoremanager.author.exception.AuthorNotFoundException;
 import com.rodrigopeleias.bookstoremanager.author.mapper.AuthorMapper;
 import com.rodrigopeleias.bookstoremanager.author.repository.AuthorRepository;
+import com.rodrigopeleias.bookstoremanager.changes.enums.CatalogResource;
+import com.rodrigopeleias.bookstoremanager.changes.service.CatalogChangeService;
+import com.rodrigopeleias.bookstoremanager.entity.AfterCommit;
+import com.rodrigopeleias.bookstoremanager.entity.MultiIdLoader;
+import com.rodrigopeleias.bookstoremanager.entity.ResourceVersion;
+import com.rodrigopeleias.bookstoremanager.pagination.Cursor;
+import com.rodrigopeleias.bookstoremanager.pagination.CursorPagination;
+import com.rodrigopeleias.bookstoremanager.pagination.dto.CursorPageDTO;
+import com.rodrigopeleias.bookstoremanager.pagination.dto.MultiGetDTO;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.data.domain.PageRequest;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
 
 import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.function.Function;
 import java.util.stream.Collectors;
 
 @Service
@@ -18,43 +35,126 @@ public class AuthorService {
     private final static AuthorMapper authorMapper = AuthorMapper.INSTANCE;
 
     private AuthorRepository authorRepository;
+    private CursorPagination cursorPagination;
+    private AuthorNameIndex authorNameIndex;
+    private MultiIdLoader multiIdLoader;
+    private CatalogChangeService catalogChangeService;
 
     @Autowired
-    public AuthorService(AuthorRepository authorRepository) {
+    public AuthorService(AuthorRepository authorRepository,
+                         CursorPagination cursorPagination,
+                         AuthorNameIndex authorNameIndex,
+                         MultiIdLoader multiIdLoader,
+                         CatalogChangeService catalogChangeService) {
         this.authorRepository = authorRepository;
+        this.cursorPagination = cursorPagination;
+        this.authorNameIndex = authorNameIndex;
+        this.multiIdLoader = multiIdLoader;
+        this.catalogChangeService = catalogChangeService;
     }
 
+    @Transactional
     public AuthorDTO create(AuthorDTO authorDTO) {
         verifyIfExists(authorDTO.getName());
 
         Author authorToCreate = authorMapper.toModel(authorDTO);
-        Author createdAuthor = authorRepository.save(authorToCreate);
+        Author createdAuthor;
+        try {
+            createdAuthor = authorRepository.saveAndFlush(authorToCreate);
+        } catch (DataIntegrityViolationException e) {
+            // registered after the check above, by a concurrent request or on another node
+            throw new AuthorAlreadyExistsException(authorDTO.getName());
+        }
+        catalogChangeService.recordCreated(CatalogResource.AUTHOR, createdAuthor.getId());
+        AfterCommit.run(() -> authorNameIndex.add(createdAuthor.getId(), createdAuthor.getName()));
         return authorMapper.toDTO(createdAuthor);
     }
 
     public AuthorDTO findById(Long id) {
-        Author foundAuthor = verifyAndGetAuthor(id);
+        Author foundAuthor = verifyAndGetIfExists(id);
         return authorMapper.toDTO(foundAuthor);
     }
 
+    public ResourceVersion findVersionById(Long id) {
+        return ResourceVersion.of(verifyAndGetIfExists(id));
+    }
+
+    public ResourceVersion findAllVersion() {
+        return authorRepository.findCollectionVersion();
+    }
+
+    public MultiGetDTO<AuthorDTO> findAllById(List<Long> ids) {
+        List<Long> distinctIds = cursorPagination.distinctIds(ids);
+        List<Author> foundAuthors = multiIdLoader.findAllById(Author.class, distinctIds);
+        return cursorPagination.toMultiGet(distinctIds, foundAuthors, authorMapper::toDTO, Author::getId);
+    }
+
+    public AuthorDTO findByName(String name) {
+        // the index only knows the writes of this node since its last rebuild, so a miss is checked in the database
+        return authorNameIndex.findIdByName(name)
+                .flatMap(authorRepository::findById)
+                .or(() -> authorRepository.findByName(name))
+                .map(authorMapper::toDTO)
+                .orElseThrow(() -> new AuthorNotFoundException(name));
+    }
+
+    @Transactional(readOnly = true)
     public List<AuthorDTO> findAll() {
-        return authorRepository.findAll()
+        return authorRepository.findAllAuthorDTOs();
+    }
+
+    public List<AuthorSuggestionDTO> suggest(String prefix, Integer size) {
+        int limit = cursorPagination.pageSize(size);
+        return authorNameIndex.suggest(prefix, limit)
+                .orElseGet(() -> authorRepository.findAllByNameStartingWithIgnoreCaseOrderByNameAsc(prefix, PageRequest.of(0, limit))
+                        .stream()
+                        .map(authorMapper::toSuggestionDTO)
+                        .collect(Collectors.toList()));
+    }
+
+    public List<AuthorMatchDTO> fuzzySearch(String name, Integer size) {
+        return authorNameIndex.fuzzySearch(name, cursorPagination.pageSize(size));
+    }
+
+    public CursorPageDTO<AuthorDTO> findCollatedPage(String locale, String cursor, Integer size) {
+        PageRequest pageRequest = cursorPagination.pageRequest(size);
+        List<Long> sortedIds = authorNameIndex.collatedPage(locale, cursorPagination.decode(cursor), pageRequest.getPageSize());
+        Map<Long, Author> foundAuthorsById = authorRepository.findAllById(sortedIds)
                 .stream()
-                .map(authorMapper::toDTO)
+                .collect(Collectors.toMap(Author::getId, Function.identity()));
+        List<Author> authors = sortedIds.stream()
+                .map(foundAuthorsById::get)
+                .filter(Objects::nonNull)
                 .collect(Collectors.toList());
+        return cursorPagination.toPage(authors, pageRequest, authorMapper::toDTO,
+                author -> Cursor.of(author.getName(), author.getId()));
+    }
+
+    public CursorPageDTO<AuthorDTO> findPage(String cursor, Integer size) {
+        PageRequest pageRequest = cursorPagination.pageRequest(size);
+        List<Author> authors = cursorPagination.decode(cursor)
+                .map(after -> authorRepository.findPageAfter(after.getKey(), after.getId(), pageRequest))
+                .orElseGet(() -> authorRepository.findAllByOrderByNameAscIdAsc(pageRequest));
+        return cursorPagination.toPage(authors, pageRequest, authorMapper::toDTO,
+                author -> Cursor.of(author.getName(), author.getId()));
     }
 
     private void verifyIfExists(String authorName) {
+        // the index cannot tell a name deleted or registered on another node, so only the database is trusted here
         authorRepository.findByName(authorName)
                 .ifPresent(author -> { throw new AuthorAlreadyExistsException(authorName); });
     }
 
-    public void delete(Long id) {
-        verifyAndGetAuthor(id);
-        authorRepository.deleteById(id);
+    @Transactional
+    public void delete(Long id, String ifMatch) {
+        Author authorToDelete = verifyAndGetIfExists(id);
+        ResourceVersion.of(authorToDelete).verifyIfMatch(ifMatch);
+        authorRepository.delete(authorToDelete);
+        catalogChangeService.recordDeleted(CatalogResource.AUTHOR, id);
+        AfterCommit.run(() -> authorNameIndex.remove(id, authorToDelete.getName()));
     }
 
-    private Author verifyAndGetAuthor(Long id) {
+    public Author verifyAndGetIfExists(Long id) {
         Author foundAuthor = authorRepository.findById(id)
                 .orElseThrow(() -> new AuthorNotFoundException(id));
         return foundAuthor;
@@ -0,0 +1,115 @@
+package com.rodrigopeleias.bookstoremanager.books.controller;
+
+import com.rodrigopeleias.bookstoremanager.books.dto.BookImportJobDTO;
+import com.rodrigopeleias.bookstoremanager.books.dto.BookRequestDTO;
+import com.rodrigopeleias.bookstoremanager.books.dto.BookResponseDTO;
+import com.rodrigopeleias.bookstoremanager.books.service.BookImportService;
+import com.rodrigopeleias.bookstoremanager.books.service.BookService;
+import com.rodrigopeleias.bookstoremanager.entity.ResourceVersion;
+import com.rodrigopeleias.bookstoremanager.pagination.dto.CursorPageDTO;
+import com.rodrigopeleias.bookstoremanager.pagination.dto.MultiGetDTO;
+import com.rodrigopeleias.bookstoremanager.users.dto.AuthenticatedUser;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.HttpStatus;
+import org.springframework.security.core.annotation.AuthenticationPrincipal;
+import org.springframework.web.bind.annotation.*;
+import org.springframework.web.context.request.WebRequest;
+import org.springframework.web.multipart.MultipartFile;
+
+import javax.validation.Valid;
+import java.io.IOException;
+import java.util.List;
+
+@RestController
+@RequestMapping("/api/v1/books")
+public class BookController implements BookControllerDocs {
+
+    private BookService bookService;
+    private BookImportService bookImportService;
+
+    @Autowired
+    public BookController(BookService bookService, BookImportService bookImportService) {
+        this.bookService = bookService;
+        this.bookImportService = bookImportService;
+    }
+
+    @PostMapping
+    @ResponseStatus(HttpStatus.CREATED)
+    public BookResponseDTO create(@AuthenticationPrincipal AuthenticatedUser authenticatedUser,
+                                  @RequestBody @Valid BookRequestDTO bookRequestDTO) {
+        return bookService.create(authenticatedUser, bookRequestDTO);
+    }
+
+    @PostMapping("/import")
+    @ResponseStatus(HttpStatus.ACCEPTED)
+    public BookImportJobDTO startImport(@AuthenticationPrincipal AuthenticatedUser authenticatedUser,
+                                        @RequestParam MultipartFile file) throws IOException {
+        return bookImportService.startImport(authenticatedUser, file);
+    }
+
+    @GetMapping("/import/{jobId}")
+    public BookImportJobDTO findImportJob(@AuthenticationPrincipal AuthenticatedUser authenticatedUser,
+                                          @PathVariable String jobId) {
+        return bookImportService.findJobByIdAndUser(authenticatedUser, jobId);
+    }
+
+    @GetMapping("/{bookId}")
+    public BookResponseDTO findByIdAndUser(@AuthenticationPrincipal AuthenticatedUser authenticatedUser,
+                                           @PathVariable Long bookId,
+                                           WebRequest request) {
+        ResourceVersion version = bookService.findVersionByIdAndUser(authenticatedUser, bookId);
+        if (request.checkNotModified(version.getETag(), version.getLastModified())) {
+            return null;
+        }
+        return bookService.findByIdAndUser(authenticatedUser, bookId);
+    }
+
+    @GetMapping
+    public List<BookResponseDTO> findAllByUser(@AuthenticationPrincipal AuthenticatedUser authenticatedUser,
+                                               WebRequest request) {
+        if (request.checkNotModified(bookService.findAllVersionByUser(authenticatedUser).getETag())) {
+            return null;
+        }
+        return bookService.findAllByUser(authenticatedUser);
+    }
+
+    @GetMapping(params = "ids")
+    public MultiGetDTO<BookResponseDTO> findAllByIdsAndUser(@AuthenticationPrincipal AuthenticatedUser authenticatedUser,
+                                                            @RequestParam List<Long> ids) {
+        return bookService.findAllByIdsAndUser(authenticatedUser, ids);
+    }
+
+    @GetMapping("/isbn/{isbn}")
+    public List<BookResponseDTO> findAllByIsbnAndUser(@AuthenticationPrincipal AuthenticatedUser authenticatedUser,
+                                                      @PathVariable String isbn) {
+        return bookService.findAllByIsbnAndUser(authenticatedUser, isbn);
+    }
+
+    @GetMapping("/search")
+    public List<BookResponseDTO> search(@AuthenticationPrincipal AuthenticatedUser authenticatedUser,
+                                        @RequestParam String q,
+                                        @RequestParam(required = false) Integer size) {
+        return bookService.search(authenticatedUser, q, size);
+    }
+
+    @GetMapping("/page")
+    public CursorPageDTO<BookResponseDTO> findPageByUser(@AuthenticationPrincipal AuthenticatedUser authenticatedUser,
+                                                         @RequestParam(required = false) String cursor,
+                                                         @RequestParam(required = false) Integer size) {
+        return bookService.findPageByUser(authenticatedUser, cursor, size);
+    }
+
+    @PutMapping("/{bookId}")
+    public BookResponseDTO updateByIdAndUser(@AuthenticationPrincipal AuthenticatedUser authenticatedUser,
+                                             @PathVariable Long bookId,
+                                             @RequestBody @Valid BookRequestDTO bookRequestDTO) {
+        return bookService.updateByIdAndUser(authenticatedUser, bookId, bookRequestDTO);
+    }
+
+    @DeleteMapping("/{bookId}")
+    @ResponseStatus(HttpStatus.NO_CONTENT)
+    public void deleteByIdAndUser(@AuthenticationPrincipal AuthenticatedUser authenticatedUser,
+                                  @PathVariable Long bookId) {
+        bookService.deleteByIdAndUser(authenticatedUser, bookId);
+    }
+}
@@ -0,0 +1,103 @@
+package com.rodrigopeleias.bookstoremanager.books.controller;
+
+import com.rodrigopeleias.bookstoremanager.books.dto.BookImportJobDTO;
+import com.rodrigopeleias.bookstoremanager.books.dto.BookRequestDTO;
+import com.rodrigopeleias.bookstoremanager.books.dto.BookResponseDTO;
+import com.rodrigopeleias.bookstoremanager.pagination.dto.CursorPageDTO;
+import com.rodrigopeleias.bookstoremanager.pagination.dto.MultiGetDTO;
+import com.rodrigopeleias.bookstoremanager.users.dto.AuthenticatedUser;
+import io.swagger.annotations.Api;
+import io.swagger.annotations.ApiOperation;
+import io.swagger.annotations.ApiResponse;
+import io.swagger.annotations.ApiResponses;
+import org.springframework.web.context.request.WebRequest;
+import org.springframework.web.multipart.MultipartFile;
+
+import java.io.IOException;
+import java.util.List;
+
+@Api("Books module management")
+public interface BookControllerDocs {
+
+    @ApiOperation(value = "Book creation operation")
+    @ApiResponses(value = {
+            @ApiResponse(code = 201, message = "Success book creation"),
+            @ApiResponse(code = 400, message = "Missing required field, wrong field range value or book already registered for the user"),
+            @ApiResponse(code = 404, message = "Informed author or publisher not found")
+    })
+    BookResponseDTO create(AuthenticatedUser authenticatedUser, BookRequestDTO bookRequestDTO);
+
+    @ApiOperation(value = "Start importing books for the user from a CSV or NDJSON file")
+    @ApiResponses(value = {
+            @ApiResponse(code = 202, message = "Import accepted, its progress can be followed by the returned job id"),
+            @ApiResponse(code = 400, message = "File is not in a supported import format"),
+            @ApiResponse(code = 503, message = "Too many imports running, try again later")
+    })
+    BookImportJobDTO startImport(AuthenticatedUser authenticatedUser, MultipartFile file) throws IOException;
+
+    @ApiOperation(value = "Book import progress and row errors")
+    @ApiResponses(value = {
+            @ApiResponse(code = 200, message = "Import job found for the user"),
+            @ApiResponse(code = 404, message = "Import job not found for the user")
+    })
+    BookImportJobDTO findImportJob(AuthenticatedUser authenticatedUser, String jobId);
+
+    @ApiOperation(value = "Book find by id and user operation")
+    @ApiResponses(value = {
+            @ApiResponse(code = 200, message = "Success book found"),
+            @ApiResponse(code = 304, message = "Book not modified since the version in If-None-Match"),
+            @ApiResponse(code = 404, message = "Book not found for the user")
+    })
+    BookResponseDTO findByIdAndUser(AuthenticatedUser authenticatedUser, Long bookId, WebRequest request);
+
+    @ApiOperation(value = "List all books registered by the user")
+    @ApiResponses(value = {
+            @ApiResponse(code = 200, message = "Book list found by the user"),
+            @ApiResponse(code = 304, message = "Books of the user not modified since the version in If-None-Match")
+    })
+    List<BookResponseDTO> findAllByUser(AuthenticatedUser authenticatedUser, WebRequest request);
+
+    @ApiOperation(value = "Find many books of the user by id in a single request")
+    @ApiResponses(value = {
+            @ApiResponse(code = 200, message = "Books found in the requested order, plus the ids not found for the user"),
+            @ApiResponse(code = 400, message = "More ids than the maximum page size were requested")
+    })
+    MultiGetDTO<BookResponseDTO> findAllByIdsAndUser(AuthenticatedUser authenticatedUser, List<Long> ids);
+
+    @ApiOperation(value = "Find the user's books by ISBN-10 or ISBN-13, with or without hyphens")
+    @ApiResponses(value = {
+            @ApiResponse(code = 200, message = "Books registered by the user with the informed ISBN"),
+            @ApiResponse(code = 400, message = "Informed value is not a valid ISBN"),
+            @ApiResponse(code = 404, message = "No book with the informed ISBN registered by the user")
+    })
+    List<BookResponseDTO> findAllByIsbnAndUser(AuthenticatedUser authenticatedUser, String isbn);
+
+    @ApiOperation(value = "Search the user's books by words of their name, author name or publisher name, best matches first")
+    @ApiResponses(value = {
+            @ApiResponse(code = 200, message = "Books registered by the user matching the query, ranked by relevance"),
+            @ApiResponse(code = 503, message = "Search index is still being built after a restart")
+    })
+    List<BookResponseDTO> search(AuthenticatedUser authenticatedUser, String q, Integer size);
+
+    @ApiOperation(value = "List books registered by the user one page at a time, ordered by name")
+    @ApiResponses(value = {
+            @ApiResponse(code = 200, message = "Page of books found by the user and the cursor of the next one"),
+            @ApiResponse(code = 400, message = "Informed cursor is not valid")
+    })
+    CursorPageDTO<BookResponseDTO> findPageByUser(AuthenticatedUser authenticatedUser, String cursor, Integer size);
+
+    @ApiOperation(value = "Book update operation")
+    @ApiResponses(value = {
+            @ApiResponse(code = 200, message = "Success book updated"),
+            @ApiResponse(code = 400, message = "Missing required field, or an error on validation build rules"),
+            @ApiResponse(code = 404, message = "Book, author or publisher not found")
+    })
+    BookResponseDTO updateByIdAndUser(AuthenticatedUser authenticatedUser, Long bookId, BookRequestDTO bookRequestDTO);
+
+    @ApiOperation(value = "Book delete operation")
+    @ApiResponses(value = {
+            @ApiResponse(code = 204, message = "Success book deleted"),
+            @ApiResponse(code = 404, message = "Book not found for the user")
+    })
+    void deleteByIdAndUser(AuthenticatedUser authenticatedUser, Long bookId);
+}
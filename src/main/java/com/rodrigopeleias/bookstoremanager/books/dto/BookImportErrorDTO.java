@@ -0,0 +1,17 @@
+package com.rodrigopeleias.bookstoremanager.books.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+@Data
+@AllArgsConstructor
+@NoArgsConstructor
+public class BookImportErrorDTO {
+
+    private long rowNumber;
+
+    private List<String> errors;
+}
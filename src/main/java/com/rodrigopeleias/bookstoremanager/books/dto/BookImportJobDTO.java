@@ -0,0 +1,35 @@
+package com.rodrigopeleias.bookstoremanager.books.dto;
+
+import com.rodrigopeleias.bookstoremanager.books.enums.BookImportStatus;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+@Data
+@Builder
+@AllArgsConstructor
+@NoArgsConstructor
+public class BookImportJobDTO {
+
+    private String id;
+
+    private BookImportStatus status;
+
+    private long processedRows;
+
+    private long importedRows;
+
+    private long failedRows;
+
+    private List<BookImportErrorDTO> rowErrors;
+
+    private String failureReason;
+
+    private LocalDateTime createdDate;
+
+    private LocalDateTime finishedDate;
+}
@@ -1,19 +1,33 @@
 package com.rodrigopeleias.bookstoremanager.books.entity;
 
 import com.rodrigopeleias.bookstoremanager.author.entity.Author;
+import com.rodrigopeleias.bookstoremanager.books.utils.IsbnUtils;
 import com.rodrigopeleias.bookstoremanager.entity.Auditable;
 import com.rodrigopeleias.bookstoremanager.publishers.entity.Publisher;
 import com.rodrigopeleias.bookstoremanager.users.entity.User;
 import lombok.Data;
 
 import javax.persistence.*;
+import java.util.OptionalLong;
 
 @Data
 @Entity
+@Table(indexes = {
+        @Index(name = "idx_book_user_name_id", columnList = "user_id, name, id"),
+        @Index(name = "idx_book_user_isbn13", columnList = "user_id, isbn13")
+})
+@NamedEntityGraph(name = Book.WITH_RELATIONS_GRAPH, attributeNodes = {
+        @NamedAttributeNode("author"),
+        @NamedAttributeNode("publisher"),
+        @NamedAttributeNode("user")
+})
 public class Book extends Auditable {
 
+    public static final String WITH_RELATIONS_GRAPH = "Book.withRelations";
+
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "book_sequence")
+    @SequenceGenerator(name = "book_sequence", sequenceName = "book_sequence", allocationSize = 50)
     private Long id;
 
     @Column(nullable = false, length = 100)
@@ -22,18 +36,29 @@ public class Book extends Auditable {
     @Column(nullable = false)
     private String isbn;
 
+    // isbn as its ISBN-13 numeric value whatever it was written with, null when it is not a valid ISBN
+    @Column
+    private Long isbn13;
+
     @Column(columnDefinition = "integer default 0")
     private int pages;
 
     @Column(columnDefinition = "integer default 0")
     private int chapters;
 
-    @ManyToOne(cascade = CascadeType.MERGE)
+    @ManyToOne(fetch = FetchType.LAZY, cascade = CascadeType.MERGE)
     private Author author;
 
-    @ManyToOne(cascade = CascadeType.MERGE)
+    @ManyToOne(fetch = FetchType.LAZY, cascade = CascadeType.MERGE)
     private Publisher publisher;
 
-    @ManyToOne(cascade = CascadeType.MERGE)
+    @ManyToOne(fetch = FetchType.LAZY, cascade = CascadeType.MERGE)
     private User user;
+
+    @PrePersist
+    @PreUpdate
+    void normalizeIsbn() {
+        OptionalLong normalizedIsbn = IsbnUtils.toIsbn13(isbn);
+        isbn13 = normalizedIsbn.isPresent() ? normalizedIsbn.getAsLong() : null;
+    }
 }
@@ -0,0 +1,8 @@
+package com.rodrigopeleias.bookstoremanager.books.enums;
+
+public enum BookImportStatus {
+    QUEUED,
+    RUNNING,
+    COMPLETED,
+    FAILED
+}
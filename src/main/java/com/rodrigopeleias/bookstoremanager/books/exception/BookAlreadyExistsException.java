@@ -0,0 +1,9 @@
+package com.rodrigopeleias.bookstoremanager.books.exception;
+
+import javax.persistence.EntityExistsException;
+
+public class BookAlreadyExistsException extends EntityExistsException {
+    public BookAlreadyExistsException(String name, String isbn, String username) {
+        super(String.format("Book with name %s and ISBN %s already registered for user %s!", name, isbn, username));
+    }
+}
@@ -0,0 +1,9 @@
+package com.rodrigopeleias.bookstoremanager.books.exception;
+
+import javax.persistence.EntityNotFoundException;
+
+public class BookImportJobNotFoundException extends EntityNotFoundException {
+    public BookImportJobNotFoundException(String id) {
+        super(String.format("Book import job with id %s not exists", id));
+    }
+}
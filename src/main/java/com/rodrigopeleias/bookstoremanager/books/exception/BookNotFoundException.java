@@ -0,0 +1,13 @@
+package com.rodrigopeleias.bookstoremanager.books.exception;
+
+import javax.persistence.EntityNotFoundException;
+
+public class BookNotFoundException extends EntityNotFoundException {
+    public BookNotFoundException(Long id) {
+        super(String.format("Book with id %s not exists", id));
+    }
+
+    public BookNotFoundException(String isbn) {
+        super(String.format("Book with ISBN %s not exists", isbn));
+    }
+}
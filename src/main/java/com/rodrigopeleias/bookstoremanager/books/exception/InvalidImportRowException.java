@@ -0,0 +1,7 @@
+package com.rodrigopeleias.bookstoremanager.books.exception;
+
+public class InvalidImportRowException extends RuntimeException {
+    public InvalidImportRowException(String message) {
+        super(message);
+    }
+}
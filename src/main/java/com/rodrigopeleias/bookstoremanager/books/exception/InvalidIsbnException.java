@@ -0,0 +1,7 @@
+package com.rodrigopeleias.bookstoremanager.books.exception;
+
+public class InvalidIsbnException extends RuntimeException {
+    public InvalidIsbnException(String isbn) {
+        super(String.format("%s is not a valid ISBN-10 or ISBN-13", isbn));
+    }
+}
@@ -0,0 +1,7 @@
+package com.rodrigopeleias.bookstoremanager.books.exception;
+
+public class UnsupportedImportFormatException extends RuntimeException {
+    public UnsupportedImportFormatException(String filename) {
+        super(String.format("File %s is not a supported import format, use a .csv or .ndjson file", filename));
+    }
+}
@@ -0,0 +1,37 @@
+package com.rodrigopeleias.bookstoremanager.books.importer;
+
+import com.fasterxml.jackson.databind.ObjectReader;
+import com.rodrigopeleias.bookstoremanager.books.exception.UnsupportedImportFormatException;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+
+public enum BookImportFormat {
+
+    CSV {
+        @Override
+        public BookImportReader open(BufferedReader reader, ObjectReader objectReader) throws IOException {
+            return new CsvBookImportReader(reader);
+        }
+    },
+    NDJSON {
+        @Override
+        public BookImportReader open(BufferedReader reader, ObjectReader objectReader) {
+            return new NdjsonBookImportReader(reader, objectReader);
+        }
+    };
+
+    public abstract BookImportReader open(BufferedReader reader, ObjectReader objectReader) throws IOException;
+
+    public static BookImportFormat fromFile(String filename, String contentType) {
+        String name = filename == null ? "" : filename.toLowerCase();
+        String type = contentType == null ? "" : contentType.toLowerCase();
+        if (name.endsWith(".csv") || type.startsWith("text/csv")) {
+            return CSV;
+        }
+        if (name.endsWith(".ndjson") || name.endsWith(".jsonl") || type.startsWith("application/x-ndjson")) {
+            return NDJSON;
+        }
+        throw new UnsupportedImportFormatException(filename);
+    }
+}
@@ -0,0 +1,93 @@
+package com.rodrigopeleias.bookstoremanager.books.importer;
+
+import com.rodrigopeleias.bookstoremanager.books.dto.BookImportErrorDTO;
+import com.rodrigopeleias.bookstoremanager.books.dto.BookImportJobDTO;
+import com.rodrigopeleias.bookstoremanager.books.enums.BookImportStatus;
+import lombok.Getter;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Progress of one import, updated by the import thread and read by status requests.
+ * Only the first row errors are kept, so a file full of bad rows cannot exhaust the heap.
+ */
+public class BookImportJob {
+
+    @Getter
+    private final String id;
+    @Getter
+    private final String username;
+    private final int maxReportedErrors;
+    private final LocalDateTime createdDate = LocalDateTime.now();
+
+    private final AtomicLong processedRows = new AtomicLong();
+    private final AtomicLong importedRows = new AtomicLong();
+    private final AtomicLong failedRows = new AtomicLong();
+    private final List<BookImportErrorDTO> rowErrors = new ArrayList<>();
+
+    private volatile BookImportStatus status = BookImportStatus.QUEUED;
+    private volatile String failureReason;
+    private volatile LocalDateTime finishedDate;
+
+    public BookImportJob(String id, String username, int maxReportedErrors) {
+        this.id = id;
+        this.username = username;
+        this.maxReportedErrors = maxReportedErrors;
+    }
+
+    public void start() {
+        status = BookImportStatus.RUNNING;
+    }
+
+    public void rowsImported(int rows) {
+        importedRows.addAndGet(rows);
+        processedRows.addAndGet(rows);
+    }
+
+    public void rowFailed(long rowNumber, List<String> errors) {
+        failedRows.incrementAndGet();
+        processedRows.incrementAndGet();
+        synchronized (rowErrors) {
+            if (rowErrors.size() < maxReportedErrors) {
+                rowErrors.add(new BookImportErrorDTO(rowNumber, errors));
+            }
+        }
+    }
+
+    public void complete() {
+        finishedDate = LocalDateTime.now();
+        status = BookImportStatus.COMPLETED;
+    }
+
+    public void fail(String reason) {
+        failureReason = reason;
+        finishedDate = LocalDateTime.now();
+        status = BookImportStatus.FAILED;
+    }
+
+    public boolean isFinishedBefore(LocalDateTime dateTime) {
+        LocalDateTime finished = finishedDate;
+        return finished != null && finished.isBefore(dateTime);
+    }
+
+    public BookImportJobDTO toDTO() {
+        List<BookImportErrorDTO> reportedErrors;
+        synchronized (rowErrors) {
+            reportedErrors = new ArrayList<>(rowErrors);
+        }
+        return BookImportJobDTO.builder()
+                .id(id)
+                .status(status)
+                .processedRows(processedRows.get())
+                .importedRows(importedRows.get())
+                .failedRows(failedRows.get())
+                .rowErrors(reportedErrors)
+                .failureReason(failureReason)
+                .createdDate(createdDate)
+                .finishedDate(finishedDate)
+                .build();
+    }
+}
@@ -0,0 +1,24 @@
+package com.rodrigopeleias.bookstoremanager.books.importer;
+
+import com.rodrigopeleias.bookstoremanager.books.dto.BookImportRowDTO;
+import com.rodrigopeleias.bookstoremanager.books.exception.InvalidImportRowException;
+
+import java.io.Closeable;
+import java.io.IOException;
+
+/**
+ * Reads an uploaded import file one row at a time, so files of any size are parsed in constant memory.
+ */
+public interface BookImportReader extends Closeable {
+
+    /**
+     * @return the next row, or {@code null} once the file is exhausted
+     * @throws InvalidImportRowException if the current row cannot be parsed, reading can go on with the next one
+     */
+    BookImportRowDTO readRow() throws IOException;
+
+    /**
+     * @return number of the row last returned by {@link #readRow()}, starting at 1 and not counting headers
+     */
+    long getRowNumber();
+}
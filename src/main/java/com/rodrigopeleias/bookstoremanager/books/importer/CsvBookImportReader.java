@@ -0,0 +1,131 @@
+package com.rodrigopeleias.bookstoremanager.books.importer;
+
+import com.rodrigopeleias.bookstoremanager.books.dto.BookImportRowDTO;
+import com.rodrigopeleias.bookstoremanager.books.exception.InvalidImportRowException;
+
+import java.io.IOException;
+import java.io.Reader;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * RFC 4180 CSV reader: comma separated, optionally double-quoted fields with {@code ""} escapes and line breaks
+ * inside quotes. The first record is a header naming the columns, in any order.
+ */
+public class CsvBookImportReader implements BookImportReader {
+
+    static final List<String> COLUMNS = List.of("name", "isbn", "authorName", "publisherCode", "pages", "chapters");
+
+    private final Reader reader;
+    private final Map<String, Integer> columnIndexes = new HashMap<>();
+    private int columnCount;
+    private long rowNumber;
+
+    public CsvBookImportReader(Reader reader) throws IOException {
+        this.reader = reader;
+        readHeader();
+    }
+
+    private void readHeader() throws IOException {
+        List<String> header = readRecord();
+        if (header == null) {
+            throw new InvalidImportRowException("CSV file is empty, a header row is required");
+        }
+        for (int i = 0; i < header.size(); i++) {
+            columnIndexes.put(header.get(i).trim().toLowerCase(), i);
+        }
+        for (String column : COLUMNS) {
+            if (!columnIndexes.containsKey(column.toLowerCase())) {
+                throw new InvalidImportRowException("CSV header is missing the " + column + " column");
+            }
+        }
+        columnCount = header.size();
+    }
+
+    @Override
+    public BookImportRowDTO readRow() throws IOException {
+        List<String> record;
+        do {
+            record = readRecord();
+            if (record == null) {
+                return null;
+            }
+        } while (record.size() == 1 && record.get(0).isBlank());
+
+        rowNumber++;
+        if (record.size() != columnCount) {
+            throw new InvalidImportRowException(
+                    String.format("Expected %d columns but found %d", columnCount, record.size()));
+        }
+        return new BookImportRowDTO(
+                field(record, "name"),
+                field(record, "isbn"),
+                field(record, "authorName"),
+                field(record, "publisherCode"),
+                integerField(record, "pages"),
+                integerField(record, "chapters"));
+    }
+
+    private String field(List<String> record, String column) {
+        String value = record.get(columnIndexes.get(column.toLowerCase())).trim();
+        return value.isEmpty() ? null : value;
+    }
+
+    private Integer integerField(List<String> record, String column) {
+        String value = field(record, column);
+        try {
+            return value == null ? null : Integer.valueOf(value);
+        } catch (NumberFormatException e) {
+            throw new InvalidImportRowException(String.format("Column %s must be a number but was %s", column, value));
+        }
+    }
+
+    private List<String> readRecord() throws IOException {
+        int character = reader.read();
+        if (character == -1) {
+            return null;
+        }
+
+        List<String> fields = new ArrayList<>(columnCount);
+        StringBuilder field = new StringBuilder();
+        boolean quoted = false;
+        while (true) {
+            if (quoted) {
+                if (character == -1) {
+                    throw new InvalidImportRowException("Quoted field is not terminated");
+                }
+                if (character == '"') {
+                    character = reader.read();
+                    if (character != '"') {
+                        quoted = false;
+                        continue;
+                    }
+                }
+                field.append((char) character);
+            } else if (character == '"' && field.length() == 0) {
+                quoted = true;
+            } else if (character == ',') {
+                fields.add(field.toString());
+                field.setLength(0);
+            } else if (character == '\n' || character == -1) {
+                fields.add(field.toString());
+                return fields;
+            } else if (character != '\r') {
+                field.append((char) character);
+            }
+            character = reader.read();
+        }
+    }
+
+    @Override
+    public long getRowNumber() {
+        return rowNumber;
+    }
+
+    @Override
+    public void close() throws IOException {
+        reader.close();
+    }
+}
@@ -0,0 +1,49 @@
+package com.rodrigopeleias.bookstoremanager.books.importer;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectReader;
+import com.rodrigopeleias.bookstoremanager.books.dto.BookImportRowDTO;
+import com.rodrigopeleias.bookstoremanager.books.exception.InvalidImportRowException;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+
+public class NdjsonBookImportReader implements BookImportReader {
+
+    private final BufferedReader reader;
+    private final ObjectReader rowReader;
+    private long rowNumber;
+
+    public NdjsonBookImportReader(BufferedReader reader, ObjectReader rowReader) {
+        this.reader = reader;
+        this.rowReader = rowReader.forType(BookImportRowDTO.class);
+    }
+
+    @Override
+    public BookImportRowDTO readRow() throws IOException {
+        String line;
+        do {
+            line = reader.readLine();
+            if (line == null) {
+                return null;
+            }
+        } while (line.isBlank());
+
+        rowNumber++;
+        try {
+            return rowReader.readValue(line);
+        } catch (JsonProcessingException e) {
+            throw new InvalidImportRowException("Malformed JSON row: " + e.getOriginalMessage());
+        }
+    }
+
+    @Override
+    public long getRowNumber() {
+        return rowNumber;
+    }
+
+    @Override
+    public void close() throws IOException {
+        reader.close();
+    }
+}
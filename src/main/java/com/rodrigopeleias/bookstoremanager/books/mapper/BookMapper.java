@@ -0,0 +1,36 @@
+package com.rodrigopeleias.bookstoremanager.books.mapper;
+
+import com.rodrigopeleias.bookstoremanager.books.dto.BookImportRowDTO;
+import com.rodrigopeleias.bookstoremanager.books.dto.BookRequestDTO;
+import com.rodrigopeleias.bookstoremanager.books.dto.BookResponseDTO;
+import com.rodrigopeleias.bookstoremanager.books.entity.Book;
+import org.mapstruct.Mapper;
+import org.mapstruct.Mapping;
+import org.mapstruct.factory.Mappers;
+
+@Mapper
+public interface BookMapper {
+
+    BookMapper INSTANCE = Mappers.getMapper(BookMapper.class);
+
+    @Mapping(target = "author", ignore = true)
+    @Mapping(target = "publisher", ignore = true)
+    @Mapping(target = "user", ignore = true)
+    @Mapping(target = "createdDate", ignore = true)
+    @Mapping(target = "lastModifiedDate", ignore = true)
+    @Mapping(target = "version", ignore = true)
+    @Mapping(target = "isbn13", ignore = true)
+    Book toModel(BookRequestDTO bookRequestDTO);
+
+    @Mapping(target = "id", ignore = true)
+    @Mapping(target = "author", ignore = true)
+    @Mapping(target = "publisher", ignore = true)
+    @Mapping(target = "user", ignore = true)
+    @Mapping(target = "createdDate", ignore = true)
+    @Mapping(target = "lastModifiedDate", ignore = true)
+    @Mapping(target = "version", ignore = true)
+    @Mapping(target = "isbn13", ignore = true)
+    Book toModel(BookImportRowDTO bookImportRowDTO);
+
+    BookResponseDTO toDTO(Book book);
+}
@@ -0,0 +1,8 @@
+package com.rodrigopeleias.bookstoremanager.books.repository;
+
+public interface BookIsbn {
+
+    Long getId();
+
+    String getIsbn();
+}
@@ -0,0 +1,8 @@
+package com.rodrigopeleias.bookstoremanager.books.repository;
+
+public interface BookKey {
+
+    String getName();
+
+    String getIsbn();
+}
@@ -0,0 +1,25 @@
+package com.rodrigopeleias.bookstoremanager.books.repository;
+
+import com.rodrigopeleias.bookstoremanager.books.entity.Book;
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+
+@Getter
+@AllArgsConstructor
+public class BookSearchEntry {
+
+    private final Long id;
+
+    private final Long userId;
+
+    private final String name;
+
+    private final String authorName;
+
+    private final String publisherName;
+
+    public static BookSearchEntry of(Book book) {
+        return new BookSearchEntry(book.getId(), book.getUser().getId(), book.getName(),
+                book.getAuthor().getName(), book.getPublisher().getName());
+    }
+}
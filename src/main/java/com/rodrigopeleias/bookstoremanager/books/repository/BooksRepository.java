@@ -1,7 +1,76 @@
 package com.rodrigopeleias.bookstoremanager.books.repository;
 
 import com.rodrigopeleias.bookstoremanager.books.entity.Book;
+import com.rodrigopeleias.bookstoremanager.entity.ResourceVersion;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.EntityGraph;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
+import org.springframework.data.repository.query.Param;
+
+import javax.persistence.QueryHint;
+import java.util.Collection;
+import java.util.List;
+import java.util.Optional;
+import java.util.stream.Stream;
 
 public interface BooksRepository extends JpaRepository<Book, Long> {
+
+    @EntityGraph(Book.WITH_RELATIONS_GRAPH)
+    Optional<Book> findByIdAndUserUsername(Long id, String username);
+
+    @EntityGraph(Book.WITH_RELATIONS_GRAPH)
+    List<Book> findAllByUserUsername(String username);
+
+    @Query("select new com.rodrigopeleias.bookstoremanager.entity.ResourceVersion(b.version, b.lastModifiedDate) from Book b"
+            + " where b.id = :id and b.user.username = :username")
+    Optional<ResourceVersion> findVersionByIdAndUserUsername(@Param("id") Long id, @Param("username") String username);
+
+    @Query("select new com.rodrigopeleias.bookstoremanager.entity.ResourceVersion(count(b), sum(b.version), max(b.lastModifiedDate)) from Book b"
+            + " where b.user.username = :username")
+    ResourceVersion findCollectionVersionByUserUsername(@Param("username") String username);
+
+    @EntityGraph(Book.WITH_RELATIONS_GRAPH)
+    List<Book> findAllByIsbn13AndUserUsername(Long isbn13, String username);
+
+    @EntityGraph(Book.WITH_RELATIONS_GRAPH)
+    List<Book> findAllByIdInAndUserUsername(Collection<Long> ids, String username);
+
+    @EntityGraph(Book.WITH_RELATIONS_GRAPH)
+    List<Book> findAllByIdIn(Collection<Long> ids);
+
+    @EntityGraph(Book.WITH_RELATIONS_GRAPH)
+    List<Book> findAllByUserUsernameOrderByNameAscIdAsc(String username, Pageable pageable);
+
+    @EntityGraph(Book.WITH_RELATIONS_GRAPH)
+    @Query("select b from Book b where b.user.username = :username"
+            + " and (b.name > :name or (b.name = :name and b.id > :id)) order by b.name, b.id")
+    List<Book> findPageByUserAfter(@Param("username") String username,
+                                   @Param("name") String name,
+                                   @Param("id") Long id,
+                                   Pageable pageable);
+
+    @QueryHints({
+            @QueryHint(name = org.hibernate.annotations.QueryHints.FETCH_SIZE, value = "500"),
+            @QueryHint(name = org.hibernate.annotations.QueryHints.READ_ONLY, value = "true")
+    })
+    @Query("select b from Book b left join fetch b.author left join fetch b.publisher")
+    Stream<Book> streamAllWithAuthorAndPublisher();
+
+    Optional<Book> findByNameAndIsbnAndUserUsername(String name, String isbn, String username);
+
+    @Query("select b.id as id, b.isbn as isbn from Book b")
+    List<BookIsbn> findAllIsbns();
+
+    @Query("select new com.rodrigopeleias.bookstoremanager.books.repository.BookSearchEntry(b.id, b.user.id, b.name, a.name, p.name)"
+            + " from Book b join b.author a join b.publisher p")
+    List<BookSearchEntry> findAllSearchEntries();
+
+    @Query("select new com.rodrigopeleias.bookstoremanager.books.repository.BookSearchEntry(b.id, b.user.id, b.name, a.name, p.name)"
+            + " from Book b join b.author a join b.publisher p where b.id in :ids")
+    List<BookSearchEntry> findAllSearchEntriesByIdIn(@Param("ids") Collection<Long> ids);
+
+    @Query("select b.name as name, b.isbn as isbn from Book b where b.user.id = :userId")
+    List<BookKey> findAllKeysByUserId(@Param("userId") Long userId);
 }
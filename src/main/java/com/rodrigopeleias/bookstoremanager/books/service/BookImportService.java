@@ -0,0 +1,293 @@
+package com.rodrigopeleias.bookstoremanager.books.service;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.rodrigopeleias.bookstoremanager.author.entity.Author;
+import com.rodrigopeleias.bookstoremanager.author.repository.AuthorRepository;
+import com.rodrigopeleias.bookstoremanager.books.dto.BookImportJobDTO;
+import com.rodrigopeleias.bookstoremanager.books.dto.BookImportRowDTO;
+import com.rodrigopeleias.bookstoremanager.books.entity.Book;
+import com.rodrigopeleias.bookstoremanager.books.exception.BookImportJobNotFoundException;
+import com.rodrigopeleias.bookstoremanager.books.exception.InvalidImportRowException;
+import com.rodrigopeleias.bookstoremanager.books.importer.BookImportFormat;
+import com.rodrigopeleias.bookstoremanager.books.importer.BookImportJob;
+import com.rodrigopeleias.bookstoremanager.books.importer.BookImportReader;
+import com.rodrigopeleias.bookstoremanager.books.mapper.BookMapper;
+import com.rodrigopeleias.bookstoremanager.books.repository.BooksRepository;
+import com.rodrigopeleias.bookstoremanager.changes.entity.CatalogChange;
+import com.rodrigopeleias.bookstoremanager.changes.enums.CatalogResource;
+import com.rodrigopeleias.bookstoremanager.changes.enums.ChangeOperation;
+import com.rodrigopeleias.bookstoremanager.exception.ServiceOverloadedException;
+import com.rodrigopeleias.bookstoremanager.publishers.entity.Publisher;
+import com.rodrigopeleias.bookstoremanager.publishers.repository.PublisherRepository;
+import com.rodrigopeleias.bookstoremanager.users.dto.AuthenticatedUser;
+import com.rodrigopeleias.bookstoremanager.users.entity.User;
+import com.rodrigopeleias.bookstoremanager.users.service.UserService;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionTemplate;
+import org.springframework.web.multipart.MultipartFile;
+
+import javax.persistence.EntityManager;
+import javax.validation.ConstraintViolation;
+import javax.validation.Validator;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.stream.Collectors;
+
+/**
+ * Imports books from uploaded CSV or NDJSON files on a small bounded pool, so a large catalog never holds a request thread.
+ * Rows are streamed from a temporary copy of the upload and persisted in batches, each batch in its own transaction,
+ * with the persistence context cleared between batches to keep memory flat regardless of the file size.
+ */
+@Slf4j
+@Service
+public class BookImportService implements DisposableBean {
+
+    private final static BookMapper bookMapper = BookMapper.INSTANCE;
+
+    private final Map<String, BookImportJob> jobs = new ConcurrentHashMap<>();
+
+    private BooksRepository booksRepository;
+    private AuthorRepository authorRepository;
+    private PublisherRepository publisherRepository;
+    private UserService userService;
+    private EntityManager entityManager;
+    private TransactionTemplate transactionTemplate;
+    private ObjectMapper objectMapper;
+    private Validator validator;
+    private BookIsbnIndex bookIsbnIndex;
+    private BookSearchIndex bookSearchIndex;
+
+    private final ThreadPoolExecutor executor;
+    private final int batchSize;
+    private final int maxReportedErrors;
+    private final long jobRetentionMinutes;
+    private final long retryAfterSeconds;
+
+    @Autowired
+    public BookImportService(BooksRepository booksRepository,
+                             AuthorRepository authorRepository,
+                             PublisherRepository publisherRepository,
+                             UserService userService,
+                             EntityManager entityManager,
+                             TransactionTemplate transactionTemplate,
+                             ObjectMapper objectMapper,
+                             Validator validator,
+                             BookIsbnIndex bookIsbnIndex,
+                             BookSearchIndex bookSearchIndex,
+                             @Value("${books.import.pool-size:2}") int poolSize,
+                             @Value("${books.import.queue-capacity:10}") int queueCapacity,
+                             @Value("${books.import.batch-size:500}") int batchSize,
+                             @Value("${books.import.max-reported-errors:1000}") int maxReportedErrors,
+                             @Value("${books.import.job-retention-minutes:60}") long jobRetentionMinutes,
+                             @Value("${books.import.retry-after:30}") long retryAfterSeconds) {
+        this.booksRepository = booksRepository;
+        this.authorRepository = authorRepository;
+        this.publisherRepository = publisherRepository;
+        this.userService = userService;
+        this.entityManager = entityManager;
+        this.transactionTemplate = transactionTemplate;
+        this.objectMapper = objectMapper;
+        this.validator = validator;
+        this.bookIsbnIndex = bookIsbnIndex;
+        this.bookSearchIndex = bookSearchIndex;
+        this.batchSize = batchSize;
+        this.maxReportedErrors = maxReportedErrors;
+        this.jobRetentionMinutes = jobRetentionMinutes;
+        this.retryAfterSeconds = retryAfterSeconds;
+        this.executor = new ThreadPoolExecutor(
+                poolSize,
+                poolSize,
+                0L,
+                TimeUnit.MILLISECONDS,
+                new ArrayBlockingQueue<>(queueCapacity),
+                new BookImportThreadFactory(),
+                new ThreadPoolExecutor.AbortPolicy()
+        );
+    }
+
+    public BookImportJobDTO startImport(AuthenticatedUser authenticatedUser, MultipartFile file) throws IOException {
+        BookImportFormat format = BookImportFormat.fromFile(file.getOriginalFilename(), file.getContentType());
+        User foundAuthenticatedUser = userService.verifyAndGetUserIfExists(authenticatedUser.getUsername());
+        removeExpiredJobs();
+
+        Path uploadedFile = Files.createTempFile("book-import-", "." + format.name().toLowerCase());
+        file.transferTo(uploadedFile);
+
+        BookImportJob job = new BookImportJob(UUID.randomUUID().toString(), foundAuthenticatedUser.getUsername(), maxReportedErrors);
+        jobs.put(job.getId(), job);
+        try {
+            executor.execute(() -> runImport(job, foundAuthenticatedUser.getId(), uploadedFile, format));
+        } catch (RejectedExecutionException e) {
+            jobs.remove(job.getId());
+            Files.deleteIfExists(uploadedFile);
+            throw new ServiceOverloadedException("Too many book imports running, try again later", retryAfterSeconds);
+        }
+        return job.toDTO();
+    }
+
+    public BookImportJobDTO findJobByIdAndUser(AuthenticatedUser authenticatedUser, String jobId) {
+        BookImportJob job = jobs.get(jobId);
+        if (job == null || !job.getUsername().equals(authenticatedUser.getUsername())) {
+            throw new BookImportJobNotFoundException(jobId);
+        }
+        return job.toDTO();
+    }
+
+    void runImport(BookImportJob job, Long userId, Path uploadedFile, BookImportFormat format) {
+        job.start();
+        try (BookImportReader reader = format.open(Files.newBufferedReader(uploadedFile, StandardCharsets.UTF_8),
+                objectMapper.readerFor(BookImportRowDTO.class))) {
+            Map<String, Long> authorIdsByName = authorRepository.findAll().stream()
+                    .collect(Collectors.toMap(Author::getName, Author::getId));
+            Map<String, Long> publisherIdsByCode = publisherRepository.findAll().stream()
+                    .collect(Collectors.toMap(Publisher::getCode, Publisher::getId));
+            Set<String> registeredBooks = booksRepository.findAllKeysByUserId(userId).stream()
+                    .map(bookKey -> registeredBookKey(bookKey.getName(), bookKey.getIsbn()))
+                    .collect(Collectors.toCollection(HashSet::new));
+
+            List<BookImportRowDTO> batch = new ArrayList<>(batchSize);
+            while (true) {
+                BookImportRowDTO row;
+                try {
+                    row = reader.readRow();
+                } catch (InvalidImportRowException e) {
+                    job.rowFailed(reader.getRowNumber(), List.of(e.getMessage()));
+                    continue;
+                }
+                if (row == null) {
+                    break;
+                }
+                List<String> errors = validate(row, authorIdsByName, publisherIdsByCode, registeredBooks);
+                if (!errors.isEmpty()) {
+                    job.rowFailed(reader.getRowNumber(), errors);
+                    continue;
+                }
+                batch.add(row);
+                if (batch.size() == batchSize) {
+                    saveBatch(batch, userId, authorIdsByName, publisherIdsByCode, job);
+                }
+            }
+            saveBatch(batch, userId, authorIdsByName, publisherIdsByCode, job);
+            job.complete();
+        } catch (InvalidImportRowException e) {
+            job.fail(e.getMessage());
+        } catch (Exception e) {
+            log.error("Book import {} failed", job.getId(), e);
+            job.fail(e.getMessage());
+        } finally {
+            deleteUploadedFile(uploadedFile);
+        }
+    }
+
+    private List<String> validate(BookImportRowDTO row,
+                                  Map<String, Long> authorIdsByName,
+                                  Map<String, Long> publisherIdsByCode,
+                                  Set<String> registeredBooks) {
+        List<String> errors = new ArrayList<>();
+        for (ConstraintViolation<BookImportRowDTO> violation : validator.validate(row)) {
+            errors.add("Field " + violation.getPropertyPath().toString().toUpperCase() + " " + violation.getMessage());
+        }
+        if (!errors.isEmpty()) {
+            return errors;
+        }
+        if (!authorIdsByName.containsKey(row.getAuthorName())) {
+            errors.add(String.format("Author with name %s not exists", row.getAuthorName()));
+        }
+        if (!publisherIdsByCode.containsKey(row.getPublisherCode())) {
+            errors.add(String.format("Publisher with code %s not exists", row.getPublisherCode()));
+        }
+        if (errors.isEmpty() && !registeredBooks.add(registeredBookKey(row.getName(), row.getIsbn()))) {
+            errors.add(String.format("Book with name %s and ISBN %s already registered", row.getName(), row.getIsbn()));
+        }
+        return errors;
+    }
+
+    private void saveBatch(List<BookImportRowDTO> batch,
+                           Long userId,
+                           Map<String, Long> authorIdsByName,
+                           Map<String, Long> publisherIdsByCode,
+                           BookImportJob job) {
+        if (batch.isEmpty()) {
+            return;
+        }
+        List<Book> savedBooks = new ArrayList<>(batch.size());
+        transactionTemplate.executeWithoutResult(status -> {
+            User user = entityManager.getReference(User.class, userId);
+            for (BookImportRowDTO row : batch) {
+                Book bookToSave = bookMapper.toModel(row);
+                bookToSave.setUser(user);
+                bookToSave.setAuthor(entityManager.getReference(Author.class, authorIdsByName.get(row.getAuthorName())));
+                bookToSave.setPublisher(entityManager.getReference(Publisher.class, publisherIdsByCode.get(row.getPublisherCode())));
+                entityManager.persist(bookToSave);
+                savedBooks.add(bookToSave);
+            }
+            // new books only, so their change rows are inserted without looking them up, stamped after the books
+            // are written so the stamp only precedes the final flush and the commit
+            LocalDateTime changedDate = LocalDateTime.now();
+            savedBooks.forEach(book -> entityManager.persist(
+                    CatalogChange.of(CatalogResource.BOOK, book.getId()).changed(ChangeOperation.CREATED, changedDate)));
+            entityManager.flush();
+            entityManager.clear();
+        });
+        savedBooks.forEach(book -> bookIsbnIndex.add(book.getId(), book.getIsbn()));
+        // author and publisher are uninitialized references here, so the search entries are read back in one query
+        bookSearchIndex.putAll(booksRepository.findAllSearchEntriesByIdIn(
+                savedBooks.stream().map(Book::getId).collect(Collectors.toList())));
+        job.rowsImported(batch.size());
+        batch.clear();
+    }
+
+    private void removeExpiredJobs() {
+        LocalDateTime expiration = LocalDateTime.now().minusMinutes(jobRetentionMinutes);
+        jobs.values().removeIf(job -> job.isFinishedBefore(expiration));
+    }
+
+    private void deleteUploadedFile(Path uploadedFile) {
+        try {
+            Files.deleteIfExists(uploadedFile);
+        } catch (IOException e) {
+            log.warn("Could not delete uploaded import file {}", uploadedFile, e);
+        }
+    }
+
+    private static String registeredBookKey(String name, String isbn) {
+        return name + '\u0000' + isbn;
+    }
+
+    @Override
+    public void destroy() {
+        executor.shutdownNow();
+    }
+
+    private static class BookImportThreadFactory implements ThreadFactory {
+
+        private final AtomicInteger threadNumber = new AtomicInteger();
+
+        @Override
+        public Thread newThread(Runnable runnable) {
+            Thread thread = new Thread(runnable, "book-import-" + threadNumber.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        }
+    }
+}
@@ -0,0 +1,129 @@
+package com.rodrigopeleias.bookstoremanager.books.service;
+
+import com.rodrigopeleias.bookstoremanager.books.repository.BookIsbn;
+import com.rodrigopeleias.bookstoremanager.books.repository.BooksRepository;
+import com.rodrigopeleias.bookstoremanager.books.utils.IsbnUtils;
+import com.rodrigopeleias.bookstoremanager.utils.LongObjectHashMap;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.util.Arrays;
+import java.util.List;
+import java.util.Optional;
+import java.util.OptionalLong;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+/**
+ * Ids of every book keyed by its ISBN-13 as a primitive long, for scanned-barcode lookups without a database query.
+ * The same ISBN can be registered by several users, so each key holds all the matching book ids.
+ * Only writes made on this node are applied in between rebuilds, so a missing ISBN must be confirmed in the database.
+ */
+@Slf4j
+@Component
+public class BookIsbnIndex {
+
+    private static final long[] NO_BOOKS = new long[0];
+
+    private final BooksRepository booksRepository;
+    private final ReadWriteLock lock = new ReentrantReadWriteLock();
+
+    // null until the first rebuild completes, meanwhile callers fall back to the database
+    private LongObjectHashMap<long[]> bookIdsByIsbn;
+
+    @Autowired
+    public BookIsbnIndex(BooksRepository booksRepository) {
+        this.booksRepository = booksRepository;
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    @Scheduled(initialDelayString = "${books.isbn-index.rebuild-interval-millis:300000}",
+            fixedDelayString = "${books.isbn-index.rebuild-interval-millis:300000}")
+    public synchronized void rebuild() {
+        List<BookIsbn> books = booksRepository.findAllIsbns();
+        LongObjectHashMap<long[]> rebuilt = new LongObjectHashMap<>(books.size());
+        books.forEach(book -> add(rebuilt, book.getId(), book.getIsbn()));
+        update(() -> bookIdsByIsbn = rebuilt);
+        log.info("Rebuilt book ISBN index with {} books", books.size());
+    }
+
+    public Optional<long[]> findBookIds(long isbn13) {
+        lock.readLock().lock();
+        try {
+            if (bookIdsByIsbn == null) {
+                return Optional.empty();
+            }
+            long[] bookIds = bookIdsByIsbn.get(isbn13);
+            return Optional.of(bookIds == null ? NO_BOOKS : bookIds);
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    // synchronized with rebuild, so a write is never applied to a map that is about to be replaced
+    public synchronized void add(Long bookId, String isbn) {
+        if (bookIdsByIsbn != null) {
+            update(() -> add(bookIdsByIsbn, bookId, isbn));
+        }
+    }
+
+    public synchronized void remove(Long bookId, String isbn) {
+        if (bookIdsByIsbn != null) {
+            update(() -> remove(bookIdsByIsbn, bookId, isbn));
+        }
+    }
+
+    public synchronized void update(Long bookId, String previousIsbn, String isbn) {
+        if (bookIdsByIsbn != null) {
+            update(() -> {
+                remove(bookIdsByIsbn, bookId, previousIsbn);
+                add(bookIdsByIsbn, bookId, isbn);
+            });
+        }
+    }
+
+    private void update(Runnable update) {
+        lock.writeLock().lock();
+        try {
+            update.run();
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    private static void add(LongObjectHashMap<long[]> index, long bookId, String isbn) {
+        OptionalLong isbn13 = IsbnUtils.toIsbn13(isbn);
+        if (isbn13.isEmpty()) {
+            return;
+        }
+        long[] bookIds = index.get(isbn13.getAsLong());
+        if (bookIds == null) {
+            index.put(isbn13.getAsLong(), new long[]{bookId});
+        } else if (Arrays.stream(bookIds).noneMatch(id -> id == bookId)) {
+            long[] grown = Arrays.copyOf(bookIds, bookIds.length + 1);
+            grown[bookIds.length] = bookId;
+            index.put(isbn13.getAsLong(), grown);
+        }
+    }
+
+    private static void remove(LongObjectHashMap<long[]> index, long bookId, String isbn) {
+        OptionalLong isbn13 = IsbnUtils.toIsbn13(isbn);
+        if (isbn13.isEmpty()) {
+            return;
+        }
+        long[] bookIds = index.get(isbn13.getAsLong());
+        if (bookIds == null) {
+            return;
+        }
+        long[] remaining = Arrays.stream(bookIds).filter(id -> id != bookId).toArray();
+        if (remaining.length == 0) {
+            index.remove(isbn13.getAsLong());
+        } else {
+            index.put(isbn13.getAsLong(), remaining);
+        }
+    }
+}
@@ -0,0 +1,257 @@
+package com.rodrigopeleias.bookstoremanager.books.service;
+
+import com.rodrigopeleias.bookstoremanager.books.repository.BookSearchEntry;
+import com.rodrigopeleias.bookstoremanager.books.repository.BooksRepository;
+import com.rodrigopeleias.bookstoremanager.exception.ServiceOverloadedException;
+import com.rodrigopeleias.bookstoremanager.utils.LongObjectHashMap;
+import com.rodrigopeleias.bookstoremanager.utils.SearchTerms;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.PriorityQueue;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+import java.util.stream.Collectors;
+
+/**
+ * In-process inverted index over book name, author name and publisher name, partitioned by the user owning the books
+ * since every search is scoped to a single user's catalog.
+ * Books are ranked first by how many distinct query terms they match, then by a TF-IDF style score where name matches
+ * weigh more than author matches, which weigh more than publisher matches, and shorter fields weigh more than long ones.
+ * Only writes made on this node are applied in between rebuilds.
+ */
+@Slf4j
+@Component
+public class BookSearchIndex {
+
+    private static final float NAME_BOOST = 3.0f;
+    private static final float AUTHOR_BOOST = 2.0f;
+    private static final float PUBLISHER_BOOST = 1.0f;
+
+    private static final Comparator<ScoredBook> RANKING = Comparator
+            .comparingInt((ScoredBook scoredBook) -> scoredBook.matchedTerms).reversed()
+            .thenComparing(Comparator.comparingDouble((ScoredBook scoredBook) -> scoredBook.score).reversed())
+            .thenComparingLong(scoredBook -> scoredBook.book.id);
+
+    private final BooksRepository booksRepository;
+    private final long retryAfterSeconds;
+    private final ReadWriteLock lock = new ReentrantReadWriteLock();
+
+    // null until the first rebuild completes, meanwhile searches are rejected
+    private Catalog catalog;
+
+    @Autowired
+    public BookSearchIndex(BooksRepository booksRepository,
+                           @Value("${books.search.retry-after:5}") long retryAfterSeconds) {
+        this.booksRepository = booksRepository;
+        this.retryAfterSeconds = retryAfterSeconds;
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    @Scheduled(initialDelayString = "${books.search-index.rebuild-interval-millis:300000}",
+            fixedDelayString = "${books.search-index.rebuild-interval-millis:300000}")
+    public synchronized void rebuild() {
+        List<BookSearchEntry> entries = booksRepository.findAllSearchEntries();
+        Catalog rebuilt = new Catalog(entries.size());
+        entries.forEach(rebuilt::add);
+        update(() -> catalog = rebuilt);
+        log.info("Rebuilt book search index with {} books", entries.size());
+    }
+
+    public List<Long> search(long userId, String query, int limit) {
+        List<String> queryTerms = new ArrayList<>(new LinkedHashSet<>(SearchTerms.tokenize(query)));
+        lock.readLock().lock();
+        try {
+            if (catalog == null) {
+                throw new ServiceOverloadedException("Book search index is still being built, try again later", retryAfterSeconds);
+            }
+            UserPostings userPostings = catalog.postingsByUser.get(userId);
+            if (userPostings == null || queryTerms.isEmpty() || limit < 1) {
+                return List.of();
+            }
+            LongObjectHashMap<ScoredBook> scoredBooks = new LongObjectHashMap<>();
+            for (String term : queryTerms) {
+                LongObjectHashMap<IndexedBook> postings = userPostings.booksByTerm.get(term);
+                if (postings == null) {
+                    continue;
+                }
+                double idf = Math.log(1 + (userPostings.size - postings.size() + 0.5) / (postings.size() + 0.5));
+                postings.forEachValue(book -> {
+                    ScoredBook scoredBook = scoredBooks.get(book.id);
+                    if (scoredBook == null) {
+                        scoredBook = new ScoredBook(book);
+                        scoredBooks.put(book.id, scoredBook);
+                    }
+                    scoredBook.matchedTerms++;
+                    scoredBook.score += idf * book.weight(term);
+                });
+            }
+            return topRanked(scoredBooks, limit);
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    public void put(BookSearchEntry entry) {
+        putAll(List.of(entry));
+    }
+
+    // synchronized with rebuild, so a write is never applied to a catalog that is about to be replaced
+    public synchronized void putAll(Collection<BookSearchEntry> entries) {
+        if (catalog != null) {
+            update(() -> entries.forEach(entry -> {
+                catalog.remove(entry.getId());
+                catalog.add(entry);
+            }));
+        }
+    }
+
+    public synchronized void remove(Long bookId) {
+        if (catalog != null) {
+            update(() -> catalog.remove(bookId));
+        }
+    }
+
+    private void update(Runnable update) {
+        lock.writeLock().lock();
+        try {
+            update.run();
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    private static List<Long> topRanked(LongObjectHashMap<ScoredBook> scoredBooks, int limit) {
+        // keeps the best matches in a heap whose head is the worst of them, instead of sorting every match
+        PriorityQueue<ScoredBook> best = new PriorityQueue<>(limit + 1, RANKING.reversed());
+        scoredBooks.forEachValue(scoredBook -> {
+            if (best.size() < limit) {
+                best.add(scoredBook);
+            } else if (RANKING.compare(scoredBook, best.peek()) < 0) {
+                best.poll();
+                best.add(scoredBook);
+            }
+        });
+        List<ScoredBook> ranked = new ArrayList<>(best);
+        ranked.sort(RANKING);
+        return ranked.stream()
+                .map(scoredBook -> scoredBook.book.id)
+                .collect(Collectors.toList());
+    }
+
+    private static void addField(Map<String, Float> termWeights, String field, float boost) {
+        List<String> fieldTerms = SearchTerms.tokenize(field);
+        if (fieldTerms.isEmpty()) {
+            return;
+        }
+        float weight = (float) (boost / Math.sqrt(fieldTerms.size()));
+        fieldTerms.forEach(term -> termWeights.merge(term, weight, Float::sum));
+    }
+
+    private static class Catalog {
+
+        private final LongObjectHashMap<IndexedBook> booksById;
+        private final LongObjectHashMap<UserPostings> postingsByUser = new LongObjectHashMap<>();
+
+        Catalog(int expectedBooks) {
+            this.booksById = new LongObjectHashMap<>(expectedBooks);
+        }
+
+        void add(BookSearchEntry entry) {
+            Map<String, Float> termWeights = new LinkedHashMap<>();
+            addField(termWeights, entry.getName(), NAME_BOOST);
+            addField(termWeights, entry.getAuthorName(), AUTHOR_BOOST);
+            addField(termWeights, entry.getPublisherName(), PUBLISHER_BOOST);
+
+            UserPostings userPostings = postingsByUser.get(entry.getUserId());
+            if (userPostings == null) {
+                userPostings = new UserPostings();
+                postingsByUser.put(entry.getUserId(), userPostings);
+            }
+            IndexedBook book = new IndexedBook(entry.getId(), entry.getUserId(), termWeights.size());
+            int termIndex = 0;
+            for (Map.Entry<String, Float> termWeight : termWeights.entrySet()) {
+                LongObjectHashMap<IndexedBook> postings = userPostings.booksByTerm
+                        .computeIfAbsent(termWeight.getKey(), term -> new LongObjectHashMap<>(4));
+                postings.put(book.id, book);
+                book.terms[termIndex] = termWeight.getKey();
+                book.weights[termIndex] = termWeight.getValue();
+                termIndex++;
+            }
+            userPostings.size++;
+            booksById.put(book.id, book);
+        }
+
+        void remove(long bookId) {
+            IndexedBook book = booksById.remove(bookId);
+            if (book == null) {
+                return;
+            }
+            UserPostings userPostings = postingsByUser.get(book.userId);
+            for (String term : book.terms) {
+                LongObjectHashMap<IndexedBook> postings = userPostings.booksByTerm.get(term);
+                postings.remove(bookId);
+                if (postings.size() == 0) {
+                    userPostings.booksByTerm.remove(term);
+                }
+            }
+            if (--userPostings.size == 0) {
+                postingsByUser.remove(book.userId);
+            }
+        }
+    }
+
+    private static class UserPostings {
+
+        private final Map<String, LongObjectHashMap<IndexedBook>> booksByTerm = new HashMap<>();
+        private int size;
+    }
+
+    private static class IndexedBook {
+
+        private final long id;
+        private final long userId;
+        private final String[] terms;
+        private final float[] weights;
+
+        IndexedBook(long id, long userId, int termCount) {
+            this.id = id;
+            this.userId = userId;
+            this.terms = new String[termCount];
+            this.weights = new float[termCount];
+        }
+
+        float weight(String term) {
+            for (int i = 0; i < terms.length; i++) {
+                if (terms[i].equals(term)) {
+                    return weights[i];
+                }
+            }
+            return 0;
+        }
+    }
+
+    private static class ScoredBook {
+
+        private final IndexedBook book;
+        private int matchedTerms;
+        private double score;
+
+        ScoredBook(IndexedBook book) {
+            this.book = book;
+        }
+    }
+}
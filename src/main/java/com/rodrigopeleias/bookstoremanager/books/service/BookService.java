@@ -0,0 +1,221 @@
+package com.rodrigopeleias.bookstoremanager.books.service;
+
+import com.rodrigopeleias.bookstoremanager.author.entity.Author;
+import com.rodrigopeleias.bookstoremanager.author.service.AuthorService;
+import com.rodrigopeleias.bookstoremanager.books.dto.BookRequestDTO;
+import com.rodrigopeleias.bookstoremanager.books.dto.BookResponseDTO;
+import com.rodrigopeleias.bookstoremanager.books.entity.Book;
+import com.rodrigopeleias.bookstoremanager.books.exception.BookAlreadyExistsException;
+import com.rodrigopeleias.bookstoremanager.books.exception.BookNotFoundException;
+import com.rodrigopeleias.bookstoremanager.books.exception.InvalidIsbnException;
+import com.rodrigopeleias.bookstoremanager.books.mapper.BookMapper;
+import com.rodrigopeleias.bookstoremanager.books.repository.BookSearchEntry;
+import com.rodrigopeleias.bookstoremanager.books.repository.BooksRepository;
+import com.rodrigopeleias.bookstoremanager.books.utils.IsbnUtils;
+import com.rodrigopeleias.bookstoremanager.changes.enums.CatalogResource;
+import com.rodrigopeleias.bookstoremanager.changes.service.CatalogChangeService;
+import com.rodrigopeleias.bookstoremanager.entity.AfterCommit;
+import com.rodrigopeleias.bookstoremanager.entity.ResourceVersion;
+import com.rodrigopeleias.bookstoremanager.pagination.Cursor;
+import com.rodrigopeleias.bookstoremanager.pagination.CursorPagination;
+import com.rodrigopeleias.bookstoremanager.pagination.dto.CursorPageDTO;
+import com.rodrigopeleias.bookstoremanager.pagination.dto.MultiGetDTO;
+import com.rodrigopeleias.bookstoremanager.publishers.entity.Publisher;
+import com.rodrigopeleias.bookstoremanager.publishers.service.PublisherService;
+import com.rodrigopeleias.bookstoremanager.users.dto.AuthenticatedUser;
+import com.rodrigopeleias.bookstoremanager.users.entity.User;
+import com.rodrigopeleias.bookstoremanager.users.service.UserService;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.OptionalLong;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+import java.util.stream.LongStream;
+
+@Service
+public class BookService {
+
+    private final static BookMapper bookMapper = BookMapper.INSTANCE;
+
+    private BooksRepository booksRepository;
+    private UserService userService;
+    private AuthorService authorService;
+    private PublisherService publisherService;
+    private CursorPagination cursorPagination;
+    private BookIsbnIndex bookIsbnIndex;
+    private BookSearchIndex bookSearchIndex;
+    private CatalogChangeService catalogChangeService;
+
+    @Autowired
+    public BookService(BooksRepository booksRepository,
+                       UserService userService,
+                       AuthorService authorService,
+                       PublisherService publisherService,
+                       CursorPagination cursorPagination,
+                       BookIsbnIndex bookIsbnIndex,
+                       BookSearchIndex bookSearchIndex,
+                       CatalogChangeService catalogChangeService) {
+        this.booksRepository = booksRepository;
+        this.userService = userService;
+        this.authorService = authorService;
+        this.publisherService = publisherService;
+        this.cursorPagination = cursorPagination;
+        this.bookIsbnIndex = bookIsbnIndex;
+        this.bookSearchIndex = bookSearchIndex;
+        this.catalogChangeService = catalogChangeService;
+    }
+
+    @Transactional
+    public BookResponseDTO create(AuthenticatedUser authenticatedUser, BookRequestDTO bookRequestDTO) {
+        User foundAuthenticatedUser = userService.verifyAndGetUserIfExists(authenticatedUser.getUsername());
+        verifyIfBookIsAlreadyRegistered(foundAuthenticatedUser.getUsername(), bookRequestDTO);
+
+        Book bookToSave = bookMapper.toModel(bookRequestDTO);
+        bookToSave.setUser(foundAuthenticatedUser);
+        setAuthorAndPublisher(bookToSave, bookRequestDTO);
+        Book savedBook = booksRepository.save(bookToSave);
+        catalogChangeService.recordCreated(CatalogResource.BOOK, savedBook.getId());
+        // the entry reads author and publisher names, so it is built while the session is still open
+        BookSearchEntry searchEntry = BookSearchEntry.of(savedBook);
+        AfterCommit.run(() -> {
+            bookIsbnIndex.add(savedBook.getId(), savedBook.getIsbn());
+            bookSearchIndex.put(searchEntry);
+        });
+        return bookMapper.toDTO(savedBook);
+    }
+
+    public BookResponseDTO findByIdAndUser(AuthenticatedUser authenticatedUser, Long bookId) {
+        Book foundBook = verifyAndGetIfExists(authenticatedUser.getUsername(), bookId);
+        return bookMapper.toDTO(foundBook);
+    }
+
+    public ResourceVersion findVersionByIdAndUser(AuthenticatedUser authenticatedUser, Long bookId) {
+        return booksRepository.findVersionByIdAndUserUsername(bookId, authenticatedUser.getUsername())
+                .orElseThrow(() -> new BookNotFoundException(bookId));
+    }
+
+    public ResourceVersion findAllVersionByUser(AuthenticatedUser authenticatedUser) {
+        return booksRepository.findCollectionVersionByUserUsername(authenticatedUser.getUsername());
+    }
+
+    public MultiGetDTO<BookResponseDTO> findAllByIdsAndUser(AuthenticatedUser authenticatedUser, List<Long> bookIds) {
+        List<Long> distinctIds = cursorPagination.distinctIds(bookIds);
+        List<Book> foundBooks = distinctIds.isEmpty()
+                ? List.of()
+                : booksRepository.findAllByIdInAndUserUsername(distinctIds, authenticatedUser.getUsername());
+        return cursorPagination.toMultiGet(distinctIds, foundBooks, bookMapper::toDTO, Book::getId);
+    }
+
+    public List<BookResponseDTO> findAllByUser(AuthenticatedUser authenticatedUser) {
+        return booksRepository.findAllByUserUsername(authenticatedUser.getUsername())
+                .stream()
+                .map(bookMapper::toDTO)
+                .collect(Collectors.toList());
+    }
+
+    public List<BookResponseDTO> findAllByIsbnAndUser(AuthenticatedUser authenticatedUser, String isbn) {
+        String username = authenticatedUser.getUsername();
+        OptionalLong isbn13 = IsbnUtils.toIsbn13(isbn);
+        if (isbn13.isEmpty()) {
+            throw new InvalidIsbnException(isbn);
+        }
+        List<Book> foundBooks = bookIsbnIndex.findBookIds(isbn13.getAsLong())
+                .filter(bookIds -> bookIds.length > 0)
+                .map(bookIds -> booksRepository.findAllByIdInAndUserUsername(LongStream.of(bookIds).boxed().collect(Collectors.toList()), username))
+                .orElseGet(List::of);
+        if (foundBooks.isEmpty()) {
+            // the index only knows the writes of this node since its last rebuild, so a miss is checked in the database
+            foundBooks = booksRepository.findAllByIsbn13AndUserUsername(isbn13.getAsLong(), username);
+        }
+        if (foundBooks.isEmpty()) {
+            throw new BookNotFoundException(isbn);
+        }
+        return foundBooks.stream()
+                .map(bookMapper::toDTO)
+                .collect(Collectors.toList());
+    }
+
+    public List<BookResponseDTO> search(AuthenticatedUser authenticatedUser, String query, Integer size) {
+        User foundAuthenticatedUser = userService.verifyAndGetUserIfExists(authenticatedUser.getUsername());
+        List<Long> rankedBookIds = bookSearchIndex.search(foundAuthenticatedUser.getId(), query, cursorPagination.pageSize(size));
+        if (rankedBookIds.isEmpty()) {
+            return List.of();
+        }
+        Map<Long, Book> foundBooksById = booksRepository.findAllByIdInAndUserUsername(rankedBookIds, authenticatedUser.getUsername())
+                .stream()
+                .collect(Collectors.toMap(Book::getId, Function.identity()));
+        return rankedBookIds.stream()
+                .map(foundBooksById::get)
+                .filter(Objects::nonNull)
+                .map(bookMapper::toDTO)
+                .collect(Collectors.toList());
+    }
+
+    public CursorPageDTO<BookResponseDTO> findPageByUser(AuthenticatedUser authenticatedUser, String cursor, Integer size) {
+        String username = authenticatedUser.getUsername();
+        PageRequest pageRequest = cursorPagination.pageRequest(size);
+        List<Book> books = cursorPagination.decode(cursor)
+                .map(after -> booksRepository.findPageByUserAfter(username, after.getKey(), after.getId(), pageRequest))
+                .orElseGet(() -> booksRepository.findAllByUserUsernameOrderByNameAscIdAsc(username, pageRequest));
+        return cursorPagination.toPage(books, pageRequest, bookMapper::toDTO,
+                book -> Cursor.of(book.getName(), book.getId()));
+    }
+
+    @Transactional
+    public BookResponseDTO updateByIdAndUser(AuthenticatedUser authenticatedUser, Long bookId, BookRequestDTO bookRequestDTO) {
+        Book foundBook = verifyAndGetIfExists(authenticatedUser.getUsername(), bookId);
+        // the save below merges into foundBook, which is managed inside this transaction
+        String previousIsbn = foundBook.getIsbn();
+
+        bookRequestDTO.setId(foundBook.getId());
+        Book bookToUpdate = bookMapper.toModel(bookRequestDTO);
+        bookToUpdate.setUser(foundBook.getUser());
+        bookToUpdate.setCreatedDate(foundBook.getCreatedDate());
+        bookToUpdate.setVersion(foundBook.getVersion());
+        setAuthorAndPublisher(bookToUpdate, bookRequestDTO);
+        Book updatedBook = booksRepository.save(bookToUpdate);
+        catalogChangeService.recordUpdated(CatalogResource.BOOK, updatedBook.getId());
+        BookSearchEntry searchEntry = BookSearchEntry.of(updatedBook);
+        AfterCommit.run(() -> {
+            bookIsbnIndex.update(updatedBook.getId(), previousIsbn, updatedBook.getIsbn());
+            bookSearchIndex.put(searchEntry);
+        });
+        return bookMapper.toDTO(updatedBook);
+    }
+
+    @Transactional
+    public void deleteByIdAndUser(AuthenticatedUser authenticatedUser, Long bookId) {
+        Book bookToDelete = verifyAndGetIfExists(authenticatedUser.getUsername(), bookId);
+        booksRepository.deleteById(bookId);
+        catalogChangeService.recordDeleted(CatalogResource.BOOK, bookId);
+        AfterCommit.run(() -> {
+            bookIsbnIndex.remove(bookId, bookToDelete.getIsbn());
+            bookSearchIndex.remove(bookId);
+        });
+    }
+
+    private void setAuthorAndPublisher(Book book, BookRequestDTO bookRequestDTO) {
+        Author foundAuthor = authorService.verifyAndGetIfExists(bookRequestDTO.getAuthorId());
+        Publisher foundPublisher = publisherService.verifyAndGetIfExists(bookRequestDTO.getPublisherId());
+        book.setAuthor(foundAuthor);
+        book.setPublisher(foundPublisher);
+    }
+
+    private Book verifyAndGetIfExists(String username, Long bookId) {
+        return booksRepository.findByIdAndUserUsername(bookId, username)
+                .orElseThrow(() -> new BookNotFoundException(bookId));
+    }
+
+    private void verifyIfBookIsAlreadyRegistered(String username, BookRequestDTO bookRequestDTO) {
+        booksRepository.findByNameAndIsbnAndUserUsername(bookRequestDTO.getName(), bookRequestDTO.getIsbn(), username)
+                .ifPresent(duplicatedBook -> {
+                    throw new BookAlreadyExistsException(bookRequestDTO.getName(), bookRequestDTO.getIsbn(), username);
+                });
+    }
+}
@@ -0,0 +1,71 @@
+package com.rodrigopeleias.bookstoremanager.books.utils;
+
+import java.util.OptionalLong;
+
+/**
+ * Converts ISBNs to their ISBN-13 numeric value, so they can be compared and indexed as primitive longs
+ * whatever hyphens or spaces they were written with. ISBN-10s are converted to their 978-prefixed ISBN-13.
+ */
+public class IsbnUtils {
+
+    private IsbnUtils() {
+    }
+
+    public static OptionalLong toIsbn13(String isbn) {
+        if (isbn == null) {
+            return OptionalLong.empty();
+        }
+        StringBuilder digits = new StringBuilder(13);
+        for (int i = 0; i < isbn.length(); i++) {
+            char character = isbn.charAt(i);
+            if (character == '-' || character == ' ') {
+                continue;
+            }
+            if (!Character.isDigit(character) && !(character == 'X' && digits.length() == 9)) {
+                return OptionalLong.empty();
+            }
+            digits.append(character);
+        }
+        if (digits.length() == 13) {
+            return isbn13(digits);
+        }
+        if (digits.length() == 10) {
+            return isbn10(digits);
+        }
+        return OptionalLong.empty();
+    }
+
+    private static OptionalLong isbn13(CharSequence digits) {
+        long value = 0;
+        int checksum = 0;
+        for (int i = 0; i < 13; i++) {
+            int digit = digits.charAt(i) - '0';
+            if (digit < 0 || digit > 9) {
+                return OptionalLong.empty();
+            }
+            checksum += i % 2 == 0 ? digit : digit * 3;
+            value = value * 10 + digit;
+        }
+        return checksum % 10 == 0 ? OptionalLong.of(value) : OptionalLong.empty();
+    }
+
+    private static OptionalLong isbn10(CharSequence digits) {
+        int checksum = 0;
+        for (int i = 0; i < 10; i++) {
+            char character = digits.charAt(i);
+            int digit = character == 'X' ? 10 : character - '0';
+            checksum += digit * (10 - i);
+        }
+        if (checksum % 11 != 0) {
+            return OptionalLong.empty();
+        }
+        long value = 978;
+        int isbn13Checksum = 9 + 7 * 3 + 8;
+        for (int i = 0; i < 9; i++) {
+            int digit = digits.charAt(i) - '0';
+            isbn13Checksum += (i + 3) % 2 == 0 ? digit : digit * 3;
+            value = value * 10 + digit;
+        }
+        return OptionalLong.of(value * 10 + (10 - isbn13Checksum % 10) % 10);
+    }
+}
@@ -0,0 +1,27 @@
+package com.rodrigopeleias.bookstoremanager.changes.controller;
+
+import com.rodrigopeleias.bookstoremanager.changes.dto.ChangeFeedDTO;
+import com.rodrigopeleias.bookstoremanager.changes.service.CatalogChangeService;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RestController;
+
+@RestController
+@RequestMapping("/api/v1/changes")
+public class CatalogChangeController implements CatalogChangeControllerDocs {
+
+    private CatalogChangeService catalogChangeService;
+
+    @Autowired
+    public CatalogChangeController(CatalogChangeService catalogChangeService) {
+        this.catalogChangeService = catalogChangeService;
+    }
+
+    @GetMapping
+    public ChangeFeedDTO findChanges(@RequestParam(required = false) String since,
+                                     @RequestParam(required = false) Integer size) {
+        return catalogChangeService.findChanges(since, size);
+    }
+}
@@ -0,0 +1,18 @@
+package com.rodrigopeleias.bookstoremanager.changes.controller;
+
+import com.rodrigopeleias.bookstoremanager.changes.dto.ChangeFeedDTO;
+import io.swagger.annotations.Api;
+import io.swagger.annotations.ApiOperation;
+import io.swagger.annotations.ApiResponse;
+import io.swagger.annotations.ApiResponses;
+
+@Api("Catalog change feed, for downstream copies that sync incrementally")
+public interface CatalogChangeControllerDocs {
+
+    @ApiOperation(value = "List authors, publishers and books created, updated or deleted since the informed cursor, oldest change first")
+    @ApiResponses(value = {
+            @ApiResponse(code = 200, message = "Return a page of changes and the cursor the next sync pass starts from"),
+            @ApiResponse(code = 400, message = "Informed cursor is not valid")
+    })
+    ChangeFeedDTO findChanges(String since, Integer size);
+}
@@ -0,0 +1,28 @@
+package com.rodrigopeleias.bookstoremanager.changes.dto;
+
+import com.rodrigopeleias.bookstoremanager.changes.enums.CatalogResource;
+import com.rodrigopeleias.bookstoremanager.changes.enums.ChangeOperation;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDateTime;
+
+@Data
+@Builder
+@AllArgsConstructor
+@NoArgsConstructor
+public class CatalogChangeDTO {
+
+    private CatalogResource resourceType;
+
+    private Long resourceId;
+
+    private ChangeOperation operation;
+
+    private LocalDateTime changedDate;
+
+    // current state of the author, publisher or book, absent for deletions
+    private Object resource;
+}
@@ -0,0 +1,24 @@
+package com.rodrigopeleias.bookstoremanager.changes.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+@Data
+@Builder
+@AllArgsConstructor
+@NoArgsConstructor
+public class ChangeFeedDTO {
+
+    private List<CatalogChangeDTO> content;
+
+    private int size;
+
+    // where the next sync pass starts, kept even when no change was returned
+    private String cursor;
+
+    private boolean hasMore;
+}
@@ -0,0 +1,52 @@
+package com.rodrigopeleias.bookstoremanager.changes.entity;
+
+import com.rodrigopeleias.bookstoremanager.changes.enums.CatalogResource;
+import com.rodrigopeleias.bookstoremanager.changes.enums.ChangeOperation;
+import lombok.Data;
+
+import javax.persistence.*;
+import java.time.LocalDateTime;
+
+/**
+ * Latest change of one catalog resource. Every write moves the row forward to its new change date, and a deleted
+ * resource keeps its row as a tombstone, so the table holds one row per resource ever written and the change feed
+ * only has to seek (changed_date, id) past a client cursor.
+ */
+@Data
+@Entity
+@Table(indexes = @Index(name = "idx_catalog_change_date_id", columnList = "changed_date, id"),
+        uniqueConstraints = @UniqueConstraint(name = "uk_catalog_change_resource", columnNames = {"resource_type", "resource_id"}))
+public class CatalogChange {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "catalog_change_sequence")
+    @SequenceGenerator(name = "catalog_change_sequence", sequenceName = "catalog_change_sequence", allocationSize = 50)
+    private Long id;
+
+    @Enumerated(EnumType.STRING)
+    @Column(name = "resource_type", nullable = false, length = 20)
+    private CatalogResource resourceType;
+
+    @Column(name = "resource_id", nullable = false)
+    private Long resourceId;
+
+    @Enumerated(EnumType.STRING)
+    @Column(nullable = false, length = 20)
+    private ChangeOperation operation;
+
+    @Column(name = "changed_date", nullable = false)
+    private LocalDateTime changedDate;
+
+    public static CatalogChange of(CatalogResource resourceType, Long resourceId) {
+        CatalogChange change = new CatalogChange();
+        change.setResourceType(resourceType);
+        change.setResourceId(resourceId);
+        return change;
+    }
+
+    public CatalogChange changed(ChangeOperation operation, LocalDateTime changedDate) {
+        this.operation = operation;
+        this.changedDate = changedDate;
+        return this;
+    }
+}
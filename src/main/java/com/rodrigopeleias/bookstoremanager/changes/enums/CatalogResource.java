@@ -0,0 +1,7 @@
+package com.rodrigopeleias.bookstoremanager.changes.enums;
+
+public enum CatalogResource {
+    AUTHOR,
+    PUBLISHER,
+    BOOK
+}
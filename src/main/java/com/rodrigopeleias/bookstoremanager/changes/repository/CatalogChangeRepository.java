@@ -0,0 +1,28 @@
+package com.rodrigopeleias.bookstoremanager.changes.repository;
+
+import com.rodrigopeleias.bookstoremanager.changes.entity.CatalogChange;
+import com.rodrigopeleias.bookstoremanager.changes.enums.CatalogResource;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Optional;
+
+public interface CatalogChangeRepository extends JpaRepository<CatalogChange, Long> {
+
+    Optional<CatalogChange> findByResourceTypeAndResourceId(CatalogResource resourceType, Long resourceId);
+
+    @Query("select c from CatalogChange c where c.changedDate < :until order by c.changedDate, c.id")
+    List<CatalogChange> findFirstChanges(@Param("until") LocalDateTime until, Pageable pageable);
+
+    @Query("select c from CatalogChange c where c.changedDate < :until"
+            + " and (c.changedDate > :changedDate or (c.changedDate = :changedDate and c.id > :id))"
+            + " order by c.changedDate, c.id")
+    List<CatalogChange> findChangesAfter(@Param("changedDate") LocalDateTime changedDate,
+                                         @Param("id") Long id,
+                                         @Param("until") LocalDateTime until,
+                                         Pageable pageable);
+}
@@ -0,0 +1,186 @@
+package com.rodrigopeleias.bookstoremanager.changes.service;
+
+import com.rodrigopeleias.bookstoremanager.author.entity.Author;
+import com.rodrigopeleias.bookstoremanager.author.mapper.AuthorMapper;
+import com.rodrigopeleias.bookstoremanager.books.entity.Book;
+import com.rodrigopeleias.bookstoremanager.books.mapper.BookMapper;
+import com.rodrigopeleias.bookstoremanager.books.repository.BooksRepository;
+import com.rodrigopeleias.bookstoremanager.changes.dto.CatalogChangeDTO;
+import com.rodrigopeleias.bookstoremanager.changes.dto.ChangeFeedDTO;
+import com.rodrigopeleias.bookstoremanager.changes.entity.CatalogChange;
+import com.rodrigopeleias.bookstoremanager.changes.enums.CatalogResource;
+import com.rodrigopeleias.bookstoremanager.changes.enums.ChangeOperation;
+import com.rodrigopeleias.bookstoremanager.changes.repository.CatalogChangeRepository;
+import com.rodrigopeleias.bookstoremanager.entity.MultiIdLoader;
+import com.rodrigopeleias.bookstoremanager.pagination.Cursor;
+import com.rodrigopeleias.bookstoremanager.pagination.CursorPagination;
+import com.rodrigopeleias.bookstoremanager.pagination.exception.InvalidCursorException;
+import com.rodrigopeleias.bookstoremanager.publishers.entity.Publisher;
+import com.rodrigopeleias.bookstoremanager.publishers.mapper.PublisherMapper;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.time.LocalDateTime;
+import java.time.format.DateTimeParseException;
+import java.time.temporal.ChronoUnit;
+import java.util.EnumMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+/**
+ * Records the latest change of every author, publisher and book, and serves them back as a feed ordered by
+ * (change date, id) so downstream copies can sync from a cursor instead of reading whole tables.
+ * A change is stamped just before its transaction commits, not when the write happens, so the feed is ordered by
+ * commit up to the time the commit itself takes plus the clock skew between nodes. Changes newer than the settle
+ * window are held back to cover that gap; a change whose commit takes longer than the window can be missed by a
+ * client that already moved its cursor past it.
+ */
+@Service
+public class CatalogChangeService {
+
+    private final static AuthorMapper authorMapper = AuthorMapper.INSTANCE;
+    private final static PublisherMapper publisherMapper = PublisherMapper.INSTANCE;
+    private final static BookMapper bookMapper = BookMapper.INSTANCE;
+
+    private CatalogChangeRepository catalogChangeRepository;
+    private BooksRepository booksRepository;
+    private MultiIdLoader multiIdLoader;
+    private CursorPagination cursorPagination;
+    private long settleMillis;
+
+    @Autowired
+    public CatalogChangeService(CatalogChangeRepository catalogChangeRepository,
+                                BooksRepository booksRepository,
+                                MultiIdLoader multiIdLoader,
+                                CursorPagination cursorPagination,
+                                @Value("${changes.settle-millis:5000}") long settleMillis) {
+        this.catalogChangeRepository = catalogChangeRepository;
+        this.booksRepository = booksRepository;
+        this.multiIdLoader = multiIdLoader;
+        this.cursorPagination = cursorPagination;
+        this.settleMillis = settleMillis;
+    }
+
+    public void recordCreated(CatalogResource resourceType, Long resourceId) {
+        beforeCommit(() -> record(CatalogChange.of(resourceType, resourceId), ChangeOperation.CREATED));
+    }
+
+    public void recordUpdated(CatalogResource resourceType, Long resourceId) {
+        beforeCommit(() -> record(findOrCreate(resourceType, resourceId), ChangeOperation.UPDATED));
+    }
+
+    public void recordDeleted(CatalogResource resourceType, Long resourceId) {
+        beforeCommit(() -> record(findOrCreate(resourceType, resourceId), ChangeOperation.DELETED));
+    }
+
+    @Transactional(readOnly = true)
+    public ChangeFeedDTO findChanges(String since, Integer size) {
+        PageRequest pageRequest = cursorPagination.pageRequest(size);
+        LocalDateTime until = LocalDateTime.now().minus(settleMillis, ChronoUnit.MILLIS);
+        List<CatalogChange> changes = cursorPagination.decode(since)
+                .map(after -> catalogChangeRepository.findChangesAfter(changedDateOf(after, since), after.getId(), until, pageRequest))
+                .orElseGet(() -> catalogChangeRepository.findFirstChanges(until, pageRequest));
+
+        int pageSize = pageRequest.getPageSize() - 1;
+        boolean hasMore = changes.size() > pageSize;
+        List<CatalogChange> pageChanges = hasMore ? changes.subList(0, pageSize) : changes;
+        Map<CatalogResource, Map<Long, Object>> resources = findResources(pageChanges);
+        List<CatalogChangeDTO> content = pageChanges.stream()
+                .map(change -> toDTO(change, resources.get(change.getResourceType())))
+                .filter(Objects::nonNull)
+                .collect(Collectors.toList());
+        String cursor = pageChanges.isEmpty() ? since : cursorOf(pageChanges.get(pageChanges.size() - 1)).encode();
+        return ChangeFeedDTO.builder()
+                .content(content)
+                .size(content.size())
+                .cursor(cursor)
+                .hasMore(hasMore)
+                .build();
+    }
+
+    private CatalogChange findOrCreate(CatalogResource resourceType, Long resourceId) {
+        // resources written before the feed existed have no row yet
+        return catalogChangeRepository.findByResourceTypeAndResourceId(resourceType, resourceId)
+                .orElseGet(() -> CatalogChange.of(resourceType, resourceId));
+    }
+
+    private void record(CatalogChange change, ChangeOperation operation) {
+        // flushed while the transaction is still open, so a conflicting concurrent change row fails this commit
+        catalogChangeRepository.saveAndFlush(change.changed(operation, LocalDateTime.now()));
+    }
+
+    private static void beforeCommit(Runnable record) {
+        // called outside a transaction the change commits on its own right away
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            record.run();
+            return;
+        }
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void beforeCommit(boolean readOnly) {
+                record.run();
+            }
+        });
+    }
+
+    private Map<CatalogResource, Map<Long, Object>> findResources(List<CatalogChange> changes) {
+        Map<CatalogResource, List<Long>> idsByResourceType = changes.stream()
+                .filter(change -> change.getOperation() != ChangeOperation.DELETED)
+                .collect(Collectors.groupingBy(CatalogChange::getResourceType,
+                        () -> new EnumMap<>(CatalogResource.class),
+                        Collectors.mapping(CatalogChange::getResourceId, Collectors.toList())));
+        Map<CatalogResource, Map<Long, Object>> resources = new EnumMap<>(CatalogResource.class);
+        idsByResourceType.forEach((resourceType, ids) -> resources.put(resourceType, findResources(resourceType, ids)));
+        return resources;
+    }
+
+    private Map<Long, Object> findResources(CatalogResource resourceType, List<Long> ids) {
+        return switch (resourceType) {
+            case AUTHOR -> toResourceMap(multiIdLoader.findAllById(Author.class, ids), Author::getId, authorMapper::toDTO);
+            case PUBLISHER -> toResourceMap(multiIdLoader.findAllById(Publisher.class, ids), Publisher::getId, publisherMapper::toDTO);
+            case BOOK -> toResourceMap(booksRepository.findAllByIdIn(ids), Book::getId, bookMapper::toDTO);
+        };
+    }
+
+    private static <E> Map<Long, Object> toResourceMap(List<E> rows, Function<E, Long> idOf, Function<E, ?> mapper) {
+        return rows.stream().collect(Collectors.toMap(idOf, mapper));
+    }
+
+    private static CatalogChangeDTO toDTO(CatalogChange change, Map<Long, Object> resources) {
+        Object resource = null;
+        if (change.getOperation() != ChangeOperation.DELETED) {
+            resource = resources.get(change.getResourceId());
+            // deleted after this change was read, its tombstone comes in a later pass
+            if (resource == null) {
+                return null;
+            }
+        }
+        return CatalogChangeDTO.builder()
+                .resourceType(change.getResourceType())
+                .resourceId(change.getResourceId())
+                .operation(change.getOperation())
+                .changedDate(change.getChangedDate())
+                .resource(resource)
+                .build();
+    }
+
+    private static Cursor cursorOf(CatalogChange change) {
+        return Cursor.of(change.getChangedDate().toString(), change.getId());
+    }
+
+    private static LocalDateTime changedDateOf(Cursor cursor, String encodedCursor) {
+        try {
+            return LocalDateTime.parse(cursor.getKey());
+        } catch (DateTimeParseException e) {
+            throw new InvalidCursorException(encodedCursor);
+        }
+    }
+}
@@ -0,0 +1,43 @@
+package com.rodrigopeleias.bookstoremanager.config;
+
+import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
+
+/**
+ * Picks the BCrypt work factor whose hash time is closest to, without exceeding, a target latency on the current hardware.
+ * Each extra unit of strength doubles the hashing cost, so a single measurement at the minimum strength is enough.
+ */
+public class BCryptStrengthCalibrator {
+
+    private static final String CALIBRATION_PASSWORD = "bookstoremanager-calibration";
+    private static final int MEASUREMENT_ROUNDS = 3;
+
+    private final int minStrength;
+    private final int maxStrength;
+
+    public BCryptStrengthCalibrator(int minStrength, int maxStrength) {
+        this.minStrength = minStrength;
+        this.maxStrength = maxStrength;
+    }
+
+    public int calibrate(long targetMillis) {
+        double minStrengthMillis = measureHashMillis(minStrength);
+        int extraStrength = (int) Math.floor(log2(targetMillis / minStrengthMillis));
+        return Math.max(minStrength, Math.min(maxStrength, minStrength + extraStrength));
+    }
+
+    private double measureHashMillis(int strength) {
+        BCryptPasswordEncoder encoder = new BCryptPasswordEncoder(strength);
+        encoder.encode(CALIBRATION_PASSWORD);
+        long fastestNanos = Long.MAX_VALUE;
+        for (int round = 0; round < MEASUREMENT_ROUNDS; round++) {
+            long start = System.nanoTime();
+            encoder.encode(CALIBRATION_PASSWORD);
+            fastestNanos = Math.min(fastestNanos, System.nanoTime() - start);
+        }
+        return Math.max(fastestNanos / 1_000_000.0, 0.001);
+    }
+
+    private double log2(double value) {
+        return Math.log(value) / Math.log(2);
+    }
+}
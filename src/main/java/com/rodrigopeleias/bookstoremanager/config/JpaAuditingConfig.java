@@ -0,0 +1,13 @@
+package com.rodrigopeleias.bookstoremanager.config;
+
+import org.springframework.context.annotation.Configuration;
+import org.springframework.data.jpa.repository.config.EnableJpaAuditing;
+
+/**
+ * Fills the {@code createdDate} and {@code lastModifiedDate} columns of every {@link com.rodrigopeleias.bookstoremanager.entity.Auditable}
+ * entity, which conditional GETs use as validators.
+ */
+@Configuration
+@EnableJpaAuditing
+public class JpaAuditingConfig {
+}
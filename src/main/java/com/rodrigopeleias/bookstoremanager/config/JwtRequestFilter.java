@@ -1,8 +1,13 @@
 package com.rodrigopeleias.bookstoremanager.config;
 
+import com.rodrigopeleias.bookstoremanager.users.dto.AuthenticatedUser;
 import com.rodrigopeleias.bookstoremanager.users.service.AuthenticationService;
 import com.rodrigopeleias.bookstoremanager.users.service.JwtTokenManager;
+import com.rodrigopeleias.bookstoremanager.users.service.TokenRevocationList;
+import com.rodrigopeleias.bookstoremanager.users.service.UserRevocationRegistry;
+import io.jsonwebtoken.Claims;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
 import org.springframework.security.core.context.SecurityContextHolder;
 import org.springframework.security.core.userdetails.UserDetails;
@@ -25,21 +30,31 @@ public class JwtRequestFilter extends OncePerRequestFilter {
     @Autowired
     private JwtTokenManager jwtTokenManager;
 
+    @Autowired
+    private UserRevocationRegistry userRevocationRegistry;
+
+    @Autowired
+    private TokenRevocationList tokenRevocationList;
+
+    @Value("${jwt.stateless-principal:false}")
+    private boolean statelessPrincipal;
+
     @Override
     protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain chain) throws ServletException, IOException {
         var username = "";
-        var jwtToken = "";
+        Claims claims = null;
 
         String requestTokenHeader = request.getHeader("Authorization");
         if (isTokenPresent(requestTokenHeader)) {
-            jwtToken = requestTokenHeader.substring(7);
-            username = jwtTokenManager.getUsernameFromToken(jwtToken);
+            var jwtToken = requestTokenHeader.substring(7);
+            claims = jwtTokenManager.getAllClaimsForToken(jwtToken);
+            username = claims.getSubject();
         } else {
             logger.warn("JWT Token does not begin with Bearer String");
         }
 
         if (isUsernameInContext(username)) {
-            addUsernameInContext(request, username, jwtToken);
+            addUsernameInContext(request, username, claims);
         }
 
         chain.doFilter(request, response);
@@ -53,13 +68,37 @@ public class JwtRequestFilter extends OncePerRequestFilter {
         return !username.isEmpty() && SecurityContextHolder.getContext().getAuthentication() == null;
     }
 
-    private void addUsernameInContext(HttpServletRequest request, String username, String jwtToken) {
-        UserDetails userDetails = authenticationService.loadUserByUsername(username);
-        if (jwtTokenManager.validateToken(jwtToken, userDetails)) {
+    private void addUsernameInContext(HttpServletRequest request, String username, Claims claims) {
+        if (jwtTokenManager.isRefreshToken(claims) || isTokenRevoked(claims)) {
+            return;
+        }
+        if (userRevocationRegistry.isRevoked(username, jwtTokenManager.getIssuedAtMillisFromClaims(claims))) {
+            return;
+        }
+        UserDetails userDetails = loadUserDetails(username, claims);
+        if (jwtTokenManager.validateToken(claims, userDetails)) {
             UsernamePasswordAuthenticationToken authenticationToken =
                     new UsernamePasswordAuthenticationToken(userDetails, null, userDetails.getAuthorities());
             authenticationToken.setDetails(new WebAuthenticationDetailsSource().buildDetails(request));
             SecurityContextHolder.getContext().setAuthentication(authenticationToken);
         }
     }
+
+    private boolean isTokenRevoked(Claims claims) {
+        Long tokenId = jwtTokenManager.getTokenIdFromClaims(claims);
+        return tokenId != null && tokenRevocationList.isRevoked(tokenId);
+    }
+
+    private boolean isPrincipalInClaims(Claims claims) {
+        return statelessPrincipal && jwtTokenManager.getRoleFromClaims(claims) != null;
+    }
+
+    private UserDetails loadUserDetails(String username, Claims claims) {
+        if (isPrincipalInClaims(claims)) {
+            // trusts the token as issued, so a change made on another node goes unseen until it expires
+            return new AuthenticatedUser(username, null, jwtTokenManager.getRoleFromClaims(claims),
+                    jwtTokenManager.getTokenVersionFromClaims(claims));
+        }
+        return authenticationService.loadUserByUsername(username);
+    }
 }
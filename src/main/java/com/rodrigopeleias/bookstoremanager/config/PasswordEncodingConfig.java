@@ -1,15 +1,29 @@
 package com.rodrigopeleias.bookstoremanager.config;
 
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
 import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
-import org.springframework.security.crypto.password.PasswordEncoder;
 
 @Configuration
 public class PasswordEncodingConfig {
 
+    private static final Logger LOGGER = LoggerFactory.getLogger(PasswordEncodingConfig.class);
+
     @Bean
-    public PasswordEncoder passwordEncoder() {
-        return new BCryptPasswordEncoder();
+    public BoundedPasswordEncoder passwordEncoder(
+            @Value("${password.hashing.pool-size:0}") int poolSize,
+            @Value("${password.hashing.queue-capacity:100}") int queueCapacity,
+            @Value("${password.hashing.retry-after:1}") long retryAfterSeconds,
+            @Value("${password.hashing.target-millis:250}") long targetMillis,
+            @Value("${password.hashing.min-strength:10}") int minStrength,
+            @Value("${password.hashing.max-strength:16}") int maxStrength) {
+        int strength = new BCryptStrengthCalibrator(minStrength, maxStrength).calibrate(targetMillis);
+        LOGGER.info("Using BCrypt strength {} for a target of {} ms per hash", strength, targetMillis);
+
+        int hashingThreads = poolSize > 0 ? poolSize : Runtime.getRuntime().availableProcessors();
+        return new BoundedPasswordEncoder(new BCryptPasswordEncoder(strength), hashingThreads, queueCapacity, retryAfterSeconds);
     }
 }
@@ -0,0 +1,13 @@
+package com.rodrigopeleias.bookstoremanager.config;
+
+import org.springframework.context.annotation.Configuration;
+import org.springframework.scheduling.annotation.EnableScheduling;
+
+/**
+ * Runs the periodic rebuilds that reconcile the in-memory author, publisher and ISBN indexes with writes
+ * made on other nodes.
+ */
+@Configuration
+@EnableScheduling
+public class SchedulingConfig {
+}
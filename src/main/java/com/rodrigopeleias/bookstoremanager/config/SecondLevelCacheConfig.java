@@ -0,0 +1,79 @@
+package com.rodrigopeleias.bookstoremanager.config;
+
+import com.github.benmanes.caffeine.jcache.configuration.CaffeineConfiguration;
+import com.github.benmanes.caffeine.jcache.spi.CaffeineCachingProvider;
+import com.rodrigopeleias.bookstoremanager.author.entity.Author;
+import com.rodrigopeleias.bookstoremanager.publishers.entity.Publisher;
+import org.hibernate.cache.jcache.ConfigSettings;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.orm.jpa.HibernatePropertiesCustomizer;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+import javax.cache.CacheManager;
+import javax.cache.Caching;
+import java.net.URI;
+import java.util.List;
+import java.util.OptionalLong;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Caffeine regions behind the Hibernate second-level cache. Every region is bounded and expires after a fixed time,
+ * so entries changed by another node are at most one time-to-live stale.
+ */
+@Configuration
+public class SecondLevelCacheConfig {
+
+    public static final String REFERENCE_QUERIES_REGION = "reference-data-queries";
+
+    static final String DEFAULT_QUERY_RESULTS_REGION = "default-query-results-region";
+
+    static final String UPDATE_TIMESTAMPS_REGION = "default-update-timestamps-region";
+
+    private static final URI CACHE_MANAGER_URI = URI.create("bookstoremanager-second-level-cache");
+
+    @Bean(destroyMethod = "close")
+    public CacheManager secondLevelCacheManager(
+            @Value("${second-level-cache.authors.max-size:10000}") long authorsMaxSize,
+            @Value("${second-level-cache.authors.time-to-live:3600}") long authorsTimeToLive,
+            @Value("${second-level-cache.publishers.max-size:10000}") long publishersMaxSize,
+            @Value("${second-level-cache.publishers.time-to-live:3600}") long publishersTimeToLive,
+            @Value("${second-level-cache.queries.max-size:1000}") long queriesMaxSize,
+            @Value("${second-level-cache.queries.time-to-live:600}") long queriesTimeToLive) {
+        CacheManager cacheManager = Caching.getCachingProvider(CaffeineCachingProvider.class.getName())
+                .getCacheManager(CACHE_MANAGER_URI, getClass().getClassLoader());
+        createRegion(cacheManager, Author.CACHE_REGION, boundedRegion(authorsMaxSize, authorsTimeToLive));
+        createRegion(cacheManager, Publisher.CACHE_REGION, boundedRegion(publishersMaxSize, publishersTimeToLive));
+        createRegion(cacheManager, REFERENCE_QUERIES_REGION, boundedRegion(queriesMaxSize, queriesTimeToLive));
+        createRegion(cacheManager, DEFAULT_QUERY_RESULTS_REGION, boundedRegion(queriesMaxSize, queriesTimeToLive));
+        // query results are only valid while their tables' timestamps are known, so these must never be evicted
+        createRegion(cacheManager, UPDATE_TIMESTAMPS_REGION, new CaffeineConfiguration<>());
+        return cacheManager;
+    }
+
+    @Bean
+    public HibernatePropertiesCustomizer secondLevelCacheCustomizer(CacheManager secondLevelCacheManager) {
+        return hibernateProperties -> hibernateProperties.put(ConfigSettings.CACHE_MANAGER, secondLevelCacheManager);
+    }
+
+    @Bean
+    public SecondLevelCacheMetrics secondLevelCacheMetrics(CacheManager secondLevelCacheManager) {
+        return new SecondLevelCacheMetrics(secondLevelCacheManager,
+                List.of(Author.CACHE_REGION, Publisher.CACHE_REGION, REFERENCE_QUERIES_REGION));
+    }
+
+    static CaffeineConfiguration<Object, Object> boundedRegion(long maxSize, long timeToLiveSeconds) {
+        CaffeineConfiguration<Object, Object> configuration = new CaffeineConfiguration<>();
+        configuration.setMaximumSize(OptionalLong.of(maxSize));
+        configuration.setExpireAfterWrite(OptionalLong.of(TimeUnit.SECONDS.toNanos(timeToLiveSeconds)));
+        configuration.setNativeStatisticsEnabled(true);
+        return configuration;
+    }
+
+    private static void createRegion(CacheManager cacheManager, String region, CaffeineConfiguration<Object, Object> configuration) {
+        if (cacheManager.getCache(region) != null) {
+            cacheManager.destroyCache(region);
+        }
+        cacheManager.createCache(region, configuration);
+    }
+}
@@ -0,0 +1,38 @@
+package com.rodrigopeleias.bookstoremanager.config;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+
+import javax.cache.CacheManager;
+import java.util.List;
+
+/**
+ * Publishes the Caffeine statistics of each second-level cache region as {@code cache.*} metrics tagged with
+ * {@code cache=<region>}, plus a {@code hibernate.second.level.cache.hit.ratio} gauge per region.
+ */
+public class SecondLevelCacheMetrics implements MeterBinder {
+
+    private static final String HIT_RATIO_METRIC = "hibernate.second.level.cache.hit.ratio";
+
+    private final CacheManager cacheManager;
+    private final List<String> regions;
+
+    public SecondLevelCacheMetrics(CacheManager cacheManager, List<String> regions) {
+        this.cacheManager = cacheManager;
+        this.regions = regions;
+    }
+
+    @Override
+    public void bindTo(MeterRegistry registry) {
+        for (String region : regions) {
+            Cache<?, ?> regionCache = cacheManager.getCache(region).unwrap(Cache.class);
+            CaffeineCacheMetrics.monitor(registry, regionCache, region, "layer", "hibernate");
+            Gauge.builder(HIT_RATIO_METRIC, regionCache, cache -> cache.stats().hitRate())
+                    .tag("region", region)
+                    .register(registry);
+        }
+    }
+}
@@ -2,6 +2,7 @@ package com.rodrigopeleias.bookstoremanager.config;
 
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
+import org.springframework.web.context.request.WebRequest;
 import springfox.documentation.builders.ApiInfoBuilder;
 import springfox.documentation.builders.PathSelectors;
 import springfox.documentation.builders.RequestHandlerSelectors;
@@ -30,6 +31,7 @@ public class SwaggerConfig {
                 .apis(RequestHandlerSelectors.basePackage(BASE_PACKAGE))
                 .paths(PathSelectors.any())
                 .build()
+                .ignoredParameterTypes(WebRequest.class)
                 .apiInfo(buildApiInfo());
     }
 
@@ -27,6 +27,8 @@ public class WebSecurityConfig extends WebSecurityConfigurerAdapter {
     private static final String PUBLISHERS_API_URL = "/api/v1/publishers/**";
     private static final String AUTHORS_API_URL = "/api/v1/authors/**";
     private static final String BOOKS_API_URL = "/api/v1/books/**";
+    private static final String EXPORTS_API_URL = "/api/v1/exports/**";
+    private static final String CHANGES_API_URL = "/api/v1/changes/**";
     private static final String H2_CONSOLE_URL = "/h2-console/**";
     private static final String SWAGGER_URL = "/swagger-ui.html";
     private static final String ROLE_ADMIN = Role.ADMIN.getDescription();
@@ -65,7 +67,7 @@ public class WebSecurityConfig extends WebSecurityConfigurerAdapter {
         httpSecurity.csrf().disable()
         .authorizeRequests()
         .antMatchers(USERS_API_URL, H2_CONSOLE_URL, SWAGGER_URL).permitAll()
-        .antMatchers(PUBLISHERS_API_URL, AUTHORS_API_URL).hasAnyRole(ROLE_ADMIN)
+        .antMatchers(PUBLISHERS_API_URL, AUTHORS_API_URL, EXPORTS_API_URL, CHANGES_API_URL).hasAnyRole(ROLE_ADMIN)
         .antMatchers(BOOKS_API_URL).hasAnyRole(ROLE_ADMIN, ROLE_USER)
         .anyRequest().authenticated()
         .and()
@@ -10,6 +10,7 @@ import org.springframework.data.jpa.domain.support.AuditingEntityListener;
 import javax.persistence.Column;
 import javax.persistence.EntityListeners;
 import javax.persistence.MappedSuperclass;
+import javax.persistence.Version;
 import java.time.LocalDateTime;
 
 @Getter
@@ -25,4 +26,8 @@ public abstract class Auditable {
     @LastModifiedDate
     @Column
     protected LocalDateTime lastModifiedDate;
+
+    @Version
+    @Column
+    protected Long version;
 }
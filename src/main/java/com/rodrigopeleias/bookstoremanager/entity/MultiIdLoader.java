@@ -0,0 +1,44 @@
+package com.rodrigopeleias.bookstoremanager.entity;
+
+import org.hibernate.CacheMode;
+import org.hibernate.Session;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.annotation.Transactional;
+
+import javax.persistence.EntityManager;
+import java.util.Collection;
+import java.util.List;
+import java.util.Objects;
+import java.util.stream.Collectors;
+
+/**
+ * Loads many entities by id in one go through Hibernate multi-load: ids already in the persistence context or in
+ * the second-level cache are served from there and only the rest are read, with batched {@code IN} queries.
+ */
+@Component
+public class MultiIdLoader {
+
+    private final EntityManager entityManager;
+
+    @Autowired
+    public MultiIdLoader(EntityManager entityManager) {
+        this.entityManager = entityManager;
+    }
+
+    @Transactional(readOnly = true)
+    public <T> List<T> findAllById(Class<T> entityType, Collection<Long> ids) {
+        if (ids.isEmpty()) {
+            return List.of();
+        }
+        return entityManager.unwrap(Session.class)
+                .byMultipleIds(entityType)
+                // multi-load skips the second-level cache unless a cache mode is set explicitly
+                .with(CacheMode.NORMAL)
+                .enableSessionCheck(true)
+                .multiLoad(List.copyOf(ids))
+                .stream()
+                .filter(Objects::nonNull)
+                .collect(Collectors.toList());
+    }
+}
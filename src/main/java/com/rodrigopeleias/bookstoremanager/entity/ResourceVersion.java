@@ -0,0 +1,68 @@
+package com.rodrigopeleias.bookstoremanager.entity;
+
+import com.rodrigopeleias.bookstoremanager.exception.PreconditionFailedException;
+import lombok.Getter;
+
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+
+/**
+ * Validators of a resource for conditional requests: an ETag plus, when meaningful, its Last-Modified time in epoch millis.
+ * A single entity is versioned by its optimistic locking version, a strong ETag that If-Match can compare before a write.
+ * A collection is versioned by its row count, the sum of its row versions and its most recent modification date, so
+ * deleting a row changes the ETag even though no remaining row was modified; for the same reason collections carry
+ * a weak ETag and no Last-Modified time, which could not reflect deletions.
+ */
+@Getter
+public class ResourceVersion {
+
+    private static final long UNKNOWN = -1;
+    private static final String ANY = "*";
+
+    private final String eTag;
+    private final long lastModified;
+
+    public ResourceVersion(Long version, LocalDateTime lastModifiedDate) {
+        this("\"" + valueOf(version) + "\"", lastModifiedDate == null ? UNKNOWN : epochMillis(lastModifiedDate));
+    }
+
+    public ResourceVersion(Long count, Long versionSum, LocalDateTime lastModifiedDate) {
+        this("W/\"" + count + "-" + valueOf(versionSum) + "-" + epochMillis(lastModifiedDate) + "\"", UNKNOWN);
+    }
+
+    private ResourceVersion(String eTag, long lastModified) {
+        this.eTag = eTag;
+        this.lastModified = lastModified;
+    }
+
+    public static ResourceVersion of(Auditable entity) {
+        return new ResourceVersion(entity.getVersion(), entity.getLastModifiedDate());
+    }
+
+    /**
+     * Passes when no If-Match header was sent, when it is {@code *} or when it lists this ETag, compared strongly.
+     * The header stays optional so existing clients keep working; a write without it is still guarded against
+     * concurrent writers by the version check when it is flushed.
+     */
+    public void verifyIfMatch(String ifMatch) {
+        if (ifMatch == null || ifMatch.isBlank()) {
+            return;
+        }
+        for (String candidate : ifMatch.split(",")) {
+            String tag = candidate.trim();
+            if (tag.equals(ANY) || tag.equals(eTag)) {
+                return;
+            }
+        }
+        throw new PreconditionFailedException(eTag);
+    }
+
+    private static long valueOf(Long value) {
+        return value == null ? 0 : value;
+    }
+
+    // rows written before auditing was enabled have no modification date
+    private static long epochMillis(LocalDateTime dateTime) {
+        return dateTime == null ? 0 : dateTime.atZone(ZoneId.systemDefault()).toInstant().toEpochMilli();
+    }
+}
@@ -1,5 +1,13 @@
 package com.rodrigopeleias.bookstoremanager.exception;
 
+import com.rodrigopeleias.bookstoremanager.books.exception.InvalidIsbnException;
+import com.rodrigopeleias.bookstoremanager.books.exception.UnsupportedImportFormatException;
+import com.rodrigopeleias.bookstoremanager.pagination.exception.InvalidCursorException;
+import com.rodrigopeleias.bookstoremanager.pagination.exception.TooManyIdsException;
+import com.rodrigopeleias.bookstoremanager.pagination.exception.UnsupportedLocaleException;
+import com.rodrigopeleias.bookstoremanager.users.exception.InvalidRefreshTokenException;
+import com.rodrigopeleias.bookstoremanager.users.exception.LoginAttemptsExceededException;
+import org.springframework.dao.OptimisticLockingFailureException;
 import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
@@ -38,6 +46,106 @@ public class BookstoreExceptionHandler extends ResponseEntityExceptionHandler {
         );
     }
 
+    @ExceptionHandler(ServiceOverloadedException.class)
+    public ResponseEntity<Object> handleServiceOverloadedException(ServiceOverloadedException exception) {
+        HttpHeaders headers = new HttpHeaders();
+        headers.set(HttpHeaders.RETRY_AFTER, String.valueOf(exception.getRetryAfterSeconds()));
+        return buildResponseEntity(
+                HttpStatus.SERVICE_UNAVAILABLE,
+                headers,
+                exception.getMessage(),
+                Collections.singletonList(exception.getMessage())
+        );
+    }
+
+    @ExceptionHandler(PreconditionFailedException.class)
+    public ResponseEntity<Object> handlePreconditionFailedException(PreconditionFailedException exception) {
+        HttpHeaders headers = new HttpHeaders();
+        headers.setETag(exception.getCurrentETag());
+        return buildResponseEntity(
+                HttpStatus.PRECONDITION_FAILED,
+                headers,
+                exception.getMessage(),
+                Collections.singletonList(exception.getMessage())
+        );
+    }
+
+    @ExceptionHandler(OptimisticLockingFailureException.class)
+    public ResponseEntity<Object> handleOptimisticLockingFailureException(OptimisticLockingFailureException exception) {
+        String message = "Resource was modified by a concurrent request, reload it and try again";
+        return buildResponseEntity(
+                HttpStatus.PRECONDITION_FAILED,
+                message,
+                Collections.singletonList(message)
+        );
+    }
+
+    @ExceptionHandler(LoginAttemptsExceededException.class)
+    public ResponseEntity<Object> handleLoginAttemptsExceededException(LoginAttemptsExceededException exception) {
+        HttpHeaders headers = new HttpHeaders();
+        headers.set(HttpHeaders.RETRY_AFTER, String.valueOf(exception.getRetryAfterSeconds()));
+        return buildResponseEntity(
+                HttpStatus.TOO_MANY_REQUESTS,
+                headers,
+                exception.getMessage(),
+                Collections.singletonList(exception.getMessage())
+        );
+    }
+
+    @ExceptionHandler(InvalidRefreshTokenException.class)
+    public ResponseEntity<Object> handleInvalidRefreshTokenException(InvalidRefreshTokenException exception) {
+        return buildResponseEntity(
+                HttpStatus.UNAUTHORIZED,
+                exception.getMessage(),
+                Collections.singletonList(exception.getMessage())
+        );
+    }
+
+    @ExceptionHandler(InvalidCursorException.class)
+    public ResponseEntity<Object> handleInvalidCursorException(InvalidCursorException exception) {
+        return buildResponseEntity(
+                HttpStatus.BAD_REQUEST,
+                exception.getMessage(),
+                Collections.singletonList(exception.getMessage())
+        );
+    }
+
+    @ExceptionHandler(TooManyIdsException.class)
+    public ResponseEntity<Object> handleTooManyIdsException(TooManyIdsException exception) {
+        return buildResponseEntity(
+                HttpStatus.BAD_REQUEST,
+                exception.getMessage(),
+                Collections.singletonList(exception.getMessage())
+        );
+    }
+
+    @ExceptionHandler(UnsupportedLocaleException.class)
+    public ResponseEntity<Object> handleUnsupportedLocaleException(UnsupportedLocaleException exception) {
+        return buildResponseEntity(
+                HttpStatus.BAD_REQUEST,
+                exception.getMessage(),
+                Collections.singletonList(exception.getMessage())
+        );
+    }
+
+    @ExceptionHandler(InvalidIsbnException.class)
+    public ResponseEntity<Object> handleInvalidIsbnException(InvalidIsbnException exception) {
+        return buildResponseEntity(
+                HttpStatus.BAD_REQUEST,
+                exception.getMessage(),
+                Collections.singletonList(exception.getMessage())
+        );
+    }
+
+    @ExceptionHandler(UnsupportedImportFormatException.class)
+    public ResponseEntity<Object> handleUnsupportedImportFormatException(UnsupportedImportFormatException exception) {
+        return buildResponseEntity(
+                HttpStatus.BAD_REQUEST,
+                exception.getMessage(),
+                Collections.singletonList(exception.getMessage())
+        );
+    }
+
     @Override
     protected ResponseEntity<Object> handleMethodArgumentNotValid(
             MethodArgumentNotValidException exception,
@@ -72,6 +180,10 @@ public class BookstoreExceptionHandler extends ResponseEntityExceptionHandler {
     }
 
     private ResponseEntity<Object> buildResponseEntity(HttpStatus httpStatus, String message, List<String> errors) {
+        return buildResponseEntity(httpStatus, HttpHeaders.EMPTY, message, errors);
+    }
+
+    private ResponseEntity<Object> buildResponseEntity(HttpStatus httpStatus, HttpHeaders headers, String message, List<String> errors) {
         ApiError apiError = ApiError.builder()
                 .code(httpStatus.value())
                 .status(httpStatus.getReasonPhrase())
@@ -79,6 +191,6 @@ public class BookstoreExceptionHandler extends ResponseEntityExceptionHandler {
                 .errors(errors)
                 .timestamp(LocalDateTime.now())
                 .build();
-        return ResponseEntity.status(httpStatus).body(apiError);
+        return ResponseEntity.status(httpStatus).headers(headers).body(apiError);
     }
 }
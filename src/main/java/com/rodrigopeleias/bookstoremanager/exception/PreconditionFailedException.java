@@ -0,0 +1,14 @@
+package com.rodrigopeleias.bookstoremanager.exception;
+
+import lombok.Getter;
+
+@Getter
+public class PreconditionFailedException extends RuntimeException {
+
+    private final String currentETag;
+
+    public PreconditionFailedException(String currentETag) {
+        super(String.format("Resource was modified since the informed If-Match version, its current version is %s", currentETag));
+        this.currentETag = currentETag;
+    }
+}
@@ -0,0 +1,54 @@
+package com.rodrigopeleias.bookstoremanager.exports.controller;
+
+import com.rodrigopeleias.bookstoremanager.exports.service.ExportService;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RestController;
+
+import javax.servlet.http.HttpServletResponse;
+import java.io.IOException;
+
+@RestController
+@RequestMapping("/api/v1/exports")
+public class ExportController implements ExportControllerDocs {
+
+    private ExportService exportService;
+
+    @Autowired
+    public ExportController(ExportService exportService) {
+        this.exportService = exportService;
+    }
+
+    @GetMapping("/authors")
+    public void exportAuthors(HttpServletResponse response) throws IOException {
+        prepareResponse(response, "authors");
+        exportService.exportAuthors(response.getOutputStream());
+    }
+
+    @GetMapping("/publishers")
+    public void exportPublishers(HttpServletResponse response) throws IOException {
+        prepareResponse(response, "publishers");
+        exportService.exportPublishers(response.getOutputStream());
+    }
+
+    @GetMapping("/books")
+    public void exportBooks(HttpServletResponse response) throws IOException {
+        prepareResponse(response, "books");
+        exportService.exportBooks(response.getOutputStream());
+    }
+
+    @GetMapping("/users")
+    public void exportUsers(HttpServletResponse response) throws IOException {
+        prepareResponse(response, "users");
+        exportService.exportUsers(response.getOutputStream());
+    }
+
+    private void prepareResponse(HttpServletResponse response, String exportName) {
+        response.setContentType(MediaType.APPLICATION_NDJSON_VALUE);
+        response.setCharacterEncoding("UTF-8");
+        response.setHeader(HttpHeaders.CONTENT_DISPOSITION, "attachment; filename=\"" + exportName + ".ndjson\"");
+    }
+}
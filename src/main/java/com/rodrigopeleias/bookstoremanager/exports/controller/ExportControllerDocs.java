@@ -0,0 +1,37 @@
+package com.rodrigopeleias.bookstoremanager.exports.controller;
+
+import io.swagger.annotations.Api;
+import io.swagger.annotations.ApiOperation;
+import io.swagger.annotations.ApiResponse;
+import io.swagger.annotations.ApiResponses;
+
+import javax.servlet.http.HttpServletResponse;
+import java.io.IOException;
+
+@Api("Catalog exports, streamed as newline-delimited JSON")
+public interface ExportControllerDocs {
+
+    @ApiOperation(value = "Export all registered authors")
+    @ApiResponses(value = {
+            @ApiResponse(code = 200, message = "One author per line")
+    })
+    void exportAuthors(HttpServletResponse response) throws IOException;
+
+    @ApiOperation(value = "Export all registered publishers")
+    @ApiResponses(value = {
+            @ApiResponse(code = 200, message = "One publisher per line")
+    })
+    void exportPublishers(HttpServletResponse response) throws IOException;
+
+    @ApiOperation(value = "Export all registered books with their author and publisher")
+    @ApiResponses(value = {
+            @ApiResponse(code = 200, message = "One book per line")
+    })
+    void exportBooks(HttpServletResponse response) throws IOException;
+
+    @ApiOperation(value = "Export all registered users, without their passwords")
+    @ApiResponses(value = {
+            @ApiResponse(code = 200, message = "One user per line")
+    })
+    void exportUsers(HttpServletResponse response) throws IOException;
+}
@@ -0,0 +1,108 @@
+package com.rodrigopeleias.bookstoremanager.exports.service;
+
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.rodrigopeleias.bookstoremanager.author.mapper.AuthorMapper;
+import com.rodrigopeleias.bookstoremanager.author.repository.AuthorRepository;
+import com.rodrigopeleias.bookstoremanager.books.mapper.BookMapper;
+import com.rodrigopeleias.bookstoremanager.books.repository.BooksRepository;
+import com.rodrigopeleias.bookstoremanager.publishers.mapper.PublisherMapper;
+import com.rodrigopeleias.bookstoremanager.publishers.repository.PublisherRepository;
+import com.rodrigopeleias.bookstoremanager.users.dto.UserDTO;
+import com.rodrigopeleias.bookstoremanager.users.entity.User;
+import com.rodrigopeleias.bookstoremanager.users.mapper.UserMapper;
+import com.rodrigopeleias.bookstoremanager.users.repository.UserRepository;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import javax.persistence.EntityManager;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.util.Iterator;
+import java.util.function.Function;
+import java.util.stream.Stream;
+
+/**
+ * Streams whole tables as newline-delimited JSON. Rows are read through forward-only repository streams,
+ * written as soon as they are mapped, and the persistence context is cleared every few rows,
+ * so memory stays flat whatever the table size.
+ */
+@Service
+public class ExportService {
+
+    private final static AuthorMapper authorMapper = AuthorMapper.INSTANCE;
+    private final static PublisherMapper publisherMapper = PublisherMapper.INSTANCE;
+    private final static BookMapper bookMapper = BookMapper.INSTANCE;
+    private final static UserMapper userMapper = UserMapper.INSTANCE;
+
+    private AuthorRepository authorRepository;
+    private PublisherRepository publisherRepository;
+    private BooksRepository booksRepository;
+    private UserRepository userRepository;
+    private EntityManager entityManager;
+    private ObjectMapper objectMapper;
+    private int clearInterval;
+
+    @Autowired
+    public ExportService(AuthorRepository authorRepository,
+                         PublisherRepository publisherRepository,
+                         BooksRepository booksRepository,
+                         UserRepository userRepository,
+                         EntityManager entityManager,
+                         ObjectMapper objectMapper,
+                         @Value("${exports.clear-interval:1000}") int clearInterval) {
+        this.authorRepository = authorRepository;
+        this.publisherRepository = publisherRepository;
+        this.booksRepository = booksRepository;
+        this.userRepository = userRepository;
+        this.entityManager = entityManager;
+        this.objectMapper = objectMapper;
+        this.clearInterval = clearInterval;
+    }
+
+    @Transactional(readOnly = true)
+    public long exportAuthors(OutputStream outputStream) throws IOException {
+        return export(authorRepository.streamAll(), authorMapper::toDTO, outputStream);
+    }
+
+    @Transactional(readOnly = true)
+    public long exportPublishers(OutputStream outputStream) throws IOException {
+        return export(publisherRepository.streamAll(), publisherMapper::toDTO, outputStream);
+    }
+
+    @Transactional(readOnly = true)
+    public long exportBooks(OutputStream outputStream) throws IOException {
+        return export(booksRepository.streamAllWithAuthorAndPublisher(), bookMapper::toDTO, outputStream);
+    }
+
+    @Transactional(readOnly = true)
+    public long exportUsers(OutputStream outputStream) throws IOException {
+        return export(userRepository.streamAll(), this::toExportedUser, outputStream);
+    }
+
+    private UserDTO toExportedUser(User user) {
+        UserDTO userDTO = userMapper.toDTO(user);
+        userDTO.setPassword(null);
+        return userDTO;
+    }
+
+    private <E> long export(Stream<E> rows, Function<E, ?> mapper, OutputStream outputStream) throws IOException {
+        long exportedRows = 0;
+        try (rows; JsonGenerator generator = objectMapper.getFactory().createGenerator(outputStream)) {
+            // every row ends with its own line break instead of the default root value separator
+            generator.setRootValueSeparator(null);
+            Iterator<E> iterator = rows.iterator();
+            while (iterator.hasNext()) {
+                generator.writeObject(mapper.apply(iterator.next()));
+                generator.writeRaw('\n');
+                if (++exportedRows % clearInterval == 0) {
+                    entityManager.clear();
+                    generator.flush();
+                }
+            }
+        }
+        return exportedRows;
+    }
+}
@@ -0,0 +1,98 @@
+package com.rodrigopeleias.bookstoremanager.pagination;
+
+import com.rodrigopeleias.bookstoremanager.pagination.exception.UnsupportedLocaleException;
+
+import java.text.Collator;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.NavigableSet;
+import java.util.Optional;
+import java.util.concurrent.ConcurrentSkipListSet;
+
+/**
+ * Ids kept sorted by name in the collation order of each supported locale. Every name is turned into
+ * {@link java.text.CollationKey} bytes once, when it is added, so pages are read by walking a skip list from the
+ * cursor position instead of collating and sorting the whole list per request.
+ * Reads are lock-free, writes must not run concurrently with each other.
+ */
+public class CollatedIndex {
+
+    private static final Comparator<Entry> COLLATION_ORDER = (first, second) -> {
+        int byKey = Arrays.compareUnsigned(first.key, second.key);
+        return byKey != 0 ? byKey : Long.compare(first.id, second.id);
+    };
+
+    private final Map<Locale, Collator> collators = new LinkedHashMap<>();
+    private final Map<Locale, NavigableSet<Entry>> entriesByLocale = new LinkedHashMap<>();
+
+    public CollatedIndex(List<Locale> locales) {
+        locales.forEach(locale -> {
+            collators.put(locale, Collator.getInstance(locale));
+            entriesByLocale.put(locale, new ConcurrentSkipListSet<>(COLLATION_ORDER));
+        });
+    }
+
+    public void add(long id, String name) {
+        collators.forEach((locale, collator) -> entriesByLocale.get(locale).add(new Entry(key(collator, name), id)));
+    }
+
+    public void remove(long id, String name) {
+        collators.forEach((locale, collator) -> entriesByLocale.get(locale).remove(new Entry(key(collator, name), id)));
+    }
+
+    /**
+     * Picks the supported locale best matching a language tag such as "pt-BR", falling back from region to language.
+     */
+    public Locale resolve(String languageTag) {
+        try {
+            Locale locale = Locale.lookup(Locale.LanguageRange.parse(languageTag), collators.keySet());
+            if (locale != null) {
+                return locale;
+            }
+        } catch (IllegalArgumentException e) {
+            // malformed tags are reported like unsupported ones
+        }
+        throw new UnsupportedLocaleException(languageTag);
+    }
+
+    /**
+     * Returns up to {@code limit} ids following the cursor, whose key is the name of the last row of the previous page.
+     */
+    public List<Long> page(Locale locale, Optional<Cursor> after, int limit) {
+        NavigableSet<Entry> entries = entriesByLocale.get(locale);
+        NavigableSet<Entry> following = after
+                .map(cursor -> entries.tailSet(new Entry(key(collators.get(locale), cursor.getKey()), cursor.getId()), false))
+                .orElse(entries);
+        List<Long> ids = new ArrayList<>(limit);
+        for (Entry entry : following) {
+            if (ids.size() == limit) {
+                break;
+            }
+            ids.add(entry.id);
+        }
+        return ids;
+    }
+
+    // Collator is not thread-safe, the same instance also serves cursor positions on the read path
+    private static byte[] key(Collator collator, String name) {
+        synchronized (collator) {
+            return collator.getCollationKey(name).toByteArray();
+        }
+    }
+
+    private static final class Entry {
+
+        private final byte[] key;
+        private final long id;
+
+        Entry(byte[] key, long id) {
+            this.key = key;
+            this.id = id;
+        }
+    }
+}
@@ -0,0 +1,29 @@
+package com.rodrigopeleias.bookstoremanager.pagination;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.util.Arrays;
+import java.util.List;
+import java.util.Locale;
+import java.util.stream.Collectors;
+
+/**
+ * Locales whose name order is served by sorted listings, configured as language tags.
+ */
+@Component
+public class CollationLocales {
+
+    private final List<Locale> locales;
+
+    public CollationLocales(@Value("${pagination.collation-locales:en}") String[] languageTags) {
+        this.locales = Arrays.stream(languageTags)
+                .map(String::trim)
+                .map(Locale::forLanguageTag)
+                .collect(Collectors.toUnmodifiableList());
+    }
+
+    public CollatedIndex newIndex() {
+        return new CollatedIndex(locales);
+    }
+}
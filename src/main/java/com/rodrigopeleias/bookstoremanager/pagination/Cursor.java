@@ -0,0 +1,44 @@
+package com.rodrigopeleias.bookstoremanager.pagination;
+
+import com.rodrigopeleias.bookstoremanager.pagination.exception.InvalidCursorException;
+import lombok.Getter;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Base64;
+
+/**
+ * Position of the last row of a page, as its sort key and id. Clients only see it as an opaque URL-safe string.
+ */
+@Getter
+public class Cursor {
+
+    private static final char SEPARATOR = ':';
+
+    private final String key;
+    private final Long id;
+
+    private Cursor(String key, Long id) {
+        this.key = key;
+        this.id = id;
+    }
+
+    public static Cursor of(String key, Long id) {
+        return new Cursor(key, id);
+    }
+
+    public static Cursor decode(String encodedCursor) {
+        try {
+            String decoded = new String(Base64.getUrlDecoder().decode(encodedCursor), StandardCharsets.UTF_8);
+            // the id comes first, so keys containing the separator are still decoded correctly
+            int separatorIndex = decoded.indexOf(SEPARATOR);
+            return new Cursor(decoded.substring(separatorIndex + 1), Long.valueOf(decoded.substring(0, separatorIndex)));
+        } catch (IllegalArgumentException | IndexOutOfBoundsException e) {
+            throw new InvalidCursorException(encodedCursor);
+        }
+    }
+
+    public String encode() {
+        String decoded = id + String.valueOf(SEPARATOR) + key;
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(decoded.getBytes(StandardCharsets.UTF_8));
+    }
+}
@@ -0,0 +1,91 @@
+package com.rodrigopeleias.bookstoremanager.pagination;
+
+import com.rodrigopeleias.bookstoremanager.pagination.dto.CursorPageDTO;
+import com.rodrigopeleias.bookstoremanager.pagination.dto.MultiGetDTO;
+import com.rodrigopeleias.bookstoremanager.pagination.exception.TooManyIdsException;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+/**
+ * Shared plumbing for keyset pagination. Pages are read with seek queries over (sort key, id) instead of OFFSET,
+ * asking for one extra row to know whether another page follows.
+ * Multi-gets fetch up to one page worth of rows by id, reporting the ids that were not found instead of failing.
+ */
+@Component
+public class CursorPagination {
+
+    private final int defaultPageSize;
+    private final int maxPageSize;
+
+    public CursorPagination(@Value("${pagination.default-size:20}") int defaultPageSize,
+                            @Value("${pagination.max-size:100}") int maxPageSize) {
+        this.defaultPageSize = defaultPageSize;
+        this.maxPageSize = maxPageSize;
+    }
+
+    public PageRequest pageRequest(Integer size) {
+        return PageRequest.of(0, pageSize(size) + 1);
+    }
+
+    public int pageSize(Integer size) {
+        return size == null ? defaultPageSize : Math.max(1, Math.min(size, maxPageSize));
+    }
+
+    public Optional<Cursor> decode(String cursor) {
+        return cursor == null || cursor.isEmpty() ? Optional.empty() : Optional.of(Cursor.decode(cursor));
+    }
+
+    public <E, D> CursorPageDTO<D> toPage(List<E> rows,
+                                         PageRequest pageRequest,
+                                         Function<E, D> mapper,
+                                         Function<E, Cursor> cursorOf) {
+        int pageSize = pageRequest.getPageSize() - 1;
+        boolean hasNext = rows.size() > pageSize;
+        List<E> pageRows = hasNext ? rows.subList(0, pageSize) : rows;
+        String nextCursor = hasNext ? cursorOf.apply(pageRows.get(pageSize - 1)).encode() : null;
+        return CursorPageDTO.<D>builder()
+                .content(pageRows.stream().map(mapper).collect(Collectors.toList()))
+                .size(pageRows.size())
+                .nextCursor(nextCursor)
+                .build();
+    }
+
+    public List<Long> distinctIds(Collection<Long> ids) {
+        List<Long> distinctIds = new ArrayList<>(new LinkedHashSet<>(ids));
+        if (distinctIds.size() > maxPageSize) {
+            throw new TooManyIdsException(distinctIds.size(), maxPageSize);
+        }
+        return distinctIds;
+    }
+
+    public <E, D> MultiGetDTO<D> toMultiGet(List<Long> ids,
+                                           List<E> rows,
+                                           Function<E, D> mapper,
+                                           Function<E, Long> idOf) {
+        Map<Long, E> rowsById = rows.stream().collect(Collectors.toMap(idOf, Function.identity()));
+        List<D> content = new ArrayList<>(ids.size());
+        List<Long> missingIds = new ArrayList<>();
+        ids.forEach(id -> {
+            E row = rowsById.get(id);
+            if (row == null) {
+                missingIds.add(id);
+            } else {
+                content.add(mapper.apply(row));
+            }
+        });
+        return MultiGetDTO.<D>builder()
+                .content(content)
+                .missingIds(missingIds)
+                .build();
+    }
+}
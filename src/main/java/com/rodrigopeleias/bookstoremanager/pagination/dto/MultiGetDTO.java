@@ -0,0 +1,19 @@
+package com.rodrigopeleias.bookstoremanager.pagination.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+@Data
+@Builder
+@AllArgsConstructor
+@NoArgsConstructor
+public class MultiGetDTO<T> {
+
+    private List<T> content;
+
+    private List<Long> missingIds;
+}
@@ -0,0 +1,7 @@
+package com.rodrigopeleias.bookstoremanager.pagination.exception;
+
+public class InvalidCursorException extends RuntimeException {
+    public InvalidCursorException(String cursor) {
+        super(String.format("Page cursor %s is not valid", cursor));
+    }
+}
@@ -0,0 +1,7 @@
+package com.rodrigopeleias.bookstoremanager.pagination.exception;
+
+public class TooManyIdsException extends RuntimeException {
+    public TooManyIdsException(int requested, int max) {
+        super(String.format("%d ids were requested but at most %d can be fetched at once", requested, max));
+    }
+}
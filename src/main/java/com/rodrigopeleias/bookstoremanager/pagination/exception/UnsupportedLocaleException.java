@@ -0,0 +1,7 @@
+package com.rodrigopeleias.bookstoremanager.pagination.exception;
+
+public class UnsupportedLocaleException extends RuntimeException {
+    public UnsupportedLocaleException(String locale) {
+        super(String.format("Locale %s is not supported for sorted listings", locale));
+    }
+}
@@ -1,11 +1,17 @@
 package com.rodrigopeleias.bookstoremanager.publishers.controller;
 
+import com.rodrigopeleias.bookstoremanager.entity.ResourceVersion;
+import com.rodrigopeleias.bookstoremanager.pagination.dto.CursorPageDTO;
+import com.rodrigopeleias.bookstoremanager.pagination.dto.MultiGetDTO;
 import com.rodrigopeleias.bookstoremanager.publishers.dto.PublisherDTO;
+import com.rodrigopeleias.bookstoremanager.publishers.dto.PublisherSuggestionDTO;
 import com.rodrigopeleias.bookstoremanager.publishers.entity.Publisher;
 import com.rodrigopeleias.bookstoremanager.publishers.service.PublisherService;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.context.request.WebRequest;
 
 import javax.validation.Valid;
 import java.util.List;
@@ -28,18 +34,55 @@ public class PublisherController implements PublisherControllerDocs {
     }
 
     @GetMapping("/{id}")
-    public PublisherDTO findById(@PathVariable Long id) {
+    public PublisherDTO findById(@PathVariable Long id, WebRequest request) {
+        ResourceVersion version = publisherService.findVersionById(id);
+        if (request.checkNotModified(version.getETag(), version.getLastModified())) {
+            return null;
+        }
         return publisherService.findById(id);
     }
 
+    @GetMapping("/code/{code}")
+    public PublisherDTO findByCode(@PathVariable String code) {
+        return publisherService.findByCode(code);
+    }
+
+    @GetMapping(params = "ids")
+    public MultiGetDTO<PublisherDTO> findAllById(@RequestParam List<Long> ids) {
+        return publisherService.findAllById(ids);
+    }
+
     @GetMapping
-    public List<PublisherDTO> findAll() {
+    public List<PublisherDTO> findAll(WebRequest request) {
+        if (request.checkNotModified(publisherService.findAllVersion().getETag())) {
+            return null;
+        }
         return publisherService.findAll();
     }
 
+    @GetMapping("/autocomplete")
+    public List<PublisherSuggestionDTO> suggest(@RequestParam String prefix,
+                                                @RequestParam(required = false) Integer size) {
+        return publisherService.suggest(prefix, size);
+    }
+
+    @GetMapping("/page")
+    public CursorPageDTO<PublisherDTO> findPage(@RequestParam(required = false) String cursor,
+                                                @RequestParam(required = false) Integer size) {
+        return publisherService.findPage(cursor, size);
+    }
+
+    @GetMapping("/sorted")
+    public CursorPageDTO<PublisherDTO> findCollatedPage(@RequestParam String locale,
+                                                        @RequestParam(required = false) String cursor,
+                                                        @RequestParam(required = false) Integer size) {
+        return publisherService.findCollatedPage(locale, cursor, size);
+    }
+
     @DeleteMapping("/{id}")
     @ResponseStatus(HttpStatus.NO_CONTENT)
-    public void delete(@PathVariable  Long id) {
-        publisherService.delete(id);
+    public void delete(@PathVariable Long id,
+                       @RequestHeader(value = HttpHeaders.IF_MATCH, required = false) String ifMatch) {
+        publisherService.delete(id, ifMatch);
     }
 }
@@ -1,10 +1,14 @@
 package com.rodrigopeleias.bookstoremanager.publishers.controller;
 
+import com.rodrigopeleias.bookstoremanager.pagination.dto.CursorPageDTO;
+import com.rodrigopeleias.bookstoremanager.pagination.dto.MultiGetDTO;
 import com.rodrigopeleias.bookstoremanager.publishers.dto.PublisherDTO;
+import com.rodrigopeleias.bookstoremanager.publishers.dto.PublisherSuggestionDTO;
 import io.swagger.annotations.Api;
 import io.swagger.annotations.ApiOperation;
 import io.swagger.annotations.ApiResponse;
 import io.swagger.annotations.ApiResponses;
+import org.springframework.web.context.request.WebRequest;
 import org.springframework.web.bind.annotation.PathVariable;
 
 import java.util.List;
@@ -22,20 +26,58 @@ public interface PublisherControllerDocs {
     @ApiOperation(value = "Find Publisher by id operation")
     @ApiResponses(value = {
             @ApiResponse(code = 200, message = "Success publisher found"),
+            @ApiResponse(code = 304, message = "Publisher not modified since the version in If-None-Match"),
             @ApiResponse(code = 404, message = "Publisher not found error")
     })
-    PublisherDTO findById(@PathVariable Long id);
+    PublisherDTO findById(@PathVariable Long id, WebRequest request);
+
+    @ApiOperation(value = "Find Publisher by code operation")
+    @ApiResponses(value = {
+            @ApiResponse(code = 200, message = "Success publisher found"),
+            @ApiResponse(code = 404, message = "Publisher not found error")
+    })
+    PublisherDTO findByCode(String code);
+
+    @ApiOperation(value = "Find many publishers by id in a single request")
+    @ApiResponses(value = {
+            @ApiResponse(code = 200, message = "Publishers found in the requested order, plus the ids not found"),
+            @ApiResponse(code = 400, message = "More ids than the maximum page size were requested")
+    })
+    MultiGetDTO<PublisherDTO> findAllById(List<Long> ids);
 
     @ApiOperation(value = "List all registered Publishers")
     @ApiResponses(value = {
             @ApiResponse(code = 200, message = "Return all registered Publishers"),
+            @ApiResponse(code = 304, message = "Publishers not modified since the version in If-None-Match")
+    })
+    List<PublisherDTO> findAll(WebRequest request);
+
+    @ApiOperation(value = "List registered Publishers one page at a time, ordered by name")
+    @ApiResponses(value = {
+            @ApiResponse(code = 200, message = "Return a page of Publishers and the cursor of the next one"),
+            @ApiResponse(code = 400, message = "Informed cursor is not valid")
+    })
+    CursorPageDTO<PublisherDTO> findPage(String cursor, Integer size);
+
+    @ApiOperation(value = "List registered Publishers one page at a time, ordered by name following the collation rules of the informed locale")
+    @ApiResponses(value = {
+            @ApiResponse(code = 200, message = "Return a page of Publishers and the cursor of the next one"),
+            @ApiResponse(code = 400, message = "Informed cursor is not valid or locale is not supported"),
+            @ApiResponse(code = 503, message = "Sorted listings are still being built, retry after the informed delay")
     })
-    List<PublisherDTO> findAll();
+    CursorPageDTO<PublisherDTO> findCollatedPage(String locale, String cursor, Integer size);
+
+    @ApiOperation(value = "Suggest publishers whose name starts with the typed prefix, ignoring case and accents, in name order")
+    @ApiResponses(value = {
+            @ApiResponse(code = 200, message = "Return up to size publisher suggestions")
+    })
+    List<PublisherSuggestionDTO> suggest(String prefix, Integer size);
 
     @ApiOperation(value = "Delete Publisher by id operation")
     @ApiResponses(value = {
             @ApiResponse(code = 204, message = "Success publisher deleted"),
-            @ApiResponse(code = 404, message = "Publisher not found error")
+            @ApiResponse(code = 404, message = "Publisher not found error"),
+            @ApiResponse(code = 412, message = "Publisher modified since the version in If-Match, or concurrently")
     })
-    void delete(@PathVariable  Long id);
+    void delete(@PathVariable  Long id, String ifMatch);
 }
@@ -0,0 +1,17 @@
+package com.rodrigopeleias.bookstoremanager.publishers.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@AllArgsConstructor
+@NoArgsConstructor
+public class PublisherSuggestionDTO {
+
+    private Long id;
+
+    private String name;
+
+    private String code;
+}
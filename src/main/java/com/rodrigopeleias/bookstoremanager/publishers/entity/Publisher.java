@@ -3,6 +3,8 @@ package com.rodrigopeleias.bookstoremanager.publishers.entity;
 import com.rodrigopeleias.bookstoremanager.books.entity.Book;
 import com.rodrigopeleias.bookstoremanager.entity.Auditable;
 import lombok.Data;
+import org.hibernate.annotations.Cache;
+import org.hibernate.annotations.CacheConcurrencyStrategy;
 
 import javax.persistence.*;
 import java.time.LocalDate;
@@ -10,10 +12,15 @@ import java.util.List;
 
 @Data
 @Entity
+@Cacheable
+@Cache(usage = CacheConcurrencyStrategy.READ_WRITE, region = Publisher.CACHE_REGION)
 public class Publisher extends Auditable {
 
+    public static final String CACHE_REGION = "publishers";
+
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "publisher_sequence")
+    @SequenceGenerator(name = "publisher_sequence", sequenceName = "publisher_sequence", allocationSize = 50)
     private Long id;
 
     @Column(nullable = false, unique = true)
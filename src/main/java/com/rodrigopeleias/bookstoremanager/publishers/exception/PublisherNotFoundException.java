@@ -6,4 +6,8 @@ public class PublisherNotFoundException extends EntityNotFoundException {
     public PublisherNotFoundException(Long id) {
         super(String.format("Publisher with id %s not exists", id));
     }
+
+    public PublisherNotFoundException(String code) {
+        super(String.format("Publisher with code %s not exists", code));
+    }
 }
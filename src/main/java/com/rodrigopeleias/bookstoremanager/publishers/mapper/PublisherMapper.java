@@ -1,6 +1,7 @@
 package com.rodrigopeleias.bookstoremanager.publishers.mapper;
 
 import com.rodrigopeleias.bookstoremanager.publishers.dto.PublisherDTO;
+import com.rodrigopeleias.bookstoremanager.publishers.dto.PublisherSuggestionDTO;
 import com.rodrigopeleias.bookstoremanager.publishers.entity.Publisher;
 import org.mapstruct.Mapper;
 import org.mapstruct.factory.Mappers;
@@ -13,4 +14,6 @@ public interface PublisherMapper {
     Publisher toModel(PublisherDTO publisherDTO);
 
     PublisherDTO toDTO(Publisher publisher);
+
+    PublisherSuggestionDTO toSuggestionDTO(Publisher publisher);
 }
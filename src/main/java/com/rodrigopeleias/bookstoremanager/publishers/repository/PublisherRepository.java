@@ -1,11 +1,62 @@
 package com.rodrigopeleias.bookstoremanager.publishers.repository;
 
+import com.rodrigopeleias.bookstoremanager.config.SecondLevelCacheConfig;
+import com.rodrigopeleias.bookstoremanager.entity.ResourceVersion;
+import com.rodrigopeleias.bookstoremanager.publishers.dto.PublisherDTO;
 import com.rodrigopeleias.bookstoremanager.publishers.entity.Publisher;
+import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
+import org.springframework.data.repository.query.Param;
 
+import javax.persistence.QueryHint;
+import java.util.List;
 import java.util.Optional;
+import java.util.stream.Stream;
 
 public interface PublisherRepository extends JpaRepository<Publisher, Long> {
 
+    @QueryHints({
+            @QueryHint(name = org.hibernate.annotations.QueryHints.CACHEABLE, value = "true"),
+            @QueryHint(name = org.hibernate.annotations.QueryHints.CACHE_REGION, value = SecondLevelCacheConfig.REFERENCE_QUERIES_REGION)
+    })
     Optional<Publisher> findByNameOrCode(String name, String code);
+
+    Optional<Publisher> findByCode(String code);
+
+    @QueryHints({
+            @QueryHint(name = org.hibernate.annotations.QueryHints.CACHEABLE, value = "true"),
+            @QueryHint(name = org.hibernate.annotations.QueryHints.CACHE_REGION, value = SecondLevelCacheConfig.REFERENCE_QUERIES_REGION)
+    })
+    @Override
+    List<Publisher> findAll();
+
+    @QueryHints({
+            @QueryHint(name = org.hibernate.annotations.QueryHints.CACHEABLE, value = "true"),
+            @QueryHint(name = org.hibernate.annotations.QueryHints.CACHE_REGION, value = SecondLevelCacheConfig.REFERENCE_QUERIES_REGION)
+    })
+    @Query("select new com.rodrigopeleias.bookstoremanager.publishers.dto.PublisherDTO(p.id, p.name, p.code, p.foundationDate) from Publisher p")
+    List<PublisherDTO> findAllPublisherDTOs();
+
+    @QueryHints({
+            @QueryHint(name = org.hibernate.annotations.QueryHints.CACHEABLE, value = "true"),
+            @QueryHint(name = org.hibernate.annotations.QueryHints.CACHE_REGION, value = SecondLevelCacheConfig.REFERENCE_QUERIES_REGION)
+    })
+    @Query("select new com.rodrigopeleias.bookstoremanager.entity.ResourceVersion(count(p), sum(p.version), max(p.lastModifiedDate)) from Publisher p")
+    ResourceVersion findCollectionVersion();
+
+    List<Publisher> findAllByOrderByNameAscIdAsc(Pageable pageable);
+
+    List<Publisher> findAllByNameStartingWithIgnoreCaseOrderByNameAsc(String prefix, Pageable pageable);
+
+    @Query("select p from Publisher p where p.name > :name or (p.name = :name and p.id > :id) order by p.name, p.id")
+    List<Publisher> findPageAfter(@Param("name") String name, @Param("id") Long id, Pageable pageable);
+
+    @QueryHints({
+            @QueryHint(name = org.hibernate.annotations.QueryHints.FETCH_SIZE, value = "500"),
+            @QueryHint(name = org.hibernate.annotations.QueryHints.READ_ONLY, value = "true")
+    })
+    @Query("select p from Publisher p")
+    Stream<Publisher> streamAll();
 }
@@ -0,0 +1,137 @@
+package com.rodrigopeleias.bookstoremanager.publishers.service;
+
+import com.rodrigopeleias.bookstoremanager.exception.ServiceOverloadedException;
+import com.rodrigopeleias.bookstoremanager.pagination.CollatedIndex;
+import com.rodrigopeleias.bookstoremanager.pagination.CollationLocales;
+import com.rodrigopeleias.bookstoremanager.pagination.Cursor;
+import com.rodrigopeleias.bookstoremanager.publishers.dto.PublisherDTO;
+import com.rodrigopeleias.bookstoremanager.publishers.dto.PublisherSuggestionDTO;
+import com.rodrigopeleias.bookstoremanager.publishers.repository.PublisherRepository;
+import com.rodrigopeleias.bookstoremanager.utils.RadixTrie;
+import com.rodrigopeleias.bookstoremanager.utils.SearchTerms;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+/**
+ * Publisher ids keyed by code, used for code lookups without a database query, plus a radix trie over the normalized
+ * names answering type-ahead suggestions in name order and the publisher ids in the name order of each supported locale.
+ * Only writes made on this node are applied in between rebuilds, so it is never asked whether a publisher is missing.
+ */
+@Slf4j
+@Component
+public class PublisherKeyIndex {
+
+    private final PublisherRepository publisherRepository;
+    private final CollationLocales collationLocales;
+    private final long retryAfterSeconds;
+    private final ReadWriteLock lock = new ReentrantReadWriteLock();
+
+    // null until the first rebuild completes, meanwhile callers fall back to the database
+    private volatile Map<String, Long> publisherIdsByCode;
+    private RadixTrie<PublisherSuggestionDTO> suggestions;
+    private CollatedIndex collatedNames;
+
+    @Autowired
+    public PublisherKeyIndex(PublisherRepository publisherRepository,
+                             CollationLocales collationLocales,
+                             @Value("${publishers.key-index.retry-after:5}") long retryAfterSeconds) {
+        this.publisherRepository = publisherRepository;
+        this.collationLocales = collationLocales;
+        this.retryAfterSeconds = retryAfterSeconds;
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    @Scheduled(initialDelayString = "${publishers.key-index.rebuild-interval-millis:300000}",
+            fixedDelayString = "${publishers.key-index.rebuild-interval-millis:300000}")
+    public synchronized void rebuild() {
+        List<PublisherDTO> publishers = publisherRepository.findAllPublisherDTOs();
+        Map<String, Long> rebuilt = new ConcurrentHashMap<>(Math.max(16, publishers.size() * 2));
+        RadixTrie<PublisherSuggestionDTO> rebuiltSuggestions = new RadixTrie<>();
+        CollatedIndex rebuiltCollatedNames = collationLocales.newIndex();
+        publishers.forEach(publisher -> {
+            rebuilt.put(publisher.getCode(), publisher.getId());
+            rebuiltSuggestions.put(SearchTerms.toKey(publisher.getName()),
+                    new PublisherSuggestionDTO(publisher.getId(), publisher.getName(), publisher.getCode()));
+            rebuiltCollatedNames.add(publisher.getId(), publisher.getName());
+        });
+        update(() -> {
+            suggestions = rebuiltSuggestions;
+            collatedNames = rebuiltCollatedNames;
+            publisherIdsByCode = rebuilt;
+        });
+        log.info("Rebuilt publisher key index with {} publishers", publishers.size());
+    }
+
+    public Optional<Long> findIdByCode(String code) {
+        Map<String, Long> index = publisherIdsByCode;
+        return index == null ? Optional.empty() : Optional.ofNullable(index.get(code));
+    }
+
+    public Optional<List<PublisherSuggestionDTO>> suggest(String prefix, int limit) {
+        lock.readLock().lock();
+        try {
+            if (suggestions == null) {
+                return Optional.empty();
+            }
+            List<PublisherSuggestionDTO> found = new ArrayList<>(limit);
+            suggestions.forEachWithPrefix(SearchTerms.toKey(prefix), suggestion -> found.add(suggestion) && found.size() < limit);
+            return Optional.of(found);
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    public List<Long> collatedPage(String languageTag, Optional<Cursor> after, int limit) {
+        lock.readLock().lock();
+        try {
+            if (collatedNames == null) {
+                throw new ServiceOverloadedException("Publisher key index is still being built, try again later", retryAfterSeconds);
+            }
+            return collatedNames.page(collatedNames.resolve(languageTag), after, limit);
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    public synchronized void add(Long id, String name, String code) {
+        if (publisherIdsByCode != null) {
+            publisherIdsByCode.put(code, id);
+            update(() -> {
+                suggestions.put(SearchTerms.toKey(name), new PublisherSuggestionDTO(id, name, code));
+                collatedNames.add(id, name);
+            });
+        }
+    }
+
+    public synchronized void remove(Long id, String name, String code) {
+        if (publisherIdsByCode != null) {
+            publisherIdsByCode.remove(code, id);
+            update(() -> {
+                suggestions.remove(SearchTerms.toKey(name), new PublisherSuggestionDTO(id, name, code));
+                collatedNames.remove(id, name);
+            });
+        }
+    }
+
+    private void update(Runnable update) {
+        lock.writeLock().lock();
+        try {
+            update.run();
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+}
@@ -1,16 +1,32 @@
 package com.rodrigopeleias.bookstoremanager.publishers.service;
 
+import com.rodrigopeleias.bookstoremanager.changes.enums.CatalogResource;
+import com.rodrigopeleias.bookstoremanager.changes.service.CatalogChangeService;
+import com.rodrigopeleias.bookstoremanager.entity.AfterCommit;
+import com.rodrigopeleias.bookstoremanager.entity.MultiIdLoader;
+import com.rodrigopeleias.bookstoremanager.entity.ResourceVersion;
+import com.rodrigopeleias.bookstoremanager.pagination.Cursor;
+import com.rodrigopeleias.bookstoremanager.pagination.CursorPagination;
+import com.rodrigopeleias.bookstoremanager.pagination.dto.CursorPageDTO;
+import com.rodrigopeleias.bookstoremanager.pagination.dto.MultiGetDTO;
 import com.rodrigopeleias.bookstoremanager.publishers.dto.PublisherDTO;
+import com.rodrigopeleias.bookstoremanager.publishers.dto.PublisherSuggestionDTO;
 import com.rodrigopeleias.bookstoremanager.publishers.entity.Publisher;
 import com.rodrigopeleias.bookstoremanager.publishers.exception.PublisherAlreadyExistsException;
 import com.rodrigopeleias.bookstoremanager.publishers.exception.PublisherNotFoundException;
 import com.rodrigopeleias.bookstoremanager.publishers.mapper.PublisherMapper;
 import com.rodrigopeleias.bookstoremanager.publishers.repository.PublisherRepository;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.data.domain.PageRequest;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
 
 import java.util.List;
+import java.util.Map;
+import java.util.Objects;
 import java.util.Optional;
+import java.util.function.Function;
 import java.util.stream.Collectors;
 
 @Service
@@ -19,17 +35,38 @@ public class PublisherService {
     private final static PublisherMapper publisherMappeer = PublisherMapper.INSTANCE;
 
     private PublisherRepository publisherRepository;
+    private CursorPagination cursorPagination;
+    private PublisherKeyIndex publisherKeyIndex;
+    private MultiIdLoader multiIdLoader;
+    private CatalogChangeService catalogChangeService;
 
     @Autowired
-    public PublisherService(PublisherRepository publisherRepository) {
+    public PublisherService(PublisherRepository publisherRepository,
+                            CursorPagination cursorPagination,
+                            PublisherKeyIndex publisherKeyIndex,
+                            MultiIdLoader multiIdLoader,
+                            CatalogChangeService catalogChangeService) {
         this.publisherRepository = publisherRepository;
+        this.cursorPagination = cursorPagination;
+        this.publisherKeyIndex = publisherKeyIndex;
+        this.multiIdLoader = multiIdLoader;
+        this.catalogChangeService = catalogChangeService;
     }
 
+    @Transactional
     public PublisherDTO create(PublisherDTO publisherDTO) {
         verifyIfExists(publisherDTO.getName(), publisherDTO.getCode());
 
         Publisher publisherToCreate = publisherMappeer.toModel(publisherDTO);
-        Publisher createdPublisher = publisherRepository.save(publisherToCreate);
+        Publisher createdPublisher;
+        try {
+            createdPublisher = publisherRepository.saveAndFlush(publisherToCreate);
+        } catch (DataIntegrityViolationException e) {
+            // registered after the check above, by a concurrent request or on another node
+            throw new PublisherAlreadyExistsException(publisherDTO.getName(), publisherDTO.getCode());
+        }
+        catalogChangeService.recordCreated(CatalogResource.PUBLISHER, createdPublisher.getId());
+        AfterCommit.run(() -> publisherKeyIndex.add(createdPublisher.getId(), createdPublisher.getName(), createdPublisher.getCode()));
         return  publisherMappeer.toDTO(createdPublisher);
     }
 
@@ -39,28 +76,86 @@ public class PublisherService {
                 .orElseThrow(() -> new PublisherNotFoundException(id));
     }
 
+    public ResourceVersion findVersionById(Long id) {
+        return ResourceVersion.of(verifyAndGetIfExists(id));
+    }
+
+    public ResourceVersion findAllVersion() {
+        return publisherRepository.findCollectionVersion();
+    }
+
+    public MultiGetDTO<PublisherDTO> findAllById(List<Long> ids) {
+        List<Long> distinctIds = cursorPagination.distinctIds(ids);
+        List<Publisher> foundPublishers = multiIdLoader.findAllById(Publisher.class, distinctIds);
+        return cursorPagination.toMultiGet(distinctIds, foundPublishers, publisherMappeer::toDTO, Publisher::getId);
+    }
+
+    public PublisherDTO findByCode(String code) {
+        // the index only knows the writes of this node since its last rebuild, so a miss is checked in the database
+        return publisherKeyIndex.findIdByCode(code)
+                .flatMap(publisherRepository::findById)
+                .or(() -> publisherRepository.findByCode(code))
+                .map(publisherMappeer::toDTO)
+                .orElseThrow(() -> new PublisherNotFoundException(code));
+    }
+
+    @Transactional(readOnly = true)
     public List<PublisherDTO> findAll() {
-        return publisherRepository.findAll()
+        return publisherRepository.findAllPublisherDTOs();
+    }
+
+    public List<PublisherSuggestionDTO> suggest(String prefix, Integer size) {
+        int limit = cursorPagination.pageSize(size);
+        return publisherKeyIndex.suggest(prefix, limit)
+                .orElseGet(() -> publisherRepository.findAllByNameStartingWithIgnoreCaseOrderByNameAsc(prefix, PageRequest.of(0, limit))
+                        .stream()
+                        .map(publisherMappeer::toSuggestionDTO)
+                        .collect(Collectors.toList()));
+    }
+
+    public CursorPageDTO<PublisherDTO> findCollatedPage(String locale, String cursor, Integer size) {
+        PageRequest pageRequest = cursorPagination.pageRequest(size);
+        List<Long> sortedIds = publisherKeyIndex.collatedPage(locale, cursorPagination.decode(cursor), pageRequest.getPageSize());
+        Map<Long, Publisher> foundPublishersById = publisherRepository.findAllById(sortedIds)
                 .stream()
-                .map(publisherMappeer::toDTO)
+                .collect(Collectors.toMap(Publisher::getId, Function.identity()));
+        List<Publisher> publishers = sortedIds.stream()
+                .map(foundPublishersById::get)
+                .filter(Objects::nonNull)
                 .collect(Collectors.toList());
+        return cursorPagination.toPage(publishers, pageRequest, publisherMappeer::toDTO,
+                publisher -> Cursor.of(publisher.getName(), publisher.getId()));
+    }
+
+    public CursorPageDTO<PublisherDTO> findPage(String cursor, Integer size) {
+        PageRequest pageRequest = cursorPagination.pageRequest(size);
+        List<Publisher> publishers = cursorPagination.decode(cursor)
+                .map(after -> publisherRepository.findPageAfter(after.getKey(), after.getId(), pageRequest))
+                .orElseGet(() -> publisherRepository.findAllByOrderByNameAscIdAsc(pageRequest));
+        return cursorPagination.toPage(publishers, pageRequest, publisherMappeer::toDTO,
+                publisher -> Cursor.of(publisher.getName(), publisher.getId()));
     }
 
-    public void delete(Long id) {
-        verifyIfExists(id);
-        publisherRepository.deleteById(id);
+    @Transactional
+    public void delete(Long id, String ifMatch) {
+        Publisher publisherToDelete = verifyAndGetIfExists(id);
+        ResourceVersion.of(publisherToDelete).verifyIfMatch(ifMatch);
+        publisherRepository.delete(publisherToDelete);
+        catalogChangeService.recordDeleted(CatalogResource.PUBLISHER, id);
+        AfterCommit.run(() -> publisherKeyIndex.remove(id, publisherToDelete.getName(), publisherToDelete.getCode()));
     }
 
     private void verifyIfExists(String name, String code) {
+        // the index cannot tell a key deleted or registered on another node, so only the database is trusted here
         Optional<Publisher> duplicatedPublisher = publisherRepository
-                .findByNameOrCode(name,code);
+                .findByNameOrCode(name, code);
         if (duplicatedPublisher.isPresent()) {
             throw new PublisherAlreadyExistsException(name, code);
         }
     }
 
-    private void verifyIfExists(Long id) {
-        publisherRepository.findById(id)
+    public Publisher verifyAndGetIfExists(Long id) {
+        return publisherRepository.findById(id)
                 .orElseThrow(() -> new PublisherNotFoundException(id));
     }
 }
@@ -3,15 +3,24 @@ package com.rodrigopeleias.bookstoremanager.users.controller;
 import com.rodrigopeleias.bookstoremanager.users.dto.JwtRequest;
 import com.rodrigopeleias.bookstoremanager.users.dto.JwtResponse;
 import com.rodrigopeleias.bookstoremanager.users.dto.MessageDTO;
+import com.rodrigopeleias.bookstoremanager.users.dto.RefreshTokenRequest;
+import com.rodrigopeleias.bookstoremanager.users.dto.UserAvailabilityDTO;
 import com.rodrigopeleias.bookstoremanager.users.dto.UserDTO;
+import com.rodrigopeleias.bookstoremanager.users.dto.UserPatchDTO;
 import com.rodrigopeleias.bookstoremanager.users.service.AuthenticationService;
+import com.rodrigopeleias.bookstoremanager.users.service.LoginRateLimiter;
 import com.rodrigopeleias.bookstoremanager.users.service.UserService;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
+import org.springframework.validation.annotation.Validated;
 import org.springframework.web.bind.annotation.*;
 
+import javax.servlet.http.HttpServletRequest;
+import javax.servlet.http.HttpServletResponse;
 import javax.validation.Valid;
+import javax.validation.groups.Default;
 
 @RestController
 @RequestMapping("/api/v1/users")
@@ -21,31 +30,74 @@ public class UserController implements UserControllerDocs {
 
     private AuthenticationService authenticationService;
 
+    private LoginRateLimiter loginRateLimiter;
+
     @Autowired
-    public UserController(UserService userService, AuthenticationService authenticationService) {
+    public UserController(UserService userService,
+                          AuthenticationService authenticationService,
+                          LoginRateLimiter loginRateLimiter) {
         this.userService = userService;
         this.authenticationService = authenticationService;
+        this.loginRateLimiter = loginRateLimiter;
     }
 
     @PostMapping
     @ResponseStatus(HttpStatus.CREATED)
-    public MessageDTO create(@RequestBody @Valid UserDTO userDTO) {
-        return userService.create(userDTO);
+    public MessageDTO create(@RequestBody @Validated({Default.class, UserDTO.Creation.class}) UserDTO userDTO,
+                             HttpServletResponse response) {
+        return withETag(userService.create(userDTO), response);
+    }
+
+    @GetMapping("/availability")
+    public UserAvailabilityDTO checkAvailability(@RequestParam(required = false) String username,
+                                                 @RequestParam(required = false) String email) {
+        return userService.checkAvailability(username, email);
     }
 
     @DeleteMapping("/{id}")
     @ResponseStatus(HttpStatus.NO_CONTENT)
-    public void delete(@PathVariable Long id) {
-        userService.delete(id);
+    public void delete(@PathVariable Long id,
+                       @RequestHeader(value = HttpHeaders.IF_MATCH, required = false) String ifMatch) {
+        userService.delete(id, ifMatch);
     }
 
     @PutMapping("/{id}")
-    public MessageDTO update(@PathVariable Long id, @RequestBody @Valid UserDTO userToUpdateDTO) {
-        return userService.update(id, userToUpdateDTO);
+    public MessageDTO update(@PathVariable Long id,
+                             @RequestBody @Valid UserDTO userToUpdateDTO,
+                             @RequestHeader(value = HttpHeaders.IF_MATCH, required = false) String ifMatch,
+                             HttpServletResponse response) {
+        return withETag(userService.update(id, userToUpdateDTO, ifMatch), response);
+    }
+
+    @PatchMapping("/{id}")
+    public MessageDTO patch(@PathVariable Long id,
+                            @RequestBody @Valid UserPatchDTO userPatchDTO,
+                            @RequestHeader(value = HttpHeaders.IF_MATCH, required = false) String ifMatch,
+                            HttpServletResponse response) {
+        return withETag(userService.patch(id, userPatchDTO, ifMatch), response);
     }
 
     @PostMapping(value = "/authenticate")
-    public JwtResponse createAuthenticationToken(@RequestBody @Valid JwtRequest jwtRequest) {
+    public JwtResponse createAuthenticationToken(@RequestBody @Valid JwtRequest jwtRequest, HttpServletRequest request) {
+        loginRateLimiter.verifyAttemptAllowed(jwtRequest.getUsername(), request.getRemoteAddr());
         return authenticationService.createAuthenticationToken(jwtRequest);
     }
+
+    @PostMapping(value = "/refresh")
+    public JwtResponse refreshAuthenticationToken(@RequestBody @Valid RefreshTokenRequest refreshTokenRequest) {
+        return authenticationService.refreshAuthenticationToken(refreshTokenRequest);
+    }
+
+    @PostMapping(value = "/logout")
+    @ResponseStatus(HttpStatus.NO_CONTENT)
+    public void revokeAuthenticationToken(@RequestBody @Valid RefreshTokenRequest refreshTokenRequest) {
+        authenticationService.revokeAuthenticationToken(refreshTokenRequest);
+    }
+
+    private static MessageDTO withETag(MessageDTO messageDTO, HttpServletResponse response) {
+        if (messageDTO.getResourceVersion() != null) {
+            response.setHeader(HttpHeaders.ETAG, messageDTO.getResourceVersion().getETag());
+        }
+        return messageDTO;
+    }
 }
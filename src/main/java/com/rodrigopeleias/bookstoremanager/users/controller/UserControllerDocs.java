@@ -3,7 +3,10 @@ package com.rodrigopeleias.bookstoremanager.users.controller;
 import com.rodrigopeleias.bookstoremanager.users.dto.JwtRequest;
 import com.rodrigopeleias.bookstoremanager.users.dto.JwtResponse;
 import com.rodrigopeleias.bookstoremanager.users.dto.MessageDTO;
+import com.rodrigopeleias.bookstoremanager.users.dto.RefreshTokenRequest;
+import com.rodrigopeleias.bookstoremanager.users.dto.UserAvailabilityDTO;
 import com.rodrigopeleias.bookstoremanager.users.dto.UserDTO;
+import com.rodrigopeleias.bookstoremanager.users.dto.UserPatchDTO;
 import io.swagger.annotations.Api;
 import io.swagger.annotations.ApiOperation;
 import io.swagger.annotations.ApiResponse;
@@ -11,6 +14,8 @@ import io.swagger.annotations.ApiResponses;
 import org.springframework.web.bind.annotation.PathVariable;
 import org.springframework.web.bind.annotation.RequestBody;
 
+import javax.servlet.http.HttpServletRequest;
+import javax.servlet.http.HttpServletResponse;
 import javax.validation.Valid;
 
 @Api("system users management")
@@ -21,26 +26,60 @@ public interface UserControllerDocs {
             @ApiResponse(code = 201, message = "Success user creation"),
             @ApiResponse(code = 400, message = "Missing required field, or an error on validation build rules")
     })
-    MessageDTO create(UserDTO userDTO);
+    MessageDTO create(UserDTO userDTO, HttpServletResponse response);
+
+    @ApiOperation(value = "Username and email availability check, before a user creation")
+    @ApiResponses(value = {
+            @ApiResponse(code = 200, message = "Availability of each informed username and email")
+    })
+    UserAvailabilityDTO checkAvailability(String username, String email);
 
     @ApiOperation(value = "User exclusion operation")
     @ApiResponses(value = {
             @ApiResponse(code = 204, message = "Success user exclusion"),
-            @ApiResponse(code = 404, message = "User with informed id not found in the system")
+            @ApiResponse(code = 404, message = "User with informed id not found in the system"),
+            @ApiResponse(code = 412, message = "User modified since the version in If-Match, or concurrently")
     })
-    void delete(Long id);
+    void delete(Long id, String ifMatch);
 
-    @ApiOperation(value = "User update operation")
+    @ApiOperation(value = "User update operation", notes = "An omitted password keeps the current one")
     @ApiResponses(value = {
             @ApiResponse(code = 200, message = "Success user updated"),
-            @ApiResponse(code = 400, message = "Missing required field, or an error on validation build rules")
+            @ApiResponse(code = 400, message = "Missing required field, or an error on validation build rules"),
+            @ApiResponse(code = 412, message = "User modified since the version in If-Match, or concurrently")
+    })
+    MessageDTO update(@PathVariable Long id, @RequestBody @Valid UserDTO userToUpdateDTO, String ifMatch, HttpServletResponse response);
+
+    @ApiOperation(value = "User partial update operation, only informed fields are changed")
+    @ApiResponses(value = {
+            @ApiResponse(code = 200, message = "Success user updated"),
+            @ApiResponse(code = 400, message = "Informed field with an error on validation build rules"),
+            @ApiResponse(code = 404, message = "User with informed id not found in the system"),
+            @ApiResponse(code = 412, message = "User modified since the version in If-Match, or concurrently")
     })
-    MessageDTO update(@PathVariable Long id, @RequestBody @Valid UserDTO userToUpdateDTO);
+    MessageDTO patch(@PathVariable Long id, @RequestBody @Valid UserPatchDTO userPatchDTO, String ifMatch, HttpServletResponse response);
 
     @ApiOperation(value = "User authentication operation")
     @ApiResponses(value = {
             @ApiResponse(code = 200, message = "Success user authenticated"),
-            @ApiResponse(code = 404, message = "User not found")
+            @ApiResponse(code = 404, message = "User not found"),
+            @ApiResponse(code = 429, message = "Too many authentication attempts for the username or client address")
+    })
+    JwtResponse createAuthenticationToken(@RequestBody @Valid JwtRequest jwtRequest, HttpServletRequest request);
+
+    @ApiOperation(value = "Access token refresh operation, the informed refresh token can only be used once",
+            notes = "Used refresh tokens are only remembered by the node that served the refresh")
+    @ApiResponses(value = {
+            @ApiResponse(code = 200, message = "Success new access and refresh tokens issued"),
+            @ApiResponse(code = 401, message = "Refresh token is invalid, expired or already used")
+    })
+    JwtResponse refreshAuthenticationToken(@RequestBody @Valid RefreshTokenRequest refreshTokenRequest);
+
+    @ApiOperation(value = "Logout operation, revokes the refresh token and the access token issued with it",
+            notes = "Revoked tokens are only rejected by the node that served the logout, other nodes accept them until they expire")
+    @ApiResponses(value = {
+            @ApiResponse(code = 204, message = "Success tokens revoked"),
+            @ApiResponse(code = 401, message = "Refresh token is invalid, expired or already used")
     })
-    JwtResponse createAuthenticationToken(@RequestBody @Valid JwtRequest jwtRequest);
+    void revokeAuthenticationToken(@RequestBody @Valid RefreshTokenRequest refreshTokenRequest);
 }
@@ -16,12 +16,25 @@ public class AuthenticatedUser implements UserDetails {
     private String username;
     private String password;
     private String role;
+    private long tokenVersion;
+
+    public AuthenticatedUser(String username, String password, String role) {
+        this(username, password, role, 0);
+    }
 
     @Override
     public Collection<? extends GrantedAuthority> getAuthorities() {
         return Collections.singletonList(new SimpleGrantedAuthority(ROLE_PREFIX + role));
     }
 
+    public String getRole() {
+        return role;
+    }
+
+    public long getTokenVersion() {
+        return tokenVersion;
+    }
+
     @Override
     public String getPassword() {
         return password;
@@ -8,4 +8,6 @@ import lombok.Getter;
 public class JwtResponse {
 
     private final String jwtToken;
+
+    private final String refreshToken;
 }
@@ -1,5 +1,7 @@
 package com.rodrigopeleias.bookstoremanager.users.dto;
 
+import com.fasterxml.jackson.annotation.JsonIgnore;
+import com.rodrigopeleias.bookstoremanager.entity.ResourceVersion;
 import lombok.AllArgsConstructor;
 import lombok.Builder;
 import lombok.Data;
@@ -11,4 +13,8 @@ import lombok.NoArgsConstructor;
 @NoArgsConstructor
 public class MessageDTO {
     private String message;
+
+    // sent as the ETag header instead, so the next write can be made conditional with If-Match
+    @JsonIgnore
+    private ResourceVersion resourceVersion;
 }
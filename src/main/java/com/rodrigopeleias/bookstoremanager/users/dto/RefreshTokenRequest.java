@@ -0,0 +1,18 @@
+package com.rodrigopeleias.bookstoremanager.users.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import javax.validation.constraints.NotEmpty;
+import javax.validation.constraints.NotNull;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class RefreshTokenRequest {
+
+    @NotNull
+    @NotEmpty
+    private String refreshToken;
+}
@@ -0,0 +1,23 @@
+package com.rodrigopeleias.bookstoremanager.users.dto;
+
+import com.fasterxml.jackson.annotation.JsonInclude;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@Builder
+@AllArgsConstructor
+@NoArgsConstructor
+@JsonInclude(JsonInclude.Include.NON_NULL)
+public class UserAvailabilityDTO {
+
+    private String username;
+
+    private Boolean usernameAvailable;
+
+    private String email;
+
+    private Boolean emailAvailable;
+}
@@ -42,8 +42,9 @@ public class UserDTO {
     @NotEmpty
     private String username;
 
-    @NotNull
-    @NotEmpty
+    // only required on creation, an update without it keeps the current password and skips hashing
+    @NotEmpty(groups = Creation.class)
+    @Size(min = 1)
     private String password;
 
     @NotNull
@@ -53,4 +54,7 @@ public class UserDTO {
     @NotNull
     @Enumerated(EnumType.STRING)
     private Role role;
+
+    public interface Creation {
+    }
 }
@@ -0,0 +1,46 @@
+package com.rodrigopeleias.bookstoremanager.users.dto;
+
+import com.fasterxml.jackson.annotation.JsonFormat;
+import com.rodrigopeleias.bookstoremanager.users.enums.Gender;
+import com.rodrigopeleias.bookstoremanager.users.enums.Role;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import javax.persistence.EnumType;
+import javax.persistence.Enumerated;
+import javax.validation.constraints.Email;
+import javax.validation.constraints.Max;
+import javax.validation.constraints.Size;
+import java.time.LocalDate;
+
+@Data
+@AllArgsConstructor
+@NoArgsConstructor
+public class UserPatchDTO {
+
+    @Size(min = 1, max = 255)
+    private String name;
+
+    @Max(120)
+    private Integer age;
+
+    @Enumerated(EnumType.STRING)
+    private Gender gender;
+
+    @Size(min = 1)
+    @Email
+    private String email;
+
+    @Size(min = 1)
+    private String username;
+
+    @Size(min = 1)
+    private String password;
+
+    @JsonFormat(shape = JsonFormat.Shape.STRING, pattern = "dd/MM/yyyy")
+    private LocalDate birthdate;
+
+    @Enumerated(EnumType.STRING)
+    private Role role;
+}
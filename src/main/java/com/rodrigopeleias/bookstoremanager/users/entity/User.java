@@ -5,6 +5,7 @@ import com.rodrigopeleias.bookstoremanager.entity.Auditable;
 import com.rodrigopeleias.bookstoremanager.users.enums.Gender;
 import com.rodrigopeleias.bookstoremanager.users.enums.Role;
 import lombok.Data;
+import org.hibernate.annotations.DynamicUpdate;
 
 import javax.persistence.*;
 import java.time.LocalDate;
@@ -12,10 +13,12 @@ import java.util.List;
 
 @Data
 @Entity
+@DynamicUpdate
 public class User extends Auditable {
 
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "user_sequence")
+    @SequenceGenerator(name = "user_sequence", sequenceName = "user_sequence", allocationSize = 50)
     private Long id;
 
     @Column(nullable = false)
@@ -46,4 +49,8 @@ public class User extends Auditable {
     @Column(nullable = false, length = 20)
     @Enumerated(EnumType.STRING)
     private Role role;
+
+    // bumped whenever the tokens issued so far must stop being accepted, checked against their version claim
+    @Column(nullable = false)
+    private long tokenVersion;
 }
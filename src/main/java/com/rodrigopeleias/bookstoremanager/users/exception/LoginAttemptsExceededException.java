@@ -0,0 +1,14 @@
+package com.rodrigopeleias.bookstoremanager.users.exception;
+
+import lombok.Getter;
+
+@Getter
+public class LoginAttemptsExceededException extends RuntimeException {
+
+    private final long retryAfterSeconds;
+
+    public LoginAttemptsExceededException(long retryAfterSeconds) {
+        super(String.format("Too many authentication attempts, try again in %s seconds", retryAfterSeconds));
+        this.retryAfterSeconds = retryAfterSeconds;
+    }
+}
@@ -1,15 +1,31 @@
 package com.rodrigopeleias.bookstoremanager.users.mapper;
 
 import com.rodrigopeleias.bookstoremanager.users.dto.UserDTO;
+import com.rodrigopeleias.bookstoremanager.users.dto.UserPatchDTO;
 import com.rodrigopeleias.bookstoremanager.users.entity.User;
+import org.mapstruct.BeanMapping;
 import org.mapstruct.Mapper;
+import org.mapstruct.Mapping;
+import org.mapstruct.MappingTarget;
+import org.mapstruct.NullValuePropertyMappingStrategy;
 import org.mapstruct.factory.Mappers;
 
 @Mapper
 public interface UserMapper {
     UserMapper INSTANCE = Mappers.getMapper(UserMapper.class);
 
+    @Mapping(target = "tokenVersion", ignore = true)
     User toModel(UserDTO userDTO);
 
     UserDTO toDTO(User user);
+
+    @BeanMapping(nullValuePropertyMappingStrategy = NullValuePropertyMappingStrategy.IGNORE)
+    @Mapping(target = "id", ignore = true)
+    @Mapping(target = "password", ignore = true)
+    @Mapping(target = "books", ignore = true)
+    @Mapping(target = "createdDate", ignore = true)
+    @Mapping(target = "lastModifiedDate", ignore = true)
+    @Mapping(target = "version", ignore = true)
+    @Mapping(target = "tokenVersion", ignore = true)
+    void updateModel(UserPatchDTO userPatchDTO, @MappingTarget User user);
 }
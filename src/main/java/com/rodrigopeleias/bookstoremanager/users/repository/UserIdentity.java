@@ -0,0 +1,8 @@
+package com.rodrigopeleias.bookstoremanager.users.repository;
+
+public interface UserIdentity {
+
+    String getUsername();
+
+    String getEmail();
+}
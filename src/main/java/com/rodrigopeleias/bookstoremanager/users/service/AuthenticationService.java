@@ -1,11 +1,18 @@
 package com.rodrigopeleias.bookstoremanager.users.service;
 
+import com.rodrigopeleias.bookstoremanager.config.BoundedPasswordEncoder;
 import com.rodrigopeleias.bookstoremanager.users.dto.AuthenticatedUser;
 import com.rodrigopeleias.bookstoremanager.users.dto.JwtRequest;
 import com.rodrigopeleias.bookstoremanager.users.dto.JwtResponse;
+import com.rodrigopeleias.bookstoremanager.users.dto.RefreshTokenRequest;
 import com.rodrigopeleias.bookstoremanager.users.entity.User;
+import com.rodrigopeleias.bookstoremanager.users.exception.InvalidRefreshTokenException;
 import com.rodrigopeleias.bookstoremanager.users.repository.UserRepository;
+import io.jsonwebtoken.Claims;
+import io.jsonwebtoken.JwtException;
 import org.mapstruct.ap.spi.PrefixEnumTransformationStrategy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.security.authentication.AuthenticationManager;
 import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
@@ -15,9 +22,16 @@ import org.springframework.security.core.userdetails.UserDetailsService;
 import org.springframework.security.core.userdetails.UsernameNotFoundException;
 import org.springframework.stereotype.Service;
 
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+
 @Service
 public class AuthenticationService implements UserDetailsService {
 
+    private static final Logger LOGGER = LoggerFactory.getLogger(AuthenticationService.class);
+
+    private final Set<String> pendingPasswordUpgrades = ConcurrentHashMap.newKeySet();
+
     @Autowired
     private UserRepository userRepository;
 
@@ -27,31 +41,118 @@ public class AuthenticationService implements UserDetailsService {
     @Autowired
     private JwtTokenManager jwtTokenManager;
 
+    @Autowired
+    private UserDetailsCache userDetailsCache;
+
+    @Autowired
+    private BoundedPasswordEncoder passwordEncoder;
+
+    @Autowired
+    private TokenRevocationList tokenRevocationList;
+
+    @Autowired
+    private UserRevocationRegistry userRevocationRegistry;
+
     public JwtResponse createAuthenticationToken(JwtRequest jwtRequest) {
         String username = jwtRequest.getUsername();
         authenticate(username, jwtRequest.getPassword());
 
         UserDetails userDetails = this.loadUserByUsername(jwtRequest.getUsername());
-        String token = jwtTokenManager.generateToken(userDetails);
+        upgradePasswordEncodingIfNeeded(userDetails, jwtRequest.getPassword());
+        return generateTokens(userDetails);
+    }
 
+    public JwtResponse refreshAuthenticationToken(RefreshTokenRequest refreshTokenRequest) {
+        Claims claims = getRefreshTokenClaims(refreshTokenRequest.getRefreshToken());
+        // rotation: a refresh token is good for exactly one refresh, concurrent reuse loses the race here
+        if (!tokenRevocationList.revoke(jwtTokenManager.getTokenIdFromClaims(claims))) {
+            throw new InvalidRefreshTokenException();
+        }
+        UserDetails userDetails;
+        try {
+            userDetails = loadUserByUsername(claims.getSubject());
+        } catch (UsernameNotFoundException e) {
+            throw new InvalidRefreshTokenException();
+        }
+        if (!jwtTokenManager.validateToken(claims, userDetails)) {
+            throw new InvalidRefreshTokenException();
+        }
+        return generateTokens(userDetails);
+    }
+
+    public void revokeAuthenticationToken(RefreshTokenRequest refreshTokenRequest) {
+        Claims claims = getRefreshTokenClaims(refreshTokenRequest.getRefreshToken());
+        tokenRevocationList.revoke(jwtTokenManager.getTokenIdFromClaims(claims));
+    }
+
+    private JwtResponse generateTokens(UserDetails userDetails) {
+        // the access and refresh tokens share one id, so revoking it ends both
+        long tokenId = tokenRevocationList.nextTokenId();
         return JwtResponse.builder()
-                .jwtToken(token)
+                .jwtToken(jwtTokenManager.generateToken(userDetails, tokenId))
+                .refreshToken(jwtTokenManager.generateRefreshToken(userDetails, tokenId))
                 .build();
     }
 
+    private Claims getRefreshTokenClaims(String refreshToken) {
+        Claims claims;
+        try {
+            claims = jwtTokenManager.getAllClaimsForToken(refreshToken);
+        } catch (JwtException | IllegalArgumentException e) {
+            throw new InvalidRefreshTokenException();
+        }
+        Long tokenId = jwtTokenManager.getTokenIdFromClaims(claims);
+        if (!jwtTokenManager.isRefreshToken(claims) || tokenId == null || tokenRevocationList.isRevoked(tokenId)
+                || userRevocationRegistry.isRevoked(claims.getSubject(), jwtTokenManager.getIssuedAtMillisFromClaims(claims))) {
+            throw new InvalidRefreshTokenException();
+        }
+        return claims;
+    }
+
     private Authentication authenticate(String username, String password) {
         return authenticationManager.authenticate(new UsernamePasswordAuthenticationToken(username, password));
     }
 
+    private void upgradePasswordEncodingIfNeeded(UserDetails userDetails, String rawPassword) {
+        String username = userDetails.getUsername();
+        if (!passwordEncoder.upgradeEncoding(userDetails.getPassword()) || !pendingPasswordUpgrades.add(username)) {
+            return;
+        }
+        passwordEncoder.encodeInBackground(rawPassword)
+                .thenAccept(encodedPassword -> updateEncodedPassword(username, encodedPassword))
+                .whenComplete((result, exception) -> {
+                    pendingPasswordUpgrades.remove(username);
+                    if (exception != null) {
+                        LOGGER.warn("Could not upgrade password encoding for user {}", username, exception);
+                    }
+                });
+    }
+
+    private void updateEncodedPassword(String username, String encodedPassword) {
+        userRepository.findByUsername(username).ifPresent(user -> {
+            user.setPassword(encodedPassword);
+            User savedUser = userRepository.save(user);
+            userDetailsCache.invalidate(username, savedUser.getVersion());
+        });
+    }
+
     @Override
     public UserDetails loadUserByUsername(String username) throws UsernameNotFoundException {
+        return userDetailsCache.get(username)
+                .orElseGet(() -> loadAndCacheUserByUsername(username));
+    }
+
+    private UserDetails loadAndCacheUserByUsername(String username) {
         User user = userRepository.findByUsername(username)
                 .orElseThrow(() -> new UsernameNotFoundException(String.format("User not found with username %s", username)));
 
-        return new AuthenticatedUser(
+        UserDetails userDetails = new AuthenticatedUser(
                 user.getUsername(),
                 user.getPassword(),
-                user.getRole().getDescription()
+                user.getRole().getDescription(),
+                user.getTokenVersion()
         );
+        userDetailsCache.put(userDetails, user.getVersion());
+        return userDetails;
     }
 }
@@ -0,0 +1,73 @@
+package com.rodrigopeleias.bookstoremanager.users.service;
+
+import io.jsonwebtoken.Claims;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.Base64;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Optional;
+
+/**
+ * Keeps the claims of already verified tokens so a token seen once is not parsed and signature-checked again.
+ * Entries are keyed by a SHA-256 digest of the token and live until the token's own expiration, or until they are
+ * the least recently used entry of a full cache.
+ */
+@Component
+public class JwtClaimsCache {
+
+    private static final String DIGEST_ALGORITHM = "SHA-256";
+
+    private final Map<String, Claims> verifiedClaims;
+
+    public JwtClaimsCache(@Value("${jwt.claims-cache.max-size:10000}") int maxSize) {
+        this.verifiedClaims = Collections.synchronizedMap(new LinkedHashMap<>(16, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<String, Claims> eldest) {
+                return size() > maxSize;
+            }
+        });
+    }
+
+    public Optional<Claims> get(String token) {
+        String key = digest(token);
+        Claims claims = verifiedClaims.get(key);
+        if (claims == null) {
+            return Optional.empty();
+        }
+        if (isExpired(claims, System.currentTimeMillis())) {
+            verifiedClaims.remove(key);
+            return Optional.empty();
+        }
+        return Optional.of(claims);
+    }
+
+    public void put(String token, Claims claims) {
+        if (claims.getExpiration() == null || isExpired(claims, System.currentTimeMillis())) {
+            return;
+        }
+        verifiedClaims.put(digest(token), claims);
+    }
+
+    public int size() {
+        return verifiedClaims.size();
+    }
+
+    private boolean isExpired(Claims claims, long now) {
+        return claims.getExpiration().getTime() <= now;
+    }
+
+    private String digest(String token) {
+        try {
+            byte[] hash = MessageDigest.getInstance(DIGEST_ALGORITHM).digest(token.getBytes(StandardCharsets.US_ASCII));
+            return Base64.getEncoder().encodeToString(hash);
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+}
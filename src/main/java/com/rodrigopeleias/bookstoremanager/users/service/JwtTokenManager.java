@@ -1,6 +1,7 @@
 package com.rodrigopeleias.bookstoremanager.users.service;
 
 import com.google.common.base.Function;
+import com.rodrigopeleias.bookstoremanager.users.dto.AuthenticatedUser;
 import io.jsonwebtoken.Claims;
 import io.jsonwebtoken.Jwts;
 import io.jsonwebtoken.SignatureAlgorithm;
@@ -15,26 +16,55 @@ import java.util.Map;
 @Component
 public class JwtTokenManager {
 
+    private static final String ROLE_CLAIM = "role";
+    private static final String TOKEN_ID_CLAIM = "tid";
+    private static final String TOKEN_TYPE_CLAIM = "typ";
+    private static final String TOKEN_VERSION_CLAIM = "tver";
+    private static final String ISSUED_AT_MILLIS_CLAIM = "iatm";
+    private static final String ACCESS_TOKEN_TYPE = "access";
+    private static final String REFRESH_TOKEN_TYPE = "refresh";
+
     private Long jwtTokenValidity;
+    private Long refreshTokenValidity;
     private String secret;
+    private JwtClaimsCache jwtClaimsCache;
 
     public JwtTokenManager(@Value("${jwt.validity}") Long jwtTokenValidity,
-                           @Value("${jwt.secret}") String secret) {
+                           @Value("${jwt.refresh-validity}") Long refreshTokenValidity,
+                           @Value("${jwt.secret}") String secret,
+                           JwtClaimsCache jwtClaimsCache) {
         this.jwtTokenValidity = jwtTokenValidity;
+        this.refreshTokenValidity = refreshTokenValidity;
         this.secret = secret;
+        this.jwtClaimsCache = jwtClaimsCache;
     }
 
-    public String generateToken(UserDetails userDetails) {
+    public String generateToken(UserDetails userDetails, long tokenId) {
         Map<String, Object> claims = new HashMap<>();
-        return doGenerateToken(userDetails.getUsername(), claims);
+        if (userDetails instanceof AuthenticatedUser) {
+            claims.put(ROLE_CLAIM, ((AuthenticatedUser) userDetails).getRole());
+        }
+        claims.put(TOKEN_TYPE_CLAIM, ACCESS_TOKEN_TYPE);
+        return doGenerateToken(userDetails, tokenId, claims, jwtTokenValidity);
     }
 
-    private String doGenerateToken(String username, Map<String, Object> claims) {
+    public String generateRefreshToken(UserDetails userDetails, long tokenId) {
+        Map<String, Object> claims = new HashMap<>();
+        claims.put(TOKEN_TYPE_CLAIM, REFRESH_TOKEN_TYPE);
+        return doGenerateToken(userDetails, tokenId, claims, refreshTokenValidity);
+    }
+
+    private String doGenerateToken(UserDetails userDetails, long tokenId, Map<String, Object> claims, Long validity) {
+        long now = System.currentTimeMillis();
+        claims.put(TOKEN_ID_CLAIM, tokenId);
+        claims.put(TOKEN_VERSION_CLAIM, getTokenVersion(userDetails));
+        // the registered iat claim only keeps seconds
+        claims.put(ISSUED_AT_MILLIS_CLAIM, now);
         return Jwts.builder()
                 .setClaims(claims)
-                .setSubject(username)
-                .setIssuedAt(new Date(System.currentTimeMillis()))
-                .setExpiration(new Date(System.currentTimeMillis() + jwtTokenValidity * 1000))
+                .setSubject(userDetails.getUsername())
+                .setIssuedAt(new Date(now))
+                .setExpiration(new Date(now + validity * 1000))
                 .signWith(SignatureAlgorithm.HS512, secret)
                 .compact();
     }
@@ -43,6 +73,32 @@ public class JwtTokenManager {
         return getClaimForToken(token, Claims::getSubject);
     }
 
+    public String getRoleFromClaims(Claims claims) {
+        return claims.get(ROLE_CLAIM, String.class);
+    }
+
+    public Long getTokenIdFromClaims(Claims claims) {
+        return claims.get(TOKEN_ID_CLAIM, Long.class);
+    }
+
+    public long getTokenVersionFromClaims(Claims claims) {
+        Long tokenVersion = claims.get(TOKEN_VERSION_CLAIM, Long.class);
+        return tokenVersion == null ? 0 : tokenVersion;
+    }
+
+    public long getIssuedAtMillisFromClaims(Claims claims) {
+        Long issuedAtMillis = claims.get(ISSUED_AT_MILLIS_CLAIM, Long.class);
+        if (issuedAtMillis != null) {
+            return issuedAtMillis;
+        }
+        Date issuedAt = claims.getIssuedAt();
+        return issuedAt == null ? 0 : issuedAt.getTime();
+    }
+
+    public boolean isRefreshToken(Claims claims) {
+        return REFRESH_TOKEN_TYPE.equals(claims.get(TOKEN_TYPE_CLAIM));
+    }
+
     public Date getExpirationDateFromToken(String token) {
         return getClaimForToken(token, Claims::getExpiration);
     }
@@ -52,21 +108,37 @@ public class JwtTokenManager {
         return claimsResolver.apply(claims);
     }
 
-    private Claims getAllClaimsForToken(String token) {
+    public Claims getAllClaimsForToken(String token) {
+        return jwtClaimsCache.get(token)
+                .orElseGet(() -> parseAndCacheClaims(token));
+    }
+
+    private Claims parseAndCacheClaims(String token) {
         Claims claims = Jwts.parser()
                 .setSigningKey(secret)
                 .parseClaimsJws(token)
                 .getBody();
+        jwtClaimsCache.put(token, claims);
         return claims;
     }
 
     public boolean validateToken(String token, UserDetails userDetails) {
-        String username = getUsernameFromToken(token);
-        return (username.equals(userDetails.getUsername()) && !isTokenExpired(token));
+        return validateToken(getAllClaimsForToken(token), userDetails);
+    }
+
+    public boolean validateToken(Claims claims, UserDetails userDetails) {
+        String username = claims.getSubject();
+        return (username.equals(userDetails.getUsername())
+                && getTokenVersionFromClaims(claims) == getTokenVersion(userDetails)
+                && !isTokenExpired(claims));
+    }
+
+    private long getTokenVersion(UserDetails userDetails) {
+        return userDetails instanceof AuthenticatedUser ? ((AuthenticatedUser) userDetails).getTokenVersion() : 0;
     }
 
-    private boolean isTokenExpired(String token) {
-        Date expirationDate = getExpirationDateFromToken(token);
+    private boolean isTokenExpired(Claims claims) {
+        Date expirationDate = claims.getExpiration();
         return expirationDate.before(new Date());
     }
 }
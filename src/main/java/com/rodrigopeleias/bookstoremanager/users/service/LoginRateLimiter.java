@@ -0,0 +1,38 @@
+package com.rodrigopeleias.bookstoremanager.users.service;
+
+import com.rodrigopeleias.bookstoremanager.users.exception.LoginAttemptsExceededException;
+import com.rodrigopeleias.bookstoremanager.utils.StripedRateLimiter;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Per-username and per-client-address budgets for authentication attempts, checked before any password is hashed.
+ */
+@Component
+public class LoginRateLimiter {
+
+    private final StripedRateLimiter usernameRateLimiter;
+    private final StripedRateLimiter clientAddressRateLimiter;
+
+    public LoginRateLimiter(@Value("${login.rate-limit.stripes:65536}") int stripes,
+                            @Value("${login.rate-limit.username.attempts-per-minute:10}") long usernameAttemptsPerMinute,
+                            @Value("${login.rate-limit.username.burst:5}") long usernameBurst,
+                            @Value("${login.rate-limit.client-address.attempts-per-minute:60}") long clientAttemptsPerMinute,
+                            @Value("${login.rate-limit.client-address.burst:20}") long clientBurst) {
+        this.usernameRateLimiter = new StripedRateLimiter(stripes, usernameAttemptsPerMinute, usernameBurst);
+        this.clientAddressRateLimiter = new StripedRateLimiter(stripes, clientAttemptsPerMinute, clientBurst);
+    }
+
+    public void verifyAttemptAllowed(String username, String clientAddress) {
+        verifyPermit(clientAddressRateLimiter.tryAcquire(clientAddress));
+        verifyPermit(usernameRateLimiter.tryAcquire(username));
+    }
+
+    private void verifyPermit(long nanosToWait) {
+        if (nanosToWait > 0) {
+            throw new LoginAttemptsExceededException(TimeUnit.NANOSECONDS.toSeconds(nanosToWait) + 1);
+        }
+    }
+}
@@ -0,0 +1,189 @@
+package com.rodrigopeleias.bookstoremanager.users.service;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+
+/**
+ * Issues token ids and remembers which of them were revoked.
+ * <p>
+ * An id holds the time bucket it was issued in (high 28 bits), the node that issued it (next 12 bits) and a sequence
+ * number of that node inside the bucket (low 24 bits), so nodes never hand out the same id. Each bucket keeps a bitmap
+ * of the revoked sequence numbers of every node, and buckets live in a ring sized so that a slot is only reused once
+ * every token issued in its previous bucket has expired. Checking an id is a couple of array reads, with no locking
+ * or allocation.
+ * <p>
+ * The revoked ids are kept in memory on this node only. A logout, or the rotation of a refresh token, is only seen by
+ * the node that handled it: with several nodes the revoked tokens stay usable on the others until they expire.
+ * Set {@code jwt.revocation.node-id} to a distinct value per node, otherwise a random one is drawn at startup.
+ */
+@Component
+public class TokenRevocationList {
+
+    private static final int SEQUENCE_BITS = 24;
+    private static final int NODE_BITS = 12;
+    private static final int BUCKET_SHIFT = SEQUENCE_BITS + NODE_BITS;
+    private static final long SEQUENCE_MASK = (1L << SEQUENCE_BITS) - 1;
+    private static final int NODE_MASK = (1 << NODE_BITS) - 1;
+
+    private final long bucketMillis;
+    private final long nodeId;
+    private final AtomicReferenceArray<Bucket> buckets;
+    private final AtomicLong lastTokenId;
+
+    public TokenRevocationList(@Value("${jwt.refresh-validity}") long refreshTokenValidity,
+                               @Value("${jwt.revocation.bucket-seconds:3600}") long bucketSeconds,
+                               @Value("${jwt.revocation.node-id:-1}") int nodeId) {
+        if (nodeId > NODE_MASK) {
+            throw new IllegalArgumentException("jwt.revocation.node-id must be between 0 and " + NODE_MASK);
+        }
+        this.bucketMillis = bucketSeconds * 1000;
+        this.nodeId = nodeId < 0 ? ThreadLocalRandom.current().nextInt(NODE_MASK + 1) : nodeId;
+        this.buckets = new AtomicReferenceArray<>((int) ((refreshTokenValidity + bucketSeconds - 1) / bucketSeconds) + 3);
+        // a random start keeps ids issued after a restart apart from the ones issued earlier in the same bucket
+        this.lastTokenId = new AtomicLong(firstTokenId(currentBucket()) | ThreadLocalRandom.current().nextInt(1 << 20));
+    }
+
+    public long nextTokenId() {
+        while (true) {
+            long lastId = lastTokenId.get();
+            long lastBucket = lastId >>> BUCKET_SHIFT;
+            long bucket = currentBucket();
+            long nextId;
+            if (lastBucket < bucket) {
+                nextId = firstTokenId(bucket);
+            } else if ((lastId & SEQUENCE_MASK) == SEQUENCE_MASK) {
+                // the sequence of this bucket is used up, the ring keeps a spare slot for ids borrowed from the next one
+                nextId = firstTokenId(lastBucket + 1);
+            } else {
+                nextId = lastId + 1;
+            }
+            if (lastTokenId.compareAndSet(lastId, nextId)) {
+                return nextId;
+            }
+        }
+    }
+
+    /**
+     * @return {@code true} if the id was revoked by this call, {@code false} if it already was
+     */
+    public boolean revoke(long tokenId) {
+        long bucketNumber = tokenId >>> BUCKET_SHIFT;
+        int slot = (int) (bucketNumber % buckets.length());
+        Bucket bucket = buckets.get(slot);
+        while (bucket == null || bucket.number < bucketNumber) {
+            Bucket newBucket = new Bucket(bucketNumber);
+            if (buckets.compareAndSet(slot, bucket, newBucket)) {
+                bucket = newBucket;
+            } else {
+                bucket = buckets.get(slot);
+            }
+        }
+        if (bucket.number != bucketNumber) {
+            // tokens from a bucket that already left the ring have expired on their own
+            return false;
+        }
+        return bucket.set(nodeOf(tokenId), tokenId & SEQUENCE_MASK);
+    }
+
+    public boolean isRevoked(long tokenId) {
+        long bucketNumber = tokenId >>> BUCKET_SHIFT;
+        Bucket bucket = buckets.get((int) (bucketNumber % buckets.length()));
+        return bucket != null && bucket.number == bucketNumber && bucket.contains(nodeOf(tokenId), tokenId & SEQUENCE_MASK);
+    }
+
+    private long currentBucket() {
+        return System.currentTimeMillis() / bucketMillis;
+    }
+
+    private long firstTokenId(long bucket) {
+        return (bucket << BUCKET_SHIFT) | (nodeId << SEQUENCE_BITS);
+    }
+
+    private static int nodeOf(long tokenId) {
+        return (int) (tokenId >>> SEQUENCE_BITS) & NODE_MASK;
+    }
+
+    private static class Bucket {
+
+        private final long number;
+        // replaced whenever a node gets a new bitmap, only ever a handful of entries
+        private volatile Map<Integer, Bitmap> bitmapsByNode = Map.of();
+
+        Bucket(long number) {
+            this.number = number;
+        }
+
+        boolean contains(int node, long sequence) {
+            Bitmap current = bitmapsByNode.get(node);
+            return current != null && current.contains(sequence);
+        }
+
+        synchronized boolean set(int node, long sequence) {
+            Map<Integer, Bitmap> bitmaps = bitmapsByNode;
+            Bitmap current = bitmaps.get(node);
+            if (current == null || !current.covers(sequence)) {
+                current = current == null ? new Bitmap(sequence >>> 6, 1) : current.growTo(sequence >>> 6);
+                bitmaps = new HashMap<>(bitmaps);
+                bitmaps.put(node, current);
+            }
+            boolean revoked = current.set(sequence);
+            // the volatile write also publishes bits set in place on an existing bitmap
+            bitmapsByNode = bitmaps;
+            return revoked;
+        }
+    }
+
+    /**
+     * Bitmap over the words between the lowest and highest revoked sequence number of a node in a bucket, so a node
+     * whose sequence starts at a large offset does not pay for the words below it.
+     */
+    private static class Bitmap {
+
+        private final long firstWord;
+        private final long[] words;
+
+        Bitmap(long firstWord, int length) {
+            this.firstWord = firstWord;
+            this.words = new long[length];
+        }
+
+        boolean covers(long sequence) {
+            long index = (sequence >>> 6) - firstWord;
+            return index >= 0 && index < words.length;
+        }
+
+        boolean contains(long sequence) {
+            long index = (sequence >>> 6) - firstWord;
+            return index >= 0 && index < words.length && (words[(int) index] & (1L << sequence)) != 0;
+        }
+
+        boolean set(long sequence) {
+            int index = (int) ((sequence >>> 6) - firstWord);
+            long mask = 1L << sequence;
+            boolean alreadySet = (words[index] & mask) != 0;
+            words[index] |= mask;
+            return !alreadySet;
+        }
+
+        Bitmap growTo(long word) {
+            long lastWord = firstWord + words.length - 1;
+            long newFirstWord = Math.min(firstWord, word);
+            long newLastWord = Math.max(lastWord, word);
+            long doubledLength = Math.max(newLastWord - newFirstWord + 1, words.length * 2L);
+            if (word > lastWord) {
+                newLastWord = newFirstWord + doubledLength - 1;
+            } else {
+                newFirstWord = Math.max(0, newLastWord - doubledLength + 1);
+            }
+            Bitmap grown = new Bitmap(newFirstWord, (int) (newLastWord - newFirstWord + 1));
+            System.arraycopy(words, 0, grown.words, (int) (firstWord - newFirstWord), words.length);
+            return grown;
+        }
+    }
+}
@@ -0,0 +1,110 @@
+package com.rodrigopeleias.bookstoremanager.users.service;
+
+import com.rodrigopeleias.bookstoremanager.users.repository.UserIdentity;
+import com.rodrigopeleias.bookstoremanager.users.repository.UserRepository;
+import com.rodrigopeleias.bookstoremanager.utils.BloomFilter;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.util.List;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Bloom filters over every registered username and email, so availability checks and registrations only reach the
+ * database when a value might already be taken. The filters are rebuilt from the database periodically and see
+ * the users written on this node in between, so a value registered on another node since the last rebuild can be
+ * missed; the unique constraints on the user table still reject it when it is written.
+ * Deleted or renamed values cannot be removed from a Bloom filter, so they are counted and the filters are also
+ * rebuilt early once too many of them pile up.
+ */
+@Slf4j
+@Component
+public class UserAvailabilityFilter {
+
+    private final UserRepository userRepository;
+    private final long expectedUsers;
+    private final double falsePositiveProbability;
+    private final long maxStaleEntries;
+
+    private final AtomicLong staleEntries = new AtomicLong();
+
+    // null until the first rebuild completes, meanwhile every value is reported as possibly taken
+    private volatile Filters current;
+
+    @Autowired
+    public UserAvailabilityFilter(UserRepository userRepository,
+                                  @Value("${users.availability-filter.expected-users:100000}") long expectedUsers,
+                                  @Value("${users.availability-filter.false-positive-probability:0.01}") double falsePositiveProbability,
+                                  @Value("${users.availability-filter.max-stale-entries:10000}") long maxStaleEntries) {
+        this.userRepository = userRepository;
+        this.expectedUsers = expectedUsers;
+        this.falsePositiveProbability = falsePositiveProbability;
+        this.maxStaleEntries = maxStaleEntries;
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    @Scheduled(initialDelayString = "${users.availability-filter.rebuild-interval-millis:300000}",
+            fixedDelayString = "${users.availability-filter.rebuild-interval-millis:300000}")
+    public synchronized void rebuild() {
+        staleEntries.set(0);
+        Filters rebuilt = new Filters(Math.max(expectedUsers, userRepository.count() * 2), falsePositiveProbability);
+        List<UserIdentity> identities = userRepository.findAllIdentities();
+        identities.forEach(rebuilt::put);
+        current = rebuilt;
+        log.info("Rebuilt user availability filter with {} users", identities.size());
+    }
+
+    public boolean mightContainUsername(String username) {
+        Filters filters = current;
+        return filters == null || filters.usernames.mightContain(username);
+    }
+
+    public boolean mightContainEmail(String email) {
+        Filters filters = current;
+        return filters == null || filters.emails.mightContain(email);
+    }
+
+    // synchronized with rebuild, so a user is never added to filters that are about to be replaced
+    public synchronized void add(String username, String email) {
+        if (current != null) {
+            current.put(username, email);
+        }
+    }
+
+    public void markStale(int entries) {
+        staleEntries.addAndGet(entries);
+    }
+
+    @Scheduled(fixedDelayString = "${users.availability-filter.stale-check-interval-millis:10000}")
+    public void rebuildIfStale() {
+        // a full table read, kept off the request threads that mark entries stale
+        if (staleEntries.get() > maxStaleEntries) {
+            rebuild();
+        }
+    }
+
+    private static class Filters {
+
+        private final BloomFilter usernames;
+        private final BloomFilter emails;
+
+        Filters(long expectedUsers, double falsePositiveProbability) {
+            this.usernames = new BloomFilter(expectedUsers, falsePositiveProbability);
+            this.emails = new BloomFilter(expectedUsers, falsePositiveProbability);
+        }
+
+        void put(UserIdentity identity) {
+            put(identity.getUsername(), identity.getEmail());
+        }
+
+        void put(String username, String email) {
+            usernames.put(username);
+            emails.put(email);
+        }
+    }
+}
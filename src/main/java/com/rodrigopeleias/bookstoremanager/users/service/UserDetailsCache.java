@@ -0,0 +1,110 @@
+package com.rodrigopeleias.bookstoremanager.users.service;
+
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.security.core.userdetails.UserDetails;
+import org.springframework.stereotype.Component;
+
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Bounded LRU cache in front of {@link AuthenticationService#loadUserByUsername(String)}.
+ * Entries expire after a fixed time to live, which bounds how long a change made on another node goes unseen.
+ * Every entry carries the version of the user it was read from, and an invalidation leaves a marker with the
+ * version that replaced it, so details read before a concurrent update cannot be cached again after it.
+ * Hit, miss and eviction counters are published as {@code users.details.cache.*} actuator metrics.
+ */
+@Component
+public class UserDetailsCache implements MeterBinder {
+
+    private static final String METRIC_PREFIX = "users.details.cache";
+
+    private final LongAdder hits = new LongAdder();
+    private final LongAdder misses = new LongAdder();
+    private final LongAdder evictions = new LongAdder();
+
+    private final long timeToLiveMillis;
+    private final Map<String, Entry> entriesByUsername;
+
+    public UserDetailsCache(@Value("${users.details-cache.max-size:1000}") int maxSize,
+                            @Value("${users.details-cache.time-to-live:300}") long timeToLive) {
+        this.timeToLiveMillis = timeToLive * 1000;
+        this.entriesByUsername = Collections.synchronizedMap(new LinkedHashMap<>(16, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<String, Entry> eldest) {
+                boolean evict = size() > maxSize;
+                if (evict) {
+                    evictions.increment();
+                }
+                return evict;
+            }
+        });
+    }
+
+    public Optional<UserDetails> get(String username) {
+        Entry entry = entriesByUsername.get(username);
+        if (entry == null || entry.userDetails == null || entry.isExpired(System.currentTimeMillis())) {
+            misses.increment();
+            return Optional.empty();
+        }
+        hits.increment();
+        return Optional.of(entry.userDetails);
+    }
+
+    /**
+     * Caches details read from the given user version, unless a newer version was written or invalidated since.
+     */
+    public void put(UserDetails userDetails, Long version) {
+        store(userDetails.getUsername(), userDetails, version);
+    }
+
+    /**
+     * Drops the cached details and rejects details read from versions older than the given one.
+     */
+    public void invalidate(String username, Long version) {
+        store(username, null, version);
+    }
+
+    private void store(String username, UserDetails userDetails, Long version) {
+        // null until the entity is first flushed
+        long entryVersion = version == null ? 0 : version;
+        long now = System.currentTimeMillis();
+        entriesByUsername.compute(username, (key, current) ->
+                current != null && !current.isExpired(now) && current.version > entryVersion
+                        ? current
+                        : new Entry(userDetails, entryVersion, now + timeToLiveMillis));
+    }
+
+    @Override
+    public void bindTo(MeterRegistry registry) {
+        FunctionCounter.builder(METRIC_PREFIX + ".hits", hits, LongAdder::doubleValue).register(registry);
+        FunctionCounter.builder(METRIC_PREFIX + ".misses", misses, LongAdder::doubleValue).register(registry);
+        FunctionCounter.builder(METRIC_PREFIX + ".evictions", evictions, LongAdder::doubleValue).register(registry);
+        Gauge.builder(METRIC_PREFIX + ".size", entriesByUsername, Map::size).register(registry);
+    }
+
+    private static class Entry {
+
+        // null for an invalidation marker
+        private final UserDetails userDetails;
+        private final long version;
+        private final long expiresAt;
+
+        Entry(UserDetails userDetails, long version, long expiresAt) {
+            this.userDetails = userDetails;
+            this.version = version;
+            this.expiresAt = expiresAt;
+        }
+
+        boolean isExpired(long now) {
+            return now >= expiresAt;
+        }
+    }
+}
@@ -0,0 +1,37 @@
+package com.rodrigopeleias.bookstoremanager.users.service;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Remembers when a user was deleted or had its role, username or password changed, so access and refresh tokens
+ * issued before that moment stop being accepted on this node straight away.
+ * Entries are dropped once every token issued before them, refresh tokens included, has expired on its own.
+ * Revocations are only known to the node that recorded them; other nodes reject those tokens once their cached
+ * user details expire, because the token version claim no longer matches the one stored with the user.
+ */
+@Component
+public class UserRevocationRegistry {
+
+    private final Map<String, Long> revocationTimes = new ConcurrentHashMap<>();
+
+    private final long refreshTokenValidityMillis;
+
+    public UserRevocationRegistry(@Value("${jwt.refresh-validity}") Long refreshTokenValidity) {
+        this.refreshTokenValidityMillis = refreshTokenValidity * 1000;
+    }
+
+    public void revoke(String username) {
+        long now = System.currentTimeMillis();
+        revocationTimes.values().removeIf(revokedAt -> revokedAt + refreshTokenValidityMillis < now);
+        revocationTimes.put(username, now);
+    }
+
+    public boolean isRevoked(String username, long tokenIssuedAtMillis) {
+        Long revokedAt = revocationTimes.get(username);
+        return revokedAt != null && tokenIssuedAtMillis <= revokedAt;
+    }
+}
@@ -1,13 +1,18 @@
 package com.rodrigopeleias.bookstoremanager.users.service;
 
+import com.rodrigopeleias.bookstoremanager.entity.ResourceVersion;
 import com.rodrigopeleias.bookstoremanager.users.dto.MessageDTO;
+import com.rodrigopeleias.bookstoremanager.users.dto.UserAvailabilityDTO;
 import com.rodrigopeleias.bookstoremanager.users.dto.UserDTO;
+import com.rodrigopeleias.bookstoremanager.users.dto.UserPatchDTO;
 import com.rodrigopeleias.bookstoremanager.users.entity.User;
+import com.rodrigopeleias.bookstoremanager.users.enums.Role;
 import com.rodrigopeleias.bookstoremanager.users.exception.UserAlreadyExistsException;
 import com.rodrigopeleias.bookstoremanager.users.exception.UserNotFoundException;
 import com.rodrigopeleias.bookstoremanager.users.mapper.UserMapper;
 import com.rodrigopeleias.bookstoremanager.users.repository.UserRepository;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.dao.DataIntegrityViolationException;
 import org.springframework.security.crypto.password.PasswordEncoder;
 import org.springframework.stereotype.Service;
 
@@ -23,48 +28,159 @@ public class UserService {
 
     private UserRepository userRepository;
     private PasswordEncoder passwordEncoder;
+    private UserRevocationRegistry userRevocationRegistry;
+    private UserDetailsCache userDetailsCache;
+    private UserAvailabilityFilter userAvailabilityFilter;
 
     @Autowired
-    public UserService(UserRepository userRepository, PasswordEncoder passwordEncoder) {
+    public UserService(UserRepository userRepository,
+                       PasswordEncoder passwordEncoder,
+                       UserRevocationRegistry userRevocationRegistry,
+                       UserDetailsCache userDetailsCache,
+                       UserAvailabilityFilter userAvailabilityFilter) {
         this.userRepository = userRepository;
         this.passwordEncoder = passwordEncoder;
+        this.userRevocationRegistry = userRevocationRegistry;
+        this.userDetailsCache = userDetailsCache;
+        this.userAvailabilityFilter = userAvailabilityFilter;
     }
 
     public MessageDTO create(UserDTO userDTO) {
-        verifyIfExists(userDTO.getEmail(), userDTO.getUsername());
+        if (userAvailabilityFilter.mightContainUsername(userDTO.getUsername())
+                || userAvailabilityFilter.mightContainEmail(userDTO.getEmail())) {
+            verifyIfExists(userDTO.getEmail(), userDTO.getUsername());
+        }
         User userToCreate = userMapper.toModel(userDTO);
         userToCreate.setPassword(passwordEncoder.encode(userToCreate.getPassword()));
 
-        User createdUser = userRepository.save(userToCreate);
+        User createdUser;
+        try {
+            createdUser = userRepository.saveAndFlush(userToCreate);
+        } catch (DataIntegrityViolationException e) {
+            // registered after the check above or since the last filter rebuild, by a concurrent request or on another node
+            throw new UserAlreadyExistsException(userDTO.getEmail(), userDTO.getUsername());
+        }
+        userAvailabilityFilter.add(createdUser.getUsername(), createdUser.getEmail());
         return creationMessage(createdUser);
     }
 
-    public void delete(Long id) {
-        verifyAndGetIfExists(id);
-        userRepository.deleteById(id);
+    public UserAvailabilityDTO checkAvailability(String username, String email) {
+        UserAvailabilityDTO.UserAvailabilityDTOBuilder availability = UserAvailabilityDTO.builder();
+        if (username != null) {
+            boolean usernameTaken = userAvailabilityFilter.mightContainUsername(username)
+                    && userRepository.existsByUsername(username);
+            availability.username(username).usernameAvailable(!usernameTaken);
+        }
+        if (email != null) {
+            boolean emailTaken = userAvailabilityFilter.mightContainEmail(email)
+                    && userRepository.existsByEmail(email);
+            availability.email(email).emailAvailable(!emailTaken);
+        }
+        return availability.build();
+    }
+
+    public void delete(Long id, String ifMatch) {
+        User userToDelete = verifyAndGetIfExists(id, ifMatch);
+        userRepository.delete(userToDelete);
+        userAvailabilityFilter.markStale(2);
+        // no version of a deleted user may be cached again until the marker expires
+        userDetailsCache.invalidate(userToDelete.getUsername(), Long.MAX_VALUE);
+        userRevocationRegistry.revoke(userToDelete.getUsername());
     }
 
-    public MessageDTO update(Long id, UserDTO userToUpdateDTO) {
-        User foundUser = verifyAndGetIfExists(id);
+    public MessageDTO update(Long id, UserDTO userToUpdateDTO, String ifMatch) {
+        User foundUser = verifyAndGetIfExists(id, ifMatch);
+        verifyIfChangedValuesExist(foundUser, userToUpdateDTO.getEmail(), userToUpdateDTO.getUsername());
 
         userToUpdateDTO.setId(foundUser.getId());
         User userToUpdate = userMapper.toModel(userToUpdateDTO);
-        userToUpdate.setPassword(passwordEncoder.encode(userToUpdate.getPassword()));
+        String password = userToUpdateDTO.getPassword();
+        boolean passwordChanged = password != null && !passwordEncoder.matches(password, foundUser.getPassword());
+        userToUpdate.setPassword(passwordChanged ? passwordEncoder.encode(password) : foundUser.getPassword());
         userToUpdate.setCreatedDate(foundUser.getCreatedDate());
+        // the version read above makes the write fail instead of overwriting a concurrent update
+        userToUpdate.setVersion(foundUser.getVersion());
+        boolean principalChanged = isPrincipalChanged(foundUser.getUsername(), foundUser.getRole(), passwordChanged, userToUpdate);
+        userToUpdate.setTokenVersion(foundUser.getTokenVersion() + (principalChanged ? 1 : 0));
 
         User updatedUser = userRepository.save(userToUpdate);
+        afterUserChanged(foundUser.getUsername(), foundUser.getEmail(), principalChanged, updatedUser);
         return updateMessage(updatedUser);
     }
 
+    public MessageDTO patch(Long id, UserPatchDTO userPatchDTO, String ifMatch) {
+        User foundUser = verifyAndGetIfExists(id, ifMatch);
+        verifyIfChangedValuesExist(foundUser, userPatchDTO.getEmail(), userPatchDTO.getUsername());
+        String previousUsername = foundUser.getUsername();
+        String previousEmail = foundUser.getEmail();
+        Role previousRole = foundUser.getRole();
+
+        userMapper.updateModel(userPatchDTO, foundUser);
+        if (userPatchDTO.getPassword() != null) {
+            foundUser.setPassword(passwordEncoder.encode(userPatchDTO.getPassword()));
+        }
+
+        boolean principalChanged = isPrincipalChanged(previousUsername, previousRole, userPatchDTO.getPassword() != null, foundUser);
+        if (principalChanged) {
+            foundUser.setTokenVersion(foundUser.getTokenVersion() + 1);
+        }
+
+        User patchedUser = userRepository.save(foundUser);
+        afterUserChanged(previousUsername, previousEmail, principalChanged, patchedUser);
+        return updateMessage(patchedUser);
+    }
+
+    private static boolean isPrincipalChanged(String previousUsername, Role previousRole, boolean passwordChanged,
+                                              User changedUser) {
+        return !previousUsername.equals(changedUser.getUsername())
+                || previousRole != changedUser.getRole()
+                || passwordChanged;
+    }
+
+    private void afterUserChanged(String previousUsername, String previousEmail, boolean principalChanged,
+                                  User changedUser) {
+        userDetailsCache.invalidate(previousUsername, changedUser.getVersion());
+        userAvailabilityFilter.add(changedUser.getUsername(), changedUser.getEmail());
+        int replacedValues = (previousUsername.equals(changedUser.getUsername()) ? 0 : 1)
+                + (previousEmail.equals(changedUser.getEmail()) ? 0 : 1);
+        if (replacedValues > 0) {
+            userAvailabilityFilter.markStale(replacedValues);
+        }
+        if (principalChanged) {
+            userRevocationRegistry.revoke(previousUsername);
+        }
+    }
+
+    public User verifyAndGetUserIfExists(String username) {
+        return userRepository.findByUsername(username)
+                .orElseThrow(() -> new UserNotFoundException(username));
+    }
+
     private User verifyAndGetIfExists(Long id) {
         return userRepository.findById(id)
                 .orElseThrow(() -> new UserNotFoundException(id));
     }
 
+    private User verifyAndGetIfExists(Long id, String ifMatch) {
+        User foundUser = verifyAndGetIfExists(id);
+        ResourceVersion.of(foundUser).verifyIfMatch(ifMatch);
+        return foundUser;
+    }
+
     private void verifyIfExists(String email, String username) {
         Optional<User> foundUser = userRepository.findByEmailOrUsername(email, username);
         if (foundUser.isPresent()) {
             throw new UserAlreadyExistsException(email, username);
         }
     }
+
+    private void verifyIfChangedValuesExist(User foundUser, String email, String username) {
+        boolean emailTaken = email != null && !email.equals(foundUser.getEmail())
+                && userRepository.existsByEmailAndIdNot(email, foundUser.getId());
+        boolean usernameTaken = username != null && !username.equals(foundUser.getUsername())
+                && userRepository.existsByUsernameAndIdNot(username, foundUser.getId());
+        if (emailTaken || usernameTaken) {
+            throw new UserAlreadyExistsException(email, username);
+        }
+    }
 }
@@ -1,5 +1,6 @@
 package com.rodrigopeleias.bookstoremanager.users.utils;
 
+import com.rodrigopeleias.bookstoremanager.entity.ResourceVersion;
 import com.rodrigopeleias.bookstoremanager.users.dto.MessageDTO;
 import com.rodrigopeleias.bookstoremanager.users.entity.User;
 
@@ -18,6 +19,7 @@ public class MessageDTOUtils {
         String createdUserMessage = String.format("User %s with ID %s successfully %s", username, userID, action);
         return MessageDTO.builder()
                 .message(createdUserMessage)
+                .resourceVersion(ResourceVersion.of(user))
                 .build();
     }
 }
@@ -0,0 +1,49 @@
+package com.rodrigopeleias.bookstoremanager.utils;
+
+/**
+ * Optimal string alignment distance: insertions, deletions, substitutions and swaps of adjacent characters
+ * each cost one edit, so the most common typo, two letters typed in the wrong order, counts as a single mistake.
+ */
+public class EditDistance {
+
+    private EditDistance() {
+    }
+
+    /**
+     * Returns the distance between both strings, or {@code maxDistance + 1} as soon as it is known to exceed it.
+     */
+    public static int bounded(CharSequence source, CharSequence target, int maxDistance) {
+        if (Math.abs(source.length() - target.length()) > maxDistance) {
+            return maxDistance + 1;
+        }
+        int[] previousPrevious = new int[target.length() + 1];
+        int[] previous = new int[target.length() + 1];
+        int[] current = new int[target.length() + 1];
+        for (int j = 0; j <= target.length(); j++) {
+            previous[j] = j;
+        }
+        for (int i = 1; i <= source.length(); i++) {
+            current[0] = i;
+            int rowMinimum = current[0];
+            for (int j = 1; j <= target.length(); j++) {
+                int cost = source.charAt(i - 1) == target.charAt(j - 1) ? 0 : 1;
+                int distance = Math.min(Math.min(previous[j] + 1, current[j - 1] + 1), previous[j - 1] + cost);
+                if (i > 1 && j > 1
+                        && source.charAt(i - 1) == target.charAt(j - 2)
+                        && source.charAt(i - 2) == target.charAt(j - 1)) {
+                    distance = Math.min(distance, previousPrevious[j - 2] + 1);
+                }
+                current[j] = distance;
+                rowMinimum = Math.min(rowMinimum, distance);
+            }
+            if (rowMinimum > maxDistance) {
+                return maxDistance + 1;
+            }
+            int[] recycled = previousPrevious;
+            previousPrevious = previous;
+            previous = current;
+            current = recycled;
+        }
+        return Math.min(previous[target.length()], maxDistance + 1);
+    }
+}
@@ -0,0 +1,177 @@
+package com.rodrigopeleias.bookstoremanager.utils;
+
+import java.util.Arrays;
+import java.util.function.Consumer;
+
+/**
+ * Open-addressing hash map from primitive {@code long} keys to objects, so keys are never boxed.
+ * Collisions are resolved by linear probing and removals shift the following entries back, leaving no tombstones.
+ * Not thread-safe: callers must guard concurrent access.
+ */
+public class LongObjectHashMap<V> {
+
+    private static final long EMPTY_KEY = 0L;
+    private static final int MIN_CAPACITY = 16;
+    private static final long GOLDEN_RATIO = 0x9E3779B97F4A7C15L;
+
+    private long[] keys;
+    private Object[] values;
+    private int mask;
+    private int size;
+
+    // EMPTY_KEY marks free slots, so a value stored under it lives outside the table
+    private boolean hasEmptyKey;
+    private V emptyKeyValue;
+
+    public LongObjectHashMap() {
+        this(MIN_CAPACITY);
+    }
+
+    public LongObjectHashMap(int expectedSize) {
+        allocate(capacityFor(expectedSize));
+    }
+
+    public V get(long key) {
+        if (key == EMPTY_KEY) {
+            return hasEmptyKey ? emptyKeyValue : null;
+        }
+        int slot = slot(key);
+        while (keys[slot] != EMPTY_KEY) {
+            if (keys[slot] == key) {
+                return valueAt(slot);
+            }
+            slot = (slot + 1) & mask;
+        }
+        return null;
+    }
+
+    public boolean containsKey(long key) {
+        return key == EMPTY_KEY ? hasEmptyKey : get(key) != null;
+    }
+
+    public V put(long key, V value) {
+        if (value == null) {
+            throw new IllegalArgumentException("Null values are not supported, use remove instead");
+        }
+        if (key == EMPTY_KEY) {
+            V previous = emptyKeyValue;
+            if (!hasEmptyKey) {
+                hasEmptyKey = true;
+                size++;
+            }
+            emptyKeyValue = value;
+            return previous;
+        }
+        int slot = slot(key);
+        while (keys[slot] != EMPTY_KEY) {
+            if (keys[slot] == key) {
+                V previous = valueAt(slot);
+                values[slot] = value;
+                return previous;
+            }
+            slot = (slot + 1) & mask;
+        }
+        keys[slot] = key;
+        values[slot] = value;
+        if (++size > keys.length / 2) {
+            allocateAndRehash(keys.length * 2);
+        }
+        return null;
+    }
+
+    public V remove(long key) {
+        if (key == EMPTY_KEY) {
+            if (!hasEmptyKey) {
+                return null;
+            }
+            V previous = emptyKeyValue;
+            hasEmptyKey = false;
+            emptyKeyValue = null;
+            size--;
+            return previous;
+        }
+        int slot = slot(key);
+        while (keys[slot] != EMPTY_KEY) {
+            if (keys[slot] == key) {
+                V previous = valueAt(slot);
+                shiftBack(slot);
+                size--;
+                return previous;
+            }
+            slot = (slot + 1) & mask;
+        }
+        return null;
+    }
+
+    public int size() {
+        return size;
+    }
+
+    public void forEachValue(Consumer<? super V> action) {
+        if (hasEmptyKey) {
+            action.accept(emptyKeyValue);
+        }
+        for (int i = 0; i < keys.length; i++) {
+            if (keys[i] != EMPTY_KEY) {
+                action.accept(valueAt(i));
+            }
+        }
+    }
+
+    private void shiftBack(int freedSlot) {
+        int gap = freedSlot;
+        int slot = (gap + 1) & mask;
+        while (keys[slot] != EMPTY_KEY) {
+            int home = slot(keys[slot]);
+            // move the entry into the gap unless its home slot lies cyclically between the gap and its current slot
+            if (((slot - home) & mask) >= ((slot - gap) & mask)) {
+                keys[gap] = keys[slot];
+                values[gap] = values[slot];
+                gap = slot;
+            }
+            slot = (slot + 1) & mask;
+        }
+        keys[gap] = EMPTY_KEY;
+        values[gap] = null;
+    }
+
+    private int slot(long key) {
+        return (int) ((key * GOLDEN_RATIO) >>> 32) & mask;
+    }
+
+    @SuppressWarnings("unchecked")
+    private V valueAt(int slot) {
+        return (V) values[slot];
+    }
+
+    private void allocate(int capacity) {
+        keys = new long[capacity];
+        values = new Object[capacity];
+        mask = capacity - 1;
+    }
+
+    private void allocateAndRehash(int capacity) {
+        long[] oldKeys = keys;
+        Object[] oldValues = values;
+        allocate(capacity);
+        for (int i = 0; i < oldKeys.length; i++) {
+            if (oldKeys[i] != EMPTY_KEY) {
+                int slot = slot(oldKeys[i]);
+                while (keys[slot] != EMPTY_KEY) {
+                    slot = (slot + 1) & mask;
+                }
+                keys[slot] = oldKeys[i];
+                values[slot] = oldValues[i];
+            }
+        }
+        Arrays.fill(oldValues, null);
+    }
+
+    private static int capacityFor(int expectedSize) {
+        long capacity = Math.max(MIN_CAPACITY, Integer.highestOneBit(Math.max(expectedSize, 1)) * 4L);
+        if (capacity > 1 << 30) {
+            throw new IllegalArgumentException("Too many entries for a single table: " + expectedSize);
+        }
+        return (int) capacity;
+    }
+}
@@ -0,0 +1,208 @@
+package com.rodrigopeleias.bookstoremanager.utils;
+
+import java.util.Arrays;
+import java.util.function.Predicate;
+
+/**
+ * Radix trie mapping string keys to values, visited in key order under a given prefix.
+ * Chains of single-child nodes are collapsed into one edge, so the node count is bounded by twice the number of keys
+ * whatever their length. Children are kept in arrays sorted by the first character of their edge.
+ * Not thread-safe: callers must guard concurrent access.
+ */
+public class RadixTrie<V> {
+
+    private static final char[] NO_LABEL = new char[0];
+    private static final Node[] NO_CHILDREN = new Node[0];
+    private static final Object[] NO_VALUES = new Object[0];
+
+    private final Node root = new Node(NO_LABEL);
+    private int size;
+
+    public void put(String key, V value) {
+        Node node = root;
+        int position = 0;
+        while (position < key.length()) {
+            int childIndex = node.childIndex(key.charAt(position));
+            if (childIndex < 0) {
+                node.insertChild(-childIndex - 1, new Node(key.substring(position).toCharArray()));
+                node = node.children[-childIndex - 1];
+                position = key.length();
+                break;
+            }
+            Node child = node.children[childIndex];
+            int common = commonPrefixLength(child.label, key, position);
+            if (common < child.label.length) {
+                child = split(node, childIndex, common);
+            }
+            node = child;
+            position += common;
+        }
+        if (node.addValue(value)) {
+            size++;
+        }
+    }
+
+    public boolean remove(String key, V value) {
+        boolean removed = remove(root, key, 0, value);
+        if (removed) {
+            size--;
+        }
+        return removed;
+    }
+
+    /**
+     * Visits the values of every key starting with {@code prefix} in key order, until the visitor returns false.
+     */
+    public void forEachWithPrefix(String prefix, Predicate<? super V> visitor) {
+        Node node = root;
+        int position = 0;
+        while (position < prefix.length()) {
+            int childIndex = node.childIndex(prefix.charAt(position));
+            if (childIndex < 0) {
+                return;
+            }
+            Node child = node.children[childIndex];
+            int common = commonPrefixLength(child.label, prefix, position);
+            if (common < child.label.length && position + common < prefix.length()) {
+                return;
+            }
+            node = child;
+            position += common;
+        }
+        visit(node, visitor);
+    }
+
+    public int size() {
+        return size;
+    }
+
+    private boolean visit(Node node, Predicate<? super V> visitor) {
+        for (Object value : node.values) {
+            @SuppressWarnings("unchecked")
+            V typedValue = (V) value;
+            if (!visitor.test(typedValue)) {
+                return false;
+            }
+        }
+        for (Node child : node.children) {
+            if (!visit(child, visitor)) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private boolean remove(Node node, String key, int position, V value) {
+        if (position == key.length()) {
+            return node.removeValue(value);
+        }
+        int childIndex = node.childIndex(key.charAt(position));
+        if (childIndex < 0) {
+            return false;
+        }
+        Node child = node.children[childIndex];
+        int common = commonPrefixLength(child.label, key, position);
+        if (common < child.label.length || !remove(child, key, position + common, value)) {
+            return false;
+        }
+        if (child.values.length == 0 && child.children.length == 0) {
+            node.removeChild(childIndex);
+        } else if (child.values.length == 0 && child.children.length == 1) {
+            node.children[childIndex] = merge(child, child.children[0]);
+        }
+        return true;
+    }
+
+    private static Node split(Node parent, int childIndex, int at) {
+        Node child = parent.children[childIndex];
+        Node head = new Node(Arrays.copyOfRange(child.label, 0, at));
+        child.label = Arrays.copyOfRange(child.label, at, child.label.length);
+        head.children = new Node[]{child};
+        parent.children[childIndex] = head;
+        return head;
+    }
+
+    private static Node merge(Node parent, Node onlyChild) {
+        char[] label = Arrays.copyOf(parent.label, parent.label.length + onlyChild.label.length);
+        System.arraycopy(onlyChild.label, 0, label, parent.label.length, onlyChild.label.length);
+        onlyChild.label = label;
+        return onlyChild;
+    }
+
+    private static int commonPrefixLength(char[] label, String key, int position) {
+        int length = Math.min(label.length, key.length() - position);
+        int common = 0;
+        while (common < length && label[common] == key.charAt(position + common)) {
+            common++;
+        }
+        return common;
+    }
+
+    private static final class Node {
+
+        private char[] label;
+        private Node[] children = NO_CHILDREN;
+        private Object[] values = NO_VALUES;
+
+        Node(char[] label) {
+            this.label = label;
+        }
+
+        // binary search over the first edge characters, negative insertion point when absent
+        int childIndex(char first) {
+            int low = 0;
+            int high = children.length - 1;
+            while (low <= high) {
+                int middle = (low + high) >>> 1;
+                char middleFirst = children[middle].label[0];
+                if (middleFirst < first) {
+                    low = middle + 1;
+                } else if (middleFirst > first) {
+                    high = middle - 1;
+                } else {
+                    return middle;
+                }
+            }
+            return -(low + 1);
+        }
+
+        void insertChild(int index, Node child) {
+            Node[] grown = new Node[children.length + 1];
+            System.arraycopy(children, 0, grown, 0, index);
+            grown[index] = child;
+            System.arraycopy(children, index, grown, index + 1, children.length - index);
+            children = grown;
+        }
+
+        void removeChild(int index) {
+            Node[] shrunk = children.length == 1 ? NO_CHILDREN : new Node[children.length - 1];
+            System.arraycopy(children, 0, shrunk, 0, index);
+            System.arraycopy(children, index + 1, shrunk, index, children.length - index - 1);
+            children = shrunk;
+        }
+
+        boolean addValue(Object value) {
+            for (Object existing : values) {
+                if (existing.equals(value)) {
+                    return false;
+                }
+            }
+            values = Arrays.copyOf(values, values.length + 1);
+            values[values.length - 1] = value;
+            return true;
+        }
+
+        boolean removeValue(Object value) {
+            for (int i = 0; i < values.length; i++) {
+                if (values[i].equals(value)) {
+                    Object[] shrunk = values.length == 1 ? NO_VALUES : new Object[values.length - 1];
+                    System.arraycopy(values, 0, shrunk, 0, i);
+                    System.arraycopy(values, i + 1, shrunk, i, values.length - i - 1);
+                    values = shrunk;
+                    return true;
+                }
+            }
+            return false;
+        }
+    }
+}
@@ -0,0 +1,47 @@
+package com.rodrigopeleias.bookstoremanager.utils;
+
+import java.text.Normalizer;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+import java.util.regex.Pattern;
+
+/**
+ * Splits free text into search terms: lower-cased, without accents and broken on anything that is not a letter or digit,
+ * so "Machado de Assis" and "machado-de-ASSÍS" produce the same terms.
+ */
+public class SearchTerms {
+
+    private static final Pattern COMBINING_MARKS = Pattern.compile("\\p{M}+");
+
+    private SearchTerms() {
+    }
+
+    public static String normalize(String text) {
+        if (text == null) {
+            return "";
+        }
+        String decomposed = Normalizer.normalize(text, Normalizer.Form.NFD);
+        return COMBINING_MARKS.matcher(decomposed).replaceAll("").toLowerCase(Locale.ROOT);
+    }
+
+    public static String toKey(String text) {
+        return String.join(" ", tokenize(text));
+    }
+
+    public static List<String> tokenize(String text) {
+        String normalized = normalize(text);
+        List<String> terms = new ArrayList<>();
+        int start = -1;
+        for (int i = 0; i <= normalized.length(); i++) {
+            boolean termCharacter = i < normalized.length() && Character.isLetterOrDigit(normalized.charAt(i));
+            if (termCharacter && start < 0) {
+                start = i;
+            } else if (!termCharacter && start >= 0) {
+                terms.add(normalized.substring(start, i));
+                start = -1;
+            }
+        }
+        return terms;
+    }
+}
@@ -0,0 +1,52 @@
+package com.rodrigopeleias.bookstoremanager.utils;
+
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/**
+ * Lock-free rate limiter over a fixed number of stripes, using the generic cell rate algorithm (a token bucket stored
+ * as a single "theoretical arrival time" per stripe). Keys are hashed onto the stripes, so memory stays bounded no
+ * matter how many distinct keys are seen; keys sharing a stripe share its budget, which only makes limiting stricter.
+ */
+public class StripedRateLimiter {
+
+    private final AtomicLongArray theoreticalArrivalTimes;
+    private final int stripeMask;
+    private final long emissionIntervalNanos;
+    private final long burstToleranceNanos;
+    private final long originNanos = System.nanoTime();
+
+    public StripedRateLimiter(int stripes, long permitsPerMinute, long burst) {
+        int stripeCount = Integer.highestOneBit(Math.max(stripes - 1, 1)) << 1;
+        this.theoreticalArrivalTimes = new AtomicLongArray(stripeCount);
+        this.stripeMask = stripeCount - 1;
+        this.emissionIntervalNanos = TimeUnit.MINUTES.toNanos(1) / permitsPerMinute;
+        this.burstToleranceNanos = emissionIntervalNanos * burst;
+    }
+
+    /**
+     * Takes a permit for the given key.
+     *
+     * @return zero when the permit was granted, otherwise how many nanoseconds to wait before the next one is available
+     */
+    public long tryAcquire(Object key) {
+        int stripe = stripeFor(key);
+        long now = System.nanoTime() - originNanos;
+        while (true) {
+            long theoreticalArrivalTime = theoreticalArrivalTimes.get(stripe);
+            long nextArrivalTime = Math.max(theoreticalArrivalTime, now) + emissionIntervalNanos;
+            long allowedAt = nextArrivalTime - burstToleranceNanos;
+            if (allowedAt > now) {
+                return allowedAt - now;
+            }
+            if (theoreticalArrivalTimes.compareAndSet(stripe, theoreticalArrivalTime, nextArrivalTime)) {
+                return 0;
+            }
+        }
+    }
+
+    private int stripeFor(Object key) {
+        int hash = key.hashCode();
+        return (hash ^ (hash >>> 16)) & stripeMask;
+    }
+}
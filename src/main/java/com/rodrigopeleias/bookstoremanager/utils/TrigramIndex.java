@@ -0,0 +1,238 @@
+package com.rodrigopeleias.bookstoremanager.utils;
+
+import lombok.Value;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.List;
+import java.util.PriorityQueue;
+
+/**
+ * Typo-tolerant lookup of short texts such as names. Every text is indexed under the trigrams of its search key,
+ * a query collects the texts sharing the most trigrams with it and only those candidates are re-ranked by
+ * {@link EditDistance}, comparing the query against the whole key and against each run of as many words as the query has,
+ * so "tolkein" still finds "J. R. R. Tolkien".
+ * Work per query is bounded: posting lists are scanned rarest first up to {@code maxScannedPostings} entries and
+ * at most {@code maxCandidates} texts reach the edit distance step.
+ * Not thread-safe: callers must guard concurrent access.
+ */
+public class TrigramIndex {
+
+    private static final Comparator<Candidate> MOST_SHARED = Comparator
+            .comparingInt((Candidate candidate) -> candidate.sharedTrigrams).reversed()
+            .thenComparingLong(candidate -> candidate.id);
+
+    private static final Comparator<Match> CLOSEST = Comparator
+            .comparingInt(Match::getDistance)
+            .thenComparing(Comparator.comparingInt(Match::getSharedTrigrams).reversed())
+            .thenComparing(Match::getText)
+            .thenComparingLong(Match::getId);
+
+    private final int maxCandidates;
+    private final int maxScannedPostings;
+    private final LongObjectHashMap<Postings> postingsByTrigram = new LongObjectHashMap<>();
+    private final LongObjectHashMap<Entry> entriesById = new LongObjectHashMap<>();
+
+    public TrigramIndex(int maxCandidates, int maxScannedPostings) {
+        this.maxCandidates = maxCandidates;
+        this.maxScannedPostings = maxScannedPostings;
+    }
+
+    public void put(long id, String text) {
+        remove(id);
+        Entry entry = new Entry(text, SearchTerms.toKey(text));
+        entriesById.put(id, entry);
+        for (long trigram : trigrams(entry.key)) {
+            Postings postings = postingsByTrigram.get(trigram);
+            if (postings == null) {
+                postings = new Postings();
+                postingsByTrigram.put(trigram, postings);
+            }
+            postings.add(id);
+        }
+    }
+
+    public boolean remove(long id) {
+        Entry entry = entriesById.remove(id);
+        if (entry == null) {
+            return false;
+        }
+        for (long trigram : trigrams(entry.key)) {
+            Postings postings = postingsByTrigram.get(trigram);
+            postings.remove(id);
+            if (postings.size == 0) {
+                postingsByTrigram.remove(trigram);
+            }
+        }
+        return true;
+    }
+
+    public int size() {
+        return entriesById.size();
+    }
+
+    /**
+     * Returns up to {@code limit} texts within the edit distance allowed for the query length, closest first.
+     */
+    public List<Match> search(String query, int limit) {
+        String queryKey = SearchTerms.toKey(query);
+        if (queryKey.isEmpty() || limit < 1) {
+            return List.of();
+        }
+        int maxDistance = allowedEdits(queryKey.length());
+        int queryWords = wordStarts(queryKey).length;
+        List<Match> matches = new ArrayList<>();
+        for (Candidate candidate : candidates(queryKey)) {
+            Entry entry = entriesById.get(candidate.id);
+            int distance = distance(queryKey, queryWords, entry.key, maxDistance);
+            if (distance <= maxDistance) {
+                matches.add(new Match(candidate.id, entry.text, distance, candidate.sharedTrigrams));
+            }
+        }
+        matches.sort(CLOSEST);
+        return matches.size() > limit ? new ArrayList<>(matches.subList(0, limit)) : matches;
+    }
+
+    private List<Candidate> candidates(String queryKey) {
+        List<Postings> queryPostings = new ArrayList<>();
+        for (long trigram : trigrams(queryKey)) {
+            Postings postings = postingsByTrigram.get(trigram);
+            if (postings != null) {
+                queryPostings.add(postings);
+            }
+        }
+        // rare trigrams are the most selective, common ones are only counted while the scan budget lasts
+        queryPostings.sort(Comparator.comparingInt(postings -> postings.size));
+        LongObjectHashMap<Candidate> candidatesById = new LongObjectHashMap<>();
+        int scanned = 0;
+        for (Postings postings : queryPostings) {
+            for (int i = 0; i < postings.size && scanned < maxScannedPostings; i++, scanned++) {
+                Candidate candidate = candidatesById.get(postings.ids[i]);
+                if (candidate == null) {
+                    candidate = new Candidate(postings.ids[i]);
+                    candidatesById.put(candidate.id, candidate);
+                }
+                candidate.sharedTrigrams++;
+            }
+        }
+        // keeps the candidates sharing the most trigrams in a heap whose head is the weakest of them
+        PriorityQueue<Candidate> best = new PriorityQueue<>(maxCandidates + 1, MOST_SHARED.reversed());
+        candidatesById.forEachValue(candidate -> {
+            if (best.size() < maxCandidates) {
+                best.add(candidate);
+            } else if (MOST_SHARED.compare(candidate, best.peek()) < 0) {
+                best.poll();
+                best.add(candidate);
+            }
+        });
+        return new ArrayList<>(best);
+    }
+
+    private static int distance(String queryKey, int queryWords, String key, int maxDistance) {
+        int best = EditDistance.bounded(queryKey, key, maxDistance);
+        int[] wordStarts = wordStarts(key);
+        if (wordStarts.length <= queryWords) {
+            return best;
+        }
+        for (int first = 0; best > 0 && first + queryWords <= wordStarts.length; first++) {
+            int next = first + queryWords;
+            int end = next < wordStarts.length ? wordStarts[next] - 1 : key.length();
+            best = Math.min(best, EditDistance.bounded(queryKey, key.substring(wordStarts[first], end), maxDistance));
+        }
+        return best;
+    }
+
+    private static int allowedEdits(int length) {
+        return length <= 4 ? 1 : length <= 9 ? 2 : 3;
+    }
+
+    private static int[] wordStarts(String key) {
+        int words = key.isEmpty() ? 0 : 1;
+        for (int i = 0; i < key.length(); i++) {
+            if (key.charAt(i) == ' ') {
+                words++;
+            }
+        }
+        int[] starts = new int[words];
+        int word = 0;
+        for (int i = 0; i < key.length(); i++) {
+            if (i == 0 || key.charAt(i - 1) == ' ') {
+                starts[word++] = i;
+            }
+        }
+        return starts;
+    }
+
+    // distinct trigrams of the key padded like "  key ", three UTF-16 chars packed into one long
+    static long[] trigrams(String key) {
+        if (key.isEmpty()) {
+            return new long[0];
+        }
+        String padded = "  " + key + " ";
+        long[] trigrams = new long[padded.length() - 2];
+        for (int i = 0; i < trigrams.length; i++) {
+            trigrams[i] = ((long) padded.charAt(i) << 32) | ((long) padded.charAt(i + 1) << 16) | padded.charAt(i + 2);
+        }
+        Arrays.sort(trigrams);
+        int distinct = 0;
+        for (int i = 0; i < trigrams.length; i++) {
+            if (i == 0 || trigrams[i] != trigrams[i - 1]) {
+                trigrams[distinct++] = trigrams[i];
+            }
+        }
+        return Arrays.copyOf(trigrams, distinct);
+    }
+
+    @Value
+    public static class Match {
+
+        long id;
+        String text;
+        int distance;
+        int sharedTrigrams;
+    }
+
+    private static final class Entry {
+
+        private final String text;
+        private final String key;
+
+        Entry(String text, String key) {
+            this.text = text;
+            this.key = key;
+        }
+    }
+
+    private static final class Postings {
+
+        private long[] ids = new long[2];
+        private int size;
+
+        void add(long id) {
+            if (size == ids.length) {
+                ids = Arrays.copyOf(ids, size * 2);
+            }
+            ids[size++] = id;
+        }
+
+        void remove(long id) {
+            for (int i = 0; i < size; i++) {
+                if (ids[i] == id) {
+                    ids[i] = ids[--size];
+                    return;
+                }
+            }
+        }
+    }
+
+    private static final class Candidate {
+
+        private final long id;
+        private int sharedTrigrams;
+
+        Candidate(long id) {
+            this.id = id;
+        }
+    }
+}
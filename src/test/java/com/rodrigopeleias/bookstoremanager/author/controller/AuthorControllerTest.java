@@ -2,7 +2,15 @@ package com.rodrigopeleias.bookstoremanager.author.controller;
 
 import com.rodrigopeleias.bookstoremanager.author.builder.AuthorDTOBuilder;
 import com.rodrigopeleias.bookstoremanager.author.dto.AuthorDTO;
+import com.rodrigopeleias.bookstoremanager.author.dto.AuthorMatchDTO;
+import com.rodrigopeleias.bookstoremanager.author.dto.AuthorSuggestionDTO;
+import com.rodrigopeleias.bookstoremanager.author.entity.Author;
 import com.rodrigopeleias.bookstoremanager.author.service.AuthorService;
+import com.rodrigopeleias.bookstoremanager.entity.ResourceVersion;
+import com.rodrigopeleias.bookstoremanager.exception.BookstoreExceptionHandler;
+import com.rodrigopeleias.bookstoremanager.exception.PreconditionFailedException;
+import com.rodrigopeleias.bookstoremanager.pagination.dto.CursorPageDTO;
+import com.rodrigopeleias.bookstoremanager.pagination.dto.MultiGetDTO;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
@@ -10,12 +18,16 @@ import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
 import org.springframework.data.web.PageableHandlerMethodArgumentResolver;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.MediaType;
+import org.springframework.orm.ObjectOptimisticLockingFailureException;
 import org.springframework.test.web.servlet.MockMvc;
 import org.springframework.test.web.servlet.setup.MockMvcBuilders;
 import org.springframework.web.servlet.view.json.MappingJackson2JsonView;
 
+import java.time.LocalDateTime;
 import java.util.Collections;
+import java.util.List;
 
 import static com.rodrigopeleias.bookstoremanager.utils.JsonConversionUtils.asJsonString;
 import static org.hamcrest.core.Is.*;
@@ -27,6 +39,9 @@ import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.
 public class AuthorControllerTest {
 
     private static final String AUTHORS_API_URL_PATH = "/api/v1/authors";
+    private static final LocalDateTime LAST_MODIFIED_DATE = LocalDateTime.of(2020, 11, 20, 10, 30);
+    private static final ResourceVersion AUTHOR_VERSION = new ResourceVersion(3L, LAST_MODIFIED_DATE);
+    private static final ResourceVersion AUTHORS_VERSION = new ResourceVersion(4L, 9L, LAST_MODIFIED_DATE);
 
     @Mock
     private AuthorService authorService;
@@ -44,6 +59,7 @@ public class AuthorControllerTest {
         mockMvc = MockMvcBuilders.standaloneSetup(authorController)
                 .setCustomArgumentResolvers(new PageableHandlerMethodArgumentResolver())
                 .setViewResolvers((s, locale) -> new MappingJackson2JsonView())
+                .setControllerAdvice(new BookstoreExceptionHandler())
                 .build();
     }
 
@@ -77,40 +93,184 @@ public class AuthorControllerTest {
     void whenGETWithValidIdIsCalledThenStatusOKShouldBeReturned() throws Exception {
         AuthorDTO expectedFoundAuthorDTO = authorDTOBuilder.buildAuthorDTO();
 
+        when(authorService.findVersionById(expectedFoundAuthorDTO.getId())).thenReturn(AUTHOR_VERSION);
         when(authorService.findById(expectedFoundAuthorDTO.getId())).thenReturn(expectedFoundAuthorDTO);
 
         mockMvc.perform(get(AUTHORS_API_URL_PATH + "/" + expectedFoundAuthorDTO.getId())
                 .contentType(MediaType.APPLICATION_JSON))
                 .andExpect(status().isOk())
+                .andExpect(header().string(HttpHeaders.ETAG, AUTHOR_VERSION.getETag()))
+                .andExpect(header().exists(HttpHeaders.LAST_MODIFIED))
                 .andExpect(jsonPath("$.id", is(expectedFoundAuthorDTO.getId().intValue())))
                 .andExpect(jsonPath("$.name", is(expectedFoundAuthorDTO.getName())))
                 .andExpect(jsonPath("$.age", is(expectedFoundAuthorDTO.getAge())));
     }
 
+    @Test
+    void whenGETWithValidIdAndCurrentETagIsCalledThenNotModifiedShouldBeReturned() throws Exception {
+        when(authorService.findVersionById(1L)).thenReturn(AUTHOR_VERSION);
+
+        mockMvc.perform(get(AUTHORS_API_URL_PATH + "/1")
+                .header(HttpHeaders.IF_NONE_MATCH, AUTHOR_VERSION.getETag())
+                .contentType(MediaType.APPLICATION_JSON))
+                .andExpect(status().isNotModified())
+                .andExpect(content().string(""));
+
+        verify(authorService, never()).findById(1L);
+    }
+
+
+    @Test
+    void whenGETWithNameIsCalledThenStatusOKShouldBeReturned() throws Exception {
+        AuthorDTO expectedFoundAuthorDTO = authorDTOBuilder.buildAuthorDTO();
+
+        when(authorService.findByName(expectedFoundAuthorDTO.getName())).thenReturn(expectedFoundAuthorDTO);
+
+        mockMvc.perform(get(AUTHORS_API_URL_PATH + "/name/" + expectedFoundAuthorDTO.getName())
+                .contentType(MediaType.APPLICATION_JSON))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.id", is(expectedFoundAuthorDTO.getId().intValue())))
+                .andExpect(jsonPath("$.name", is(expectedFoundAuthorDTO.getName())));
+    }
+
+    @Test
+    void whenGETAutocompleteIsCalledThenStatusOKShouldBeReturned() throws Exception {
+        AuthorSuggestionDTO expectedSuggestion = new AuthorSuggestionDTO(1L, "Machado de Assis");
+
+        when(authorService.suggest("mach", null)).thenReturn(Collections.singletonList(expectedSuggestion));
+
+        mockMvc.perform(get(AUTHORS_API_URL_PATH + "/autocomplete")
+                .param("prefix", "mach")
+                .contentType(MediaType.APPLICATION_JSON))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$[0].id", is(1)))
+                .andExpect(jsonPath("$[0].name", is(expectedSuggestion.getName())));
+    }
+
+    @Test
+    void whenGETSearchIsCalledThenStatusOKShouldBeReturned() throws Exception {
+        AuthorMatchDTO expectedMatch = new AuthorMatchDTO(1L, "J. R. R. Tolkien", 1);
+
+        when(authorService.fuzzySearch("tolkein", 5)).thenReturn(Collections.singletonList(expectedMatch));
+
+        mockMvc.perform(get(AUTHORS_API_URL_PATH + "/search")
+                .param("name", "tolkein")
+                .param("size", "5")
+                .contentType(MediaType.APPLICATION_JSON))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$[0].id", is(1)))
+                .andExpect(jsonPath("$[0].name", is(expectedMatch.getName())))
+                .andExpect(jsonPath("$[0].distance", is(1)));
+    }
+
+    @Test
+    void whenGETSortedIsCalledThenStatusOKShouldBeReturned() throws Exception {
+        AuthorDTO expectedFoundAuthorDTO = authorDTOBuilder.buildAuthorDTO();
+        CursorPageDTO<AuthorDTO> expectedPage = CursorPageDTO.<AuthorDTO>builder()
+                .content(Collections.singletonList(expectedFoundAuthorDTO))
+                .size(1)
+                .build();
+
+        when(authorService.findCollatedPage("pt-BR", null, null)).thenReturn(expectedPage);
+
+        mockMvc.perform(get(AUTHORS_API_URL_PATH + "/sorted")
+                .param("locale", "pt-BR")
+                .contentType(MediaType.APPLICATION_JSON))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.content[0].name", is(expectedFoundAuthorDTO.getName())))
+                .andExpect(jsonPath("$.size", is(1)));
+    }
+
+    @Test
+    void whenGETWithIdsIsCalledThenFoundAuthorsAndMissingIdsShouldBeReturned() throws Exception {
+        AuthorDTO expectedFoundAuthorDTO = authorDTOBuilder.buildAuthorDTO();
+        MultiGetDTO<AuthorDTO> expectedAuthors = MultiGetDTO.<AuthorDTO>builder()
+                .content(Collections.singletonList(expectedFoundAuthorDTO))
+                .missingIds(Collections.singletonList(2L))
+                .build();
+
+        when(authorService.findAllById(List.of(1L, 2L))).thenReturn(expectedAuthors);
+
+        mockMvc.perform(get(AUTHORS_API_URL_PATH)
+                .param("ids", "1,2")
+                .contentType(MediaType.APPLICATION_JSON))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.content[0].name", is(expectedFoundAuthorDTO.getName())))
+                .andExpect(jsonPath("$.missingIds[0]", is(2)));
+    }
 
     @Test
     void whenGETListIsCalledThenStatusOKShouldBeReturned() throws Exception {
         AuthorDTO expectedFoundAuthorDTO = authorDTOBuilder.buildAuthorDTO();
 
+        when(authorService.findAllVersion()).thenReturn(AUTHORS_VERSION);
         when(authorService.findAll()).thenReturn(Collections.singletonList(expectedFoundAuthorDTO));
 
         mockMvc.perform(get(AUTHORS_API_URL_PATH)
                 .contentType(MediaType.APPLICATION_JSON))
                 .andExpect(status().isOk())
+                .andExpect(header().string(HttpHeaders.ETAG, AUTHORS_VERSION.getETag()))
+                .andExpect(header().doesNotExist(HttpHeaders.LAST_MODIFIED))
                 .andExpect(jsonPath("$[0].id", is(expectedFoundAuthorDTO.getId().intValue())))
                 .andExpect(jsonPath("$[0].name", is(expectedFoundAuthorDTO.getName())))
                 .andExpect(jsonPath("$[0].age", is(expectedFoundAuthorDTO.getAge())));
     }
 
+    @Test
+    void whenGETListWithStaleETagIsCalledThenStatusOKShouldBeReturned() throws Exception {
+        when(authorService.findAllVersion()).thenReturn(AUTHORS_VERSION);
+        when(authorService.findAll()).thenReturn(Collections.emptyList());
+
+        mockMvc.perform(get(AUTHORS_API_URL_PATH)
+                .header(HttpHeaders.IF_NONE_MATCH, new ResourceVersion(3L, 9L, LAST_MODIFIED_DATE).getETag())
+                .contentType(MediaType.APPLICATION_JSON))
+                .andExpect(status().isOk())
+                .andExpect(header().string(HttpHeaders.ETAG, AUTHORS_VERSION.getETag()));
+    }
+
+    @Test
+    void whenGETListWithCurrentETagIsCalledThenNotModifiedShouldBeReturned() throws Exception {
+        when(authorService.findAllVersion()).thenReturn(AUTHORS_VERSION);
+
+        mockMvc.perform(get(AUTHORS_API_URL_PATH)
+                .header(HttpHeaders.IF_NONE_MATCH, AUTHORS_VERSION.getETag())
+                .contentType(MediaType.APPLICATION_JSON))
+                .andExpect(status().isNotModified());
+
+        verify(authorService, never()).findAll();
+    }
+
     @Test
     void whenDELETEWithValidIdIsCalledThenNoContentShouldBeReturned() throws Exception {
         AuthorDTO expectedAuthorDeletedDTO = authorDTOBuilder.buildAuthorDTO();
         var expectedAuthorDeletedId = expectedAuthorDeletedDTO.getId();
 
-        doNothing().when(authorService).delete(expectedAuthorDeletedId);
+        doNothing().when(authorService).delete(expectedAuthorDeletedId, null);
 
         mockMvc.perform(delete(AUTHORS_API_URL_PATH + "/" + expectedAuthorDeletedId)
                 .contentType(MediaType.APPLICATION_JSON))
                 .andExpect(status().isNoContent());
     }
+
+    @Test
+    void whenDELETEWithStaleIfMatchIsCalledThenPreconditionFailedShouldBeReturned() throws Exception {
+        String staleETag = "\"2\"";
+
+        doThrow(new PreconditionFailedException(AUTHOR_VERSION.getETag())).when(authorService).delete(1L, staleETag);
+
+        mockMvc.perform(delete(AUTHORS_API_URL_PATH + "/1")
+                .header(HttpHeaders.IF_MATCH, staleETag)
+                .contentType(MediaType.APPLICATION_JSON))
+                .andExpect(status().isPreconditionFailed())
+                .andExpect(header().string(HttpHeaders.ETAG, AUTHOR_VERSION.getETag()));
+    }
+
+    @Test
+    void whenDELETEConflictsWithAConcurrentWriteThenPreconditionFailedShouldBeReturned() throws Exception {
+        doThrow(new ObjectOptimisticLockingFailureException(Author.class, 1L)).when(authorService).delete(1L, null);
+
+        mockMvc.perform(delete(AUTHORS_API_URL_PATH + "/1")
+                .contentType(MediaType.APPLICATION_JSON))
+                .andExpect(status().isPreconditionFailed());
+    }
 }
@@ -0,0 +1,101 @@
+package com.rodrigopeleias.bookstoremanager.author.repository;
+
+import com.rodrigopeleias.bookstoremanager.author.dto.AuthorDTO;
+import com.rodrigopeleias.bookstoremanager.author.entity.Author;
+import com.rodrigopeleias.bookstoremanager.author.mapper.AuthorMapper;
+import com.rodrigopeleias.bookstoremanager.benchmark.BenchmarkHarness;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import javax.persistence.EntityManager;
+import java.util.List;
+import java.util.function.Supplier;
+import java.util.stream.Collectors;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.is;
+import static org.hamcrest.Matchers.lessThan;
+
+/**
+ * Compares listing authors as managed entities copied by {@link AuthorMapper} against the constructor projection
+ * used by {@code AuthorService.findAll}, by time and by bytes allocated per row on the calling thread, and checks
+ * that the projection allocates less per row.
+ * The second-level and query caches are off so both paths read the database.
+ * Excluded from the default build, run it with {@code mvn test -P benchmark}.
+ */
+@Tag("benchmark")
+@Transactional(propagation = Propagation.NOT_SUPPORTED)
+@DataJpaTest(properties = {
+        "spring.jpa.show-sql=false",
+        "spring.jpa.properties.hibernate.cache.use_second_level_cache=false",
+        "spring.jpa.properties.hibernate.cache.use_query_cache=false"
+})
+public class AuthorListBenchmarkTest {
+
+    private static final int AUTHORS = 10_000;
+    private static final int WARMUP_ROUNDS = 30;
+    private static final int MEASURED_ROUNDS = 30;
+
+    private final BenchmarkHarness benchmark = BenchmarkHarness.of(AuthorListBenchmarkTest.class);
+
+    @Autowired
+    private AuthorRepository authorRepository;
+
+    @Autowired
+    private EntityManager entityManager;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    @Test
+    void whenAuthorsAreListedThenTheProjectionShouldAllocateLessPerRowThanEntities() throws Exception {
+        insertAuthors();
+        TransactionTemplate readOnlyTransaction = new TransactionTemplate(transactionManager);
+        readOnlyTransaction.setReadOnly(true);
+
+        Supplier<List<AuthorDTO>> entityPath = () -> authorRepository.findAll()
+                .stream()
+                .map(AuthorMapper.INSTANCE::toDTO)
+                .collect(Collectors.toList());
+        Supplier<List<AuthorDTO>> projectionPath = () -> readOnlyTransaction.execute(status -> authorRepository.findAllAuthorDTOs());
+
+        // each path runs twice, so the second pair is not skewed by whichever one warmed the JIT first
+        measure("entities + mapper", entityPath);
+        measure("constructor projection", projectionPath);
+        long entityBytesPerRow = measure("entities + mapper", entityPath);
+        long projectionBytesPerRow = measure("constructor projection", projectionPath);
+
+        assertThat(projectionBytesPerRow, lessThan(entityBytesPerRow));
+    }
+
+    private long measure(String path, Supplier<List<AuthorDTO>> listAuthors) throws Exception {
+        BenchmarkHarness.Result result = benchmark.measure(WARMUP_ROUNDS, MEASURED_ROUNDS,
+                round -> assertThat(listAuthors.get().size(), is(AUTHORS)));
+
+        long bytesPerRow = result.getAllocatedBytes() / ((long) MEASURED_ROUNDS * AUTHORS);
+        benchmark.report("{}: {} ms per list, {} bytes allocated per row",
+                path, String.format("%.2f", result.getMeanNanos() / 1e6), bytesPerRow);
+        return bytesPerRow;
+    }
+
+    private void insertAuthors() {
+        new TransactionTemplate(transactionManager).executeWithoutResult(status -> {
+            for (int i = 0; i < AUTHORS; i++) {
+                Author author = new Author();
+                author.setName("Author " + i);
+                author.setAge(20 + i % 80);
+                entityManager.persist(author);
+                if ((i + 1) % 500 == 0) {
+                    entityManager.flush();
+                    entityManager.clear();
+                }
+            }
+        });
+    }
+}
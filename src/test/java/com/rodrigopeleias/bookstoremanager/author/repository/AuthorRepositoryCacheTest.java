@@ -0,0 +1,79 @@
+package com.rodrigopeleias.bookstoremanager.author.repository;
+
+import com.rodrigopeleias.bookstoremanager.author.entity.Author;
+import com.rodrigopeleias.bookstoremanager.config.SecondLevelCacheConfig;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import javax.persistence.EntityManagerFactory;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.is;
+
+@Import(SecondLevelCacheConfig.class)
+@Transactional(propagation = Propagation.NOT_SUPPORTED)
+@DataJpaTest(properties = {
+        "spring.jpa.show-sql=false",
+        "spring.jpa.properties.hibernate.generate_statistics=true",
+        "logging.level.org.hibernate.engine.internal.StatisticalLoggingSessionEventListener=WARN"
+})
+public class AuthorRepositoryCacheTest {
+
+    @Autowired
+    private AuthorRepository authorRepository;
+
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    @Autowired
+    private TransactionTemplate transactionTemplate;
+
+    private Statistics statistics;
+
+    @BeforeEach
+    void setUp() {
+        authorRepository.deleteAll();
+        statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+        statistics.clear();
+    }
+
+    @Test
+    void whenAuthorIsFoundByIdAgainThenItShouldComeFromTheSecondLevelCache() {
+        Long authorId = authorRepository.save(buildAuthor("Rodrigo Peleias")).getId();
+        statistics.clear();
+
+        transactionTemplate.executeWithoutResult(status -> authorRepository.findById(authorId));
+        transactionTemplate.executeWithoutResult(status -> authorRepository.findById(authorId));
+
+        assertThat(statistics.getDomainDataRegionStatistics(Author.CACHE_REGION).getHitCount(), is(2L));
+        assertThat(statistics.getEntityLoadCount(), is(0L));
+    }
+
+    @Test
+    void whenAuthorsAreListedAgainThenQueryCacheShouldBeUsedUntilAnAuthorChanges() {
+        authorRepository.save(buildAuthor("Rodrigo Peleias"));
+
+        authorRepository.findAll();
+        authorRepository.findAll();
+        assertThat(statistics.getQueryCacheHitCount(), is(1L));
+
+        authorRepository.save(buildAuthor("Paula Peleias"));
+        assertThat(authorRepository.findAll().size(), is(2));
+        assertThat(statistics.getQueryCacheHitCount(), is(1L));
+    }
+
+    private Author buildAuthor(String name) {
+        Author author = new Author();
+        author.setName(name);
+        author.setAge(30);
+        return author;
+    }
+}
@@ -2,18 +2,32 @@ package com.rodrigopeleias.bookstoremanager.author.service;
 
 import com.rodrigopeleias.bookstoremanager.author.builder.AuthorDTOBuilder;
 import com.rodrigopeleias.bookstoremanager.author.dto.AuthorDTO;
+import com.rodrigopeleias.bookstoremanager.author.dto.AuthorMatchDTO;
+import com.rodrigopeleias.bookstoremanager.author.dto.AuthorSuggestionDTO;
 import com.rodrigopeleias.bookstoremanager.author.entity.Author;
 import com.rodrigopeleias.bookstoremanager.author.exception.AuthorAlreadyExistsException;
 import com.rodrigopeleias.bookstoremanager.author.exception.AuthorNotFoundException;
 import com.rodrigopeleias.bookstoremanager.author.mapper.AuthorMapper;
 import com.rodrigopeleias.bookstoremanager.author.repository.AuthorRepository;
+import com.rodrigopeleias.bookstoremanager.changes.enums.CatalogResource;
+import com.rodrigopeleias.bookstoremanager.changes.service.CatalogChangeService;
+import com.rodrigopeleias.bookstoremanager.entity.MultiIdLoader;
+import com.rodrigopeleias.bookstoremanager.exception.PreconditionFailedException;
+import com.rodrigopeleias.bookstoremanager.pagination.Cursor;
+import com.rodrigopeleias.bookstoremanager.pagination.CursorPagination;
+import com.rodrigopeleias.bookstoremanager.pagination.dto.CursorPageDTO;
+import com.rodrigopeleias.bookstoremanager.pagination.dto.MultiGetDTO;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
+import org.mockito.Spy;
 import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.data.domain.PageRequest;
 
+import java.util.Arrays;
 import java.util.Collections;
 import java.util.List;
 import java.util.Optional;
@@ -21,6 +35,7 @@ import java.util.Optional;
 import static org.hamcrest.MatcherAssert.*;
 import static org.hamcrest.core.Is.*;
 import static org.hamcrest.core.IsEqual.*;
+import static org.hamcrest.core.IsNull.*;
 import static org.junit.jupiter.api.Assertions.*;
 import static org.mockito.Mockito.*;
 
@@ -32,6 +47,18 @@ public class AuthorServiceTest {
     @Mock
     private AuthorRepository authorRepository;
 
+    @Spy
+    private CursorPagination cursorPagination = new CursorPagination(1, 100);
+
+    @Mock
+    private AuthorNameIndex authorNameIndex;
+
+    @Mock
+    private MultiIdLoader multiIdLoader;
+
+    @Mock
+    private CatalogChangeService catalogChangeService;
+
     @InjectMocks
     private AuthorService authorService;
 
@@ -49,13 +76,26 @@ public class AuthorServiceTest {
         Author expectedCreatedAuthor = authorMapper.toModel(expectedAuthorToCreateDTO);
 
         // When
-        when(authorRepository.save(expectedCreatedAuthor)).thenReturn(expectedCreatedAuthor);
+        when(authorRepository.saveAndFlush(expectedCreatedAuthor)).thenReturn(expectedCreatedAuthor);
         when(authorRepository.findByName(expectedAuthorToCreateDTO.getName())).thenReturn(Optional.empty());
 
         AuthorDTO createdAuthorDTO = authorService.create(expectedAuthorToCreateDTO);
 
         //then
         assertThat(createdAuthorDTO, is(equalTo(expectedAuthorToCreateDTO)));
+        verify(catalogChangeService, times(1)).recordCreated(CatalogResource.AUTHOR, expectedCreatedAuthor.getId());
+    }
+
+    @Test
+    void whenAuthorIsRegisteredConcurrentlyThenCreationShouldBeRejected() {
+        AuthorDTO expectedAuthorToCreateDTO = authorDTOBuilder.buildAuthorDTO();
+        Author expectedCreatedAuthor = authorMapper.toModel(expectedAuthorToCreateDTO);
+
+        when(authorRepository.findByName(expectedAuthorToCreateDTO.getName())).thenReturn(Optional.empty());
+        when(authorRepository.saveAndFlush(expectedCreatedAuthor)).thenThrow(new DataIntegrityViolationException("uk_author_name"));
+
+        assertThrows(AuthorAlreadyExistsException.class, () -> authorService.create(expectedAuthorToCreateDTO));
+        verifyNoInteractions(catalogChangeService);
     }
 
     @Test
@@ -94,11 +134,125 @@ public class AuthorServiceTest {
     }
 
     @Test
-    void whenListAuthorsIsCalledThenItShouldBeReturned() {
+    void whenIndexedAuthorNameIsGivenThenAnAuthorShouldBeReturned() {
+        AuthorDTO expectedFoundAuthorDTO = authorDTOBuilder.buildAuthorDTO();
+        Author expectedFoundAuthor = authorMapper.toModel(expectedFoundAuthorDTO);
+
+        when(authorNameIndex.findIdByName(expectedFoundAuthorDTO.getName())).thenReturn(Optional.of(expectedFoundAuthorDTO.getId()));
+        when(authorRepository.findById(expectedFoundAuthorDTO.getId())).thenReturn(Optional.of(expectedFoundAuthor));
+
+        AuthorDTO foundAuthorDTO = authorService.findByName(expectedFoundAuthorDTO.getName());
+
+        assertThat(foundAuthorDTO, is(equalTo(expectedFoundAuthorDTO)));
+        verify(authorRepository, never()).findByName(expectedFoundAuthorDTO.getName());
+    }
+
+    @Test
+    void whenAuthorNameIsNeitherIndexedNorRegisteredThenAnExceptionShouldBeThrown() {
+        when(authorNameIndex.findIdByName("Unknown")).thenReturn(Optional.empty());
+        when(authorRepository.findByName("Unknown")).thenReturn(Optional.empty());
+
+        assertThrows(AuthorNotFoundException.class, () -> authorService.findByName("Unknown"));
+    }
+
+    @Test
+    void whenAuthorNameIsNotIndexedThenTheAuthorShouldBeFoundByName() {
+        AuthorDTO expectedFoundAuthorDTO = authorDTOBuilder.buildAuthorDTO();
+        Author expectedFoundAuthor = authorMapper.toModel(expectedFoundAuthorDTO);
+
+        when(authorRepository.findByName(expectedFoundAuthorDTO.getName())).thenReturn(Optional.of(expectedFoundAuthor));
+
+        AuthorDTO foundAuthorDTO = authorService.findByName(expectedFoundAuthorDTO.getName());
+
+        assertThat(foundAuthorDTO, is(equalTo(expectedFoundAuthorDTO)));
+    }
+
+    @Test
+    void whenAuthorNameIsStillIndexedButNoLongerRegisteredThenItShouldBeCreated() {
+        AuthorDTO expectedAuthorToCreateDTO = authorDTOBuilder.buildAuthorDTO();
+        Author expectedCreatedAuthor = authorMapper.toModel(expectedAuthorToCreateDTO);
+
+        when(authorRepository.findByName(expectedAuthorToCreateDTO.getName())).thenReturn(Optional.empty());
+        when(authorRepository.saveAndFlush(expectedCreatedAuthor)).thenReturn(expectedCreatedAuthor);
+
+        AuthorDTO createdAuthorDTO = authorService.create(expectedAuthorToCreateDTO);
+
+        assertThat(createdAuthorDTO, is(equalTo(expectedAuthorToCreateDTO)));
+        verify(authorNameIndex, never()).findIdByName(expectedAuthorToCreateDTO.getName());
+    }
+
+    @Test
+    void whenPrefixIsGivenThenSuggestionsShouldComeFromTheIndex() {
+        List<AuthorSuggestionDTO> expectedSuggestions = List.of(new AuthorSuggestionDTO(1L, "Machado de Assis"));
+
+        when(authorNameIndex.suggest("mach", 10)).thenReturn(Optional.of(expectedSuggestions));
+
+        List<AuthorSuggestionDTO> suggestions = authorService.suggest("mach", 10);
+
+        assertThat(suggestions, is(equalTo(expectedSuggestions)));
+        verifyNoInteractions(authorRepository);
+    }
+
+    @Test
+    void whenAuthorNameIndexIsNotReadyThenSuggestionsShouldComeFromTheDatabase() {
         AuthorDTO expectedFoundAuthorDTO = authorDTOBuilder.buildAuthorDTO();
         Author expectedFoundAuthor = authorMapper.toModel(expectedFoundAuthorDTO);
 
-        when(authorRepository.findAll()).thenReturn(Collections.singletonList(expectedFoundAuthor));
+        when(authorNameIndex.suggest("mach", 100)).thenReturn(Optional.empty());
+        when(authorRepository.findAllByNameStartingWithIgnoreCaseOrderByNameAsc("mach", PageRequest.of(0, 100)))
+                .thenReturn(List.of(expectedFoundAuthor));
+
+        List<AuthorSuggestionDTO> suggestions = authorService.suggest("mach", 500);
+
+        assertThat(suggestions, is(equalTo(List.of(
+                new AuthorSuggestionDTO(expectedFoundAuthorDTO.getId(), expectedFoundAuthorDTO.getName())))));
+    }
+
+    @Test
+    void whenMisspelledNameIsGivenThenFuzzyMatchesShouldComeFromTheIndex() {
+        List<AuthorMatchDTO> expectedMatches = List.of(new AuthorMatchDTO(1L, "Machado de Assis", 1));
+
+        when(authorNameIndex.fuzzySearch("machado de asis", 100)).thenReturn(expectedMatches);
+
+        List<AuthorMatchDTO> matches = authorService.fuzzySearch("machado de asis", 500);
+
+        assertThat(matches, is(equalTo(expectedMatches)));
+        verifyNoInteractions(authorRepository);
+    }
+
+    @Test
+    void whenLocaleIsGivenThenAuthorsShouldBeReturnedInTheCollatedOrderOfTheIndex() {
+        Author firstAuthor = authorMapper.toModel(AuthorDTOBuilder.builder().id(2L).name("Olsen").build().buildAuthorDTO());
+        Author secondAuthor = authorMapper.toModel(AuthorDTOBuilder.builder().id(1L).name("Öberg").build().buildAuthorDTO());
+
+        when(authorNameIndex.collatedPage("sv", Optional.empty(), 2)).thenReturn(List.of(2L, 1L));
+        when(authorRepository.findAllById(List.of(2L, 1L))).thenReturn(List.of(secondAuthor, firstAuthor));
+
+        CursorPageDTO<AuthorDTO> foundPage = authorService.findCollatedPage("sv", null, 1);
+
+        assertThat(foundPage.getContent(), is(equalTo(List.of(authorMapper.toDTO(firstAuthor)))));
+        assertThat(foundPage.getNextCursor(), is(equalTo(Cursor.of("Olsen", 2L).encode())));
+    }
+
+    @Test
+    void whenAuthorIdsAreGivenThenFoundAuthorsAndMissingIdsShouldBeReturned() {
+        AuthorDTO expectedFoundAuthorDTO = authorDTOBuilder.buildAuthorDTO();
+        Author expectedFoundAuthor = authorMapper.toModel(expectedFoundAuthorDTO);
+
+        when(multiIdLoader.findAllById(Author.class, List.of(3L, expectedFoundAuthor.getId())))
+                .thenReturn(List.of(expectedFoundAuthor));
+
+        MultiGetDTO<AuthorDTO> foundAuthors = authorService.findAllById(List.of(3L, expectedFoundAuthor.getId(), 3L));
+
+        assertThat(foundAuthors.getContent(), is(equalTo(List.of(expectedFoundAuthorDTO))));
+        assertThat(foundAuthors.getMissingIds(), is(equalTo(List.of(3L))));
+    }
+
+    @Test
+    void whenListAuthorsIsCalledThenItShouldBeReturned() {
+        AuthorDTO expectedFoundAuthorDTO = authorDTOBuilder.buildAuthorDTO();
+
+        when(authorRepository.findAllAuthorDTOs()).thenReturn(Collections.singletonList(expectedFoundAuthorDTO));
 
         List<AuthorDTO> foundAuthorsDTO = authorService.findAll();
 
@@ -108,7 +262,7 @@ public class AuthorServiceTest {
 
     @Test
     void whenListAuthorsIsCalledThenAndEmptyListShouldBeReturned() {
-        when(authorRepository.findAll()).thenReturn(Collections.emptyList());
+        when(authorRepository.findAllAuthorDTOs()).thenReturn(Collections.emptyList());
 
         List<AuthorDTO> foundAuthorsDTO = authorService.findAll();
 
@@ -121,13 +275,26 @@ public class AuthorServiceTest {
         Author expectedDeletedAuthor = authorMapper.toModel(expectedDeletedAuthorDTO);
 
         Long expectedDeletedAuthorId = expectedDeletedAuthorDTO.getId();
-        doNothing().when(authorRepository).deleteById(expectedDeletedAuthorId);
+        doNothing().when(authorRepository).delete(expectedDeletedAuthor);
         when(authorRepository.findById(expectedDeletedAuthorId)).thenReturn(Optional.of(expectedDeletedAuthor));
 
-        authorService.delete(expectedDeletedAuthorId);
+        authorService.delete(expectedDeletedAuthorId, "*");
 
-        verify(authorRepository, times(1)).deleteById(expectedDeletedAuthorId);
+        verify(authorRepository, times(1)).delete(expectedDeletedAuthor);
         verify(authorRepository, times(1)).findById(expectedDeletedAuthorId);
+        verify(catalogChangeService, times(1)).recordDeleted(CatalogResource.AUTHOR, expectedDeletedAuthorId);
+    }
+
+    @Test
+    void whenStaleIfMatchIsGivenThenAuthorShouldNotBeDeleted() {
+        AuthorDTO expectedFoundAuthorDTO = authorDTOBuilder.buildAuthorDTO();
+        Author expectedFoundAuthor = authorMapper.toModel(expectedFoundAuthorDTO);
+        expectedFoundAuthor.setVersion(3L);
+
+        when(authorRepository.findById(expectedFoundAuthorDTO.getId())).thenReturn(Optional.of(expectedFoundAuthor));
+
+        assertThrows(PreconditionFailedException.class, () -> authorService.delete(expectedFoundAuthorDTO.getId(), "\"2\""));
+        verify(authorRepository, never()).delete(expectedFoundAuthor);
     }
 
     @Test
@@ -136,6 +303,40 @@ public class AuthorServiceTest {
 
         when(authorRepository.findById(expectedInvalidAuthorId)).thenReturn(Optional.empty());
 
-        assertThrows(AuthorNotFoundException.class, () -> authorService.delete(expectedInvalidAuthorId));
+        assertThrows(AuthorNotFoundException.class, () -> authorService.delete(expectedInvalidAuthorId, null));
+    }
+
+    @Test
+    void whenFirstPageIsRequestedThenItShouldReturnTheCursorOfTheNextOne() {
+        Author firstAuthor = buildAuthor(1L, "Alice");
+        Author secondAuthor = buildAuthor(2L, "Bob");
+
+        when(authorRepository.findAllByOrderByNameAscIdAsc(PageRequest.of(0, 2)))
+                .thenReturn(Arrays.asList(firstAuthor, secondAuthor));
+
+        CursorPageDTO<AuthorDTO> foundPage = authorService.findPage(null, null);
+
+        assertThat(foundPage.getSize(), is(1));
+        assertThat(foundPage.getContent().get(0).getName(), is(equalTo(firstAuthor.getName())));
+        assertThat(foundPage.getNextCursor(), is(equalTo(Cursor.of(firstAuthor.getName(), firstAuthor.getId()).encode())));
+    }
+
+    @Test
+    void whenLastPageIsRequestedThenNoNextCursorShouldBeReturned() {
+        Author lastAuthor = buildAuthor(2L, "Bob");
+        String cursor = Cursor.of("Alice", 1L).encode();
+
+        when(authorRepository.findPageAfter("Alice", 1L, PageRequest.of(0, 2)))
+                .thenReturn(Collections.singletonList(lastAuthor));
+
+        CursorPageDTO<AuthorDTO> foundPage = authorService.findPage(cursor, null);
+
+        assertThat(foundPage.getSize(), is(1));
+        assertThat(foundPage.getContent().get(0).getName(), is(equalTo(lastAuthor.getName())));
+        assertThat(foundPage.getNextCursor(), is(nullValue()));
+    }
+
+    private Author buildAuthor(Long id, String name) {
+        return authorMapper.toModel(new AuthorDTO(id, name, 40));
     }
 }
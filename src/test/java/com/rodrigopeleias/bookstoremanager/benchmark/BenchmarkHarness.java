@@ -0,0 +1,93 @@
+package com.rodrigopeleias.bookstoremanager.benchmark;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.lang.management.ManagementFactory;
+import java.util.Arrays;
+
+/**
+ * Runs the rounds of a benchmark test after a warmup and reports what they measured through the test's logger.
+ * Bytes are counted on the calling thread only, so work handed to other threads is not included.
+ */
+public final class BenchmarkHarness {
+
+    private static final com.sun.management.ThreadMXBean THREAD_MX_BEAN =
+            (com.sun.management.ThreadMXBean) ManagementFactory.getThreadMXBean();
+
+    private final Logger logger;
+
+    private BenchmarkHarness(Class<?> benchmarkClass) {
+        this.logger = LoggerFactory.getLogger(benchmarkClass);
+    }
+
+    public static BenchmarkHarness of(Class<?> benchmarkClass) {
+        return new BenchmarkHarness(benchmarkClass);
+    }
+
+    public Result measure(int warmupRounds, int measuredRounds, Round round) throws Exception {
+        for (int i = 0; i < warmupRounds; i++) {
+            round.run(i);
+        }
+
+        long threadId = Thread.currentThread().getId();
+        long[] roundNanos = new long[measuredRounds];
+        long allocatedBefore = THREAD_MX_BEAN.getThreadAllocatedBytes(threadId);
+        for (int i = 0; i < measuredRounds; i++) {
+            long start = System.nanoTime();
+            round.run(warmupRounds + i);
+            roundNanos[i] = System.nanoTime() - start;
+        }
+        long allocatedBytes = THREAD_MX_BEAN.getThreadAllocatedBytes(threadId) - allocatedBefore;
+        return new Result(roundNanos, allocatedBytes);
+    }
+
+    public void report(String format, Object... arguments) {
+        logger.info(format, arguments);
+    }
+
+    @FunctionalInterface
+    public interface Round {
+        void run(int round) throws Exception;
+    }
+
+    public static final class Result {
+
+        private final long[] sortedNanos;
+        private final long allocatedBytes;
+
+        private Result(long[] roundNanos, long allocatedBytes) {
+            this.sortedNanos = roundNanos.clone();
+            Arrays.sort(sortedNanos);
+            this.allocatedBytes = allocatedBytes;
+        }
+
+        public int getRounds() {
+            return sortedNanos.length;
+        }
+
+        public long getBestNanos() {
+            return sortedNanos[0];
+        }
+
+        public long getTotalNanos() {
+            return Arrays.stream(sortedNanos).sum();
+        }
+
+        public long getMeanNanos() {
+            return getTotalNanos() / sortedNanos.length;
+        }
+
+        public long percentileNanos(double percentile) {
+            return sortedNanos[(int) Math.min(sortedNanos.length - 1, (long) (sortedNanos.length * percentile / 100))];
+        }
+
+        public long getAllocatedBytes() {
+            return allocatedBytes;
+        }
+
+        public double perSecond(long operations) {
+            return operations / (getTotalNanos() / 1e9);
+        }
+    }
+}
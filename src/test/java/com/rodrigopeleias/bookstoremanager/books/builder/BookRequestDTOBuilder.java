@@ -0,0 +1,33 @@
+package com.rodrigopeleias.bookstoremanager.books.builder;
+
+import com.rodrigopeleias.bookstoremanager.books.dto.BookRequestDTO;
+import lombok.Builder;
+
+@Builder
+public class BookRequestDTOBuilder {
+
+    @Builder.Default
+    private final Long id = 1L;
+
+    @Builder.Default
+    private final String name = "Spring Boot Pro";
+
+    @Builder.Default
+    private final String isbn = "978-0-596-52068-7";
+
+    @Builder.Default
+    private final Long publisherId = 1L;
+
+    @Builder.Default
+    private final Long authorId = 1L;
+
+    @Builder.Default
+    private final Integer pages = 200;
+
+    @Builder.Default
+    private final Integer chapters = 10;
+
+    public BookRequestDTO buildRequestBookDTO() {
+        return new BookRequestDTO(id, name, isbn, publisherId, authorId, pages, chapters);
+    }
+}
@@ -0,0 +1,37 @@
+package com.rodrigopeleias.bookstoremanager.books.builder;
+
+import com.rodrigopeleias.bookstoremanager.author.builder.AuthorDTOBuilder;
+import com.rodrigopeleias.bookstoremanager.author.dto.AuthorDTO;
+import com.rodrigopeleias.bookstoremanager.books.dto.BookResponseDTO;
+import com.rodrigopeleias.bookstoremanager.publishers.builder.PublisherDTOBuilder;
+import com.rodrigopeleias.bookstoremanager.publishers.dto.PublisherDTO;
+import lombok.Builder;
+
+@Builder
+public class BookResponseDTOBuilder {
+
+    @Builder.Default
+    private final Long id = 1L;
+
+    @Builder.Default
+    private final String name = "Spring Boot Pro";
+
+    @Builder.Default
+    private final String isbn = "978-0-596-52068-7";
+
+    @Builder.Default
+    private final PublisherDTO publisher = PublisherDTOBuilder.builder().build().buildPublisherDTO();
+
+    @Builder.Default
+    private final AuthorDTO author = AuthorDTOBuilder.builder().build().buildAuthorDTO();
+
+    @Builder.Default
+    private final Integer pages = 200;
+
+    @Builder.Default
+    private final Integer chapters = 10;
+
+    public BookResponseDTO buildBookResponse() {
+        return new BookResponseDTO(id, name, isbn, publisher, author, pages, chapters);
+    }
+}
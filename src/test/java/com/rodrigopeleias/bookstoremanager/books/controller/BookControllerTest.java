@@ -0,0 +1,229 @@
+package com.rodrigopeleias.bookstoremanager.books.controller;
+
+import com.rodrigopeleias.bookstoremanager.books.builder.BookRequestDTOBuilder;
+import com.rodrigopeleias.bookstoremanager.books.builder.BookResponseDTOBuilder;
+import com.rodrigopeleias.bookstoremanager.books.dto.BookImportJobDTO;
+import com.rodrigopeleias.bookstoremanager.books.dto.BookRequestDTO;
+import com.rodrigopeleias.bookstoremanager.books.dto.BookResponseDTO;
+import com.rodrigopeleias.bookstoremanager.books.enums.BookImportStatus;
+import com.rodrigopeleias.bookstoremanager.books.service.BookImportService;
+import com.rodrigopeleias.bookstoremanager.books.service.BookService;
+import com.rodrigopeleias.bookstoremanager.entity.ResourceVersion;
+import com.rodrigopeleias.bookstoremanager.utils.JsonConversionUtils;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.data.web.PageableHandlerMethodArgumentResolver;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
+import org.springframework.mock.web.MockMultipartFile;
+import org.springframework.security.web.method.annotation.AuthenticationPrincipalArgumentResolver;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.setup.MockMvcBuilders;
+import org.springframework.web.servlet.view.json.MappingJackson2JsonView;
+
+import java.time.LocalDateTime;
+import java.util.Collections;
+
+import static org.hamcrest.Matchers.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.*;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.*;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.*;
+
+@ExtendWith(MockitoExtension.class)
+public class BookControllerTest {
+
+    private static final String BOOKS_API_URL_PATH = "/api/v1/books";
+    private static final LocalDateTime LAST_MODIFIED_DATE = LocalDateTime.of(2020, 11, 20, 10, 30);
+    private static final ResourceVersion BOOK_VERSION = new ResourceVersion(3L, LAST_MODIFIED_DATE);
+    private static final ResourceVersion BOOKS_VERSION = new ResourceVersion(1L, 2L, LAST_MODIFIED_DATE);
+
+    @Mock
+    private BookService bookService;
+
+    @Mock
+    private BookImportService bookImportService;
+
+    @InjectMocks
+    private BookController bookController;
+
+    private MockMvc mockMvc;
+
+    private BookRequestDTOBuilder bookRequestDTOBuilder;
+
+    private BookResponseDTOBuilder bookResponseDTOBuilder;
+
+    @BeforeEach
+    void setUp() {
+        bookRequestDTOBuilder = BookRequestDTOBuilder.builder().build();
+        bookResponseDTOBuilder = BookResponseDTOBuilder.builder().build();
+        mockMvc = MockMvcBuilders.standaloneSetup(bookController)
+                .setCustomArgumentResolvers(new PageableHandlerMethodArgumentResolver(), new AuthenticationPrincipalArgumentResolver())
+                .setViewResolvers((s, locale) -> new MappingJackson2JsonView())
+                .build();
+    }
+
+    @Test
+    void whenPOSTIsCalledThenCreatedStatusShouldBeReturned() throws Exception {
+        BookRequestDTO expectedBookToCreateDTO = bookRequestDTOBuilder.buildRequestBookDTO();
+        BookResponseDTO expectedCreatedBookDTO = bookResponseDTOBuilder.buildBookResponse();
+
+        when(bookService.create(any(), eq(expectedBookToCreateDTO))).thenReturn(expectedCreatedBookDTO);
+
+        mockMvc.perform(post(BOOKS_API_URL_PATH)
+                .contentType(MediaType.APPLICATION_JSON)
+                .content(JsonConversionUtils.asJsonString(expectedBookToCreateDTO)))
+                .andExpect(status().isCreated())
+                .andExpect(jsonPath("$.id", is(expectedCreatedBookDTO.getId().intValue())))
+                .andExpect(jsonPath("$.name", is(expectedCreatedBookDTO.getName())))
+                .andExpect(jsonPath("$.author.name", is(expectedCreatedBookDTO.getAuthor().getName())))
+                .andExpect(jsonPath("$.publisher.code", is(expectedCreatedBookDTO.getPublisher().getCode())));
+    }
+
+    @Test
+    void whenPOSTIsCalledWithInvalidIsbnThenBadRequestStatusShouldBeReturned() throws Exception {
+        BookRequestDTO expectedBookToCreateDTO = bookRequestDTOBuilder.buildRequestBookDTO();
+        expectedBookToCreateDTO.setIsbn("978-0-596-52068-0");
+
+        mockMvc.perform(post(BOOKS_API_URL_PATH)
+                .contentType(MediaType.APPLICATION_JSON)
+                .content(JsonConversionUtils.asJsonString(expectedBookToCreateDTO)))
+                .andExpect(status().isBadRequest());
+    }
+
+    @Test
+    void whenGETWithValidIdIsCalledThenOkStatusShouldBeReturned() throws Exception {
+        BookResponseDTO expectedFoundBookDTO = bookResponseDTOBuilder.buildBookResponse();
+
+        when(bookService.findVersionByIdAndUser(any(), eq(expectedFoundBookDTO.getId()))).thenReturn(BOOK_VERSION);
+        when(bookService.findByIdAndUser(any(), eq(expectedFoundBookDTO.getId()))).thenReturn(expectedFoundBookDTO);
+
+        mockMvc.perform(get(BOOKS_API_URL_PATH + "/" + expectedFoundBookDTO.getId())
+                .contentType(MediaType.APPLICATION_JSON))
+                .andExpect(status().isOk())
+                .andExpect(header().string(HttpHeaders.ETAG, BOOK_VERSION.getETag()))
+                .andExpect(jsonPath("$.id", is(expectedFoundBookDTO.getId().intValue())))
+                .andExpect(jsonPath("$.isbn", is(expectedFoundBookDTO.getIsbn())));
+    }
+
+    @Test
+    void whenGETWithValidIdAndCurrentETagIsCalledThenNotModifiedStatusShouldBeReturned() throws Exception {
+        when(bookService.findVersionByIdAndUser(any(), eq(1L))).thenReturn(BOOK_VERSION);
+
+        mockMvc.perform(get(BOOKS_API_URL_PATH + "/1")
+                .header(HttpHeaders.IF_NONE_MATCH, BOOK_VERSION.getETag())
+                .contentType(MediaType.APPLICATION_JSON))
+                .andExpect(status().isNotModified());
+
+        verify(bookService, never()).findByIdAndUser(any(), eq(1L));
+    }
+
+    @Test
+    void whenGETWithIsbnIsCalledThenOkStatusShouldBeReturned() throws Exception {
+        BookResponseDTO expectedFoundBookDTO = bookResponseDTOBuilder.buildBookResponse();
+
+        when(bookService.findAllByIsbnAndUser(any(), eq(expectedFoundBookDTO.getIsbn())))
+                .thenReturn(Collections.singletonList(expectedFoundBookDTO));
+
+        mockMvc.perform(get(BOOKS_API_URL_PATH + "/isbn/" + expectedFoundBookDTO.getIsbn())
+                .contentType(MediaType.APPLICATION_JSON))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$[0].id", is(expectedFoundBookDTO.getId().intValue())))
+                .andExpect(jsonPath("$[0].isbn", is(expectedFoundBookDTO.getIsbn())));
+    }
+
+    @Test
+    void whenGETSearchIsCalledThenOkStatusShouldBeReturned() throws Exception {
+        BookResponseDTO expectedFoundBookDTO = bookResponseDTOBuilder.buildBookResponse();
+
+        when(bookService.search(any(), eq("spring boot"), eq(10))).thenReturn(Collections.singletonList(expectedFoundBookDTO));
+
+        mockMvc.perform(get(BOOKS_API_URL_PATH + "/search")
+                .param("q", "spring boot")
+                .param("size", "10")
+                .contentType(MediaType.APPLICATION_JSON))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$[0].id", is(expectedFoundBookDTO.getId().intValue())))
+                .andExpect(jsonPath("$[0].name", is(expectedFoundBookDTO.getName())));
+    }
+
+    @Test
+    void whenGETListIsCalledThenOkStatusShouldBeReturned() throws Exception {
+        BookResponseDTO expectedFoundBookDTO = bookResponseDTOBuilder.buildBookResponse();
+
+        when(bookService.findAllVersionByUser(any())).thenReturn(BOOKS_VERSION);
+        when(bookService.findAllByUser(any())).thenReturn(Collections.singletonList(expectedFoundBookDTO));
+
+        mockMvc.perform(get(BOOKS_API_URL_PATH)
+                .contentType(MediaType.APPLICATION_JSON))
+                .andExpect(status().isOk())
+                .andExpect(header().string(HttpHeaders.ETAG, BOOKS_VERSION.getETag()))
+                .andExpect(jsonPath("$[0].id", is(expectedFoundBookDTO.getId().intValue())))
+                .andExpect(jsonPath("$[0].name", is(expectedFoundBookDTO.getName())));
+    }
+
+    @Test
+    void whenPUTIsCalledThenOkStatusShouldBeReturned() throws Exception {
+        BookRequestDTO expectedBookToUpdateDTO = bookRequestDTOBuilder.buildRequestBookDTO();
+        BookResponseDTO expectedUpdatedBookDTO = bookResponseDTOBuilder.buildBookResponse();
+
+        when(bookService.updateByIdAndUser(any(), eq(expectedBookToUpdateDTO.getId()), eq(expectedBookToUpdateDTO)))
+                .thenReturn(expectedUpdatedBookDTO);
+
+        mockMvc.perform(put(BOOKS_API_URL_PATH + "/" + expectedBookToUpdateDTO.getId())
+                .contentType(MediaType.APPLICATION_JSON)
+                .content(JsonConversionUtils.asJsonString(expectedBookToUpdateDTO)))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.name", is(expectedUpdatedBookDTO.getName())));
+    }
+
+    @Test
+    void whenDELETEIsCalledThenNoContentStatusShouldBeReturned() throws Exception {
+        var expectedBookIdToDelete = 1L;
+
+        mockMvc.perform(delete(BOOKS_API_URL_PATH + "/" + expectedBookIdToDelete)
+                .contentType(MediaType.APPLICATION_JSON))
+                .andExpect(status().isNoContent());
+        verify(bookService, times(1)).deleteByIdAndUser(any(), eq(expectedBookIdToDelete));
+    }
+
+    @Test
+    void whenPOSTImportIsCalledThenAcceptedStatusShouldBeReturned() throws Exception {
+        MockMultipartFile file = new MockMultipartFile("file", "books.csv", "text/csv", "name,isbn\n".getBytes());
+        BookImportJobDTO expectedImportJobDTO = BookImportJobDTO.builder()
+                .id("e2a1f7b0")
+                .status(BookImportStatus.QUEUED)
+                .build();
+
+        when(bookImportService.startImport(any(), any())).thenReturn(expectedImportJobDTO);
+
+        mockMvc.perform(multipart(BOOKS_API_URL_PATH + "/import").file(file))
+                .andExpect(status().isAccepted())
+                .andExpect(jsonPath("$.id", is(expectedImportJobDTO.getId())))
+                .andExpect(jsonPath("$.status", is("QUEUED")));
+    }
+
+    @Test
+    void whenGETImportJobIsCalledThenOkStatusShouldBeReturned() throws Exception {
+        BookImportJobDTO expectedImportJobDTO = BookImportJobDTO.builder()
+                .id("e2a1f7b0")
+                .status(BookImportStatus.COMPLETED)
+                .processedRows(10)
+                .importedRows(9)
+                .failedRows(1)
+                .build();
+
+        when(bookImportService.findJobByIdAndUser(any(), eq(expectedImportJobDTO.getId()))).thenReturn(expectedImportJobDTO);
+
+        mockMvc.perform(get(BOOKS_API_URL_PATH + "/import/" + expectedImportJobDTO.getId())
+                .contentType(MediaType.APPLICATION_JSON))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.status", is("COMPLETED")))
+                .andExpect(jsonPath("$.importedRows", is(9)));
+    }
+}
@@ -0,0 +1,80 @@
+package com.rodrigopeleias.bookstoremanager.books.importer;
+
+import com.rodrigopeleias.bookstoremanager.books.dto.BookImportRowDTO;
+import com.rodrigopeleias.bookstoremanager.books.exception.InvalidImportRowException;
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.io.StringReader;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.*;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+public class CsvBookImportReaderTest {
+
+    private static final String HEADER = "name,isbn,authorName,publisherCode,pages,chapters\n";
+
+    @Test
+    void whenCsvHasValidRowsThenTheyShouldBeReadInOrder() throws IOException {
+        CsvBookImportReader reader = open(HEADER
+                + "Spring Boot Pro,978-0-596-52068-7,Rodrigo Peleias,PBL1234,200,10\r\n"
+                + "Java Essentials,978-0-596-52068-7,Rodrigo Peleias,PBL1234,300,12\n");
+
+        BookImportRowDTO firstRow = reader.readRow();
+        BookImportRowDTO secondRow = reader.readRow();
+
+        assertThat(firstRow, is(equalTo(new BookImportRowDTO(
+                "Spring Boot Pro", "978-0-596-52068-7", "Rodrigo Peleias", "PBL1234", 200, 10))));
+        assertThat(secondRow.getName(), is("Java Essentials"));
+        assertThat(reader.getRowNumber(), is(2L));
+        assertThat(reader.readRow(), is(nullValue()));
+    }
+
+    @Test
+    void whenHeaderHasColumnsInAnotherOrderThenFieldsShouldBeMappedByName() throws IOException {
+        CsvBookImportReader reader = open("chapters,PAGES,isbn,name,publisherCode,authorName\n"
+                + "10,200,978-0-596-52068-7,Spring Boot Pro,PBL1234,Rodrigo Peleias\n");
+
+        BookImportRowDTO row = reader.readRow();
+
+        assertThat(row.getName(), is("Spring Boot Pro"));
+        assertThat(row.getPages(), is(200));
+        assertThat(row.getChapters(), is(10));
+    }
+
+    @Test
+    void whenFieldIsQuotedThenCommasQuotesAndLineBreaksShouldBeKept() throws IOException {
+        CsvBookImportReader reader = open(HEADER
+                + "\"Clean Code, \"\"2nd\"\"\nedition\",978-0-596-52068-7,Rodrigo Peleias,PBL1234,200,10\n");
+
+        BookImportRowDTO row = reader.readRow();
+
+        assertThat(row.getName(), is("Clean Code, \"2nd\"\nedition"));
+        assertThat(row.getIsbn(), is("978-0-596-52068-7"));
+    }
+
+    @Test
+    void whenRowIsInvalidThenItShouldFailAndNextRowsShouldStillBeRead() throws IOException {
+        CsvBookImportReader reader = open(HEADER
+                + "Spring Boot Pro,978-0-596-52068-7,Rodrigo Peleias,PBL1234,many,10\n"
+                + "Spring Boot Pro,978-0-596-52068-7\n"
+                + "Java Essentials,978-0-596-52068-7,Rodrigo Peleias,PBL1234,300,12\n");
+
+        assertThrows(InvalidImportRowException.class, reader::readRow);
+        assertThrows(InvalidImportRowException.class, reader::readRow);
+        BookImportRowDTO row = reader.readRow();
+
+        assertThat(row.getName(), is("Java Essentials"));
+        assertThat(reader.getRowNumber(), is(3L));
+    }
+
+    @Test
+    void whenHeaderIsMissingAColumnThenAnExceptionShouldBeThrown() {
+        assertThrows(InvalidImportRowException.class, () -> open("name,isbn,authorName,pages,chapters\n"));
+    }
+
+    private CsvBookImportReader open(String content) throws IOException {
+        return new CsvBookImportReader(new StringReader(content));
+    }
+}
@@ -0,0 +1,215 @@
+package com.rodrigopeleias.bookstoremanager.books.repository;
+
+import com.rodrigopeleias.bookstoremanager.author.entity.Author;
+import com.rodrigopeleias.bookstoremanager.benchmark.BenchmarkHarness;
+import com.rodrigopeleias.bookstoremanager.books.entity.Book;
+import com.rodrigopeleias.bookstoremanager.publishers.entity.Publisher;
+import com.rodrigopeleias.bookstoremanager.users.entity.User;
+import com.rodrigopeleias.bookstoremanager.users.enums.Gender;
+import com.rodrigopeleias.bookstoremanager.users.enums.Role;
+import lombok.Data;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.h2.tools.Server;
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.test.context.DynamicPropertyRegistry;
+import org.springframework.test.context.DynamicPropertySource;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import javax.persistence.Entity;
+import javax.persistence.EntityManager;
+import javax.persistence.GeneratedValue;
+import javax.persistence.GenerationType;
+import javax.persistence.Id;
+import java.sql.SQLException;
+import java.time.LocalDate;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.greaterThanOrEqualTo;
+import static org.hamcrest.Matchers.is;
+import static org.hamcrest.Matchers.lessThan;
+
+/**
+ * Measures how fast books are inserted the way the bulk import does it: one transaction per batch, flushed and cleared,
+ * once for {@link Book} with its pooled sequence ids and once for the same columns with IDENTITY ids, as books had
+ * before, and checks that only the sequence ids let the inserts go out in JDBC batches.
+ * Excluded from the default build, run it with {@code mvn test -P benchmark}. Add {@code -Dbenchmark.h2.tcp=true}
+ * to reach H2 through its TCP server, so every JDBC round trip pays a loopback hop as it would against a real database.
+ */
+@Tag("benchmark")
+@Transactional(propagation = Propagation.NOT_SUPPORTED)
+@AutoConfigureTestDatabase(replace = AutoConfigureTestDatabase.Replace.NONE)
+@DataJpaTest(properties = {
+        "spring.jpa.show-sql=false",
+        "spring.jpa.hibernate.ddl-auto=create-drop",
+        "spring.jpa.properties.hibernate.generate_statistics=true",
+        "logging.level.org.hibernate.engine.internal.StatisticalLoggingSessionEventListener=WARN"
+})
+public class BookInsertBenchmarkTest {
+
+    private static final int BOOKS_PER_ROUND = 20_000;
+    private static final int BATCH_SIZE = 500;
+    private static final int WARMUP_ROUNDS = 2;
+    private static final int MEASURED_ROUNDS = 5;
+
+    private static Server h2Server;
+
+    private final BenchmarkHarness benchmark = BenchmarkHarness.of(BookInsertBenchmarkTest.class);
+
+    @Autowired
+    private EntityManager entityManager;
+
+    @Autowired
+    private TransactionTemplate transactionTemplate;
+
+    @DynamicPropertySource
+    static void datasourceProperties(DynamicPropertyRegistry registry) throws SQLException {
+        if (Boolean.getBoolean("benchmark.h2.tcp")) {
+            h2Server = Server.createTcpServer("-tcpPort", "0", "-ifNotExists").start();
+            registry.add("spring.datasource.url",
+                    () -> "jdbc:h2:" + h2Server.getURL() + "/mem:book_insert_benchmark;DB_CLOSE_DELAY=-1");
+        } else {
+            registry.add("spring.datasource.url", () -> "jdbc:h2:mem:book_insert_benchmark;DB_CLOSE_DELAY=-1");
+        }
+    }
+
+    @AfterAll
+    static void stopH2Server() {
+        if (h2Server != null) {
+            h2Server.stop();
+        }
+    }
+
+    @Test
+    void whenBooksAreInsertedInBatchesThenOnlySequenceIdsShouldShareTheirStatements() throws Exception {
+        Long userId = transactionTemplate.execute(status -> persistUser().getId());
+        Long authorId = transactionTemplate.execute(status -> persistAuthor().getId());
+        Long publisherId = transactionTemplate.execute(status -> persistPublisher().getId());
+
+        long identityStatements = measure("IDENTITY", (round, i) -> {
+            IdentityBook book = new IdentityBook();
+            book.setName("Book " + round + "-" + i);
+            book.setIsbn("978-0-596-52068-7");
+            book.setPages(200);
+            book.setChapters(10);
+            book.setUserId(userId);
+            book.setAuthorId(authorId);
+            book.setPublisherId(publisherId);
+            return book;
+        });
+        long sequenceStatements = measure("pooled sequence", (round, i) -> {
+            Book book = new Book();
+            book.setName("Book " + round + "-" + i);
+            book.setIsbn("978-0-596-52068-7");
+            book.setPages(200);
+            book.setChapters(10);
+            book.setUser(entityManager.getReference(User.class, userId));
+            book.setAuthor(entityManager.getReference(Author.class, authorId));
+            book.setPublisher(entityManager.getReference(Publisher.class, publisherId));
+            return book;
+        });
+
+        long storedRows = (long) BOOKS_PER_ROUND * (WARMUP_ROUNDS + MEASURED_ROUNDS);
+        assertThat(entityManager.createQuery("select count(b) from IdentityBook b", Long.class).getSingleResult(), is(storedRows));
+        assertThat(entityManager.createQuery("select count(b) from Book b", Long.class).getSingleResult(), is(storedRows));
+        long insertedBooks = (long) BOOKS_PER_ROUND * MEASURED_ROUNDS;
+        // IDENTITY needs every row inserted on its own to read the generated key back
+        assertThat(identityStatements, greaterThanOrEqualTo(insertedBooks));
+        assertThat(sequenceStatements, lessThan(insertedBooks / 10));
+    }
+
+    private long measure(String ids, NewBook newBook) throws Exception {
+        Statistics statistics = entityManager.getEntityManagerFactory().unwrap(SessionFactory.class).getStatistics();
+        BenchmarkHarness.Result result = benchmark.measure(WARMUP_ROUNDS, MEASURED_ROUNDS, round -> {
+            if (round == WARMUP_ROUNDS) {
+                statistics.clear();
+            }
+            insertBooks(round, newBook);
+        });
+
+        long insertedBooks = (long) BOOKS_PER_ROUND * MEASURED_ROUNDS;
+        long preparedStatements = statistics.getPrepareStatementCount();
+        benchmark.report("{}: inserted {} books in {} rounds: best {} books/s, mean {} books/s, {} statements prepared",
+                ids, insertedBooks, result.getRounds(),
+                Math.round(BOOKS_PER_ROUND / (result.getBestNanos() / 1e9)),
+                Math.round(result.perSecond(insertedBooks)),
+                preparedStatements);
+        return preparedStatements;
+    }
+
+    private void insertBooks(int round, NewBook newBook) {
+        for (int batchStart = 0; batchStart < BOOKS_PER_ROUND; batchStart += BATCH_SIZE) {
+            int firstBook = batchStart;
+            transactionTemplate.executeWithoutResult(status -> {
+                for (int i = firstBook; i < firstBook + BATCH_SIZE; i++) {
+                    entityManager.persist(newBook.create(round, i));
+                }
+                entityManager.flush();
+                entityManager.clear();
+            });
+        }
+    }
+
+    private User persistUser() {
+        User user = new User();
+        user.setName("Rodrigo Peleias");
+        user.setAge(30);
+        user.setGender(Gender.MALE);
+        user.setEmail("rodrigo@peleias.com");
+        user.setUsername("rodrigopeleias");
+        user.setPassword("123456");
+        user.setBirthdate(LocalDate.of(1990, 1, 1));
+        user.setRole(Role.USER);
+        entityManager.persist(user);
+        return user;
+    }
+
+    private Author persistAuthor() {
+        Author author = new Author();
+        author.setName("Rodrigo Peleias");
+        author.setAge(30);
+        entityManager.persist(author);
+        return author;
+    }
+
+    private Publisher persistPublisher() {
+        Publisher publisher = new Publisher();
+        publisher.setName("Peleias Editora");
+        publisher.setCode("PBL1234");
+        publisher.setFoundationDate(LocalDate.of(2020, 6, 1));
+        entityManager.persist(publisher);
+        return publisher;
+    }
+
+    @FunctionalInterface
+    private interface NewBook {
+        Object create(int round, int index);
+    }
+
+    /**
+     * The book columns with the IDENTITY ids books used before moving to a pooled sequence.
+     */
+    @Data
+    @Entity(name = "IdentityBook")
+    public static class IdentityBook {
+
+        @Id
+        @GeneratedValue(strategy = GenerationType.IDENTITY)
+        private Long id;
+
+        private String name;
+        private String isbn;
+        private Integer pages;
+        private Integer chapters;
+        private Long userId;
+        private Long authorId;
+        private Long publisherId;
+    }
+}
@@ -0,0 +1,181 @@
+package com.rodrigopeleias.bookstoremanager.books.repository;
+
+import com.rodrigopeleias.bookstoremanager.author.entity.Author;
+import com.rodrigopeleias.bookstoremanager.benchmark.BenchmarkHarness;
+import com.rodrigopeleias.bookstoremanager.books.entity.Book;
+import com.rodrigopeleias.bookstoremanager.books.service.BookSearchIndex;
+import com.rodrigopeleias.bookstoremanager.publishers.entity.Publisher;
+import com.rodrigopeleias.bookstoremanager.users.entity.User;
+import com.rodrigopeleias.bookstoremanager.users.enums.Gender;
+import com.rodrigopeleias.bookstoremanager.users.enums.Role;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import javax.persistence.EntityManager;
+import java.time.LocalDate;
+import java.util.List;
+import java.util.Random;
+import java.util.function.Supplier;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.empty;
+import static org.hamcrest.Matchers.lessThan;
+import static org.hamcrest.Matchers.not;
+
+/**
+ * Compares a {@code LIKE '%term%'} scan over book, author and publisher names against {@link BookSearchIndex}
+ * for a single user's catalog, reports how long the index takes to rebuild from the database and checks that
+ * the ranked index search beats the unbounded scan a ranked {@code LIKE} search would need.
+ * Excluded from the default build, run it with {@code mvn test -P benchmark}.
+ */
+@Tag("benchmark")
+@Transactional(propagation = Propagation.NOT_SUPPORTED)
+@DataJpaTest(properties = "spring.jpa.show-sql=false")
+public class BookSearchBenchmarkTest {
+
+    private static final int BOOKS = 100_000;
+    private static final int AUTHORS = 1_000;
+    private static final int PUBLISHERS = 100;
+    private static final int WARMUP_ROUNDS = 20;
+    private static final int MEASURED_ROUNDS = 50;
+    private static final int VOCABULARY = 20_000;
+    private static final String[] SYLLABLES = {"ba", "ce", "di", "fo", "gu", "ka", "le", "mi", "no", "pu",
+            "ra", "se", "ti", "vo", "xu", "za", "be", "ci", "do", "fu"};
+
+    private final BenchmarkHarness benchmark = BenchmarkHarness.of(BookSearchBenchmarkTest.class);
+
+    @Autowired
+    private BooksRepository booksRepository;
+
+    @Autowired
+    private EntityManager entityManager;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    @Test
+    void whenCatalogIsSearchedThenTheInvertedIndexShouldBeatTheLikeScan() throws Exception {
+        Long userId = insertCatalog();
+
+        BookSearchIndex bookSearchIndex = new BookSearchIndex(booksRepository, 5);
+        BenchmarkHarness.Result rebuild = benchmark.measure(0, 1, round -> bookSearchIndex.rebuild());
+        benchmark.report("index rebuild: {} ms for {} books", String.format("%.2f", rebuild.getTotalNanos() / 1e6), BOOKS);
+
+        TransactionTemplate readOnlyTransaction = new TransactionTemplate(transactionManager);
+        readOnlyTransaction.setReadOnly(true);
+        String commonTerm = word(30);
+        String rareTerm = word(3_000);
+        Supplier<List<Long>> firstLikeMatches = () -> likeScan(readOnlyTransaction, userId, rareTerm, 20);
+        Supplier<List<Long>> allLikeMatches = () -> likeScan(readOnlyTransaction, userId, rareTerm, Integer.MAX_VALUE);
+        Supplier<List<Long>> rareIndexed = () -> bookSearchIndex.search(userId, rareTerm, 20);
+        Supplier<List<Long>> commonIndexed = () -> bookSearchIndex.search(userId, commonTerm + " " + rareTerm, 20);
+
+        measure("like, first 20", firstLikeMatches);
+        long likeNanos = measure("like, all", allLikeMatches);
+        long rareIndexedNanos = measure("index, rare", rareIndexed);
+        long commonIndexedNanos = measure("index, common", commonIndexed);
+
+        assertThat(rareIndexedNanos, lessThan(likeNanos));
+        assertThat(commonIndexedNanos, lessThan(likeNanos));
+    }
+
+    // ranking needs every match, so the unbounded scan is what a LIKE based search would have to run
+    private List<Long> likeScan(TransactionTemplate readOnlyTransaction, Long userId, String term, int maxResults) {
+        return readOnlyTransaction.execute(status -> entityManager.createQuery(
+                "select b.id from Book b join b.author a join b.publisher p where b.user.id = :userId"
+                        + " and (lower(b.name) like :term or lower(a.name) like :term or lower(p.name) like :term)",
+                Long.class)
+                .setParameter("userId", userId)
+                .setParameter("term", "%" + term + "%")
+                .setMaxResults(maxResults)
+                .getResultList());
+    }
+
+    private long measure(String path, Supplier<List<Long>> search) throws Exception {
+        BenchmarkHarness.Result result = benchmark.measure(WARMUP_ROUNDS, MEASURED_ROUNDS,
+                round -> assertThat(search.get(), not(empty())));
+        benchmark.report("{}: {} ms per search", path, String.format("%.3f", result.getMeanNanos() / 1e6));
+        return result.getMeanNanos();
+    }
+
+    private Long insertCatalog() {
+        return new TransactionTemplate(transactionManager).execute(status -> {
+            Random random = new Random(42);
+            User user = new User();
+            user.setName("Benchmark");
+            user.setAge(30);
+            user.setGender(Gender.MALE);
+            user.setEmail("benchmark@example.com");
+            user.setUsername("benchmark");
+            user.setPassword("benchmark");
+            user.setBirthdate(LocalDate.of(1990, 1, 1));
+            user.setRole(Role.USER);
+            entityManager.persist(user);
+
+            Author[] authors = new Author[AUTHORS];
+            for (int i = 0; i < AUTHORS; i++) {
+                authors[i] = new Author();
+                authors[i].setName(title(random, 2) + " " + i);
+                authors[i].setAge(20 + i % 80);
+                entityManager.persist(authors[i]);
+            }
+            Publisher[] publishers = new Publisher[PUBLISHERS];
+            for (int i = 0; i < PUBLISHERS; i++) {
+                publishers[i] = new Publisher();
+                publishers[i].setName(title(random, 1) + " Press " + i);
+                publishers[i].setCode("PUB" + i);
+                publishers[i].setFoundationDate(LocalDate.of(1950, 1, 1));
+                entityManager.persist(publishers[i]);
+            }
+            for (int i = 0; i < BOOKS; i++) {
+                Book book = new Book();
+                book.setName(title(random, 1 + random.nextInt(4)) + " " + i);
+                book.setIsbn("978-0-596-52068-7");
+                book.setUser(user);
+                book.setAuthor(authors[random.nextInt(AUTHORS)]);
+                book.setPublisher(publishers[random.nextInt(PUBLISHERS)]);
+                entityManager.persist(book);
+                if ((i + 1) % 500 == 0) {
+                    entityManager.flush();
+                    entityManager.clear();
+                    user = entityManager.getReference(User.class, user.getId());
+                    for (int j = 0; j < AUTHORS; j++) {
+                        authors[j] = entityManager.getReference(Author.class, authors[j].getId());
+                    }
+                    for (int j = 0; j < PUBLISHERS; j++) {
+                        publishers[j] = entityManager.getReference(Publisher.class, publishers[j].getId());
+                    }
+                }
+            }
+            return user.getId();
+        });
+    }
+
+    private static String title(Random random, int words) {
+        StringBuilder title = new StringBuilder();
+        for (int i = 0; i < words; i++) {
+            if (i > 0) {
+                title.append(' ');
+            }
+            // log-uniform ranks give the skewed word frequencies of real titles
+            title.append(word((int) Math.pow(VOCABULARY, random.nextDouble()) - 1));
+        }
+        return title.toString();
+    }
+
+    private static String word(int rank) {
+        StringBuilder word = new StringBuilder("q");
+        int remaining = rank;
+        do {
+            word.append(SYLLABLES[remaining % SYLLABLES.length]);
+            remaining /= SYLLABLES.length;
+        } while (remaining > 0);
+        return word.toString();
+    }
+}
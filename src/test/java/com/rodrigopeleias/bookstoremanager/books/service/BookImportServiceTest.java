@@ -0,0 +1,257 @@
+package com.rodrigopeleias.bookstoremanager.books.service;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.rodrigopeleias.bookstoremanager.author.entity.Author;
+import com.rodrigopeleias.bookstoremanager.author.repository.AuthorRepository;
+import com.rodrigopeleias.bookstoremanager.books.dto.BookImportJobDTO;
+import com.rodrigopeleias.bookstoremanager.books.entity.Book;
+import com.rodrigopeleias.bookstoremanager.books.enums.BookImportStatus;
+import com.rodrigopeleias.bookstoremanager.books.exception.BookImportJobNotFoundException;
+import com.rodrigopeleias.bookstoremanager.books.exception.UnsupportedImportFormatException;
+import com.rodrigopeleias.bookstoremanager.books.importer.BookImportFormat;
+import com.rodrigopeleias.bookstoremanager.books.importer.BookImportJob;
+import com.rodrigopeleias.bookstoremanager.books.repository.BookKey;
+import com.rodrigopeleias.bookstoremanager.books.repository.BooksRepository;
+import com.rodrigopeleias.bookstoremanager.publishers.entity.Publisher;
+import com.rodrigopeleias.bookstoremanager.publishers.repository.PublisherRepository;
+import com.rodrigopeleias.bookstoremanager.users.dto.AuthenticatedUser;
+import com.rodrigopeleias.bookstoremanager.users.entity.User;
+import com.rodrigopeleias.bookstoremanager.users.service.UserService;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.mock.web.MockMultipartFile;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import javax.persistence.EntityManager;
+import javax.validation.Validation;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Collections;
+import java.util.List;
+import java.util.function.Consumer;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.*;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.doAnswer;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+@ExtendWith(MockitoExtension.class)
+public class BookImportServiceTest {
+
+    private static final String HEADER = "name,isbn,authorName,publisherCode,pages,chapters\n";
+    private static final String VALID_ISBN = "978-0-596-52068-7";
+
+    @Mock
+    private BooksRepository booksRepository;
+
+    @Mock
+    private AuthorRepository authorRepository;
+
+    @Mock
+    private PublisherRepository publisherRepository;
+
+    @Mock
+    private UserService userService;
+
+    @Mock
+    private EntityManager entityManager;
+
+    @Mock
+    private TransactionTemplate transactionTemplate;
+
+    @Mock
+    private BookIsbnIndex bookIsbnIndex;
+
+    @Mock
+    private BookSearchIndex bookSearchIndex;
+
+    private BookImportService bookImportService;
+
+    private AuthenticatedUser authenticatedUser;
+
+    @BeforeEach
+    void setUp() {
+        bookImportService = new BookImportService(booksRepository, authorRepository, publisherRepository, userService,
+                entityManager, transactionTemplate, new ObjectMapper(),
+                Validation.buildDefaultValidatorFactory().getValidator(), bookIsbnIndex, bookSearchIndex, 1, 1, 2, 1, 60, 30);
+        authenticatedUser = new AuthenticatedUser("rodrigopeleias", "123456", "USER");
+    }
+
+    @AfterEach
+    void tearDown() {
+        bookImportService.destroy();
+    }
+
+    @Test
+    void whenCsvRowsAreValidThenTheyShouldBePersistedInBatches() throws Exception {
+        givenRegisteredAuthorsAndPublishers();
+        givenTransactionsAreExecuted();
+        BookImportJob job = new BookImportJob("job", "rodrigopeleias", 10);
+
+        bookImportService.runImport(job, 1L, writeFile(HEADER
+                + "Spring Boot Pro," + VALID_ISBN + ",Rodrigo Peleias,PBL1234,200,10\n"
+                + "Java Essentials," + VALID_ISBN + ",Rodrigo Peleias,PBL1234,300,12\n"
+                + "Clean Code," + VALID_ISBN + ",Rodrigo Peleias,PBL1234,400,14\n"), BookImportFormat.CSV);
+
+        BookImportJobDTO importJob = job.toDTO();
+        assertThat(importJob.getStatus(), is(BookImportStatus.COMPLETED));
+        assertThat(importJob.getImportedRows(), is(3L));
+        assertThat(importJob.getFailedRows(), is(0L));
+        verify(transactionTemplate, times(2)).executeWithoutResult(any());
+        verify(entityManager, times(3)).persist(any(Book.class));
+        verify(entityManager, times(2)).clear();
+    }
+
+    @Test
+    void whenRowsAreInvalidOrDuplicatedThenTheyShouldBeReportedAndSkipped() throws Exception {
+        givenRegisteredAuthorsAndPublishers();
+        givenTransactionsAreExecuted();
+        BookKey registeredBook = registeredBookKey("Spring Boot Pro", VALID_ISBN);
+        when(booksRepository.findAllKeysByUserId(1L)).thenReturn(List.of(registeredBook));
+        BookImportJob job = new BookImportJob("job", "rodrigopeleias", 10);
+
+        bookImportService.runImport(job, 1L, writeFile(
+                "{\"name\":\"Spring Boot Pro\",\"isbn\":\"" + VALID_ISBN + "\",\"authorName\":\"Rodrigo Peleias\",\"publisherCode\":\"PBL1234\",\"pages\":200,\"chapters\":10}\n"
+                + "{\"name\":\"Java Essentials\",\"isbn\":\"" + VALID_ISBN + "\",\"authorName\":\"Unknown\",\"publisherCode\":\"PBL1234\",\"pages\":300,\"chapters\":12}\n"
+                + "{\"name\":\"Clean Code\",\"isbn\":\"123\",\"authorName\":\"Rodrigo Peleias\",\"publisherCode\":\"PBL1234\",\"pages\":400,\"chapters\":14}\n"
+                + "not json\n"
+                + "{\"name\":\"Effective Java\",\"isbn\":\"" + VALID_ISBN + "\",\"authorName\":\"Rodrigo Peleias\",\"publisherCode\":\"PBL1234\",\"pages\":400,\"chapters\":14}\n"
+                + "{\"name\":\"Effective Java\",\"isbn\":\"" + VALID_ISBN + "\",\"authorName\":\"Rodrigo Peleias\",\"publisherCode\":\"PBL1234\",\"pages\":400,\"chapters\":14}\n"),
+                BookImportFormat.NDJSON);
+
+        BookImportJobDTO importJob = job.toDTO();
+        assertThat(importJob.getStatus(), is(BookImportStatus.COMPLETED));
+        assertThat(importJob.getProcessedRows(), is(6L));
+        assertThat(importJob.getImportedRows(), is(1L));
+        assertThat(importJob.getFailedRows(), is(5L));
+        assertThat(importJob.getRowErrors(), hasSize(5));
+        assertThat(importJob.getRowErrors().get(1).getRowNumber(), is(2L));
+        assertThat(importJob.getRowErrors().get(1).getErrors(), contains("Author with name Unknown not exists"));
+        assertThat(importJob.getRowErrors().get(2).getErrors().get(0), startsWith("Field ISBN"));
+        verify(entityManager, times(1)).persist(any(Book.class));
+    }
+
+    @Test
+    void whenMoreRowsFailThanTheReportLimitThenOnlyTheFirstErrorsShouldBeKept() throws Exception {
+        givenRegisteredAuthorsAndPublishers();
+        BookImportJob job = new BookImportJob("job", "rodrigopeleias", 1);
+
+        bookImportService.runImport(job, 1L, writeFile(HEADER
+                + "Spring Boot Pro," + VALID_ISBN + ",Unknown,PBL1234,200,10\n"
+                + "Java Essentials," + VALID_ISBN + ",Unknown,PBL1234,300,12\n"), BookImportFormat.CSV);
+
+        BookImportJobDTO importJob = job.toDTO();
+        assertThat(importJob.getFailedRows(), is(2L));
+        assertThat(importJob.getRowErrors(), hasSize(1));
+    }
+
+    @Test
+    void whenCsvHeaderIsInvalidThenJobShouldFail() throws Exception {
+        BookImportJob job = new BookImportJob("job", "rodrigopeleias", 10);
+
+        bookImportService.runImport(job, 1L, writeFile("title,isbn\n"), BookImportFormat.CSV);
+
+        BookImportJobDTO importJob = job.toDTO();
+        assertThat(importJob.getStatus(), is(BookImportStatus.FAILED));
+        assertThat(importJob.getFailureReason(), containsString("header"));
+    }
+
+    @Test
+    void whenValidFileIsUploadedThenImportShouldRunInBackgroundUntilCompleted() throws Exception {
+        User user = new User();
+        user.setId(1L);
+        user.setUsername(authenticatedUser.getUsername());
+        when(userService.verifyAndGetUserIfExists(authenticatedUser.getUsername())).thenReturn(user);
+        givenRegisteredAuthorsAndPublishers();
+        givenTransactionsAreExecuted();
+        MockMultipartFile file = new MockMultipartFile("file", "books.csv", "text/csv",
+                (HEADER + "Spring Boot Pro," + VALID_ISBN + ",Rodrigo Peleias,PBL1234,200,10\n").getBytes(StandardCharsets.UTF_8));
+
+        BookImportJobDTO startedJob = bookImportService.startImport(authenticatedUser, file);
+        BookImportJobDTO importJob = waitUntilFinished(startedJob.getId());
+
+        assertThat(importJob.getStatus(), is(BookImportStatus.COMPLETED));
+        assertThat(importJob.getImportedRows(), is(1L));
+    }
+
+    @Test
+    void whenFileHasUnsupportedFormatThenAnExceptionShouldBeThrown() {
+        MockMultipartFile file = new MockMultipartFile("file", "books.xlsx", "application/octet-stream", new byte[0]);
+
+        assertThrows(UnsupportedImportFormatException.class, () -> bookImportService.startImport(authenticatedUser, file));
+    }
+
+    @Test
+    void whenJobIsSearchedByAnotherUserThenAnExceptionShouldBeThrown() throws Exception {
+        User user = new User();
+        user.setId(1L);
+        user.setUsername(authenticatedUser.getUsername());
+        when(userService.verifyAndGetUserIfExists(authenticatedUser.getUsername())).thenReturn(user);
+        MockMultipartFile file = new MockMultipartFile("file", "books.csv", "text/csv",
+                "title\n".getBytes(StandardCharsets.UTF_8));
+        BookImportJobDTO startedJob = bookImportService.startImport(authenticatedUser, file);
+        AuthenticatedUser otherUser = new AuthenticatedUser("otheruser", "123456", "USER");
+
+        assertThrows(BookImportJobNotFoundException.class,
+                () -> bookImportService.findJobByIdAndUser(otherUser, startedJob.getId()));
+    }
+
+    private BookImportJobDTO waitUntilFinished(String jobId) throws InterruptedException {
+        for (int attempt = 0; attempt < 100; attempt++) {
+            BookImportJobDTO importJob = bookImportService.findJobByIdAndUser(authenticatedUser, jobId);
+            if (importJob.getFinishedDate() != null) {
+                return importJob;
+            }
+            Thread.sleep(50);
+        }
+        throw new AssertionError("Import job did not finish in time");
+    }
+
+    private void givenRegisteredAuthorsAndPublishers() {
+        Author author = new Author();
+        author.setId(1L);
+        author.setName("Rodrigo Peleias");
+        Publisher publisher = new Publisher();
+        publisher.setId(1L);
+        publisher.setCode("PBL1234");
+        when(authorRepository.findAll()).thenReturn(Collections.singletonList(author));
+        when(publisherRepository.findAll()).thenReturn(Collections.singletonList(publisher));
+    }
+
+    @SuppressWarnings("unchecked")
+    private void givenTransactionsAreExecuted() {
+        doAnswer(invocation -> {
+            invocation.getArgument(0, Consumer.class).accept(null);
+            return null;
+        }).when(transactionTemplate).executeWithoutResult(any());
+    }
+
+    private BookKey registeredBookKey(String name, String isbn) {
+        return new BookKey() {
+            @Override
+            public String getName() {
+                return name;
+            }
+
+            @Override
+            public String getIsbn() {
+                return isbn;
+            }
+        };
+    }
+
+    private Path writeFile(String content) throws Exception {
+        Path file = Files.createTempFile("book-import-test-", ".tmp");
+        Files.writeString(file, content);
+        return file;
+    }
+}
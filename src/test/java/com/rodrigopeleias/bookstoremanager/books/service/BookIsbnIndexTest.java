@@ -0,0 +1,81 @@
+package com.rodrigopeleias.bookstoremanager.books.service;
+
+import com.rodrigopeleias.bookstoremanager.books.repository.BookIsbn;
+import com.rodrigopeleias.bookstoremanager.books.repository.BooksRepository;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.util.Arrays;
+import java.util.List;
+import java.util.Optional;
+import java.util.stream.Collectors;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.*;
+import static org.mockito.Mockito.when;
+
+@ExtendWith(MockitoExtension.class)
+public class BookIsbnIndexTest {
+
+    private static final long ISBN_13 = 9780596520687L;
+
+    @Mock
+    private BooksRepository booksRepository;
+
+    @InjectMocks
+    private BookIsbnIndex bookIsbnIndex;
+
+    @Test
+    void whenIndexWasNotRebuiltThenNoBookIdsShouldBeReturned() {
+        assertThat(bookIsbnIndex.findBookIds(ISBN_13), is(equalTo(Optional.empty())));
+    }
+
+    @Test
+    void whenIndexIsRebuiltThenBooksWithTheSameIsbnShouldBeGroupedUnderIt() {
+        rebuildIndex();
+
+        assertThat(toList(bookIsbnIndex.findBookIds(ISBN_13)), contains(1L, 2L));
+        assertThat(toList(bookIsbnIndex.findBookIds(9780804429573L)), is(empty()));
+    }
+
+    @Test
+    void whenBooksAreAddedUpdatedAndRemovedThenTheIndexShouldFollow() {
+        rebuildIndex();
+
+        bookIsbnIndex.add(4L, "0-8044-2957-X");
+        bookIsbnIndex.update(2L, "0-596-52068-9", "978-0-8044-2957-3");
+        bookIsbnIndex.remove(1L, "978-0-596-52068-7");
+
+        assertThat(toList(bookIsbnIndex.findBookIds(ISBN_13)), is(empty()));
+        assertThat(toList(bookIsbnIndex.findBookIds(9780804429573L)), contains(4L, 2L));
+    }
+
+    private void rebuildIndex() {
+        when(booksRepository.findAllIsbns()).thenReturn(List.of(
+                bookIsbn(1L, "978-0-596-52068-7"),
+                bookIsbn(2L, "0-596-52068-9"),
+                bookIsbn(3L, "not an isbn")));
+        bookIsbnIndex.rebuild();
+    }
+
+    private static List<Long> toList(Optional<long[]> bookIds) {
+        return Arrays.stream(bookIds.orElseThrow()).boxed().collect(Collectors.toList());
+    }
+
+    private static BookIsbn bookIsbn(Long id, String isbn) {
+        return new BookIsbn() {
+            @Override
+            public Long getId() {
+                return id;
+            }
+
+            @Override
+            public String getIsbn() {
+                return isbn;
+            }
+        };
+    }
+}
@@ -0,0 +1,112 @@
+package com.rodrigopeleias.bookstoremanager.books.service;
+
+import com.rodrigopeleias.bookstoremanager.books.repository.BookSearchEntry;
+import com.rodrigopeleias.bookstoremanager.books.repository.BooksRepository;
+import com.rodrigopeleias.bookstoremanager.exception.ServiceOverloadedException;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.util.List;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.*;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.mockito.Mockito.when;
+
+@ExtendWith(MockitoExtension.class)
+public class BookSearchIndexTest {
+
+    private static final long USER_ID = 1L;
+    private static final long OTHER_USER_ID = 2L;
+
+    @Mock
+    private BooksRepository booksRepository;
+
+    private BookSearchIndex bookSearchIndex;
+
+    @BeforeEach
+    void setUp() {
+        bookSearchIndex = new BookSearchIndex(booksRepository, 5);
+    }
+
+    @Test
+    void whenIndexWasNotRebuiltThenSearchesShouldBeRejected() {
+        assertThrows(ServiceOverloadedException.class, () -> bookSearchIndex.search(USER_ID, "java", 10));
+    }
+
+    @Test
+    void whenQueryMatchesSeveralFieldsThenBooksMatchingMoreTermsShouldRankFirst() {
+        rebuildIndex();
+
+        List<Long> rankedBookIds = bookSearchIndex.search(USER_ID, "java bloch", 10);
+
+        assertThat(rankedBookIds, contains(1L, 2L));
+    }
+
+    @Test
+    void whenQueryMatchesTheNameAndThePublisherThenTheNameMatchShouldRankFirst() {
+        rebuildIndex();
+
+        List<Long> rankedBookIds = bookSearchIndex.search(USER_ID, "addison", 10);
+
+        assertThat(rankedBookIds, contains(3L, 1L, 2L));
+    }
+
+    @Test
+    void whenQueryHasAccentsOrCapitalsThenTheyShouldBeIgnored() {
+        rebuildIndex();
+
+        assertThat(bookSearchIndex.search(USER_ID, "MACHADO de Assís", 10), contains(4L));
+    }
+
+    @Test
+    void whenAnotherUserSearchesThenOnlyTheirBooksShouldBeReturned() {
+        rebuildIndex();
+
+        assertThat(bookSearchIndex.search(OTHER_USER_ID, "java", 10), contains(5L));
+        assertThat(bookSearchIndex.search(OTHER_USER_ID, "assis", 10), is(empty()));
+    }
+
+    @Test
+    void whenBooksAreUpdatedAndRemovedThenSearchesShouldFollow() {
+        rebuildIndex();
+
+        bookSearchIndex.put(new BookSearchEntry(2L, USER_ID, "Clean Code", "Robert Martin", "Prentice Hall"));
+        bookSearchIndex.remove(1L);
+
+        assertThat(bookSearchIndex.search(USER_ID, "java", 10), is(empty()));
+        assertThat(bookSearchIndex.search(USER_ID, "clean code", 10), contains(2L));
+    }
+
+    @Test
+    void whenBooksWereWrittenOnAnotherNodeThenTheNextRebuildShouldReplaceTheIndex() {
+        rebuildIndex();
+
+        when(booksRepository.findAllSearchEntries()).thenReturn(List.of(
+                new BookSearchEntry(6L, USER_ID, "Refactoring", "Martin Fowler", "Addison-Wesley")));
+        bookSearchIndex.rebuild();
+
+        assertThat(bookSearchIndex.search(USER_ID, "java", 10), is(empty()));
+        assertThat(bookSearchIndex.search(USER_ID, "refactoring", 10), contains(6L));
+    }
+
+    @Test
+    void whenMoreBooksMatchThanTheLimitThenOnlyTheBestRankedShouldBeReturned() {
+        rebuildIndex();
+
+        assertThat(bookSearchIndex.search(USER_ID, "java bloch", 1), contains(1L));
+    }
+
+    private void rebuildIndex() {
+        when(booksRepository.findAllSearchEntries()).thenReturn(List.of(
+                new BookSearchEntry(1L, USER_ID, "Effective Java", "Joshua Bloch", "Addison-Wesley"),
+                new BookSearchEntry(2L, USER_ID, "Java Concurrency in Practice", "Brian Goetz", "Addison-Wesley"),
+                new BookSearchEntry(3L, USER_ID, "Addison Stories", "Someone Else", "Penguin"),
+                new BookSearchEntry(4L, USER_ID, "Dom Casmurro", "Machado de Assis", "Garnier"),
+                new BookSearchEntry(5L, OTHER_USER_ID, "Head First Java", "Kathy Sierra", "O'Reilly")));
+        bookSearchIndex.rebuild();
+    }
+}
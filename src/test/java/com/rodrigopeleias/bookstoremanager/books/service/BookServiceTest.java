@@ -0,0 +1,340 @@
+package com.rodrigopeleias.bookstoremanager.books.service;
+
+import com.rodrigopeleias.bookstoremanager.author.mapper.AuthorMapper;
+import com.rodrigopeleias.bookstoremanager.author.service.AuthorService;
+import com.rodrigopeleias.bookstoremanager.books.builder.BookRequestDTOBuilder;
+import com.rodrigopeleias.bookstoremanager.books.builder.BookResponseDTOBuilder;
+import com.rodrigopeleias.bookstoremanager.books.dto.BookRequestDTO;
+import com.rodrigopeleias.bookstoremanager.books.dto.BookResponseDTO;
+import com.rodrigopeleias.bookstoremanager.books.entity.Book;
+import com.rodrigopeleias.bookstoremanager.books.exception.BookAlreadyExistsException;
+import com.rodrigopeleias.bookstoremanager.books.exception.BookNotFoundException;
+import com.rodrigopeleias.bookstoremanager.books.exception.InvalidIsbnException;
+import com.rodrigopeleias.bookstoremanager.books.mapper.BookMapper;
+import com.rodrigopeleias.bookstoremanager.books.repository.BooksRepository;
+import com.rodrigopeleias.bookstoremanager.changes.enums.CatalogResource;
+import com.rodrigopeleias.bookstoremanager.changes.service.CatalogChangeService;
+import com.rodrigopeleias.bookstoremanager.pagination.CursorPagination;
+import com.rodrigopeleias.bookstoremanager.pagination.dto.MultiGetDTO;
+import com.rodrigopeleias.bookstoremanager.pagination.exception.TooManyIdsException;
+import com.rodrigopeleias.bookstoremanager.publishers.mapper.PublisherMapper;
+import com.rodrigopeleias.bookstoremanager.publishers.service.PublisherService;
+import com.rodrigopeleias.bookstoremanager.users.builder.UserDTOBuilder;
+import com.rodrigopeleias.bookstoremanager.users.dto.AuthenticatedUser;
+import com.rodrigopeleias.bookstoremanager.users.entity.User;
+import com.rodrigopeleias.bookstoremanager.users.mapper.UserMapper;
+import com.rodrigopeleias.bookstoremanager.users.service.UserService;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.Spy;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.util.Collections;
+import java.util.List;
+import java.util.Optional;
+import java.util.stream.Collectors;
+import java.util.stream.LongStream;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.*;
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+public class BookServiceTest {
+
+    private final BookMapper bookMapper = BookMapper.INSTANCE;
+
+    @Mock
+    private BooksRepository booksRepository;
+
+    @Mock
+    private UserService userService;
+
+    @Mock
+    private AuthorService authorService;
+
+    @Mock
+    private PublisherService publisherService;
+
+    @Mock
+    private BookIsbnIndex bookIsbnIndex;
+
+    @Mock
+    private BookSearchIndex bookSearchIndex;
+
+    @Spy
+    private CursorPagination cursorPagination = new CursorPagination(20, 100);
+
+    @Mock
+    private CatalogChangeService catalogChangeService;
+
+    @InjectMocks
+    private BookService bookService;
+
+    private BookRequestDTOBuilder bookRequestDTOBuilder;
+
+    private BookResponseDTOBuilder bookResponseDTOBuilder;
+
+    private AuthenticatedUser authenticatedUser;
+
+    @BeforeEach
+    void setUp() {
+        bookRequestDTOBuilder = BookRequestDTOBuilder.builder().build();
+        bookResponseDTOBuilder = BookResponseDTOBuilder.builder().build();
+        authenticatedUser = new AuthenticatedUser("rodrigopeleias", "123456", "USER");
+    }
+
+    @Test
+    void whenNewBookIsInformedThenItShouldBeCreated() {
+        BookRequestDTO expectedBookToCreateDTO = bookRequestDTOBuilder.buildRequestBookDTO();
+        BookResponseDTO expectedCreatedBookDTO = bookResponseDTOBuilder.buildBookResponse();
+        Book expectedCreatedBook = buildBook(expectedCreatedBookDTO);
+
+        when(userService.verifyAndGetUserIfExists(authenticatedUser.getUsername())).thenReturn(expectedCreatedBook.getUser());
+        when(booksRepository.findByNameAndIsbnAndUserUsername(
+                expectedBookToCreateDTO.getName(), expectedBookToCreateDTO.getIsbn(), authenticatedUser.getUsername()))
+                .thenReturn(Optional.empty());
+        when(authorService.verifyAndGetIfExists(expectedBookToCreateDTO.getAuthorId())).thenReturn(expectedCreatedBook.getAuthor());
+        when(publisherService.verifyAndGetIfExists(expectedBookToCreateDTO.getPublisherId())).thenReturn(expectedCreatedBook.getPublisher());
+        when(booksRepository.save(any(Book.class))).thenReturn(expectedCreatedBook);
+
+        BookResponseDTO createdBookResponseDTO = bookService.create(authenticatedUser, expectedBookToCreateDTO);
+
+        assertThat(createdBookResponseDTO, is(equalTo(expectedCreatedBookDTO)));
+        verify(catalogChangeService, times(1)).recordCreated(CatalogResource.BOOK, expectedCreatedBook.getId());
+    }
+
+    @Test
+    void whenExistingBookIsInformedThenAnExceptionShouldBeThrown() {
+        BookRequestDTO expectedBookToCreateDTO = bookRequestDTOBuilder.buildRequestBookDTO();
+        Book expectedDuplicatedBook = buildBook(bookResponseDTOBuilder.buildBookResponse());
+
+        when(userService.verifyAndGetUserIfExists(authenticatedUser.getUsername())).thenReturn(expectedDuplicatedBook.getUser());
+        when(booksRepository.findByNameAndIsbnAndUserUsername(
+                expectedBookToCreateDTO.getName(), expectedBookToCreateDTO.getIsbn(), authenticatedUser.getUsername()))
+                .thenReturn(Optional.of(expectedDuplicatedBook));
+
+        assertThrows(BookAlreadyExistsException.class, () -> bookService.create(authenticatedUser, expectedBookToCreateDTO));
+    }
+
+    @Test
+    void whenExistingBookIsInformedThenABookShouldBeReturned() {
+        BookResponseDTO expectedFoundBookDTO = bookResponseDTOBuilder.buildBookResponse();
+        Book expectedFoundBook = buildBook(expectedFoundBookDTO);
+
+        when(booksRepository.findByIdAndUserUsername(expectedFoundBookDTO.getId(), authenticatedUser.getUsername()))
+                .thenReturn(Optional.of(expectedFoundBook));
+
+        BookResponseDTO foundBookDTO = bookService.findByIdAndUser(authenticatedUser, expectedFoundBookDTO.getId());
+
+        assertThat(foundBookDTO, is(equalTo(expectedFoundBookDTO)));
+    }
+
+    @Test
+    void whenNotExistingBookIsInformedThenAnExceptionShouldBeThrown() {
+        var expectedNotFoundBookId = 2L;
+
+        when(booksRepository.findByIdAndUserUsername(expectedNotFoundBookId, authenticatedUser.getUsername()))
+                .thenReturn(Optional.empty());
+
+        assertThrows(BookNotFoundException.class, () -> bookService.findByIdAndUser(authenticatedUser, expectedNotFoundBookId));
+    }
+
+    @Test
+    void whenVersionOfNotExistingBookIsRequestedThenAnExceptionShouldBeThrown() {
+        var expectedNotFoundBookId = 2L;
+
+        when(booksRepository.findVersionByIdAndUserUsername(expectedNotFoundBookId, authenticatedUser.getUsername()))
+                .thenReturn(Optional.empty());
+
+        assertThrows(BookNotFoundException.class, () -> bookService.findVersionByIdAndUser(authenticatedUser, expectedNotFoundBookId));
+    }
+
+    @Test
+    void whenListBookIsCalledThenItShouldBeReturned() {
+        BookResponseDTO expectedFoundBookDTO = bookResponseDTOBuilder.buildBookResponse();
+        Book expectedFoundBook = buildBook(expectedFoundBookDTO);
+
+        when(booksRepository.findAllByUserUsername(authenticatedUser.getUsername()))
+                .thenReturn(Collections.singletonList(expectedFoundBook));
+
+        List<BookResponseDTO> foundBooksDTO = bookService.findAllByUser(authenticatedUser);
+
+        assertThat(foundBooksDTO.size(), is(1));
+        assertThat(foundBooksDTO.get(0), is(equalTo(expectedFoundBookDTO)));
+    }
+
+    @Test
+    void whenBookIdsAreInformedThenFoundBooksAndMissingIdsShouldBeReturned() {
+        BookResponseDTO expectedFoundBookDTO = bookResponseDTOBuilder.buildBookResponse();
+        Book expectedFoundBook = buildBook(expectedFoundBookDTO);
+        Long missingBookId = expectedFoundBook.getId() + 1;
+
+        when(booksRepository.findAllByIdInAndUserUsername(List.of(missingBookId, expectedFoundBook.getId()), authenticatedUser.getUsername()))
+                .thenReturn(Collections.singletonList(expectedFoundBook));
+
+        MultiGetDTO<BookResponseDTO> foundBooks = bookService.findAllByIdsAndUser(authenticatedUser,
+                List.of(missingBookId, expectedFoundBook.getId(), missingBookId));
+
+        assertThat(foundBooks.getContent(), contains(expectedFoundBookDTO));
+        assertThat(foundBooks.getMissingIds(), contains(missingBookId));
+    }
+
+    @Test
+    void whenMoreBookIdsThanAPageAreInformedThenAnExceptionShouldBeThrown() {
+        List<Long> tooManyIds = LongStream.rangeClosed(1, 101).boxed().collect(Collectors.toList());
+
+        assertThrows(TooManyIdsException.class, () -> bookService.findAllByIdsAndUser(authenticatedUser, tooManyIds));
+        verifyNoInteractions(booksRepository);
+    }
+
+    @Test
+    void whenIndexedIsbnIsInformedThenUserBooksWithItShouldBeReturned() {
+        BookResponseDTO expectedFoundBookDTO = bookResponseDTOBuilder.buildBookResponse();
+        Book expectedFoundBook = buildBook(expectedFoundBookDTO);
+
+        when(bookIsbnIndex.findBookIds(9780596520687L)).thenReturn(Optional.of(new long[]{expectedFoundBook.getId()}));
+        when(booksRepository.findAllByIdInAndUserUsername(List.of(expectedFoundBook.getId()), authenticatedUser.getUsername()))
+                .thenReturn(List.of(expectedFoundBook));
+
+        List<BookResponseDTO> foundBooksDTO = bookService.findAllByIsbnAndUser(authenticatedUser, "0-596-52068-9");
+
+        assertThat(foundBooksDTO, contains(expectedFoundBookDTO));
+    }
+
+    @Test
+    void whenIsbnIndexIsNotReadyThenUserBooksShouldBeFoundByIsbn13() {
+        BookResponseDTO expectedFoundBookDTO = bookResponseDTOBuilder.buildBookResponse();
+        Book expectedFoundBook = buildBook(expectedFoundBookDTO);
+
+        when(bookIsbnIndex.findBookIds(9780596520687L)).thenReturn(Optional.empty());
+        when(booksRepository.findAllByIsbn13AndUserUsername(9780596520687L, authenticatedUser.getUsername()))
+                .thenReturn(List.of(expectedFoundBook));
+
+        List<BookResponseDTO> foundBooksDTO = bookService.findAllByIsbnAndUser(authenticatedUser, "9780596520687");
+
+        assertThat(foundBooksDTO, contains(expectedFoundBookDTO));
+    }
+
+    @Test
+    void whenNotIndexedIsbnIsRegisteredThenUserBooksWithItShouldBeReturned() {
+        BookResponseDTO expectedFoundBookDTO = bookResponseDTOBuilder.buildBookResponse();
+        Book expectedFoundBook = buildBook(expectedFoundBookDTO);
+
+        when(bookIsbnIndex.findBookIds(9780596520687L)).thenReturn(Optional.of(new long[0]));
+        when(booksRepository.findAllByIsbn13AndUserUsername(9780596520687L, authenticatedUser.getUsername()))
+                .thenReturn(List.of(expectedFoundBook));
+
+        List<BookResponseDTO> foundBooksDTO = bookService.findAllByIsbnAndUser(authenticatedUser, "9780596520687");
+
+        assertThat(foundBooksDTO, contains(expectedFoundBookDTO));
+    }
+
+    @Test
+    void whenIsbnIsNeitherIndexedNorRegisteredThenAnExceptionShouldBeThrown() {
+        when(bookIsbnIndex.findBookIds(9780596520687L)).thenReturn(Optional.of(new long[0]));
+        when(booksRepository.findAllByIsbn13AndUserUsername(9780596520687L, authenticatedUser.getUsername())).thenReturn(List.of());
+
+        assertThrows(BookNotFoundException.class, () -> bookService.findAllByIsbnAndUser(authenticatedUser, "978-0-596-52068-7"));
+    }
+
+    @Test
+    void whenInvalidIsbnIsInformedThenAnExceptionShouldBeThrown() {
+        assertThrows(InvalidIsbnException.class, () -> bookService.findAllByIsbnAndUser(authenticatedUser, "978-0-596-52068-1"));
+        verifyNoInteractions(bookIsbnIndex, booksRepository);
+    }
+
+    @Test
+    void whenSearchIsCalledThenBooksShouldBeReturnedInTheRankedOrder() {
+        BookResponseDTO expectedFoundBookDTO = bookResponseDTOBuilder.buildBookResponse();
+        Book firstRankedBook = buildBook(expectedFoundBookDTO);
+        Book secondRankedBook = buildBook(expectedFoundBookDTO);
+        secondRankedBook.setId(2L);
+
+        when(userService.verifyAndGetUserIfExists(authenticatedUser.getUsername())).thenReturn(firstRankedBook.getUser());
+        when(bookSearchIndex.search(firstRankedBook.getUser().getId(), "spring", 20)).thenReturn(List.of(2L, firstRankedBook.getId()));
+        when(booksRepository.findAllByIdInAndUserUsername(List.of(2L, firstRankedBook.getId()), authenticatedUser.getUsername()))
+                .thenReturn(List.of(firstRankedBook, secondRankedBook));
+
+        List<BookResponseDTO> foundBooksDTO = bookService.search(authenticatedUser, "spring", null);
+
+        assertThat(foundBooksDTO.size(), is(2));
+        assertThat(foundBooksDTO.get(0).getId(), is(2L));
+        assertThat(foundBooksDTO.get(1).getId(), is(firstRankedBook.getId()));
+    }
+
+    @Test
+    void whenSearchHasNoMatchesThenBooksShouldNotBeLoaded() {
+        User user = buildBook(bookResponseDTOBuilder.buildBookResponse()).getUser();
+
+        when(userService.verifyAndGetUserIfExists(authenticatedUser.getUsername())).thenReturn(user);
+        when(bookSearchIndex.search(user.getId(), "nothing", 5)).thenReturn(List.of());
+
+        assertThat(bookService.search(authenticatedUser, "nothing", 5), is(empty()));
+        verifyNoInteractions(booksRepository);
+    }
+
+    @Test
+    void whenExistingBookIsInformedThenItShouldBeUpdated() {
+        BookRequestDTO expectedBookToUpdateDTO = bookRequestDTOBuilder.buildRequestBookDTO();
+        BookResponseDTO expectedUpdatedBookDTO = bookResponseDTOBuilder.buildBookResponse();
+        Book expectedUpdatedBook = buildBook(expectedUpdatedBookDTO);
+
+        when(booksRepository.findByIdAndUserUsername(expectedBookToUpdateDTO.getId(), authenticatedUser.getUsername()))
+                .thenReturn(Optional.of(expectedUpdatedBook));
+        when(authorService.verifyAndGetIfExists(expectedBookToUpdateDTO.getAuthorId())).thenReturn(expectedUpdatedBook.getAuthor());
+        when(publisherService.verifyAndGetIfExists(expectedBookToUpdateDTO.getPublisherId())).thenReturn(expectedUpdatedBook.getPublisher());
+        when(booksRepository.save(any(Book.class))).thenReturn(expectedUpdatedBook);
+
+        BookResponseDTO updatedBookDTO = bookService.updateByIdAndUser(
+                authenticatedUser, expectedBookToUpdateDTO.getId(), expectedBookToUpdateDTO);
+
+        assertThat(updatedBookDTO, is(equalTo(expectedUpdatedBookDTO)));
+        verify(catalogChangeService, times(1)).recordUpdated(CatalogResource.BOOK, expectedUpdatedBook.getId());
+    }
+
+    @Test
+    void whenExistingBookIsInformedThenItShouldBeDeleted() {
+        Book expectedBookToDelete = buildBook(bookResponseDTOBuilder.buildBookResponse());
+
+        when(booksRepository.findByIdAndUserUsername(expectedBookToDelete.getId(), authenticatedUser.getUsername()))
+                .thenReturn(Optional.of(expectedBookToDelete));
+
+        bookService.deleteByIdAndUser(authenticatedUser, expectedBookToDelete.getId());
+
+        verify(booksRepository, times(1)).deleteById(expectedBookToDelete.getId());
+        verify(bookIsbnIndex, times(1)).remove(expectedBookToDelete.getId(), expectedBookToDelete.getIsbn());
+        verify(bookSearchIndex, times(1)).remove(expectedBookToDelete.getId());
+        verify(catalogChangeService, times(1)).recordDeleted(CatalogResource.BOOK, expectedBookToDelete.getId());
+    }
+
+    @Test
+    void whenNotExistingBookIsInformedToDeleteThenAnExceptionShouldBeThrown() {
+        var expectedNotFoundBookId = 2L;
+
+        when(booksRepository.findByIdAndUserUsername(expectedNotFoundBookId, authenticatedUser.getUsername()))
+                .thenReturn(Optional.empty());
+
+        assertThrows(BookNotFoundException.class, () -> bookService.deleteByIdAndUser(authenticatedUser, expectedNotFoundBookId));
+        verify(booksRepository, never()).deleteById(expectedNotFoundBookId);
+    }
+
+    private Book buildBook(BookResponseDTO bookResponseDTO) {
+        Book book = new Book();
+        book.setId(bookResponseDTO.getId());
+        book.setName(bookResponseDTO.getName());
+        book.setIsbn(bookResponseDTO.getIsbn());
+        book.setPages(bookResponseDTO.getPages());
+        book.setChapters(bookResponseDTO.getChapters());
+        book.setAuthor(AuthorMapper.INSTANCE.toModel(bookResponseDTO.getAuthor()));
+        book.setPublisher(PublisherMapper.INSTANCE.toModel(bookResponseDTO.getPublisher()));
+        User user = UserMapper.INSTANCE.toModel(UserDTOBuilder.builder().build().buildUserDTO());
+        book.setUser(user);
+        return book;
+    }
+}
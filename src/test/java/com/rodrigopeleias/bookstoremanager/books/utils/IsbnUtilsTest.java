@@ -0,0 +1,36 @@
+package com.rodrigopeleias.bookstoremanager.books.utils;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.OptionalLong;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.*;
+
+public class IsbnUtilsTest {
+
+    @Test
+    void whenIsbn13WithHyphensIsInformedThenItsNumericValueShouldBeReturned() {
+        assertThat(IsbnUtils.toIsbn13("978-0-596-52068-7"), is(equalTo(OptionalLong.of(9780596520687L))));
+        assertThat(IsbnUtils.toIsbn13("978 0 596 52068 7"), is(equalTo(OptionalLong.of(9780596520687L))));
+    }
+
+    @Test
+    void whenIsbn10IsInformedThenItShouldBeConvertedToIsbn13() {
+        assertThat(IsbnUtils.toIsbn13("0-596-52068-9"), is(equalTo(OptionalLong.of(9780596520687L))));
+        assertThat(IsbnUtils.toIsbn13("0-8044-2957-X"), is(equalTo(OptionalLong.of(9780804429573L))));
+    }
+
+    @Test
+    void whenIsbnWithWrongCheckDigitIsInformedThenNoValueShouldBeReturned() {
+        assertThat(IsbnUtils.toIsbn13("978-0-596-52068-1"), is(equalTo(OptionalLong.empty())));
+        assertThat(IsbnUtils.toIsbn13("0-596-52068-1"), is(equalTo(OptionalLong.empty())));
+    }
+
+    @Test
+    void whenMalformedIsbnIsInformedThenNoValueShouldBeReturned() {
+        assertThat(IsbnUtils.toIsbn13(null), is(equalTo(OptionalLong.empty())));
+        assertThat(IsbnUtils.toIsbn13("978-0-596"), is(equalTo(OptionalLong.empty())));
+        assertThat(IsbnUtils.toIsbn13("97X-0-596-52068-7"), is(equalTo(OptionalLong.empty())));
+    }
+}
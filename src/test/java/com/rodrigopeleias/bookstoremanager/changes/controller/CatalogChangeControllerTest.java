@@ -0,0 +1,70 @@
+package com.rodrigopeleias.bookstoremanager.changes.controller;
+
+import com.rodrigopeleias.bookstoremanager.changes.dto.CatalogChangeDTO;
+import com.rodrigopeleias.bookstoremanager.changes.dto.ChangeFeedDTO;
+import com.rodrigopeleias.bookstoremanager.changes.enums.CatalogResource;
+import com.rodrigopeleias.bookstoremanager.changes.enums.ChangeOperation;
+import com.rodrigopeleias.bookstoremanager.changes.service.CatalogChangeService;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.http.MediaType;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.setup.MockMvcBuilders;
+
+import java.util.List;
+
+import static org.hamcrest.Matchers.is;
+import static org.mockito.Mockito.when;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+@ExtendWith(MockitoExtension.class)
+public class CatalogChangeControllerTest {
+
+    private static final String CHANGES_API_URL_PATH = "/api/v1/changes";
+
+    @Mock
+    private CatalogChangeService catalogChangeService;
+
+    @InjectMocks
+    private CatalogChangeController catalogChangeController;
+
+    private MockMvc mockMvc;
+
+    @BeforeEach
+    void setUp() {
+        mockMvc = MockMvcBuilders.standaloneSetup(catalogChangeController).build();
+    }
+
+    @Test
+    void whenGETChangesIsCalledWithCursorThenChangesSinceItShouldBeReturned() throws Exception {
+        CatalogChangeDTO deletedBook = CatalogChangeDTO.builder()
+                .resourceType(CatalogResource.BOOK)
+                .resourceId(7L)
+                .operation(ChangeOperation.DELETED)
+                .build();
+        ChangeFeedDTO expectedChangeFeed = ChangeFeedDTO.builder()
+                .content(List.of(deletedBook))
+                .size(1)
+                .cursor("next")
+                .hasMore(false)
+                .build();
+
+        when(catalogChangeService.findChanges("since", 10)).thenReturn(expectedChangeFeed);
+
+        mockMvc.perform(get(CHANGES_API_URL_PATH)
+                .param("since", "since")
+                .param("size", "10")
+                .contentType(MediaType.APPLICATION_JSON))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.content[0].resourceType", is("BOOK")))
+                .andExpect(jsonPath("$.content[0].operation", is("DELETED")))
+                .andExpect(jsonPath("$.cursor", is("next")))
+                .andExpect(jsonPath("$.hasMore", is(false)));
+    }
+}
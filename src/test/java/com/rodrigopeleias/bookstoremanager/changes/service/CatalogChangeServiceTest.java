@@ -0,0 +1,169 @@
+package com.rodrigopeleias.bookstoremanager.changes.service;
+
+import com.rodrigopeleias.bookstoremanager.author.builder.AuthorDTOBuilder;
+import com.rodrigopeleias.bookstoremanager.author.dto.AuthorDTO;
+import com.rodrigopeleias.bookstoremanager.author.entity.Author;
+import com.rodrigopeleias.bookstoremanager.author.mapper.AuthorMapper;
+import com.rodrigopeleias.bookstoremanager.books.repository.BooksRepository;
+import com.rodrigopeleias.bookstoremanager.changes.dto.CatalogChangeDTO;
+import com.rodrigopeleias.bookstoremanager.changes.dto.ChangeFeedDTO;
+import com.rodrigopeleias.bookstoremanager.changes.entity.CatalogChange;
+import com.rodrigopeleias.bookstoremanager.changes.enums.CatalogResource;
+import com.rodrigopeleias.bookstoremanager.changes.enums.ChangeOperation;
+import com.rodrigopeleias.bookstoremanager.changes.repository.CatalogChangeRepository;
+import com.rodrigopeleias.bookstoremanager.entity.MultiIdLoader;
+import com.rodrigopeleias.bookstoremanager.pagination.Cursor;
+import com.rodrigopeleias.bookstoremanager.pagination.CursorPagination;
+import com.rodrigopeleias.bookstoremanager.pagination.exception.InvalidCursorException;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Optional;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.*;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.argThat;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+public class CatalogChangeServiceTest {
+
+    private static final LocalDateTime FIRST_CHANGE_DATE = LocalDateTime.of(2020, 11, 20, 10, 30);
+    private static final LocalDateTime SECOND_CHANGE_DATE = FIRST_CHANGE_DATE.plusSeconds(1);
+
+    private final AuthorMapper authorMapper = AuthorMapper.INSTANCE;
+
+    @Mock
+    private CatalogChangeRepository catalogChangeRepository;
+
+    @Mock
+    private BooksRepository booksRepository;
+
+    @Mock
+    private MultiIdLoader multiIdLoader;
+
+    private CatalogChangeService catalogChangeService;
+
+    @BeforeEach
+    void setUp() {
+        catalogChangeService = new CatalogChangeService(catalogChangeRepository, booksRepository, multiIdLoader,
+                new CursorPagination(2, 100), 5000);
+    }
+
+    @Test
+    void whenNoCursorIsInformedThenOldestChangesShouldBeReturnedWithTheirCurrentState() {
+        AuthorDTO expectedAuthorDTO = AuthorDTOBuilder.builder().build().buildAuthorDTO();
+        Author expectedAuthor = authorMapper.toModel(expectedAuthorDTO);
+        CatalogChange authorChange = buildChange(1L, CatalogResource.AUTHOR, expectedAuthor.getId(), ChangeOperation.CREATED, FIRST_CHANGE_DATE);
+        CatalogChange bookChange = buildChange(2L, CatalogResource.BOOK, 7L, ChangeOperation.DELETED, SECOND_CHANGE_DATE);
+
+        when(catalogChangeRepository.findFirstChanges(any(LocalDateTime.class), eq(PageRequest.of(0, 3))))
+                .thenReturn(List.of(authorChange, bookChange));
+        when(multiIdLoader.findAllById(Author.class, List.of(expectedAuthor.getId()))).thenReturn(List.of(expectedAuthor));
+
+        ChangeFeedDTO changeFeed = catalogChangeService.findChanges(null, null);
+
+        assertThat(changeFeed.getSize(), is(2));
+        assertThat(changeFeed.isHasMore(), is(false));
+        assertThat(changeFeed.getContent().get(0).getResource(), is(equalTo(expectedAuthorDTO)));
+        CatalogChangeDTO bookChangeDTO = changeFeed.getContent().get(1);
+        assertThat(bookChangeDTO.getOperation(), is(ChangeOperation.DELETED));
+        assertThat(bookChangeDTO.getResource(), is(nullValue()));
+        assertThat(changeFeed.getCursor(), is(equalTo(Cursor.of(SECOND_CHANGE_DATE.toString(), 2L).encode())));
+        verifyNoInteractions(booksRepository);
+    }
+
+    @Test
+    void whenMoreChangesThanThePageSizeExistThenTheCursorOfTheLastReturnedOneShouldBeReturned() {
+        CatalogChange firstChange = buildChange(1L, CatalogResource.BOOK, 7L, ChangeOperation.DELETED, FIRST_CHANGE_DATE);
+        CatalogChange secondChange = buildChange(2L, CatalogResource.BOOK, 8L, ChangeOperation.DELETED, FIRST_CHANGE_DATE);
+        CatalogChange thirdChange = buildChange(3L, CatalogResource.BOOK, 9L, ChangeOperation.DELETED, SECOND_CHANGE_DATE);
+
+        when(catalogChangeRepository.findFirstChanges(any(LocalDateTime.class), eq(PageRequest.of(0, 3))))
+                .thenReturn(List.of(firstChange, secondChange, thirdChange));
+
+        ChangeFeedDTO changeFeed = catalogChangeService.findChanges(null, null);
+
+        assertThat(changeFeed.getSize(), is(2));
+        assertThat(changeFeed.isHasMore(), is(true));
+        assertThat(changeFeed.getCursor(), is(equalTo(Cursor.of(FIRST_CHANGE_DATE.toString(), 2L).encode())));
+    }
+
+    @Test
+    void whenNoChangeFollowsTheInformedCursorThenTheSameCursorShouldBeReturned() {
+        String cursor = Cursor.of(FIRST_CHANGE_DATE.toString(), 2L).encode();
+
+        when(catalogChangeRepository.findChangesAfter(eq(FIRST_CHANGE_DATE), eq(2L), any(LocalDateTime.class), eq(PageRequest.of(0, 3))))
+                .thenReturn(List.of());
+
+        ChangeFeedDTO changeFeed = catalogChangeService.findChanges(cursor, null);
+
+        assertThat(changeFeed.getContent(), is(empty()));
+        assertThat(changeFeed.getCursor(), is(equalTo(cursor)));
+    }
+
+    @Test
+    void whenCursorWithoutChangeDateIsInformedThenAnExceptionShouldBeThrown() {
+        String cursor = Cursor.of("Rodrigo Peleias", 1L).encode();
+
+        assertThrows(InvalidCursorException.class, () -> catalogChangeService.findChanges(cursor, null));
+    }
+
+    @Test
+    void whenResourceWithoutChangeRowIsDeletedThenATombstoneShouldBeCreated() {
+        when(catalogChangeRepository.findByResourceTypeAndResourceId(CatalogResource.PUBLISHER, 3L)).thenReturn(Optional.empty());
+
+        catalogChangeService.recordDeleted(CatalogResource.PUBLISHER, 3L);
+
+        verify(catalogChangeRepository, times(1)).saveAndFlush(argThat((CatalogChange change) -> change.getId() == null
+                && change.getResourceId().equals(3L)
+                && change.getOperation() == ChangeOperation.DELETED));
+    }
+
+    @Test
+    void whenChangedResourceIsUpdatedThenItsChangeRowShouldMoveForward() {
+        CatalogChange existingChange = buildChange(1L, CatalogResource.BOOK, 7L, ChangeOperation.CREATED, FIRST_CHANGE_DATE);
+
+        when(catalogChangeRepository.findByResourceTypeAndResourceId(CatalogResource.BOOK, 7L)).thenReturn(Optional.of(existingChange));
+
+        catalogChangeService.recordUpdated(CatalogResource.BOOK, 7L);
+
+        verify(catalogChangeRepository, times(1)).saveAndFlush(existingChange);
+        assertThat(existingChange.getOperation(), is(ChangeOperation.UPDATED));
+        assertThat(existingChange.getChangedDate().isAfter(FIRST_CHANGE_DATE), is(true));
+    }
+
+    @Test
+    void whenChangeIsRecordedInsideATransactionThenItShouldBeStampedJustBeforeCommit() {
+        TransactionSynchronizationManager.initSynchronization();
+        try {
+            catalogChangeService.recordCreated(CatalogResource.AUTHOR, 3L);
+            verifyNoInteractions(catalogChangeRepository);
+
+            LocalDateTime beforeCommit = LocalDateTime.now();
+            TransactionSynchronizationManager.getSynchronizations().forEach(synchronization -> synchronization.beforeCommit(false));
+
+            verify(catalogChangeRepository, times(1)).saveAndFlush(argThat((CatalogChange change) -> change.getResourceId().equals(3L)
+                    && !change.getChangedDate().isBefore(beforeCommit)));
+        } finally {
+            TransactionSynchronizationManager.clearSynchronization();
+        }
+    }
+
+    private CatalogChange buildChange(Long id, CatalogResource resourceType, Long resourceId,
+                                      ChangeOperation operation, LocalDateTime changedDate) {
+        CatalogChange change = CatalogChange.of(resourceType, resourceId).changed(operation, changedDate);
+        change.setId(id);
+        return change;
+    }
+}
@@ -0,0 +1,23 @@
+package com.rodrigopeleias.bookstoremanager.config;
+
+import org.junit.jupiter.api.Test;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.*;
+
+public class BCryptStrengthCalibratorTest {
+
+    @Test
+    void whenTargetIsVeryLowThenMinimumStrengthShouldBeUsed() {
+        BCryptStrengthCalibrator calibrator = new BCryptStrengthCalibrator(4, 12);
+
+        assertThat(calibrator.calibrate(0), is(4));
+    }
+
+    @Test
+    void whenTargetIsVeryHighThenMaximumStrengthShouldBeUsed() {
+        BCryptStrengthCalibrator calibrator = new BCryptStrengthCalibrator(4, 6);
+
+        assertThat(calibrator.calibrate(Long.MAX_VALUE), is(6));
+    }
+}
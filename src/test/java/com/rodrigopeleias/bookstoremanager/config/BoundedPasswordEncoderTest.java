@@ -0,0 +1,103 @@
+package com.rodrigopeleias.bookstoremanager.config;
+
+import com.rodrigopeleias.bookstoremanager.exception.ServiceOverloadedException;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.security.crypto.password.PasswordEncoder;
+
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.is;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+public class BoundedPasswordEncoderTest {
+
+    private BoundedPasswordEncoder boundedPasswordEncoder;
+
+    @AfterEach
+    void tearDown() {
+        boundedPasswordEncoder.destroy();
+    }
+
+    @Test
+    void whenPoolHasCapacityThenPasswordShouldBeEncodedAndMatched() {
+        SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+        boundedPasswordEncoder = new BoundedPasswordEncoder(new ReversingPasswordEncoder(), 1, 1, 1);
+        boundedPasswordEncoder.bindTo(meterRegistry);
+
+        String encodedPassword = boundedPasswordEncoder.encode("123456");
+
+        assertThat(encodedPassword, is("654321"));
+        assertTrue(boundedPasswordEncoder.matches("123456", encodedPassword));
+        assertThat(meterRegistry.get("password.hashing.duration").tag("operation", "encode").timer().count(), is(1L));
+    }
+
+    @Test
+    void whenPoolIsSaturatedThenServiceOverloadedExceptionShouldBeThrown() throws Exception {
+        CountDownLatch hashingStarted = new CountDownLatch(1);
+        CountDownLatch releaseHashing = new CountDownLatch(1);
+        SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+        boundedPasswordEncoder = new BoundedPasswordEncoder(new BlockingPasswordEncoder(hashingStarted, releaseHashing), 1, 1, 5);
+        boundedPasswordEncoder.bindTo(meterRegistry);
+
+        CompletableFuture<String> runningHash = CompletableFuture.supplyAsync(() -> boundedPasswordEncoder.encode("running"));
+        assertTrue(hashingStarted.await(5, TimeUnit.SECONDS));
+        CompletableFuture<String> queuedHash = CompletableFuture.supplyAsync(() -> boundedPasswordEncoder.encode("queued"));
+        while (meterRegistry.get("password.hashing.queue.size").gauge().value() < 1.0) {
+            Thread.onSpinWait();
+        }
+
+        ServiceOverloadedException exception =
+                assertThrows(ServiceOverloadedException.class, () -> boundedPasswordEncoder.encode("rejected"));
+
+        releaseHashing.countDown();
+        assertThat(runningHash.get(5, TimeUnit.SECONDS), is("running"));
+        assertThat(queuedHash.get(5, TimeUnit.SECONDS), is("queued"));
+        assertThat(exception.getRetryAfterSeconds(), is(5L));
+    }
+
+    private static class ReversingPasswordEncoder implements PasswordEncoder {
+
+        @Override
+        public String encode(CharSequence rawPassword) {
+            return new StringBuilder(rawPassword).reverse().toString();
+        }
+
+        @Override
+        public boolean matches(CharSequence rawPassword, String encodedPassword) {
+            return encode(rawPassword).equals(encodedPassword);
+        }
+    }
+
+    private static class BlockingPasswordEncoder implements PasswordEncoder {
+
+        private final CountDownLatch hashingStarted;
+        private final CountDownLatch releaseHashing;
+
+        BlockingPasswordEncoder(CountDownLatch hashingStarted, CountDownLatch releaseHashing) {
+            this.hashingStarted = hashingStarted;
+            this.releaseHashing = releaseHashing;
+        }
+
+        @Override
+        public String encode(CharSequence rawPassword) {
+            hashingStarted.countDown();
+            try {
+                releaseHashing.await(5, TimeUnit.SECONDS);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+            return rawPassword.toString();
+        }
+
+        @Override
+        public boolean matches(CharSequence rawPassword, String encodedPassword) {
+            return encode(rawPassword).equals(encodedPassword);
+        }
+    }
+}
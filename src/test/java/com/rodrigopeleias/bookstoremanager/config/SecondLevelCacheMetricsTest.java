@@ -0,0 +1,69 @@
+package com.rodrigopeleias.bookstoremanager.config;
+
+import com.github.benmanes.caffeine.jcache.spi.CaffeineCachingProvider;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import javax.cache.Cache;
+import javax.cache.CacheManager;
+import javax.cache.Caching;
+import java.net.URI;
+import java.util.List;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.closeTo;
+import static org.hamcrest.Matchers.is;
+
+public class SecondLevelCacheMetricsTest {
+
+    private static final String REGION = "authors";
+
+    private CacheManager cacheManager;
+
+    private SimpleMeterRegistry registry;
+
+    @BeforeEach
+    void setUp() {
+        cacheManager = Caching.getCachingProvider(CaffeineCachingProvider.class.getName())
+                .getCacheManager(URI.create("second-level-cache-metrics-test"), getClass().getClassLoader());
+        cacheManager.createCache(REGION, SecondLevelCacheConfig.boundedRegion(10, 60));
+        registry = new SimpleMeterRegistry();
+        new SecondLevelCacheMetrics(cacheManager, List.of(REGION)).bindTo(registry);
+    }
+
+    @AfterEach
+    void tearDown() {
+        cacheManager.close();
+    }
+
+    @Test
+    void whenRegionIsReadThenHitsMissesAndHitRatioShouldBePublished() {
+        Cache<Object, Object> region = cacheManager.getCache(REGION);
+        region.put(1L, "Rodrigo Peleias");
+
+        region.get(1L);
+        region.get(1L);
+        region.get(1L);
+        region.get(2L);
+
+        assertThat(registry.get("cache.gets").tags("cache", REGION, "result", "hit").functionCounter().count(), is(3.0));
+        assertThat(registry.get("cache.gets").tags("cache", REGION, "result", "miss").functionCounter().count(), is(1.0));
+        assertThat(registry.get("hibernate.second.level.cache.hit.ratio").tag("region", REGION).gauge().value(),
+                is(closeTo(0.75, 0.001)));
+    }
+
+    @Test
+    void whenRegionIsFullThenEntriesShouldBeEvicted() {
+        Cache<Object, Object> region = cacheManager.getCache(REGION);
+
+        for (long id = 0; id < 100; id++) {
+            region.put(id, "Author " + id);
+        }
+        region.unwrap(com.github.benmanes.caffeine.cache.Cache.class).cleanUp();
+
+        assertThat(registry.get("cache.size").tag("cache", REGION).gauge().value() <= 10, is(true));
+        assertThat(registry.get("cache.evictions").tag("cache", REGION).functionCounter().count() >= 90, is(true));
+    }
+}
@@ -0,0 +1,80 @@
+package com.rodrigopeleias.bookstoremanager.entity;
+
+import com.rodrigopeleias.bookstoremanager.author.entity.Author;
+import com.rodrigopeleias.bookstoremanager.author.repository.AuthorRepository;
+import com.rodrigopeleias.bookstoremanager.config.SecondLevelCacheConfig;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+
+import javax.persistence.EntityManagerFactory;
+import java.util.List;
+import java.util.stream.Collectors;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.contains;
+import static org.hamcrest.Matchers.is;
+
+@Import({SecondLevelCacheConfig.class, MultiIdLoader.class})
+@Transactional(propagation = Propagation.NOT_SUPPORTED)
+@DataJpaTest(properties = {
+        "spring.jpa.show-sql=false",
+        "spring.jpa.properties.hibernate.generate_statistics=true",
+        "logging.level.org.hibernate.engine.internal.StatisticalLoggingSessionEventListener=WARN"
+})
+public class MultiIdLoaderTest {
+
+    @Autowired
+    private MultiIdLoader multiIdLoader;
+
+    @Autowired
+    private AuthorRepository authorRepository;
+
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    private Statistics statistics;
+
+    @BeforeEach
+    void setUp() {
+        authorRepository.deleteAll();
+        statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+    }
+
+    @Test
+    void whenIdsAreGivenThenFoundEntitiesShouldBeLoadedWithOneQueryAndThenFromTheSecondLevelCache() {
+        Long firstId = authorRepository.save(buildAuthor("Rodrigo Peleias")).getId();
+        Long secondId = authorRepository.save(buildAuthor("Paula Peleias")).getId();
+        entityManagerFactory.getCache().evictAll();
+        statistics.clear();
+
+        List<Author> loaded = multiIdLoader.findAllById(Author.class, List.of(secondId, -1L, firstId));
+
+        assertThat(names(loaded), contains("Paula Peleias", "Rodrigo Peleias"));
+        assertThat(statistics.getPrepareStatementCount(), is(1L));
+        statistics.clear();
+
+        List<Author> reloaded = multiIdLoader.findAllById(Author.class, List.of(firstId, secondId));
+
+        assertThat(names(reloaded), contains("Rodrigo Peleias", "Paula Peleias"));
+        assertThat(statistics.getDomainDataRegionStatistics(Author.CACHE_REGION).getHitCount(), is(2L));
+        assertThat(statistics.getPrepareStatementCount(), is(0L));
+    }
+
+    private static List<String> names(List<Author> authors) {
+        return authors.stream().map(Author::getName).collect(Collectors.toList());
+    }
+
+    private Author buildAuthor(String name) {
+        Author author = new Author();
+        author.setName(name);
+        author.setAge(30);
+        return author;
+    }
+}
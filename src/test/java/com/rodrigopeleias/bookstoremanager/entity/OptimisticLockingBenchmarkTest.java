@@ -0,0 +1,142 @@
+package com.rodrigopeleias.bookstoremanager.entity;
+
+import com.rodrigopeleias.bookstoremanager.author.entity.Author;
+import com.rodrigopeleias.bookstoremanager.author.repository.AuthorRepository;
+import com.rodrigopeleias.bookstoremanager.benchmark.BenchmarkHarness;
+import com.rodrigopeleias.bookstoremanager.config.JpaAuditingConfig;
+import com.rodrigopeleias.bookstoremanager.config.SecondLevelCacheConfig;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.orm.ObjectOptimisticLockingFailureException;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import javax.persistence.EntityManager;
+import javax.persistence.LockModeType;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.greaterThan;
+import static org.hamcrest.Matchers.is;
+
+/**
+ * Many threads incrementing the age of the same few authors, once with optimistic version checks and a retry
+ * on conflict and once holding a pessimistic row lock for each read-modify-write, reporting throughput and
+ * retries and checking that the writers did collide and that neither loses an update.
+ * Excluded from the default build, run it with {@code mvn test -P benchmark}.
+ */
+@Tag("benchmark")
+@Import({SecondLevelCacheConfig.class, JpaAuditingConfig.class})
+@Transactional(propagation = Propagation.NOT_SUPPORTED)
+@DataJpaTest(properties = {
+        "spring.jpa.show-sql=false",
+        "logging.level.org.hibernate.engine.jdbc.batch.internal.BatchingBatch=OFF"
+})
+public class OptimisticLockingBenchmarkTest {
+
+    private static final int THREADS = 16;
+    private static final int HOT_ROWS = 4;
+    private static final int UPDATES_PER_THREAD = 500;
+
+    private final BenchmarkHarness benchmark = BenchmarkHarness.of(OptimisticLockingBenchmarkTest.class);
+
+    @Autowired
+    private AuthorRepository authorRepository;
+
+    @Autowired
+    private EntityManager entityManager;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    @Test
+    void whenManyWritersUpdateTheSameRowsThenNoUpdateShouldBeLost() throws Exception {
+        TransactionTemplate transaction = new TransactionTemplate(transactionManager);
+
+        List<Long> optimisticIds = hotRows("optimistic");
+        AtomicLong retries = new AtomicLong();
+        Update optimisticUpdate = id -> {
+            while (true) {
+                try {
+                    transaction.executeWithoutResult(status -> {
+                        Author author = entityManager.find(Author.class, id);
+                        author.setAge(author.getAge() + 1);
+                    });
+                    return;
+                } catch (ObjectOptimisticLockingFailureException exception) {
+                    retries.incrementAndGet();
+                }
+            }
+        };
+        long optimisticNanos = benchmark.measure(0, 1, round -> contend(optimisticIds, optimisticUpdate)).getTotalNanos();
+
+        List<Long> pessimisticIds = hotRows("pessimistic");
+        Update pessimisticUpdate = id -> transaction.executeWithoutResult(status -> {
+            Author author = entityManager.find(Author.class, id, LockModeType.PESSIMISTIC_WRITE);
+            author.setAge(author.getAge() + 1);
+        });
+        long pessimisticNanos = benchmark.measure(0, 1, round -> contend(pessimisticIds, pessimisticUpdate)).getTotalNanos();
+
+        int updates = THREADS * UPDATES_PER_THREAD;
+        benchmark.report("{} writers on {} rows: optimistic {} updates/s with {} retries, pessimistic {} updates/s",
+                THREADS, HOT_ROWS,
+                Math.round(updates / (optimisticNanos / 1e9)), retries.get(),
+                Math.round(updates / (pessimisticNanos / 1e9)));
+        // without a single retry the writers never actually collided and the version check went untested
+        assertThat(retries.get(), greaterThan(0L));
+        assertThat(totalAge(optimisticIds), is((long) updates));
+        assertThat(totalAge(pessimisticIds), is((long) updates));
+    }
+
+    private void contend(List<Long> ids, Update update) throws Exception {
+        ExecutorService executor = Executors.newFixedThreadPool(THREADS);
+        try {
+            List<Callable<Void>> writers = new ArrayList<>();
+            for (int writer = 0; writer < THREADS; writer++) {
+                int offset = writer;
+                writers.add(() -> {
+                    for (int i = 0; i < UPDATES_PER_THREAD; i++) {
+                        update.apply(ids.get((offset + i) % ids.size()));
+                    }
+                    return null;
+                });
+            }
+            for (Future<Void> finished : executor.invokeAll(writers)) {
+                finished.get();
+            }
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+
+    private List<Long> hotRows(String prefix) {
+        List<Long> ids = new ArrayList<>();
+        for (int i = 0; i < HOT_ROWS; i++) {
+            Author author = new Author();
+            author.setName(prefix + " author " + i);
+            author.setAge(0);
+            ids.add(authorRepository.save(author).getId());
+        }
+        return ids;
+    }
+
+    private long totalAge(List<Long> ids) {
+        return authorRepository.findAllById(ids).stream().mapToLong(Author::getAge).sum();
+    }
+
+    @FunctionalInterface
+    private interface Update {
+        void apply(Long id);
+    }
+}
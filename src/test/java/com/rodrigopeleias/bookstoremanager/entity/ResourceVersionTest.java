@@ -0,0 +1,113 @@
+package com.rodrigopeleias.bookstoremanager.entity;
+
+import com.rodrigopeleias.bookstoremanager.author.entity.Author;
+import com.rodrigopeleias.bookstoremanager.author.repository.AuthorRepository;
+import com.rodrigopeleias.bookstoremanager.config.JpaAuditingConfig;
+import com.rodrigopeleias.bookstoremanager.config.SecondLevelCacheConfig;
+import com.rodrigopeleias.bookstoremanager.exception.PreconditionFailedException;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.orm.ObjectOptimisticLockingFailureException;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.*;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+@Import({SecondLevelCacheConfig.class, JpaAuditingConfig.class})
+@Transactional(propagation = Propagation.NOT_SUPPORTED)
+@DataJpaTest(properties = "spring.jpa.show-sql=false")
+public class ResourceVersionTest {
+
+    @Autowired
+    private AuthorRepository authorRepository;
+
+    @BeforeEach
+    void setUp() {
+        authorRepository.deleteAll();
+    }
+
+    @Test
+    void whenAnEntityIsSavedThenItsVersionShouldCarryTheAuditedModificationDate() {
+        Author savedAuthor = authorRepository.save(buildAuthor("Rodrigo Peleias"));
+
+        ResourceVersion version = ResourceVersion.of(savedAuthor);
+
+        assertThat(savedAuthor.getLastModifiedDate(), is(notNullValue()));
+        assertThat(version.getLastModified(), is(greaterThan(0L)));
+        assertThat(version.getETag(), is("\"0\""));
+    }
+
+    @Test
+    void whenAnEntityIsUpdatedThenItsETagShouldChange() {
+        Author savedAuthor = authorRepository.save(buildAuthor("Rodrigo Peleias"));
+        savedAuthor.setAge(31);
+
+        Author updatedAuthor = authorRepository.save(savedAuthor);
+
+        assertThat(ResourceVersion.of(updatedAuthor).getETag(), is("\"1\""));
+    }
+
+    @Test
+    void whenAStaleEntityIsWrittenThenTheConcurrentUpdateShouldNotBeOverwritten() {
+        Author staleAuthor = authorRepository.save(buildAuthor("Rodrigo Peleias"));
+        Author concurrentAuthor = authorRepository.findById(staleAuthor.getId()).orElseThrow();
+        concurrentAuthor.setAge(31);
+        authorRepository.save(concurrentAuthor);
+        staleAuthor.setAge(32);
+
+        assertThrows(ObjectOptimisticLockingFailureException.class, () -> authorRepository.save(staleAuthor));
+        assertThrows(ObjectOptimisticLockingFailureException.class, () -> authorRepository.delete(staleAuthor));
+        assertThat(authorRepository.findById(staleAuthor.getId()).orElseThrow().getAge(), is(31));
+    }
+
+    @Test
+    void whenIfMatchIsVerifiedThenOnlyTheCurrentStrongETagOrAnyShouldPass() {
+        ResourceVersion version = new ResourceVersion(3L, null);
+
+        version.verifyIfMatch(null);
+        version.verifyIfMatch(" ");
+        version.verifyIfMatch("*");
+        version.verifyIfMatch("\"2\", \"3\"");
+
+        assertThrows(PreconditionFailedException.class, () -> version.verifyIfMatch("\"2\""));
+        assertThrows(PreconditionFailedException.class, () -> version.verifyIfMatch("W/\"3\""));
+    }
+
+    @Test
+    void whenCollectionRowsAreAddedOrRemovedThenItsVersionShouldChange() {
+        authorRepository.save(buildAuthor("Rodrigo Peleias"));
+        Author removedAuthor = authorRepository.save(buildAuthor("Paula Peleias"));
+        String versionBeforeDelete = authorRepository.findCollectionVersion().getETag();
+
+        assertThat(authorRepository.findCollectionVersion().getETag(), is(versionBeforeDelete));
+
+        authorRepository.delete(removedAuthor);
+        String versionAfterDelete = authorRepository.findCollectionVersion().getETag();
+
+        assertThat(versionAfterDelete, is(not(versionBeforeDelete)));
+        assertThat(authorRepository.findCollectionVersion().getLastModified(), is(-1L));
+
+        authorRepository.save(buildAuthor("Paula Peleias"));
+
+        String versionAfterInsert = authorRepository.findCollectionVersion().getETag();
+        assertThat(versionAfterInsert, is(not(versionAfterDelete)));
+
+        Author updatedAuthor = authorRepository.findByName("Rodrigo Peleias").orElseThrow();
+        updatedAuthor.setAge(31);
+        authorRepository.save(updatedAuthor);
+
+        assertThat(authorRepository.findCollectionVersion().getETag(), is(not(versionAfterInsert)));
+    }
+
+    private Author buildAuthor(String name) {
+        Author author = new Author();
+        author.setName(name);
+        author.setAge(30);
+        return author;
+    }
+}
@@ -0,0 +1,61 @@
+package com.rodrigopeleias.bookstoremanager.exports.controller;
+
+import com.rodrigopeleias.bookstoremanager.exports.service.ExportService;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.setup.MockMvcBuilders;
+
+import java.io.OutputStream;
+
+import static org.hamcrest.Matchers.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.*;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.*;
+
+@ExtendWith(MockitoExtension.class)
+public class ExportControllerTest {
+
+    private static final String EXPORTS_API_URL_PATH = "/api/v1/exports";
+
+    @Mock
+    private ExportService exportService;
+
+    @InjectMocks
+    private ExportController exportController;
+
+    private MockMvc mockMvc;
+
+    @BeforeEach
+    void setUp() {
+        mockMvc = MockMvcBuilders.standaloneSetup(exportController).build();
+    }
+
+    @Test
+    void whenGETBooksExportIsCalledThenNdjsonShouldBeStreamed() throws Exception {
+        doAnswer(invocation -> {
+            invocation.getArgument(0, OutputStream.class).write("{\"id\":1}\n".getBytes());
+            return 1L;
+        }).when(exportService).exportBooks(any(OutputStream.class));
+
+        mockMvc.perform(get(EXPORTS_API_URL_PATH + "/books"))
+                .andExpect(status().isOk())
+                .andExpect(content().contentTypeCompatibleWith(MediaType.APPLICATION_NDJSON))
+                .andExpect(header().string(HttpHeaders.CONTENT_DISPOSITION, containsString("books.ndjson")))
+                .andExpect(content().string("{\"id\":1}\n"));
+    }
+
+    @Test
+    void whenGETUsersExportIsCalledThenUsersShouldBeExported() throws Exception {
+        mockMvc.perform(get(EXPORTS_API_URL_PATH + "/users"))
+                .andExpect(status().isOk());
+        verify(exportService, times(1)).exportUsers(any(OutputStream.class));
+    }
+}
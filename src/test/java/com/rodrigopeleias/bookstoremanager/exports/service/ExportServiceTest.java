@@ -0,0 +1,92 @@
+package com.rodrigopeleias.bookstoremanager.exports.service;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.rodrigopeleias.bookstoremanager.author.builder.AuthorDTOBuilder;
+import com.rodrigopeleias.bookstoremanager.author.entity.Author;
+import com.rodrigopeleias.bookstoremanager.author.mapper.AuthorMapper;
+import com.rodrigopeleias.bookstoremanager.author.repository.AuthorRepository;
+import com.rodrigopeleias.bookstoremanager.books.repository.BooksRepository;
+import com.rodrigopeleias.bookstoremanager.publishers.repository.PublisherRepository;
+import com.rodrigopeleias.bookstoremanager.users.builder.UserDTOBuilder;
+import com.rodrigopeleias.bookstoremanager.users.entity.User;
+import com.rodrigopeleias.bookstoremanager.users.mapper.UserMapper;
+import com.rodrigopeleias.bookstoremanager.users.repository.UserRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import javax.persistence.EntityManager;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.util.stream.Stream;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.*;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+@ExtendWith(MockitoExtension.class)
+public class ExportServiceTest {
+
+    @Mock
+    private AuthorRepository authorRepository;
+
+    @Mock
+    private PublisherRepository publisherRepository;
+
+    @Mock
+    private BooksRepository booksRepository;
+
+    @Mock
+    private UserRepository userRepository;
+
+    @Mock
+    private EntityManager entityManager;
+
+    private ExportService exportService;
+
+    @BeforeEach
+    void setUp() {
+        ObjectMapper objectMapper = new ObjectMapper().findAndRegisterModules();
+        exportService = new ExportService(authorRepository, publisherRepository, booksRepository, userRepository,
+                entityManager, objectMapper, 2);
+    }
+
+    @Test
+    void whenAuthorsAreExportedThenEachOneShouldBeWrittenInItsOwnLine() throws IOException {
+        Author firstAuthor = AuthorMapper.INSTANCE.toModel(AuthorDTOBuilder.builder().id(1L).name("Alice").build().buildAuthorDTO());
+        Author secondAuthor = AuthorMapper.INSTANCE.toModel(AuthorDTOBuilder.builder().id(2L).name("Bob").build().buildAuthorDTO());
+        Author thirdAuthor = AuthorMapper.INSTANCE.toModel(AuthorDTOBuilder.builder().id(3L).name("Carol").build().buildAuthorDTO());
+        ByteArrayOutputStream outputStream = new ByteArrayOutputStream();
+
+        when(authorRepository.streamAll()).thenReturn(Stream.of(firstAuthor, secondAuthor, thirdAuthor));
+
+        long exportedRows = exportService.exportAuthors(outputStream);
+
+        String[] lines = outputStream.toString(StandardCharsets.UTF_8).split("\n");
+        assertThat(exportedRows, is(3L));
+        assertThat(lines.length, is(3));
+        assertThat(lines[0], is(equalTo("{\"id\":1,\"name\":\"Alice\",\"age\":32}")));
+        assertThat(lines[2], startsWith("{\"id\":3,"));
+        verify(entityManager, times(1)).clear();
+    }
+
+    @Test
+    void whenUsersAreExportedThenPasswordsShouldNotBeWritten() throws IOException {
+        User user = UserMapper.INSTANCE.toModel(UserDTOBuilder.builder().build().buildUserDTO());
+        ByteArrayOutputStream outputStream = new ByteArrayOutputStream();
+
+        when(userRepository.streamAll()).thenReturn(Stream.of(user));
+
+        exportService.exportUsers(outputStream);
+
+        String exportedUser = outputStream.toString(StandardCharsets.UTF_8);
+        assertThat(exportedUser, containsString("\"username\":\"rodrigopeleias\""));
+        assertThat(exportedUser, containsString("\"password\":null"));
+        assertThat(exportedUser, not(containsString(user.getPassword())));
+    }
+}
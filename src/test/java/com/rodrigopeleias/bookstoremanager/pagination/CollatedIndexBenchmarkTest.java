@@ -0,0 +1,102 @@
+package com.rodrigopeleias.bookstoremanager.pagination;
+
+import com.rodrigopeleias.bookstoremanager.benchmark.BenchmarkHarness;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+
+import java.text.Collator;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Locale;
+import java.util.Optional;
+import java.util.Random;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.is;
+import static org.hamcrest.Matchers.lessThan;
+
+/**
+ * Reads pages of twenty names in Swedish order from a {@link CollatedIndex} over a hundred thousand names, next to
+ * sorting the names with a {@link Collator} per request, and reports the index build time and retained heap.
+ * Checks that both return the same first page and that a p99 page read stays under the mean per-request sort.
+ * Excluded from the default build, run it with {@code mvn test -P benchmark}.
+ */
+@Tag("benchmark")
+public class CollatedIndexBenchmarkTest {
+
+    private static final int NAMES = 100_000;
+    private static final int PAGE_SIZE = 20;
+    private static final int PAGES = 2_000;
+    private static final int SORTS = 20;
+    private static final Locale SWEDISH = Locale.forLanguageTag("sv");
+    private static final String LETTERS = "abcdefghijklmnopqrstuvwxyzåäöéüñ";
+
+    private final BenchmarkHarness benchmark = BenchmarkHarness.of(CollatedIndexBenchmarkTest.class);
+
+    @Test
+    void whenPagesAreReadThenTheIndexShouldBeatSortingPerRequest() throws Exception {
+        Random random = new Random(42);
+        String[] names = new String[NAMES];
+        for (int i = 0; i < NAMES; i++) {
+            names[i] = name(random);
+        }
+
+        long heapBefore = usedHeap();
+        CollatedIndex collatedIndex = new CollatedIndex(List.of(SWEDISH));
+        BenchmarkHarness.Result build = benchmark.measure(0, 1, round -> {
+            for (int i = 0; i < NAMES; i++) {
+                collatedIndex.add(i, names[i]);
+            }
+        });
+        long heapAfter = usedHeap();
+
+        String[] cursorNames = new String[PAGES];
+        long[] cursorIds = new long[PAGES];
+        for (int i = 0; i < PAGES; i++) {
+            cursorIds[i] = random.nextInt(NAMES);
+            cursorNames[i] = names[(int) cursorIds[i]];
+        }
+        BenchmarkHarness.Result pages = benchmark.measure(PAGES, PAGES, round ->
+                collatedIndex.page(SWEDISH, Optional.of(Cursor.of(cursorNames[round % PAGES], cursorIds[round % PAGES])), PAGE_SIZE));
+
+        BenchmarkHarness.Result sorts = benchmark.measure(0, SORTS, round -> sortPerRequest(names));
+
+        benchmark.report("{} names, build {} ms, {} MB retained, page p50 {} us, p99 {} us, collator sort {} ms",
+                NAMES,
+                Math.round(build.getTotalNanos() / 1e6),
+                (heapAfter - heapBefore) / (1024 * 1024),
+                pages.percentileNanos(50) / 1e3,
+                pages.percentileNanos(99) / 1e3,
+                String.format("%.1f", sorts.getMeanNanos() / 1e6));
+        assertThat(collatedIndex.page(SWEDISH, Optional.empty(), PAGE_SIZE), is(sortPerRequest(names)));
+        assertThat(pages.percentileNanos(99), lessThan(sorts.getMeanNanos()));
+    }
+
+    private static List<Long> sortPerRequest(String[] names) {
+        Collator collator = Collator.getInstance(SWEDISH);
+        List<Long> ids = new ArrayList<>(names.length);
+        for (long id = 0; id < names.length; id++) {
+            ids.add(id);
+        }
+        ids.sort(Comparator.comparing((Long id) -> names[id.intValue()], collator).thenComparing(Comparator.naturalOrder()));
+        return ids.subList(0, PAGE_SIZE);
+    }
+
+    private static String name(Random random) {
+        StringBuilder name = new StringBuilder();
+        for (int i = 0; i < 5 + random.nextInt(10); i++) {
+            char letter = LETTERS.charAt(random.nextInt(LETTERS.length()));
+            name.append(i == 0 ? Character.toUpperCase(letter) : letter);
+        }
+        return name.toString();
+    }
+
+    private static long usedHeap() {
+        for (int i = 0; i < 3; i++) {
+            System.gc();
+        }
+        Runtime runtime = Runtime.getRuntime();
+        return runtime.totalMemory() - runtime.freeMemory();
+    }
+}
@@ -0,0 +1,69 @@
+package com.rodrigopeleias.bookstoremanager.pagination;
+
+import com.rodrigopeleias.bookstoremanager.pagination.exception.UnsupportedLocaleException;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+import java.util.Locale;
+import java.util.Optional;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.contains;
+import static org.hamcrest.Matchers.is;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+public class CollatedIndexTest {
+
+    private static final Locale SWEDISH = Locale.forLanguageTag("sv");
+    private static final Locale GERMAN = Locale.forLanguageTag("de");
+    private static final Locale SPANISH = Locale.forLanguageTag("es");
+    private static final Locale BRAZILIAN_PORTUGUESE = Locale.forLanguageTag("pt-BR");
+
+    private CollatedIndex collatedIndex;
+
+    @BeforeEach
+    void setUp() {
+        collatedIndex = new CollatedIndex(List.of(Locale.ENGLISH, SWEDISH, GERMAN, SPANISH, BRAZILIAN_PORTUGUESE));
+        collatedIndex.add(1L, "Zola");
+        collatedIndex.add(2L, "Öberg");
+        collatedIndex.add(3L, "Olsen");
+        collatedIndex.add(4L, "Ñandú");
+        collatedIndex.add(5L, "Nuñez");
+    }
+
+    @Test
+    void whenLocalesDifferThenNamesShouldFollowEachCollationOrder() {
+        assertThat(collatedIndex.page(GERMAN, Optional.empty(), 10), contains(4L, 5L, 2L, 3L, 1L));
+        assertThat(collatedIndex.page(SWEDISH, Optional.empty(), 10), contains(4L, 5L, 3L, 1L, 2L));
+        assertThat(collatedIndex.page(SPANISH, Optional.empty(), 10), contains(5L, 4L, 2L, 3L, 1L));
+    }
+
+    @Test
+    void whenCursorIsGivenThenPageShouldStartAfterIt() {
+        assertThat(collatedIndex.page(SWEDISH, Optional.empty(), 2), contains(4L, 5L));
+        assertThat(collatedIndex.page(SWEDISH, Optional.of(Cursor.of("Nuñez", 5L)), 2), contains(3L, 1L));
+        assertThat(collatedIndex.page(SWEDISH, Optional.of(Cursor.of("Zola", 1L)), 2), contains(2L));
+    }
+
+    @Test
+    void whenNamesAreRemovedThenTheyShouldLeaveEveryLocale() {
+        collatedIndex.remove(2L, "Öberg");
+
+        assertThat(collatedIndex.page(SWEDISH, Optional.empty(), 10), contains(4L, 5L, 3L, 1L));
+        assertThat(collatedIndex.page(GERMAN, Optional.empty(), 10), contains(4L, 5L, 3L, 1L));
+    }
+
+    @Test
+    void whenLanguageTagIsGivenThenTheBestSupportedLocaleShouldBeResolved() {
+        assertThat(collatedIndex.resolve("pt-br"), is(BRAZILIAN_PORTUGUESE));
+        assertThat(collatedIndex.resolve("sv-SE"), is(SWEDISH));
+        assertThat(collatedIndex.resolve("en-US"), is(Locale.ENGLISH));
+    }
+
+    @Test
+    void whenUnsupportedOrMalformedLanguageTagIsGivenThenAnExceptionShouldBeThrown() {
+        assertThrows(UnsupportedLocaleException.class, () -> collatedIndex.resolve("ja"));
+        assertThrows(UnsupportedLocaleException.class, () -> collatedIndex.resolve("not a locale!"));
+    }
+}
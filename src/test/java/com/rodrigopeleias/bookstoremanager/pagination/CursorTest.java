@@ -0,0 +1,26 @@
+package com.rodrigopeleias.bookstoremanager.pagination;
+
+import com.rodrigopeleias.bookstoremanager.pagination.exception.InvalidCursorException;
+import org.junit.jupiter.api.Test;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.*;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+public class CursorTest {
+
+    @Test
+    void whenCursorIsEncodedThenItShouldBeDecodedBack() {
+        Cursor cursor = Cursor.of("Effective Java: 3rd edition", 42L);
+
+        Cursor decodedCursor = Cursor.decode(cursor.encode());
+
+        assertThat(decodedCursor.getKey(), is(equalTo(cursor.getKey())));
+        assertThat(decodedCursor.getId(), is(equalTo(cursor.getId())));
+    }
+
+    @Test
+    void whenMalformedCursorIsInformedThenAnExceptionShouldBeThrown() {
+        assertThrows(InvalidCursorException.class, () -> Cursor.decode("not a cursor"));
+    }
+}
@@ -1,7 +1,9 @@
 package com.rodrigopeleias.bookstoremanager.publishers.controller;
 
+import com.rodrigopeleias.bookstoremanager.entity.ResourceVersion;
 import com.rodrigopeleias.bookstoremanager.publishers.builder.PublisherDTOBuilder;
 import com.rodrigopeleias.bookstoremanager.publishers.dto.PublisherDTO;
+import com.rodrigopeleias.bookstoremanager.publishers.dto.PublisherSuggestionDTO;
 import com.rodrigopeleias.bookstoremanager.publishers.service.PublisherService;
 import com.rodrigopeleias.bookstoremanager.utils.JsonConversionUtils;
 import org.junit.jupiter.api.BeforeEach;
@@ -11,11 +13,13 @@ import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
 import org.springframework.data.web.PageableHandlerMethodArgumentResolver;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.MediaType;
 import org.springframework.test.web.servlet.MockMvc;
 import org.springframework.test.web.servlet.setup.MockMvcBuilders;
 import org.springframework.web.servlet.view.json.MappingJackson2JsonView;
 
+import java.time.LocalDateTime;
 import java.util.Collections;
 
 import static org.hamcrest.Matchers.*;
@@ -27,6 +31,9 @@ import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.
 public class PublisherControllerTest {
 
     private static final String PUBLISHERS_API_URL_PATH = "/api/v1/publishers";
+    private static final LocalDateTime LAST_MODIFIED_DATE = LocalDateTime.of(2020, 11, 20, 10, 30);
+    private static final ResourceVersion PUBLISHER_VERSION = new ResourceVersion(3L, LAST_MODIFIED_DATE);
+    private static final ResourceVersion PUBLISHERS_VERSION = new ResourceVersion(2L, 2L, LAST_MODIFIED_DATE);
 
     @Mock
     private PublisherService publisherService;
@@ -78,25 +85,69 @@ public class PublisherControllerTest {
         PublisherDTO expectedFoundPublisherDTO = publisherDTOBuilder.buildPublisherDTO();
         Long expectedFoundPublisherDTOId = expectedFoundPublisherDTO.getId();
 
+        when(publisherService.findVersionById(expectedFoundPublisherDTOId)).thenReturn(PUBLISHER_VERSION);
         when(publisherService.findById(expectedFoundPublisherDTOId)).thenReturn(expectedFoundPublisherDTO);
 
         mockMvc.perform(get(PUBLISHERS_API_URL_PATH + "/" + expectedFoundPublisherDTOId)
         .contentType(MediaType.APPLICATION_JSON))
                 .andExpect(status().isOk())
+                .andExpect(header().string(HttpHeaders.ETAG, PUBLISHER_VERSION.getETag()))
                 .andExpect(jsonPath("$.id", is(expectedFoundPublisherDTO.getId().intValue())))
                 .andExpect(jsonPath("$.name", is(expectedFoundPublisherDTO.getName())))
                 .andExpect(jsonPath("$.code", is(expectedFoundPublisherDTO.getCode())));
     }
 
+    @Test
+    void whenGETWithValidIdAndCurrentETagIsCalledThenNotModifiedStatusShouldBeInformed() throws Exception {
+        when(publisherService.findVersionById(1L)).thenReturn(PUBLISHER_VERSION);
+
+        mockMvc.perform(get(PUBLISHERS_API_URL_PATH + "/1")
+                .header(HttpHeaders.IF_NONE_MATCH, PUBLISHER_VERSION.getETag())
+                .contentType(MediaType.APPLICATION_JSON))
+                .andExpect(status().isNotModified());
+
+        verify(publisherService, never()).findById(1L);
+    }
+
+    @Test
+    void whenGETWithCodeIsCalledThenOkStatusShouldBeInformed() throws Exception {
+        PublisherDTO expectedFoundPublisherDTO = publisherDTOBuilder.buildPublisherDTO();
+
+        when(publisherService.findByCode(expectedFoundPublisherDTO.getCode())).thenReturn(expectedFoundPublisherDTO);
+
+        mockMvc.perform(get(PUBLISHERS_API_URL_PATH + "/code/" + expectedFoundPublisherDTO.getCode())
+                .contentType(MediaType.APPLICATION_JSON))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.id", is(expectedFoundPublisherDTO.getId().intValue())))
+                .andExpect(jsonPath("$.code", is(expectedFoundPublisherDTO.getCode())));
+    }
+
+    @Test
+    void whenGETAutocompleteIsCalledThenOkStatusShouldBeInformed() throws Exception {
+        PublisherSuggestionDTO expectedSuggestion = new PublisherSuggestionDTO(1L, "Editora Peleias", "PEL1234");
+
+        when(publisherService.suggest("edi", 5)).thenReturn(Collections.singletonList(expectedSuggestion));
+
+        mockMvc.perform(get(PUBLISHERS_API_URL_PATH + "/autocomplete")
+                .param("prefix", "edi")
+                .param("size", "5")
+                .contentType(MediaType.APPLICATION_JSON))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$[0].name", is(expectedSuggestion.getName())))
+                .andExpect(jsonPath("$[0].code", is(expectedSuggestion.getCode())));
+    }
+
     @Test
     void whenGETListIsCalledThenOkStatusShouldBeInformed() throws Exception {
         PublisherDTO expectedFoundPublisherDTO = publisherDTOBuilder.buildPublisherDTO();
 
+        when(publisherService.findAllVersion()).thenReturn(PUBLISHERS_VERSION);
         when(publisherService.findAll()).thenReturn(Collections.singletonList(expectedFoundPublisherDTO));
 
         mockMvc.perform(get(PUBLISHERS_API_URL_PATH)
                 .contentType(MediaType.APPLICATION_JSON))
                 .andExpect(status().isOk())
+                .andExpect(header().string(HttpHeaders.ETAG, PUBLISHERS_VERSION.getETag()))
                 .andExpect(jsonPath("$[0].id", is(expectedFoundPublisherDTO.getId().intValue())))
                 .andExpect(jsonPath("$[0].name", is(expectedFoundPublisherDTO.getName())))
                 .andExpect(jsonPath("$[0].code", is(expectedFoundPublisherDTO.getCode())));
@@ -107,7 +158,7 @@ public class PublisherControllerTest {
         PublisherDTO expectedPublisherToDeleteDTO = publisherDTOBuilder.buildPublisherDTO();
         var expectedPublisherIdToDelete = expectedPublisherToDeleteDTO.getId();
 
-        doNothing().when(publisherService).delete(expectedPublisherIdToDelete);
+        doNothing().when(publisherService).delete(expectedPublisherIdToDelete, null);
 
         mockMvc.perform(delete(PUBLISHERS_API_URL_PATH + "/" + expectedPublisherIdToDelete)
                 .contentType(MediaType.APPLICATION_JSON))
@@ -1,7 +1,15 @@
 package com.rodrigopeleias.bookstoremanager.publishers.service;
 
+import com.rodrigopeleias.bookstoremanager.changes.enums.CatalogResource;
+import com.rodrigopeleias.bookstoremanager.changes.service.CatalogChangeService;
+import com.rodrigopeleias.bookstoremanager.entity.MultiIdLoader;
+import com.rodrigopeleias.bookstoremanager.pagination.Cursor;
+import com.rodrigopeleias.bookstoremanager.pagination.CursorPagination;
+import com.rodrigopeleias.bookstoremanager.pagination.dto.CursorPageDTO;
+import com.rodrigopeleias.bookstoremanager.pagination.dto.MultiGetDTO;
 import com.rodrigopeleias.bookstoremanager.publishers.builder.PublisherDTOBuilder;
 import com.rodrigopeleias.bookstoremanager.publishers.dto.PublisherDTO;
+import com.rodrigopeleias.bookstoremanager.publishers.dto.PublisherSuggestionDTO;
 import com.rodrigopeleias.bookstoremanager.publishers.entity.Publisher;
 import com.rodrigopeleias.bookstoremanager.publishers.exception.PublisherAlreadyExistsException;
 import com.rodrigopeleias.bookstoremanager.publishers.exception.PublisherNotFoundException;
@@ -12,7 +20,10 @@ import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
+import org.mockito.Spy;
 import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.data.domain.PageRequest;
 
 import java.util.Collections;
 import java.util.List;
@@ -21,6 +32,7 @@ import java.util.Optional;
 import static org.hamcrest.MatcherAssert.*;
 import static org.hamcrest.core.Is.*;
 import static org.hamcrest.core.IsEqual.*;
+import static org.hamcrest.core.IsNull.*;
 import static org.junit.jupiter.api.Assertions.*;
 import static org.mockito.Mockito.*;
 
@@ -32,6 +44,18 @@ public class PublisherServiceTest {
     @Mock
     private PublisherRepository publisherRepository;
 
+    @Spy
+    private CursorPagination cursorPagination = new CursorPagination(20, 100);
+
+    @Mock
+    private PublisherKeyIndex publisherKeyIndex;
+
+    @Mock
+    private MultiIdLoader multiIdLoader;
+
+    @Mock
+    private CatalogChangeService catalogChangeService;
+
     @InjectMocks
     private PublisherService publisherService;
 
@@ -49,11 +73,25 @@ public class PublisherServiceTest {
 
         when(publisherRepository.findByNameOrCode(expectedPublisherToCreateDTO.getName(), expectedPublisherToCreateDTO.getCode()))
                 .thenReturn(Optional.empty());
-        when(publisherRepository.save(expectedPublisherCreated)).thenReturn(expectedPublisherCreated);
+        when(publisherRepository.saveAndFlush(expectedPublisherCreated)).thenReturn(expectedPublisherCreated);
 
         PublisherDTO createdPublisherDTO = publisherService.create(expectedPublisherToCreateDTO);
 
         assertThat(createdPublisherDTO, is(equalTo(expectedPublisherToCreateDTO)));
+        verify(catalogChangeService, times(1)).recordCreated(CatalogResource.PUBLISHER, expectedPublisherCreated.getId());
+    }
+
+    @Test
+    void whenPublisherIsRegisteredConcurrentlyThenCreationShouldBeRejected() {
+        PublisherDTO expectedPublisherToCreateDTO = publisherDTOBuilder.buildPublisherDTO();
+        Publisher expectedPublisherCreated = publisherMapper.toModel(expectedPublisherToCreateDTO);
+
+        when(publisherRepository.findByNameOrCode(expectedPublisherToCreateDTO.getName(), expectedPublisherToCreateDTO.getCode()))
+                .thenReturn(Optional.empty());
+        when(publisherRepository.saveAndFlush(expectedPublisherCreated)).thenThrow(new DataIntegrityViolationException("uk_publisher_code"));
+
+        assertThrows(PublisherAlreadyExistsException.class, () -> publisherService.create(expectedPublisherToCreateDTO));
+        verifyNoInteractions(catalogChangeService);
     }
 
     @Test
@@ -90,11 +128,86 @@ public class PublisherServiceTest {
     }
 
     @Test
-    void whenListPublishersIsCalledThenItShouldBeReturned() {
+    void whenIndexedCodeIsGivenThenAPublisherShouldBeReturned() {
+        PublisherDTO expectedPublisherFoundDTO = publisherDTOBuilder.buildPublisherDTO();
+        Publisher expectedPublisherFound = publisherMapper.toModel(expectedPublisherFoundDTO);
+
+        when(publisherKeyIndex.findIdByCode(expectedPublisherFoundDTO.getCode())).thenReturn(Optional.of(expectedPublisherFoundDTO.getId()));
+        when(publisherRepository.findById(expectedPublisherFoundDTO.getId())).thenReturn(Optional.of(expectedPublisherFound));
+
+        PublisherDTO foundPublisherDTO = publisherService.findByCode(expectedPublisherFoundDTO.getCode());
+
+        assertThat(foundPublisherDTO, is(equalTo(expectedPublisherFoundDTO)));
+        verify(publisherRepository, never()).findByCode(expectedPublisherFoundDTO.getCode());
+    }
+
+    @Test
+    void whenCodeIsNotIndexedThenThePublisherShouldBeFoundByCode() {
         PublisherDTO expectedPublisherFoundDTO = publisherDTOBuilder.buildPublisherDTO();
         Publisher expectedPublisherFound = publisherMapper.toModel(expectedPublisherFoundDTO);
 
-        when(publisherRepository.findAll()).thenReturn(Collections.singletonList(expectedPublisherFound));
+        when(publisherRepository.findByCode(expectedPublisherFoundDTO.getCode())).thenReturn(Optional.of(expectedPublisherFound));
+
+        PublisherDTO foundPublisherDTO = publisherService.findByCode(expectedPublisherFoundDTO.getCode());
+
+        assertThat(foundPublisherDTO, is(equalTo(expectedPublisherFoundDTO)));
+    }
+
+    @Test
+    void whenCodeIsNeitherIndexedNorRegisteredThenAnExceptionShouldBeThrown() {
+        when(publisherKeyIndex.findIdByCode("UNK1234")).thenReturn(Optional.empty());
+        when(publisherRepository.findByCode("UNK1234")).thenReturn(Optional.empty());
+
+        assertThrows(PublisherNotFoundException.class, () -> publisherService.findByCode("UNK1234"));
+    }
+
+    @Test
+    void whenPublisherCodeIsStillIndexedButNoLongerRegisteredThenItShouldBeCreated() {
+        PublisherDTO expectedPublisherToCreateDTO = publisherDTOBuilder.buildPublisherDTO();
+        Publisher expectedPublisherCreated = publisherMapper.toModel(expectedPublisherToCreateDTO);
+
+        when(publisherRepository.findByNameOrCode(expectedPublisherToCreateDTO.getName(), expectedPublisherToCreateDTO.getCode()))
+                .thenReturn(Optional.empty());
+        when(publisherRepository.saveAndFlush(expectedPublisherCreated)).thenReturn(expectedPublisherCreated);
+
+        PublisherDTO createdPublisherDTO = publisherService.create(expectedPublisherToCreateDTO);
+
+        assertThat(createdPublisherDTO, is(equalTo(expectedPublisherToCreateDTO)));
+        verify(publisherKeyIndex, never()).findIdByCode(expectedPublisherToCreateDTO.getCode());
+    }
+
+    @Test
+    void whenPrefixIsGivenThenSuggestionsShouldComeFromTheIndex() {
+        List<PublisherSuggestionDTO> expectedSuggestions = List.of(new PublisherSuggestionDTO(1L, "Editora Peleias", "PEL1234"));
+
+        when(publisherKeyIndex.suggest("edi", 20)).thenReturn(Optional.of(expectedSuggestions));
+
+        List<PublisherSuggestionDTO> suggestions = publisherService.suggest("edi", null);
+
+        assertThat(suggestions, is(equalTo(expectedSuggestions)));
+        verifyNoInteractions(publisherRepository);
+    }
+
+    @Test
+    void whenPublisherKeyIndexIsNotReadyThenSuggestionsShouldComeFromTheDatabase() {
+        PublisherDTO expectedPublisherFoundDTO = publisherDTOBuilder.buildPublisherDTO();
+        Publisher expectedPublisherFound = publisherMapper.toModel(expectedPublisherFoundDTO);
+
+        when(publisherKeyIndex.suggest("edi", 5)).thenReturn(Optional.empty());
+        when(publisherRepository.findAllByNameStartingWithIgnoreCaseOrderByNameAsc("edi", PageRequest.of(0, 5)))
+                .thenReturn(List.of(expectedPublisherFound));
+
+        List<PublisherSuggestionDTO> suggestions = publisherService.suggest("edi", 5);
+
+        assertThat(suggestions, is(equalTo(List.of(new PublisherSuggestionDTO(
+                expectedPublisherFoundDTO.getId(), expectedPublisherFoundDTO.getName(), expectedPublisherFoundDTO.getCode())))));
+    }
+
+    @Test
+    void whenListPublishersIsCalledThenItShouldBeReturned() {
+        PublisherDTO expectedPublisherFoundDTO = publisherDTOBuilder.buildPublisherDTO();
+
+        when(publisherRepository.findAllPublisherDTOs()).thenReturn(Collections.singletonList(expectedPublisherFoundDTO));
 
         List<PublisherDTO> foundPublishersDTO = publisherService.findAll();
 
@@ -104,7 +217,7 @@ public class PublisherServiceTest {
 
     @Test
     void whenListPublishersIsCalledThenAnEmptyListShouldBeReturned() {
-        when(publisherRepository.findAll()).thenReturn(Collections.emptyList());
+        when(publisherRepository.findAllPublisherDTOs()).thenReturn(Collections.emptyList());
 
         List<PublisherDTO> foundPublishersDTO = publisherService.findAll();
 
@@ -118,12 +231,13 @@ public class PublisherServiceTest {
 
         var expectedDeletedPublisherId = expectedPublisherDeletedDTO.getId();
 
-        doNothing().when(publisherRepository).deleteById(expectedDeletedPublisherId);
+        doNothing().when(publisherRepository).delete(expectedPublisherDeleted);
         when(publisherRepository.findById(expectedDeletedPublisherId)).thenReturn(Optional.of(expectedPublisherDeleted));
 
-        publisherService.delete(expectedDeletedPublisherId);
+        publisherService.delete(expectedDeletedPublisherId, "*");
 
-        verify(publisherRepository, times(1)).deleteById(expectedDeletedPublisherId);
+        verify(publisherRepository, times(1)).delete(expectedPublisherDeleted);
+        verify(catalogChangeService, times(1)).recordDeleted(CatalogResource.PUBLISHER, expectedDeletedPublisherId);
     }
 
     @Test
@@ -132,6 +246,50 @@ public class PublisherServiceTest {
 
         when(publisherRepository.findById(expectedInvalidPublisherId)).thenReturn(Optional.empty());
 
-        assertThrows(PublisherNotFoundException.class, () -> publisherService.delete(expectedInvalidPublisherId));
+        assertThrows(PublisherNotFoundException.class, () -> publisherService.delete(expectedInvalidPublisherId, null));
+    }
+
+    @Test
+    void whenLocaleIsGivenThenPublishersShouldBeReturnedInTheCollatedOrderOfTheIndex() {
+        Publisher firstPublisher = publisherMapper.toModel(PublisherDTOBuilder.builder().id(2L).name("Nuñez").build().buildPublisherDTO());
+        Publisher secondPublisher = publisherMapper.toModel(PublisherDTOBuilder.builder().id(1L).name("Ñandú").build().buildPublisherDTO());
+        Cursor after = Cursor.of("Mondadori", 3L);
+
+        when(publisherKeyIndex.collatedPage(eq("es"), argThat(cursor -> cursor.isPresent() && cursor.get().getId() == 3L), eq(21)))
+                .thenReturn(List.of(2L, 1L));
+        when(publisherRepository.findAllById(List.of(2L, 1L))).thenReturn(List.of(secondPublisher, firstPublisher));
+
+        CursorPageDTO<PublisherDTO> foundPage = publisherService.findCollatedPage("es", after.encode(), null);
+
+        assertThat(foundPage.getContent(), is(equalTo(List.of(
+                publisherMapper.toDTO(firstPublisher), publisherMapper.toDTO(secondPublisher)))));
+        assertThat(foundPage.getNextCursor(), is(nullValue()));
+    }
+
+    @Test
+    void whenPublisherIdsAreGivenThenFoundPublishersAndMissingIdsShouldBeReturned() {
+        PublisherDTO expectedFoundPublisherDTO = publisherDTOBuilder.buildPublisherDTO();
+        Publisher expectedFoundPublisher = publisherMapper.toModel(expectedFoundPublisherDTO);
+
+        when(multiIdLoader.findAllById(Publisher.class, List.of(expectedFoundPublisher.getId(), 7L)))
+                .thenReturn(List.of(expectedFoundPublisher));
+
+        MultiGetDTO<PublisherDTO> foundPublishers = publisherService.findAllById(List.of(expectedFoundPublisher.getId(), 7L));
+
+        assertThat(foundPublishers.getContent(), is(equalTo(List.of(expectedFoundPublisherDTO))));
+        assertThat(foundPublishers.getMissingIds(), is(equalTo(List.of(7L))));
+    }
+
+    @Test
+    void whenPageLargerThanTheMaximumIsRequestedThenItShouldBeLimited() {
+        PublisherDTO expectedPublisherFoundDTO = publisherDTOBuilder.buildPublisherDTO();
+        Publisher expectedPublisherFound = publisherMapper.toModel(expectedPublisherFoundDTO);
+
+        when(publisherRepository.findAllByOrderByNameAscIdAsc(PageRequest.of(0, 101)))
+                .thenReturn(Collections.singletonList(expectedPublisherFound));
+
+        CursorPageDTO<PublisherDTO> foundPage = publisherService.findPage(null, 1000);
+
+        assertThat(foundPage.getContent().get(0), is(equalTo(expectedPublisherFoundDTO)));
     }
 }
@@ -1,13 +1,18 @@
 package com.rodrigopeleias.bookstoremanager.users.controller;
 
+import com.rodrigopeleias.bookstoremanager.entity.ResourceVersion;
 import com.rodrigopeleias.bookstoremanager.users.builder.JwtRequestBuilder;
 import com.rodrigopeleias.bookstoremanager.users.builder.UserDTOBuilder;
 import com.rodrigopeleias.bookstoremanager.users.dto.JwtRequest;
 import com.rodrigopeleias.bookstoremanager.users.dto.JwtResponse;
 import com.rodrigopeleias.bookstoremanager.users.dto.MessageDTO;
+import com.rodrigopeleias.bookstoremanager.users.dto.RefreshTokenRequest;
+import com.rodrigopeleias.bookstoremanager.users.dto.UserAvailabilityDTO;
 import com.rodrigopeleias.bookstoremanager.users.dto.UserDTO;
+import com.rodrigopeleias.bookstoremanager.users.dto.UserPatchDTO;
 import com.rodrigopeleias.bookstoremanager.users.exception.UserNotFoundException;
 import com.rodrigopeleias.bookstoremanager.users.service.AuthenticationService;
+import com.rodrigopeleias.bookstoremanager.users.service.LoginRateLimiter;
 import com.rodrigopeleias.bookstoremanager.users.service.UserService;
 import com.rodrigopeleias.bookstoremanager.utils.JsonConversionUtils;
 import org.junit.jupiter.api.BeforeEach;
@@ -17,11 +22,14 @@ import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
 import org.springframework.data.web.PageableHandlerMethodArgumentResolver;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.MediaType;
 import org.springframework.test.web.servlet.MockMvc;
 import org.springframework.test.web.servlet.setup.MockMvcBuilders;
 import org.springframework.web.servlet.view.json.MappingJackson2JsonView;
 
+import java.time.LocalDateTime;
+
 import static org.hamcrest.Matchers.*;
 import static org.mockito.Mockito.*;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.*;
@@ -40,6 +48,9 @@ public class UserControllerTest {
     @Mock
     private AuthenticationService authenticationService;
 
+    @Mock
+    private LoginRateLimiter loginRateLimiter;
+
     @InjectMocks
     private UserController userController;
 
@@ -72,6 +83,24 @@ public class UserControllerTest {
                 .andExpect(jsonPath("$.message", is(expectedCreationMessage)));
     }
 
+    @Test
+    void whenGETAvailabilityIsCalledThenOkStatusShouldBeReturned() throws Exception {
+        UserAvailabilityDTO expectedAvailabilityDTO = UserAvailabilityDTO.builder()
+                .username("rodrigopeleias")
+                .usernameAvailable(false)
+                .build();
+
+        when(userService.checkAvailability("rodrigopeleias", null)).thenReturn(expectedAvailabilityDTO);
+
+        mockMvc.perform(get(USERS_API_URL_PATH + "/availability")
+                .param("username", "rodrigopeleias")
+                .contentType(MediaType.APPLICATION_JSON))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.username", is("rodrigopeleias")))
+                .andExpect(jsonPath("$.usernameAvailable", is(false)))
+                .andExpect(jsonPath("$.email").doesNotExist());
+    }
+
     @Test
     void whenPostIsCalledWithoutRequiredFieldThenBadRequestStatusShouldBeReturned() throws Exception {
         UserDTO expectedUserToCreateDTO = userDTOBuilder.buildUserDTO();
@@ -83,12 +112,24 @@ public class UserControllerTest {
                 .andExpect(status().isBadRequest());
     }
 
+    @Test
+    void whenPostIsCalledWithoutPasswordThenBadRequestStatusShouldBeReturned() throws Exception {
+        UserDTO expectedUserToCreateDTO = userDTOBuilder.buildUserDTO();
+        expectedUserToCreateDTO.setPassword(null);
+
+        mockMvc.perform(post(USERS_API_URL_PATH)
+                .contentType(MediaType.APPLICATION_JSON)
+                .content(JsonConversionUtils.asJsonString(expectedUserToCreateDTO)))
+                .andExpect(status().isBadRequest());
+        verifyNoInteractions(userService);
+    }
+
     @Test
     void whenDELETEIsCalledThenNoContentShouldBeInformed() throws Exception {
         UserDTO expectedUserToDeleteDTO = userDTOBuilder.buildUserDTO();
         Long expectedUserToDeleteId = expectedUserToDeleteDTO.getId();
 
-        doNothing().when(userService).delete(expectedUserToDeleteId);
+        doNothing().when(userService).delete(expectedUserToDeleteId, null);
 
         mockMvc.perform(delete(USERS_API_URL_PATH + "/" + expectedUserToDeleteId)
         .contentType(MediaType.APPLICATION_JSON))
@@ -104,7 +145,7 @@ public class UserControllerTest {
 
         Long expectedUserToUpdateId = expectedUserToUpdateDTO.getId();
 
-        when(userService.update(expectedUserToUpdateId, expectedUserToUpdateDTO))
+        when(userService.update(expectedUserToUpdateId, expectedUserToUpdateDTO, null))
                 .thenReturn(expectedUpdateMessageDTO);
 
         mockMvc.perform(put(USERS_API_URL_PATH + "/" + expectedUserToUpdateId)
@@ -114,6 +155,72 @@ public class UserControllerTest {
                 .andExpect(jsonPath("$.message", is(expectedUpdateMessage)));
     }
 
+    @Test
+    void whenPUTIsCalledWithoutPasswordThenOkStatusShouldBeReturned() throws Exception {
+        UserDTO expectedUserToUpdateDTO = userDTOBuilder.buildUserDTO();
+        expectedUserToUpdateDTO.setPassword(null);
+        String expectedUpdateMessage = "User rodrigopeleias with ID 1 successfully updated";
+        MessageDTO expectedUpdateMessageDTO = MessageDTO.builder().message(expectedUpdateMessage).build();
+
+        when(userService.update(expectedUserToUpdateDTO.getId(), expectedUserToUpdateDTO, null))
+                .thenReturn(expectedUpdateMessageDTO);
+
+        mockMvc.perform(put(USERS_API_URL_PATH + "/" + expectedUserToUpdateDTO.getId())
+                .contentType(MediaType.APPLICATION_JSON)
+                .content(JsonConversionUtils.asJsonString(expectedUserToUpdateDTO)))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.message", is(expectedUpdateMessage)));
+    }
+
+    @Test
+    void whenPUTWithIfMatchIsCalledThenNewETagShouldBeReturned() throws Exception {
+        UserDTO expectedUserToUpdateDTO = userDTOBuilder.buildUserDTO();
+        ResourceVersion expectedVersion = new ResourceVersion(4L, LocalDateTime.of(2020, 11, 20, 10, 30));
+        MessageDTO expectedUpdateMessageDTO = MessageDTO.builder()
+                .message("User rodrigopeleias with ID 1 successfully updated")
+                .resourceVersion(expectedVersion)
+                .build();
+
+        when(userService.update(expectedUserToUpdateDTO.getId(), expectedUserToUpdateDTO, "\"3\""))
+                .thenReturn(expectedUpdateMessageDTO);
+
+        mockMvc.perform(put(USERS_API_URL_PATH + "/" + expectedUserToUpdateDTO.getId())
+                .header(HttpHeaders.IF_MATCH, "\"3\"")
+                .contentType(MediaType.APPLICATION_JSON)
+                .content(JsonConversionUtils.asJsonString(expectedUserToUpdateDTO)))
+                .andExpect(status().isOk())
+                .andExpect(header().string(HttpHeaders.ETAG, expectedVersion.getETag()))
+                .andExpect(jsonPath("$.resourceVersion").doesNotExist());
+    }
+
+    @Test
+    void whenPATCHIsCalledThenOkStatusShouldBeReturned() throws Exception {
+        UserPatchDTO userPatchDTO = new UserPatchDTO();
+        userPatchDTO.setName("Rodrigo Peleias Updated");
+        String expectedUpdateMessage = "User rodrigopeleias with ID 1 successfully updated";
+        MessageDTO expectedUpdateMessageDTO = MessageDTO.builder().message(expectedUpdateMessage).build();
+        var expectedUserToPatchId = 1L;
+
+        when(userService.patch(expectedUserToPatchId, userPatchDTO, null)).thenReturn(expectedUpdateMessageDTO);
+
+        mockMvc.perform(patch(USERS_API_URL_PATH + "/" + expectedUserToPatchId)
+                .contentType(MediaType.APPLICATION_JSON)
+                .content(JsonConversionUtils.asJsonString(userPatchDTO)))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.message", is(expectedUpdateMessage)));
+    }
+
+    @Test
+    void whenPATCHIsCalledWithInvalidEmailThenBadRequestStatusShouldBeReturned() throws Exception {
+        UserPatchDTO userPatchDTO = new UserPatchDTO();
+        userPatchDTO.setEmail("invalid-email");
+
+        mockMvc.perform(patch(USERS_API_URL_PATH + "/1")
+                .contentType(MediaType.APPLICATION_JSON)
+                .content(JsonConversionUtils.asJsonString(userPatchDTO)))
+                .andExpect(status().isBadRequest());
+    }
+
     @Test
     void whenPostIsCalledToAuthenticateUserThenOkStatusShouldBeReturned() throws Exception {
         JwtRequest jwtRequest = jwtRequestBuilder.buildJwtRequest();
@@ -126,6 +233,7 @@ public class UserControllerTest {
                 .content(JsonConversionUtils.asJsonString(jwtRequest)))
                 .andExpect(status().isOk())
                 .andExpect(jsonPath("$.jwtToken", is(expectedJwtToken.getJwtToken())));
+        verify(loginRateLimiter, times(1)).verifyAttemptAllowed(eq(jwtRequest.getUsername()), anyString());
     }
 
     @Test
@@ -138,4 +246,30 @@ public class UserControllerTest {
                 .content(JsonConversionUtils.asJsonString(jwtRequest)))
                 .andExpect(status().isBadRequest());
     }
+
+    @Test
+    void whenPostIsCalledToRefreshTokenThenOkStatusShouldBeReturned() throws Exception {
+        RefreshTokenRequest refreshTokenRequest = new RefreshTokenRequest("fakeRefreshToken");
+        JwtResponse expectedJwtToken = JwtResponse.builder().jwtToken("newToken").refreshToken("newRefreshToken").build();
+
+        when(authenticationService.refreshAuthenticationToken(refreshTokenRequest)).thenReturn(expectedJwtToken);
+
+        mockMvc.perform(post(USERS_API_URL_PATH + "/refresh")
+                .contentType(MediaType.APPLICATION_JSON)
+                .content(JsonConversionUtils.asJsonString(refreshTokenRequest)))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.jwtToken", is(expectedJwtToken.getJwtToken())))
+                .andExpect(jsonPath("$.refreshToken", is(expectedJwtToken.getRefreshToken())));
+    }
+
+    @Test
+    void whenPostIsCalledToLogoutThenNoContentStatusShouldBeReturned() throws Exception {
+        RefreshTokenRequest refreshTokenRequest = new RefreshTokenRequest("fakeRefreshToken");
+
+        mockMvc.perform(post(USERS_API_URL_PATH + "/logout")
+                .contentType(MediaType.APPLICATION_JSON)
+                .content(JsonConversionUtils.asJsonString(refreshTokenRequest)))
+                .andExpect(status().isNoContent());
+        verify(authenticationService, times(1)).revokeAuthenticationToken(refreshTokenRequest);
+    }
 }
@@ -1,13 +1,19 @@
 package com.rodrigopeleias.bookstoremanager.users.service;
 
+import com.rodrigopeleias.bookstoremanager.config.BoundedPasswordEncoder;
 import com.rodrigopeleias.bookstoremanager.users.builder.JwtRequestBuilder;
 import com.rodrigopeleias.bookstoremanager.users.builder.UserDTOBuilder;
+import com.rodrigopeleias.bookstoremanager.users.dto.AuthenticatedUser;
 import com.rodrigopeleias.bookstoremanager.users.dto.JwtRequest;
 import com.rodrigopeleias.bookstoremanager.users.dto.JwtResponse;
+import com.rodrigopeleias.bookstoremanager.users.dto.RefreshTokenRequest;
 import com.rodrigopeleias.bookstoremanager.users.dto.UserDTO;
 import com.rodrigopeleias.bookstoremanager.users.entity.User;
+import com.rodrigopeleias.bookstoremanager.users.exception.InvalidRefreshTokenException;
 import com.rodrigopeleias.bookstoremanager.users.mapper.UserMapper;
 import com.rodrigopeleias.bookstoremanager.users.repository.UserRepository;
+import io.jsonwebtoken.Claims;
+import io.jsonwebtoken.impl.DefaultClaims;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
@@ -20,11 +26,13 @@ import org.springframework.security.core.userdetails.UserDetails;
 import org.springframework.security.core.userdetails.UsernameNotFoundException;
 
 import java.util.Optional;
+import java.util.concurrent.CompletableFuture;
 
 import static org.hamcrest.MatcherAssert.assertThat;
 import static org.hamcrest.Matchers.*;
 import static org.junit.jupiter.api.Assertions.*;
 import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
 import static org.mockito.Mockito.*;
 
 @ExtendWith(MockitoExtension.class)
@@ -41,6 +49,18 @@ public class AuthenticationServiceTest {
     @Mock
     private JwtTokenManager jwtTokenManager;
 
+    @Mock
+    private UserDetailsCache userDetailsCache;
+
+    @Mock
+    private BoundedPasswordEncoder passwordEncoder;
+
+    @Mock
+    private TokenRevocationList tokenRevocationList;
+
+    @Mock
+    private UserRevocationRegistry userRevocationRegistry;
+
     @InjectMocks
     private AuthenticationService authenticationService;
 
@@ -60,13 +80,135 @@ public class AuthenticationServiceTest {
         UserDTO expectedFoundUserDTO = userDTOBuilder.buildUserDTO();
         User expectedFoundUser = userMapper.toModel(expectedFoundUserDTO);
         String expectedGeneratedToken = "fakeToken";
+        String expectedRefreshToken = "fakeRefreshToken";
+        long expectedTokenId = 1L;
 
         when(userRepository.findByUsername(jwtRequest.getUsername())).thenReturn(Optional.of(expectedFoundUser));
-        when(jwtTokenManager.generateToken(any(UserDetails.class))).thenReturn(expectedGeneratedToken);
+        when(tokenRevocationList.nextTokenId()).thenReturn(expectedTokenId);
+        when(jwtTokenManager.generateToken(any(UserDetails.class), eq(expectedTokenId))).thenReturn(expectedGeneratedToken);
+        when(jwtTokenManager.generateRefreshToken(any(UserDetails.class), eq(expectedTokenId))).thenReturn(expectedRefreshToken);
 
         JwtResponse generatedTokenResponse = authenticationService.createAuthenticationToken(jwtRequest);
 
         assertThat(generatedTokenResponse.getJwtToken(), is(equalTo(expectedGeneratedToken)));
+        assertThat(generatedTokenResponse.getRefreshToken(), is(equalTo(expectedRefreshToken)));
+    }
+
+    @Test
+    void whenValidRefreshTokenIsInformedThenItShouldBeRotated() {
+        UserDTO expectedFoundUserDTO = userDTOBuilder.buildUserDTO();
+        User expectedFoundUser = userMapper.toModel(expectedFoundUserDTO);
+        RefreshTokenRequest refreshTokenRequest = new RefreshTokenRequest("refreshToken");
+        Claims refreshTokenClaims = buildRefreshTokenClaims(expectedFoundUser.getUsername());
+        long usedTokenId = 7L;
+        long expectedTokenId = 8L;
+
+        when(jwtTokenManager.getAllClaimsForToken(refreshTokenRequest.getRefreshToken())).thenReturn(refreshTokenClaims);
+        when(jwtTokenManager.isRefreshToken(refreshTokenClaims)).thenReturn(true);
+        when(jwtTokenManager.getTokenIdFromClaims(refreshTokenClaims)).thenReturn(usedTokenId);
+        when(tokenRevocationList.revoke(usedTokenId)).thenReturn(true);
+        when(userRepository.findByUsername(expectedFoundUser.getUsername())).thenReturn(Optional.of(expectedFoundUser));
+        when(jwtTokenManager.validateToken(eq(refreshTokenClaims), any(UserDetails.class))).thenReturn(true);
+        when(tokenRevocationList.nextTokenId()).thenReturn(expectedTokenId);
+        when(jwtTokenManager.generateRefreshToken(any(UserDetails.class), eq(expectedTokenId))).thenReturn("newRefreshToken");
+
+        JwtResponse refreshedTokenResponse = authenticationService.refreshAuthenticationToken(refreshTokenRequest);
+
+        assertThat(refreshedTokenResponse.getRefreshToken(), is(equalTo("newRefreshToken")));
+        verify(tokenRevocationList, times(1)).revoke(usedTokenId);
+    }
+
+    @Test
+    void whenRefreshTokenVersionIsOutdatedThenAnExceptionShouldBeThrown() {
+        UserDTO expectedFoundUserDTO = userDTOBuilder.buildUserDTO();
+        User expectedFoundUser = userMapper.toModel(expectedFoundUserDTO);
+        expectedFoundUser.setTokenVersion(2L);
+        RefreshTokenRequest refreshTokenRequest = new RefreshTokenRequest("refreshToken");
+        Claims refreshTokenClaims = buildRefreshTokenClaims(expectedFoundUser.getUsername());
+        long usedTokenId = 7L;
+
+        when(jwtTokenManager.getAllClaimsForToken(refreshTokenRequest.getRefreshToken())).thenReturn(refreshTokenClaims);
+        when(jwtTokenManager.isRefreshToken(refreshTokenClaims)).thenReturn(true);
+        when(jwtTokenManager.getTokenIdFromClaims(refreshTokenClaims)).thenReturn(usedTokenId);
+        when(tokenRevocationList.revoke(usedTokenId)).thenReturn(true);
+        when(userRepository.findByUsername(expectedFoundUser.getUsername())).thenReturn(Optional.of(expectedFoundUser));
+        when(jwtTokenManager.validateToken(eq(refreshTokenClaims),
+                argThat((UserDetails userDetails) -> ((AuthenticatedUser) userDetails).getTokenVersion() == 2L)))
+                .thenReturn(false);
+
+        assertThrows(InvalidRefreshTokenException.class, () -> authenticationService.refreshAuthenticationToken(refreshTokenRequest));
+        verify(tokenRevocationList, never()).nextTokenId();
+    }
+
+    @Test
+    void whenAlreadyUsedRefreshTokenIsInformedThenAnExceptionShouldBeThrown() {
+        RefreshTokenRequest refreshTokenRequest = new RefreshTokenRequest("refreshToken");
+        Claims refreshTokenClaims = buildRefreshTokenClaims("rodrigopeleias");
+        long usedTokenId = 7L;
+
+        when(jwtTokenManager.getAllClaimsForToken(refreshTokenRequest.getRefreshToken())).thenReturn(refreshTokenClaims);
+        when(jwtTokenManager.isRefreshToken(refreshTokenClaims)).thenReturn(true);
+        when(jwtTokenManager.getTokenIdFromClaims(refreshTokenClaims)).thenReturn(usedTokenId);
+        when(tokenRevocationList.isRevoked(usedTokenId)).thenReturn(true);
+
+        assertThrows(InvalidRefreshTokenException.class, () -> authenticationService.refreshAuthenticationToken(refreshTokenRequest));
+        verify(tokenRevocationList, never()).nextTokenId();
+    }
+
+    @Test
+    void whenRefreshTokenWasIssuedBeforeAPasswordChangeThenAnExceptionShouldBeThrown() {
+        RefreshTokenRequest refreshTokenRequest = new RefreshTokenRequest("refreshToken");
+        Claims refreshTokenClaims = buildRefreshTokenClaims("rodrigopeleias");
+        long tokenId = 7L;
+
+        when(jwtTokenManager.getAllClaimsForToken(refreshTokenRequest.getRefreshToken())).thenReturn(refreshTokenClaims);
+        when(jwtTokenManager.isRefreshToken(refreshTokenClaims)).thenReturn(true);
+        when(jwtTokenManager.getTokenIdFromClaims(refreshTokenClaims)).thenReturn(tokenId);
+        when(jwtTokenManager.getIssuedAtMillisFromClaims(refreshTokenClaims)).thenReturn(1_000L);
+        when(userRevocationRegistry.isRevoked("rodrigopeleias", 1_000L)).thenReturn(true);
+
+        assertThrows(InvalidRefreshTokenException.class, () -> authenticationService.refreshAuthenticationToken(refreshTokenRequest));
+        verify(tokenRevocationList, never()).revoke(tokenId);
+    }
+
+    @Test
+    void whenAccessTokenIsInformedAsRefreshTokenThenAnExceptionShouldBeThrown() {
+        RefreshTokenRequest refreshTokenRequest = new RefreshTokenRequest("accessToken");
+        Claims accessTokenClaims = buildRefreshTokenClaims("rodrigopeleias");
+
+        when(jwtTokenManager.getAllClaimsForToken(refreshTokenRequest.getRefreshToken())).thenReturn(accessTokenClaims);
+        when(jwtTokenManager.isRefreshToken(accessTokenClaims)).thenReturn(false);
+
+        assertThrows(InvalidRefreshTokenException.class, () -> authenticationService.refreshAuthenticationToken(refreshTokenRequest));
+    }
+
+    private Claims buildRefreshTokenClaims(String username) {
+        Claims claims = new DefaultClaims();
+        claims.setSubject(username);
+        return claims;
+    }
+
+    @Test
+    void whenPasswordEncodingIsOutdatedThenItShouldBeUpgradedAfterAuthentication() {
+        UserDTO expectedFoundUserDTO = userDTOBuilder.buildUserDTO();
+        JwtRequest jwtRequest = JwtRequestBuilder.builder()
+                .username(expectedFoundUserDTO.getUsername())
+                .build()
+                .buildJwtRequest();
+        User expectedFoundUser = userMapper.toModel(expectedFoundUserDTO);
+        String expectedUpgradedPassword = "upgradedPassword";
+
+        when(userRepository.findByUsername(jwtRequest.getUsername())).thenReturn(Optional.of(expectedFoundUser));
+        when(passwordEncoder.upgradeEncoding(expectedFoundUser.getPassword())).thenReturn(true);
+        when(passwordEncoder.encodeInBackground(jwtRequest.getPassword()))
+                .thenReturn(CompletableFuture.completedFuture(expectedUpgradedPassword));
+        when(userRepository.save(expectedFoundUser)).thenReturn(expectedFoundUser);
+
+        authenticationService.createAuthenticationToken(jwtRequest);
+
+        assertThat(expectedFoundUser.getPassword(), is(equalTo(expectedUpgradedPassword)));
+        verify(userRepository, times(1)).save(expectedFoundUser);
+        verify(userDetailsCache, times(1)).invalidate(expectedFoundUser.getUsername(), expectedFoundUser.getVersion());
     }
 
     @Test
@@ -85,6 +227,25 @@ public class AuthenticationServiceTest {
         assertThat(userDetails.getUsername(), is(equalTo(expectedFoundUser.getUsername())));
         assertThat(userDetails.getPassword(), is(equalTo(expectedFoundUser.getPassword())));
         assertTrue(userDetails.getAuthorities().contains(expectedUserRole));
+        verify(userDetailsCache, times(1)).put(userDetails, expectedFoundUser.getVersion());
+    }
+
+    @Test
+    void whenCachedUsernameIsInformedThenRepositoryShouldNotBeQueried() {
+        UserDTO expectedFoundUserDTO = userDTOBuilder.buildUserDTO();
+        String expectedUsername = expectedFoundUserDTO.getUsername();
+        UserDetails expectedCachedUserDetails = new AuthenticatedUser(
+                expectedUsername,
+                expectedFoundUserDTO.getPassword(),
+                expectedFoundUserDTO.getRole().getDescription()
+        );
+
+        when(userDetailsCache.get(expectedUsername)).thenReturn(Optional.of(expectedCachedUserDetails));
+
+        UserDetails userDetails = authenticationService.loadUserByUsername(expectedUsername);
+
+        assertThat(userDetails, is(sameInstance(expectedCachedUserDetails)));
+        verifyNoInteractions(userRepository);
     }
 
     @Test
@@ -0,0 +1,60 @@
+package com.rodrigopeleias.bookstoremanager.users.service;
+
+import io.jsonwebtoken.Claims;
+import io.jsonwebtoken.impl.DefaultClaims;
+import org.junit.jupiter.api.Test;
+
+import java.util.Date;
+import java.util.Optional;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.*;
+
+public class JwtClaimsCacheTest {
+
+    private static final String TOKEN = "header.payload.signature";
+
+    @Test
+    void whenValidClaimsAreCachedThenTheyShouldBeReturned() {
+        JwtClaimsCache jwtClaimsCache = new JwtClaimsCache(10);
+        Claims expectedClaims = buildClaims(60_000);
+
+        jwtClaimsCache.put(TOKEN, expectedClaims);
+        Optional<Claims> cachedClaims = jwtClaimsCache.get(TOKEN);
+
+        assertThat(cachedClaims.isPresent(), is(true));
+        assertThat(cachedClaims.get(), is(sameInstance(expectedClaims)));
+    }
+
+    @Test
+    void whenCachedClaimsAreExpiredThenNothingShouldBeReturned() {
+        JwtClaimsCache jwtClaimsCache = new JwtClaimsCache(10);
+
+        jwtClaimsCache.put(TOKEN, buildClaims(-1_000));
+
+        assertThat(jwtClaimsCache.get(TOKEN).isPresent(), is(false));
+        assertThat(jwtClaimsCache.size(), is(0));
+    }
+
+    @Test
+    void whenCacheIsFullThenTheLeastRecentlyUsedClaimsShouldBeEvicted() {
+        JwtClaimsCache jwtClaimsCache = new JwtClaimsCache(2);
+
+        jwtClaimsCache.put("first.token.value", buildClaims(60_000));
+        jwtClaimsCache.put("second.token.value", buildClaims(60_000));
+        jwtClaimsCache.get("first.token.value");
+        jwtClaimsCache.put(TOKEN, buildClaims(60_000));
+
+        assertThat(jwtClaimsCache.size(), is(2));
+        assertThat(jwtClaimsCache.get("first.token.value").isPresent(), is(true));
+        assertThat(jwtClaimsCache.get("second.token.value").isPresent(), is(false));
+        assertThat(jwtClaimsCache.get(TOKEN).isPresent(), is(true));
+    }
+
+    private Claims buildClaims(long millisToExpire) {
+        Claims claims = new DefaultClaims();
+        claims.setSubject("rodrigopeleias");
+        claims.setExpiration(new Date(System.currentTimeMillis() + millisToExpire));
+        return claims;
+    }
+}
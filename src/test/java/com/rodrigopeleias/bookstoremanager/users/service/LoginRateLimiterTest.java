@@ -0,0 +1,46 @@
+package com.rodrigopeleias.bookstoremanager.users.service;
+
+import com.rodrigopeleias.bookstoremanager.users.exception.LoginAttemptsExceededException;
+import org.junit.jupiter.api.Test;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.*;
+import static org.junit.jupiter.api.Assertions.*;
+
+public class LoginRateLimiterTest {
+
+    private static final String CLIENT_ADDRESS = "10.0.0.1";
+
+    @Test
+    void whenAttemptsAreWithinBurstThenTheyShouldBeAllowed() {
+        LoginRateLimiter loginRateLimiter = new LoginRateLimiter(1024, 1, 3, 60, 20);
+
+        for (int attempt = 0; attempt < 3; attempt++) {
+            assertDoesNotThrow(() -> loginRateLimiter.verifyAttemptAllowed("rodrigo", CLIENT_ADDRESS));
+        }
+    }
+
+    @Test
+    void whenUsernameAttemptsExceedBurstThenAnExceptionShouldBeThrown() {
+        LoginRateLimiter loginRateLimiter = new LoginRateLimiter(1024, 1, 2, 60, 20);
+        loginRateLimiter.verifyAttemptAllowed("rodrigo", CLIENT_ADDRESS);
+        loginRateLimiter.verifyAttemptAllowed("rodrigo", CLIENT_ADDRESS);
+
+        LoginAttemptsExceededException exception = assertThrows(LoginAttemptsExceededException.class,
+                () -> loginRateLimiter.verifyAttemptAllowed("rodrigo", CLIENT_ADDRESS));
+
+        assertThat(exception.getRetryAfterSeconds(), is(both(greaterThan(0L)).and(lessThanOrEqualTo(60L))));
+        assertDoesNotThrow(() -> loginRateLimiter.verifyAttemptAllowed("peleias", CLIENT_ADDRESS));
+    }
+
+    @Test
+    void whenClientAddressAttemptsExceedBurstThenAnExceptionShouldBeThrownForAnyUsername() {
+        LoginRateLimiter loginRateLimiter = new LoginRateLimiter(1024, 60, 20, 1, 2);
+        loginRateLimiter.verifyAttemptAllowed("rodrigo", CLIENT_ADDRESS);
+        loginRateLimiter.verifyAttemptAllowed("peleias", CLIENT_ADDRESS);
+
+        assertThrows(LoginAttemptsExceededException.class,
+                () -> loginRateLimiter.verifyAttemptAllowed("bookstore", CLIENT_ADDRESS));
+        assertDoesNotThrow(() -> loginRateLimiter.verifyAttemptAllowed("bookstore", "10.0.0.2"));
+    }
+}
@@ -0,0 +1,76 @@
+package com.rodrigopeleias.bookstoremanager.users.service;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.*;
+
+public class TokenRevocationListTest {
+
+    private TokenRevocationList tokenRevocationList;
+
+    @BeforeEach
+    void setUp() {
+        tokenRevocationList = new TokenRevocationList(604800L, 3600L, 1);
+    }
+
+    @Test
+    void whenTokenIdsAreIssuedThenTheyShouldBeIncreasing() {
+        long firstTokenId = tokenRevocationList.nextTokenId();
+        long secondTokenId = tokenRevocationList.nextTokenId();
+
+        assertThat(secondTokenId, is(greaterThan(firstTokenId)));
+    }
+
+    @Test
+    void whenTokenIdIsRevokedThenOnlyItShouldBeReportedAsRevoked() {
+        long revokedTokenId = tokenRevocationList.nextTokenId();
+        long otherTokenId = tokenRevocationList.nextTokenId();
+
+        assertThat(tokenRevocationList.revoke(revokedTokenId), is(true));
+
+        assertThat(tokenRevocationList.isRevoked(revokedTokenId), is(true));
+        assertThat(tokenRevocationList.isRevoked(otherTokenId), is(false));
+    }
+
+    @Test
+    void whenTwoNodesIssueTokenIdsThenRevokingOneShouldNotRevokeTheOther() {
+        TokenRevocationList otherNode = new TokenRevocationList(604800L, 3600L, 2);
+        long tokenId = tokenRevocationList.nextTokenId();
+        long otherNodeTokenId = otherNode.nextTokenId();
+
+        tokenRevocationList.revoke(tokenId);
+        tokenRevocationList.revoke(otherNodeTokenId);
+
+        assertThat(otherNodeTokenId, is(not(tokenId)));
+        assertThat(tokenRevocationList.isRevoked(tokenId), is(true));
+        assertThat(tokenRevocationList.isRevoked(otherNodeTokenId), is(true));
+        assertThat(tokenRevocationList.isRevoked(tokenId ^ (4L << 24)), is(false));
+    }
+
+    @Test
+    void whenTokenIdIsRevokedTwiceThenSecondRevocationShouldBeReported() {
+        long tokenId = tokenRevocationList.nextTokenId();
+
+        tokenRevocationList.revoke(tokenId);
+
+        assertThat(tokenRevocationList.revoke(tokenId), is(false));
+    }
+
+    @Test
+    void whenRevokedTokenIdsAreFarApartThenAllOfThemShouldBeKept() {
+        long firstTokenId = tokenRevocationList.nextTokenId();
+        long middleTokenId = firstTokenId + 100_000;
+        long lowerTokenId = firstTokenId - 100_000;
+
+        tokenRevocationList.revoke(firstTokenId);
+        tokenRevocationList.revoke(middleTokenId);
+        tokenRevocationList.revoke(lowerTokenId);
+
+        assertThat(tokenRevocationList.isRevoked(firstTokenId), is(true));
+        assertThat(tokenRevocationList.isRevoked(middleTokenId), is(true));
+        assertThat(tokenRevocationList.isRevoked(lowerTokenId), is(true));
+        assertThat(tokenRevocationList.isRevoked(middleTokenId - 1), is(false));
+    }
+}
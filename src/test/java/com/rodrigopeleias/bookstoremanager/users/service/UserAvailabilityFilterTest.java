@@ -0,0 +1,73 @@
+package com.rodrigopeleias.bookstoremanager.users.service;
+
+import com.rodrigopeleias.bookstoremanager.users.repository.UserIdentity;
+import com.rodrigopeleias.bookstoremanager.users.repository.UserRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.util.List;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.is;
+import static org.mockito.Mockito.when;
+
+@ExtendWith(MockitoExtension.class)
+public class UserAvailabilityFilterTest {
+
+    @Mock
+    private UserRepository userRepository;
+
+    private UserAvailabilityFilter userAvailabilityFilter;
+
+    @BeforeEach
+    void setUp() {
+        userAvailabilityFilter = new UserAvailabilityFilter(userRepository, 1000, 0.01, 10);
+    }
+
+    @Test
+    void whenFilterWasNotRebuiltThenEveryValueShouldBePossiblyTaken() {
+        assertThat(userAvailabilityFilter.mightContainUsername("newuser"), is(true));
+        assertThat(userAvailabilityFilter.mightContainEmail("newuser@gmail.com"), is(true));
+    }
+
+    @Test
+    void whenUserIsAddedAfterARebuildThenItShouldBePossiblyTaken() {
+        when(userRepository.findAllIdentities()).thenReturn(List.of());
+        userAvailabilityFilter.rebuild();
+
+        userAvailabilityFilter.add("newuser", "newuser@gmail.com");
+
+        assertThat(userAvailabilityFilter.mightContainUsername("newuser"), is(true));
+        assertThat(userAvailabilityFilter.mightContainEmail("newuser@gmail.com"), is(true));
+    }
+
+    @Test
+    void whenUserWasRegisteredOnAnotherNodeThenTheNextRebuildShouldAddIt() {
+        when(userRepository.findAllIdentities()).thenReturn(List.of());
+        userAvailabilityFilter.rebuild();
+        assertThat(userAvailabilityFilter.mightContainUsername("otheruser"), is(false));
+
+        when(userRepository.findAllIdentities()).thenReturn(List.of(userIdentity("otheruser", "otheruser@gmail.com")));
+        userAvailabilityFilter.rebuild();
+
+        assertThat(userAvailabilityFilter.mightContainUsername("otheruser"), is(true));
+        assertThat(userAvailabilityFilter.mightContainEmail("otheruser@gmail.com"), is(true));
+    }
+
+    private static UserIdentity userIdentity(String username, String email) {
+        return new UserIdentity() {
+            @Override
+            public String getUsername() {
+                return username;
+            }
+
+            @Override
+            public String getEmail() {
+                return email;
+            }
+        };
+    }
+}
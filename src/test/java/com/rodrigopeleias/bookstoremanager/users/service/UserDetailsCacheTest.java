@@ -0,0 +1,83 @@
+package com.rodrigopeleias.bookstoremanager.users.service;
+
+import com.rodrigopeleias.bookstoremanager.users.dto.AuthenticatedUser;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.security.core.userdetails.UserDetails;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.*;
+
+public class UserDetailsCacheTest {
+
+    private UserDetailsCache userDetailsCache;
+
+    private MeterRegistry meterRegistry;
+
+    @BeforeEach
+    void setUp() {
+        userDetailsCache = new UserDetailsCache(2, 3600);
+        meterRegistry = new SimpleMeterRegistry();
+        userDetailsCache.bindTo(meterRegistry);
+    }
+
+    @Test
+    void whenUserDetailsAreCachedThenHitShouldBeCounted() {
+        UserDetails expectedUserDetails = buildUserDetails("rodrigo");
+
+        userDetailsCache.put(expectedUserDetails, 1L);
+
+        assertThat(userDetailsCache.get("rodrigo").get(), is(sameInstance(expectedUserDetails)));
+        assertThat(meterRegistry.get("users.details.cache.hits").functionCounter().count(), is(1.0));
+    }
+
+    @Test
+    void whenUserDetailsAreInvalidatedThenMissShouldBeCounted() {
+        userDetailsCache.put(buildUserDetails("rodrigo"), 1L);
+
+        userDetailsCache.invalidate("rodrigo", 2L);
+
+        assertThat(userDetailsCache.get("rodrigo").isPresent(), is(false));
+        assertThat(meterRegistry.get("users.details.cache.misses").functionCounter().count(), is(1.0));
+    }
+
+    @Test
+    void whenCacheIsFullThenLeastRecentlyUsedEntryShouldBeEvicted() {
+        userDetailsCache.put(buildUserDetails("rodrigo"), 1L);
+        userDetailsCache.put(buildUserDetails("peleias"), 1L);
+        userDetailsCache.get("rodrigo");
+
+        userDetailsCache.put(buildUserDetails("bookstore"), 1L);
+
+        assertThat(userDetailsCache.get("rodrigo").isPresent(), is(true));
+        assertThat(userDetailsCache.get("peleias").isPresent(), is(false));
+        assertThat(meterRegistry.get("users.details.cache.evictions").functionCounter().count(), is(1.0));
+    }
+
+    @Test
+    void whenDetailsReadBeforeAnInvalidationArePutThenTheyShouldNotBeCached() {
+        userDetailsCache.put(buildUserDetails("rodrigo"), 1L);
+        userDetailsCache.invalidate("rodrigo", 2L);
+
+        userDetailsCache.put(buildUserDetails("rodrigo"), 1L);
+        assertThat(userDetailsCache.get("rodrigo").isPresent(), is(false));
+
+        userDetailsCache.put(buildUserDetails("rodrigo"), 2L);
+        assertThat(userDetailsCache.get("rodrigo").isPresent(), is(true));
+    }
+
+    @Test
+    void whenTimeToLiveHasPassedThenDetailsShouldNotBeReturned() {
+        UserDetailsCache expiringCache = new UserDetailsCache(2, 0);
+
+        expiringCache.put(buildUserDetails("rodrigo"), 1L);
+
+        assertThat(expiringCache.get("rodrigo").isPresent(), is(false));
+    }
+
+    private UserDetails buildUserDetails(String username) {
+        return new AuthenticatedUser(username, "123456", "USER");
+    }
+}
@@ -0,0 +1,51 @@
+package com.rodrigopeleias.bookstoremanager.users.service;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.is;
+
+public class UserRevocationRegistryTest {
+
+    private static final String USERNAME = "rodrigopeleias";
+
+    private UserRevocationRegistry userRevocationRegistry;
+
+    @BeforeEach
+    void setUp() {
+        userRevocationRegistry = new UserRevocationRegistry(18000L);
+    }
+
+    @Test
+    void whenUserIsNotRevokedThenTokenShouldBeAccepted() {
+        assertThat(userRevocationRegistry.isRevoked(USERNAME, System.currentTimeMillis()), is(false));
+    }
+
+    @Test
+    void whenUserIsRevokedThenTokensIssuedBeforeShouldBeRejected() {
+        long issuedBeforeRevocation = System.currentTimeMillis() - 60_000;
+
+        userRevocationRegistry.revoke(USERNAME);
+
+        assertThat(userRevocationRegistry.isRevoked(USERNAME, issuedBeforeRevocation), is(true));
+    }
+
+    @Test
+    void whenUserIsRevokedThenTokensIssuedAfterShouldBeAccepted() {
+        userRevocationRegistry.revoke(USERNAME);
+
+        long issuedAfterRevocation = System.currentTimeMillis() + 1;
+
+        assertThat(userRevocationRegistry.isRevoked(USERNAME, issuedAfterRevocation), is(false));
+    }
+
+    @Test
+    void whenUserIsRevokedThenTokensIssuedAMillisecondBeforeShouldBeRejected() {
+        long issuedJustBeforeRevocation = System.currentTimeMillis() - 1;
+
+        userRevocationRegistry.revoke(USERNAME);
+
+        assertThat(userRevocationRegistry.isRevoked(USERNAME, issuedJustBeforeRevocation), is(true));
+    }
+}
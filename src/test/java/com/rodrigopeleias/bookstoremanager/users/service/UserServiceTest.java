@@ -1,9 +1,13 @@
 package com.rodrigopeleias.bookstoremanager.users.service;
 
+import com.rodrigopeleias.bookstoremanager.exception.PreconditionFailedException;
 import com.rodrigopeleias.bookstoremanager.users.builder.UserDTOBuilder;
 import com.rodrigopeleias.bookstoremanager.users.dto.MessageDTO;
+import com.rodrigopeleias.bookstoremanager.users.dto.UserAvailabilityDTO;
 import com.rodrigopeleias.bookstoremanager.users.dto.UserDTO;
+import com.rodrigopeleias.bookstoremanager.users.dto.UserPatchDTO;
 import com.rodrigopeleias.bookstoremanager.users.entity.User;
+import com.rodrigopeleias.bookstoremanager.users.enums.Role;
 import com.rodrigopeleias.bookstoremanager.users.exception.UserAlreadyExistsException;
 import com.rodrigopeleias.bookstoremanager.users.exception.UserNotFoundException;
 import com.rodrigopeleias.bookstoremanager.users.mapper.UserMapper;
@@ -15,6 +19,7 @@ import org.junit.jupiter.api.extension.ExtendWith;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.dao.DataIntegrityViolationException;
 import org.springframework.security.crypto.password.PasswordEncoder;
 
 import java.util.Optional;
@@ -22,6 +27,7 @@ import java.util.Optional;
 import static org.hamcrest.MatcherAssert.*;
 import static org.hamcrest.Matchers.*;
 import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
 import static org.mockito.Mockito.*;
 
 @ExtendWith(MockitoExtension.class)
@@ -33,6 +39,12 @@ public class UserServiceTest {
     private UserRepository userRepository;
     @Mock
     private PasswordEncoder passwordEncoder;
+    @Mock
+    private UserRevocationRegistry userRevocationRegistry;
+    @Mock
+    private UserDetailsCache userDetailsCache;
+    @Mock
+    private UserAvailabilityFilter userAvailabilityFilter;
 
     @InjectMocks
     private UserService userService;
@@ -52,14 +64,81 @@ public class UserServiceTest {
 
         String expecteduserEmail = expectedCreatedUserDTO.getEmail();
         String expectedUserUsename = expectedCreatedUserDTO.getUsername();
+        when(userAvailabilityFilter.mightContainUsername(expectedUserUsename)).thenReturn(true);
         when(userRepository.findByEmailOrUsername(expecteduserEmail, expectedUserUsename))
                 .thenReturn(Optional.empty());
         when(passwordEncoder.encode(expectedCreatedUser.getPassword())).thenReturn(expectedCreatedUser.getPassword());
-        when(userRepository.save(expectedCreatedUser)).thenReturn(expectedCreatedUser);
+        when(userRepository.saveAndFlush(expectedCreatedUser)).thenReturn(expectedCreatedUser);
 
         MessageDTO creationMessage = userService.create(expectedCreatedUserDTO);
 
         assertThat(expectedCreationMessage, is(equalTo(creationMessage.getMessage())));
+        verify(userAvailabilityFilter, times(1)).add(expectedUserUsename, expecteduserEmail);
+    }
+
+    @Test
+    void whenNewUserIsAbsentFromFilterThenItShouldBeCreatedWithoutQueryingDuplicates() {
+        UserDTO expectedCreatedUserDTO = userDTOBuilder.buildUserDTO();
+        User expectedCreatedUser = userMapper.toModel(expectedCreatedUserDTO);
+
+        when(passwordEncoder.encode(expectedCreatedUser.getPassword())).thenReturn(expectedCreatedUser.getPassword());
+        when(userRepository.saveAndFlush(expectedCreatedUser)).thenReturn(expectedCreatedUser);
+
+        userService.create(expectedCreatedUserDTO);
+
+        verify(userRepository, never()).findByEmailOrUsername(anyString(), anyString());
+        verify(userAvailabilityFilter, times(1)).add(expectedCreatedUserDTO.getUsername(), expectedCreatedUserDTO.getEmail());
+    }
+
+    @Test
+    void whenUserIsRegisteredConcurrentlyThenAnExceptionShouldBeThrown() {
+        UserDTO expectedCreatedUserDTO = userDTOBuilder.buildUserDTO();
+        User expectedCreatedUser = userMapper.toModel(expectedCreatedUserDTO);
+
+        when(userAvailabilityFilter.mightContainUsername(expectedCreatedUserDTO.getUsername())).thenReturn(true);
+        when(userRepository.findByEmailOrUsername(expectedCreatedUserDTO.getEmail(), expectedCreatedUserDTO.getUsername()))
+                .thenReturn(Optional.empty());
+        when(passwordEncoder.encode(expectedCreatedUser.getPassword())).thenReturn(expectedCreatedUser.getPassword());
+        when(userRepository.saveAndFlush(expectedCreatedUser)).thenThrow(new DataIntegrityViolationException("uk_user_username"));
+
+        assertThrows(UserAlreadyExistsException.class, () -> userService.create(expectedCreatedUserDTO));
+        verify(userAvailabilityFilter, never()).add(anyString(), anyString());
+    }
+
+    @Test
+    void whenUserRegisteredOnAnotherNodeIsAbsentFromFilterThenTheUniqueConstraintShouldRejectIt() {
+        UserDTO expectedCreatedUserDTO = userDTOBuilder.buildUserDTO();
+        User expectedCreatedUser = userMapper.toModel(expectedCreatedUserDTO);
+
+        when(passwordEncoder.encode(expectedCreatedUser.getPassword())).thenReturn(expectedCreatedUser.getPassword());
+        when(userRepository.saveAndFlush(expectedCreatedUser)).thenThrow(new DataIntegrityViolationException("uk_user_username"));
+
+        assertThrows(UserAlreadyExistsException.class, () -> userService.create(expectedCreatedUserDTO));
+        verify(userAvailabilityFilter, never()).add(anyString(), anyString());
+    }
+
+    @Test
+    void whenAvailabilityIsCheckedForValuesAbsentFromFilterThenDatabaseShouldNotBeQueried() {
+        UserAvailabilityDTO availability = userService.checkAvailability("newuser", "newuser@gmail.com");
+
+        assertThat(availability.getUsernameAvailable(), is(true));
+        assertThat(availability.getEmailAvailable(), is(true));
+        verifyNoInteractions(userRepository);
+    }
+
+    @Test
+    void whenAvailabilityIsCheckedForPossiblyTakenValuesThenDatabaseShouldConfirm() {
+        String takenUsername = "rodrigopeleias";
+        String falsePositiveEmail = "other@gmail.com";
+        when(userAvailabilityFilter.mightContainUsername(takenUsername)).thenReturn(true);
+        when(userAvailabilityFilter.mightContainEmail(falsePositiveEmail)).thenReturn(true);
+        when(userRepository.existsByUsername(takenUsername)).thenReturn(true);
+        when(userRepository.existsByEmail(falsePositiveEmail)).thenReturn(false);
+
+        UserAvailabilityDTO availability = userService.checkAvailability(takenUsername, falsePositiveEmail);
+
+        assertThat(availability.getUsernameAvailable(), is(false));
+        assertThat(availability.getEmailAvailable(), is(true));
     }
 
     @Test
@@ -69,6 +148,7 @@ public class UserServiceTest {
 
         String expectedUserEmail = expectedDuplicatedUserDTO.getEmail();
         String expectedUserUsename = expectedDuplicatedUserDTO.getUsername();
+        when(userAvailabilityFilter.mightContainUsername(expectedUserUsename)).thenReturn(true);
         when(userRepository.findByEmailOrUsername(expectedUserEmail, expectedUserUsename))
                 .thenReturn(Optional.of(expectedDuplicatedUser));
 
@@ -82,11 +162,14 @@ public class UserServiceTest {
         var expectedDeletedUserId = expectedDeletedUserDTO.getId();
 
         when(userRepository.findById(expectedDeletedUserId)).thenReturn(Optional.of(expectedDeletedUser));
-        doNothing().when(userRepository).deleteById(expectedDeletedUserId);
+        doNothing().when(userRepository).delete(expectedDeletedUser);
 
-        userService.delete(expectedDeletedUserId);
+        userService.delete(expectedDeletedUserId, "*");
 
-        verify(userRepository, times(1)).deleteById(expectedDeletedUserId);
+        verify(userRepository, times(1)).delete(expectedDeletedUser);
+        verify(userRevocationRegistry, times(1)).revoke(expectedDeletedUser.getUsername());
+        verify(userDetailsCache, times(1)).invalidate(expectedDeletedUser.getUsername(), Long.MAX_VALUE);
+        verify(userAvailabilityFilter, times(1)).markStale(2);
     }
 
     @Test
@@ -96,7 +179,7 @@ public class UserServiceTest {
 
         when(userRepository.findById(expectedDeletedUserId)).thenReturn(Optional.empty());
 
-        Assertions.assertThrows(UserNotFoundException.class, () -> userService.delete(expectedDeletedUserId));
+        Assertions.assertThrows(UserNotFoundException.class, () -> userService.delete(expectedDeletedUserId, null));
     }
 
     @Test
@@ -108,11 +191,62 @@ public class UserServiceTest {
 
         when(userRepository.findById(expectedUpdatedUserDTO.getId())).thenReturn(Optional.of(expectedUpdatedUser));
         when(passwordEncoder.encode(expectedUpdatedUser.getPassword())).thenReturn(expectedUpdatedUser.getPassword());
-        when(userRepository.save(expectedUpdatedUser)).thenReturn(expectedUpdatedUser);
+        when(userRepository.save(any(User.class))).thenReturn(expectedUpdatedUser);
 
-        MessageDTO successUpdateMessage = userService.update(expectedUpdatedUserDTO.getId(), expectedUpdatedUserDTO);
+        MessageDTO successUpdateMessage = userService.update(expectedUpdatedUserDTO.getId(), expectedUpdatedUserDTO, "*");
 
         assertThat(successUpdateMessage.getMessage(), is(equalTo(expectedUpdatedMessage)));
+        verify(userDetailsCache, times(1)).invalidate(expectedUpdatedUser.getUsername(), expectedUpdatedUser.getVersion());
+    }
+
+    @Test
+    void whenUserIsUpdatedThenTheVersionReadShouldBeSavedAndReturned() {
+        UserDTO expectedUpdatedUserDTO = userDTOBuilder.buildUserDTO();
+        User expectedFoundUser = userMapper.toModel(expectedUpdatedUserDTO);
+        expectedFoundUser.setVersion(3L);
+
+        when(userRepository.findById(expectedUpdatedUserDTO.getId())).thenReturn(Optional.of(expectedFoundUser));
+        when(passwordEncoder.encode(expectedFoundUser.getPassword())).thenReturn(expectedFoundUser.getPassword());
+        when(userRepository.save(any(User.class))).thenAnswer(invocation -> {
+            User savedUser = invocation.getArgument(0);
+            assertThat(savedUser.getVersion(), is(3L));
+            savedUser.setVersion(4L);
+            return savedUser;
+        });
+
+        MessageDTO successUpdateMessage = userService.update(expectedUpdatedUserDTO.getId(), expectedUpdatedUserDTO, "\"3\"");
+
+        assertThat(successUpdateMessage.getResourceVersion().getETag(), is("\"4\""));
+    }
+
+    @Test
+    void whenStaleIfMatchIsInformedThenUserShouldNotBeUpdated() {
+        UserDTO expectedUpdatedUserDTO = userDTOBuilder.buildUserDTO();
+        User expectedFoundUser = userMapper.toModel(expectedUpdatedUserDTO);
+        expectedFoundUser.setVersion(3L);
+
+        when(userRepository.findById(expectedUpdatedUserDTO.getId())).thenReturn(Optional.of(expectedFoundUser));
+
+        assertThrows(PreconditionFailedException.class,
+                () -> userService.update(expectedUpdatedUserDTO.getId(), expectedUpdatedUserDTO, "\"2\""));
+        verify(userRepository, never()).save(any(User.class));
+    }
+
+    @Test
+    void whenUserRoleIsUpdatedThenItsTokensShouldBeRevoked() {
+        UserDTO expectedUpdatedUserDTO = userDTOBuilder.buildUserDTO();
+        User expectedFoundUser = userMapper.toModel(expectedUpdatedUserDTO);
+        expectedUpdatedUserDTO.setRole(Role.ADMIN);
+        User expectedUpdatedUser = userMapper.toModel(expectedUpdatedUserDTO);
+        expectedUpdatedUser.setTokenVersion(1L);
+
+        when(userRepository.findById(expectedUpdatedUserDTO.getId())).thenReturn(Optional.of(expectedFoundUser));
+        when(passwordEncoder.encode(expectedUpdatedUser.getPassword())).thenReturn(expectedUpdatedUser.getPassword());
+        when(userRepository.save(expectedUpdatedUser)).thenReturn(expectedUpdatedUser);
+
+        userService.update(expectedUpdatedUserDTO.getId(), expectedUpdatedUserDTO, "*");
+
+        verify(userRevocationRegistry, times(1)).revoke(expectedFoundUser.getUsername());
     }
 
     @Test
@@ -122,6 +256,119 @@ public class UserServiceTest {
 
         when(userRepository.findById(expectedUpdatedUserDTO.getId())).thenReturn(Optional.empty());
 
-        assertThrows(UserNotFoundException.class, () -> userService.update(expectedUpdatedUserDTO.getId(), expectedUpdatedUserDTO));
+        assertThrows(UserNotFoundException.class, () -> userService.update(expectedUpdatedUserDTO.getId(), expectedUpdatedUserDTO, null));
+    }
+
+    @Test
+    void whenPatchWithoutPasswordIsInformedThenPasswordShouldNotBeEncoded() {
+        UserDTO expectedFoundUserDTO = userDTOBuilder.buildUserDTO();
+        User expectedFoundUser = userMapper.toModel(expectedFoundUserDTO);
+        String expectedStoredPassword = expectedFoundUser.getPassword();
+        UserPatchDTO userPatchDTO = new UserPatchDTO();
+        userPatchDTO.setName("Rodrigo Peleias Updated");
+        String expectedUpdatedMessage = "User rodrigopeleias with ID 1 successfully updated";
+
+        when(userRepository.findById(expectedFoundUserDTO.getId())).thenReturn(Optional.of(expectedFoundUser));
+        when(userRepository.save(expectedFoundUser)).thenReturn(expectedFoundUser);
+
+        MessageDTO successUpdateMessage = userService.patch(expectedFoundUserDTO.getId(), userPatchDTO, "*");
+
+        assertThat(successUpdateMessage.getMessage(), is(equalTo(expectedUpdatedMessage)));
+        assertThat(expectedFoundUser.getName(), is(equalTo(userPatchDTO.getName())));
+        assertThat(expectedFoundUser.getPassword(), is(equalTo(expectedStoredPassword)));
+        verifyNoInteractions(passwordEncoder, userRevocationRegistry);
+    }
+
+    @Test
+    void whenPatchWithPasswordIsInformedThenPasswordShouldBeEncoded() {
+        UserDTO expectedFoundUserDTO = userDTOBuilder.buildUserDTO();
+        User expectedFoundUser = userMapper.toModel(expectedFoundUserDTO);
+        UserPatchDTO userPatchDTO = new UserPatchDTO();
+        userPatchDTO.setPassword("654321");
+        String expectedEncodedPassword = "encoded654321";
+
+        when(userRepository.findById(expectedFoundUserDTO.getId())).thenReturn(Optional.of(expectedFoundUser));
+        when(passwordEncoder.encode(userPatchDTO.getPassword())).thenReturn(expectedEncodedPassword);
+        when(userRepository.save(expectedFoundUser)).thenReturn(expectedFoundUser);
+
+        userService.patch(expectedFoundUserDTO.getId(), userPatchDTO, "*");
+
+        assertThat(expectedFoundUser.getPassword(), is(equalTo(expectedEncodedPassword)));
+        assertThat(expectedFoundUser.getTokenVersion(), is(1L));
+        verify(userDetailsCache, times(1)).invalidate(expectedFoundUser.getUsername(), expectedFoundUser.getVersion());
+        verify(userRevocationRegistry, times(1)).revoke(expectedFoundUser.getUsername());
+    }
+
+    @Test
+    void whenUserIsUpdatedWithItsCurrentPasswordThenItShouldNotBeReencodedNorItsTokensRevoked() {
+        UserDTO expectedUpdatedUserDTO = userDTOBuilder.buildUserDTO();
+        User expectedFoundUser = userMapper.toModel(expectedUpdatedUserDTO);
+        expectedFoundUser.setPassword("encoded123456");
+
+        when(userRepository.findById(expectedUpdatedUserDTO.getId())).thenReturn(Optional.of(expectedFoundUser));
+        when(passwordEncoder.matches(expectedUpdatedUserDTO.getPassword(), "encoded123456")).thenReturn(true);
+        when(userRepository.save(any(User.class))).thenAnswer(invocation -> invocation.getArgument(0));
+
+        userService.update(expectedUpdatedUserDTO.getId(), expectedUpdatedUserDTO, "*");
+
+        verify(userRepository, times(1)).save(argThat((User savedUser) ->
+                savedUser.getPassword().equals("encoded123456") && savedUser.getTokenVersion() == 0));
+        verify(passwordEncoder, never()).encode(anyString());
+        verifyNoInteractions(userRevocationRegistry);
+    }
+
+    @Test
+    void whenUserIsUpdatedWithoutPasswordThenNothingShouldBeHashed() {
+        UserDTO expectedUpdatedUserDTO = userDTOBuilder.buildUserDTO();
+        User expectedFoundUser = userMapper.toModel(expectedUpdatedUserDTO);
+        expectedFoundUser.setPassword("encoded123456");
+        expectedUpdatedUserDTO.setPassword(null);
+
+        when(userRepository.findById(expectedUpdatedUserDTO.getId())).thenReturn(Optional.of(expectedFoundUser));
+        when(userRepository.save(any(User.class))).thenAnswer(invocation -> invocation.getArgument(0));
+
+        userService.update(expectedUpdatedUserDTO.getId(), expectedUpdatedUserDTO, "*");
+
+        verify(userRepository, times(1)).save(argThat((User savedUser) -> savedUser.getPassword().equals("encoded123456")));
+        verifyNoInteractions(passwordEncoder, userRevocationRegistry);
+    }
+
+    @Test
+    void whenPatchChangesUsernameToATakenOneThenAnExceptionShouldBeThrown() {
+        UserDTO expectedFoundUserDTO = userDTOBuilder.buildUserDTO();
+        User expectedFoundUser = userMapper.toModel(expectedFoundUserDTO);
+        UserPatchDTO userPatchDTO = new UserPatchDTO();
+        userPatchDTO.setUsername("takenusername");
+
+        when(userRepository.findById(expectedFoundUserDTO.getId())).thenReturn(Optional.of(expectedFoundUser));
+        when(userRepository.existsByUsernameAndIdNot("takenusername", expectedFoundUserDTO.getId())).thenReturn(true);
+
+        assertThrows(UserAlreadyExistsException.class, () -> userService.patch(expectedFoundUserDTO.getId(), userPatchDTO, "*"));
+        verify(userRepository, never()).save(any(User.class));
+    }
+
+    @Test
+    void whenPatchKeepsTheCurrentEmailThenItShouldNotBeCheckedForDuplicates() {
+        UserDTO expectedFoundUserDTO = userDTOBuilder.buildUserDTO();
+        User expectedFoundUser = userMapper.toModel(expectedFoundUserDTO);
+        UserPatchDTO userPatchDTO = new UserPatchDTO();
+        userPatchDTO.setEmail(expectedFoundUserDTO.getEmail());
+
+        when(userRepository.findById(expectedFoundUserDTO.getId())).thenReturn(Optional.of(expectedFoundUser));
+        when(userRepository.save(expectedFoundUser)).thenReturn(expectedFoundUser);
+
+        userService.patch(expectedFoundUserDTO.getId(), userPatchDTO, "*");
+
+        verify(userRepository, never()).existsByEmailAndIdNot(anyString(), anyLong());
+    }
+
+    @Test
+    void whenPatchForNotExistingUserIsInformedThenAnExceptionShouldBeThrown() {
+        UserPatchDTO userPatchDTO = new UserPatchDTO();
+        var expectedInvalidUserId = 2L;
+
+        when(userRepository.findById(expectedInvalidUserId)).thenReturn(Optional.empty());
+
+        assertThrows(UserNotFoundException.class, () -> userService.patch(expectedInvalidUserId, userPatchDTO, null));
     }
 }
@@ -0,0 +1,39 @@
+package com.rodrigopeleias.bookstoremanager.utils;
+
+import org.junit.jupiter.api.Test;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.*;
+
+public class BloomFilterTest {
+
+    @Test
+    void whenValuesAreInsertedThenTheyShouldAlwaysBeReported() {
+        BloomFilter bloomFilter = new BloomFilter(1_000, 0.01);
+
+        for (int i = 0; i < 1_000; i++) {
+            bloomFilter.put("user" + i);
+        }
+
+        for (int i = 0; i < 1_000; i++) {
+            assertThat(bloomFilter.mightContain("user" + i), is(true));
+        }
+    }
+
+    @Test
+    void whenValuesWereNeverInsertedThenFalsePositivesShouldStayNearTheConfiguredRate() {
+        BloomFilter bloomFilter = new BloomFilter(1_000, 0.01);
+        for (int i = 0; i < 1_000; i++) {
+            bloomFilter.put("user" + i);
+        }
+
+        int falsePositives = 0;
+        for (int i = 0; i < 10_000; i++) {
+            if (bloomFilter.mightContain("other" + i)) {
+                falsePositives++;
+            }
+        }
+
+        assertThat(falsePositives, is(lessThan(300)));
+    }
+}
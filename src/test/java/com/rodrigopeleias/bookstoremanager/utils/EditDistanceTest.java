@@ -0,0 +1,32 @@
+package com.rodrigopeleias.bookstoremanager.utils;
+
+import org.junit.jupiter.api.Test;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.is;
+
+public class EditDistanceTest {
+
+    @Test
+    void whenStringsDifferByOneEditThenDistanceShouldBeOne() {
+        assertThat(EditDistance.bounded("tolkien", "tolkien", 2), is(0));
+        assertThat(EditDistance.bounded("tolkien", "tolkin", 2), is(1));
+        assertThat(EditDistance.bounded("tolkien", "tollkien", 2), is(1));
+        assertThat(EditDistance.bounded("tolkien", "tolkian", 2), is(1));
+        assertThat(EditDistance.bounded("", "abc", 3), is(3));
+    }
+
+    @Test
+    void whenAdjacentCharactersAreSwappedThenDistanceShouldBeOne() {
+        assertThat(EditDistance.bounded("tolkien", "tolkein", 2), is(1));
+        assertThat(EditDistance.bounded("ab", "ba", 2), is(1));
+    }
+
+    @Test
+    void whenDistanceExceedsTheBoundThenBoundPlusOneShouldBeReturned() {
+        assertThat(EditDistance.bounded("kitten", "sitting", 3), is(3));
+        assertThat(EditDistance.bounded("kitten", "sitting", 2), is(3));
+        assertThat(EditDistance.bounded("rowling", "tolkien", 1), is(2));
+        assertThat(EditDistance.bounded("a", "abcdef", 2), is(3));
+    }
+}
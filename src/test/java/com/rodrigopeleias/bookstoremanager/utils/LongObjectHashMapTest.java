@@ -0,0 +1,85 @@
+package com.rodrigopeleias.bookstoremanager.utils;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.*;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+public class LongObjectHashMapTest {
+
+    @Test
+    void whenValuesArePutThenTheyShouldBeReturnedByKey() {
+        LongObjectHashMap<String> map = new LongObjectHashMap<>();
+
+        for (long key = 9780000000000L; key < 9780000010000L; key++) {
+            map.put(key, "book" + key);
+        }
+
+        assertThat(map.size(), is(10_000));
+        assertThat(map.get(9780000005000L), is(equalTo("book9780000005000")));
+        assertThat(map.get(9790000000000L), is(nullValue()));
+    }
+
+    @Test
+    void whenZeroKeyIsPutThenItShouldBeStoredLikeAnyOtherKey() {
+        LongObjectHashMap<String> map = new LongObjectHashMap<>();
+
+        map.put(0L, "zero");
+
+        assertThat(map.containsKey(0L), is(true));
+        assertThat(map.get(0L), is(equalTo("zero")));
+        assertThat(map.remove(0L), is(equalTo("zero")));
+        assertThat(map.size(), is(0));
+    }
+
+    @Test
+    void whenValuesAreIteratedThenEveryValueShouldBeVisitedOnce() {
+        LongObjectHashMap<Long> map = new LongObjectHashMap<>();
+        for (long key = 0; key < 100; key++) {
+            map.put(key, key);
+        }
+        map.remove(50L);
+
+        List<Long> visited = new ArrayList<>();
+        map.forEachValue(visited::add);
+
+        assertThat(visited, hasSize(99));
+        assertThat(visited, hasItems(0L, 49L, 51L, 99L));
+        assertThat(visited, not(hasItem(50L)));
+    }
+
+    @Test
+    void whenNullValueIsPutThenAnExceptionShouldBeThrown() {
+        LongObjectHashMap<String> map = new LongObjectHashMap<>();
+
+        assertThrows(IllegalArgumentException.class, () -> map.put(1L, null));
+    }
+
+    @Test
+    void whenRandomPutsAndRemovesAreAppliedThenTheMapShouldMatchAHashMap() {
+        LongObjectHashMap<Long> map = new LongObjectHashMap<>(8);
+        Map<Long, Long> expected = new HashMap<>();
+        Random random = new Random(42);
+
+        for (int i = 0; i < 100_000; i++) {
+            long key = random.nextInt(2_000);
+            if (random.nextBoolean()) {
+                assertThat(map.put(key, (long) i), is(equalTo(expected.put(key, (long) i))));
+            } else {
+                assertThat(map.remove(key), is(equalTo(expected.remove(key))));
+            }
+        }
+
+        assertThat(map.size(), is(expected.size()));
+        for (long key = 0; key < 2_000; key++) {
+            assertThat(map.get(key), is(equalTo(expected.get(key))));
+        }
+    }
+}
@@ -0,0 +1,75 @@
+package com.rodrigopeleias.bookstoremanager.utils;
+
+import com.rodrigopeleias.bookstoremanager.benchmark.BenchmarkHarness;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.lessThan;
+
+/**
+ * Builds a {@link RadixTrie} over a million generated person names and reports its retained heap
+ * and the latency percentiles of top-10 prefix lookups for one to four typed characters, checking that p99 stays
+ * under a millisecond.
+ * Excluded from the default build, run it with {@code mvn test -P benchmark}.
+ */
+@Tag("benchmark")
+public class RadixTrieBenchmarkTest {
+
+    private static final int NAMES = 1_000_000;
+    private static final int LOOKUPS = 200_000;
+    private static final int TOP_K = 10;
+    private static final String[] FIRST_NAMES = {"ana", "bruno", "carla", "diego", "elisa", "fabio", "gabriela", "heitor",
+            "isabel", "joao", "karina", "lucas", "marina", "nuno", "olivia", "paulo", "quiteria", "rafael", "sofia", "tiago"};
+
+    private final BenchmarkHarness benchmark = BenchmarkHarness.of(RadixTrieBenchmarkTest.class);
+
+    @Test
+    void whenAMillionNamesAreIndexedThenP99PrefixLookupShouldStayUnderAMillisecond() throws Exception {
+        Random random = new Random(42);
+        long heapBefore = usedHeap();
+        RadixTrie<Long> trie = new RadixTrie<>();
+        for (long id = 1; id <= NAMES; id++) {
+            trie.put(name(random), id);
+        }
+        long heapAfter = usedHeap();
+
+        String[] prefixes = new String[LOOKUPS];
+        for (int i = 0; i < LOOKUPS; i++) {
+            String name = name(random);
+            prefixes[i] = name.substring(0, Math.min(name.length(), 1 + random.nextInt(4)));
+        }
+
+        BenchmarkHarness.Result result = benchmark.measure(LOOKUPS, LOOKUPS, round -> topK(trie, prefixes[round % LOOKUPS]));
+
+        benchmark.report("{} names, {} MB retained, p50 {} us, p99 {} us, p99.9 {} us",
+                trie.size(),
+                (heapAfter - heapBefore) / (1024 * 1024),
+                result.percentileNanos(50) / 1e3,
+                result.percentileNanos(99) / 1e3,
+                result.percentileNanos(99.9) / 1e3);
+        assertThat(result.percentileNanos(99), lessThan(1_000_000L));
+    }
+
+    private static List<Long> topK(RadixTrie<Long> trie, String prefix) {
+        List<Long> found = new ArrayList<>(TOP_K);
+        trie.forEachWithPrefix(prefix, id -> found.add(id) && found.size() < TOP_K);
+        return found;
+    }
+
+    private static String name(Random random) {
+        return FIRST_NAMES[random.nextInt(FIRST_NAMES.length)] + " " + Long.toString(random.nextInt(Integer.MAX_VALUE), 36);
+    }
+
+    private static long usedHeap() {
+        for (int i = 0; i < 3; i++) {
+            System.gc();
+        }
+        Runtime runtime = Runtime.getRuntime();
+        return runtime.totalMemory() - runtime.freeMemory();
+    }
+}
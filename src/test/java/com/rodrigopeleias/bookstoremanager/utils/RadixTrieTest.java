@@ -0,0 +1,94 @@
+package com.rodrigopeleias.bookstoremanager.utils;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.TreeMap;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.*;
+
+public class RadixTrieTest {
+
+    @Test
+    void whenPrefixIsGivenThenValuesShouldBeVisitedInKeyOrder() {
+        RadixTrie<String> trie = new RadixTrie<>();
+        trie.put("machado de assis", "Machado de Assis");
+        trie.put("mario quintana", "Mario Quintana");
+        trie.put("machado", "Machado");
+        trie.put("clarice lispector", "Clarice Lispector");
+
+        assertThat(withPrefix(trie, "ma"), contains("Machado", "Machado de Assis", "Mario Quintana"));
+        assertThat(withPrefix(trie, "machado d"), contains("Machado de Assis"));
+        assertThat(withPrefix(trie, ""), hasSize(4));
+        assertThat(withPrefix(trie, "mab"), is(empty()));
+        assertThat(withPrefix(trie, "machado de assis jr"), is(empty()));
+    }
+
+    @Test
+    void whenVisitorReturnsFalseThenVisitingShouldStop() {
+        RadixTrie<Integer> trie = new RadixTrie<>();
+        for (int i = 0; i < 100; i++) {
+            trie.put(String.format("author %03d", i), i);
+        }
+
+        List<Integer> visited = new ArrayList<>();
+        trie.forEachWithPrefix("author", value -> visited.add(value) && visited.size() < 5);
+
+        assertThat(visited, contains(0, 1, 2, 3, 4));
+    }
+
+    @Test
+    void whenKeysAreRemovedThenOnlyTheRemainingValuesShouldBeVisited() {
+        RadixTrie<String> trie = new RadixTrie<>();
+        trie.put("rowling", "J. K. Rowling");
+        trie.put("row", "Row");
+        trie.put("rowan", "Rowan");
+
+        assertThat(trie.remove("row", "Row"), is(true));
+        assertThat(trie.remove("row", "Row"), is(false));
+        assertThat(trie.remove("rowling", "Someone else"), is(false));
+
+        assertThat(withPrefix(trie, "row"), contains("Rowan", "J. K. Rowling"));
+        assertThat(trie.size(), is(2));
+    }
+
+    @Test
+    void whenRandomKeysArePutAndRemovedThenPrefixVisitsShouldMatchASortedMap() {
+        RadixTrie<String> trie = new RadixTrie<>();
+        TreeMap<String, String> expected = new TreeMap<>();
+        Random random = new Random(42);
+
+        for (int i = 0; i < 20_000; i++) {
+            String key = randomKey(random);
+            if (random.nextInt(3) == 0) {
+                assertThat(trie.remove(key, key), is(expected.remove(key) != null));
+            } else if (expected.putIfAbsent(key, key) == null) {
+                trie.put(key, key);
+            }
+        }
+
+        assertThat(trie.size(), is(expected.size()));
+        for (String prefix : List.of("", "a", "ab", "abc", "ba", "cab")) {
+            List<String> expectedValues = new ArrayList<>(expected.subMap(prefix, prefix + Character.MAX_VALUE).values());
+            assertThat(withPrefix(trie, prefix), is(equalTo(expectedValues)));
+        }
+    }
+
+    private static List<String> withPrefix(RadixTrie<String> trie, String prefix) {
+        List<String> values = new ArrayList<>();
+        trie.forEachWithPrefix(prefix, values::add);
+        return values;
+    }
+
+    private static String randomKey(Random random) {
+        StringBuilder key = new StringBuilder();
+        int length = 1 + random.nextInt(6);
+        for (int i = 0; i < length; i++) {
+            key.append((char) ('a' + random.nextInt(3)));
+        }
+        return key.toString();
+    }
+}
@@ -0,0 +1,25 @@
+package com.rodrigopeleias.bookstoremanager.utils;
+
+import org.junit.jupiter.api.Test;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.*;
+
+public class SearchTermsTest {
+
+    @Test
+    void whenTextHasPunctuationThenItShouldBeSplitIntoTerms() {
+        assertThat(SearchTerms.tokenize("Addison-Wesley, 2nd ed."), contains("addison", "wesley", "2nd", "ed"));
+    }
+
+    @Test
+    void whenTextHasAccentsAndCapitalsThenTermsShouldBeNormalized() {
+        assertThat(SearchTerms.tokenize("José SARAMAGO"), contains("jose", "saramago"));
+    }
+
+    @Test
+    void whenTextIsBlankThenNoTermsShouldBeReturned() {
+        assertThat(SearchTerms.tokenize(null), is(empty()));
+        assertThat(SearchTerms.tokenize(" -- "), is(empty()));
+    }
+}
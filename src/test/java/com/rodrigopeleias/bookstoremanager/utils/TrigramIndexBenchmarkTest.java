@@ -0,0 +1,102 @@
+package com.rodrigopeleias.bookstoremanager.utils;
+
+import com.rodrigopeleias.bookstoremanager.benchmark.BenchmarkHarness;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+
+import java.util.Random;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.greaterThan;
+import static org.hamcrest.Matchers.lessThan;
+
+/**
+ * Indexes two hundred thousand generated author names in a {@link TrigramIndex} and reports the latency percentiles
+ * of fuzzy searches for names with one typo, next to a full scan computing the edit distance of every name,
+ * and how often the misspelled author is the first result, checking that the index finds it first for nine in ten
+ * lookups and that its p99 stays under the mean cost of the scan.
+ * Excluded from the default build, run it with {@code mvn test -P benchmark}.
+ */
+@Tag("benchmark")
+public class TrigramIndexBenchmarkTest {
+
+    private static final int NAMES = 200_000;
+    private static final int LOOKUPS = 20_000;
+    private static final int SCANS = 200;
+    private static final String[] FIRST_NAMES = {"ana", "bruno", "carla", "diego", "elisa", "fabio", "gabriela", "heitor",
+            "isabel", "joao", "karina", "lucas", "marina", "nuno", "olivia", "paulo", "quiteria", "rafael", "sofia", "tiago"};
+    private static final String SYLLABLES = "ba ce di fo gu ka le mi no pu ra se ti vo xu za be ci do fu";
+
+    private final BenchmarkHarness benchmark = BenchmarkHarness.of(TrigramIndexBenchmarkTest.class);
+
+    @Test
+    void whenMisspelledNamesAreSearchedThenTheIndexShouldFindThemFasterThanAScan() throws Exception {
+        Random random = new Random(42);
+        String[] names = new String[NAMES];
+        TrigramIndex index = new TrigramIndex(200, 20_000);
+        for (int i = 0; i < NAMES; i++) {
+            names[i] = name(random);
+            index.put(i, names[i]);
+        }
+
+        int[] targets = new int[LOOKUPS];
+        String[] queries = new String[LOOKUPS];
+        for (int i = 0; i < LOOKUPS; i++) {
+            targets[i] = random.nextInt(NAMES);
+            queries[i] = misspell(names[targets[i]], random);
+        }
+        AtomicInteger foundFirst = new AtomicInteger();
+        BenchmarkHarness.Result lookups = benchmark.measure(LOOKUPS, LOOKUPS, round -> {
+            int lookup = round % LOOKUPS;
+            var matches = index.search(queries[lookup], 10);
+            if (round >= LOOKUPS && !matches.isEmpty()
+                    && SearchTerms.toKey(matches.get(0).getText()).equals(SearchTerms.toKey(names[targets[lookup]]))) {
+                foundFirst.incrementAndGet();
+            }
+        });
+        BenchmarkHarness.Result scans = benchmark.measure(0, SCANS, round -> scan(names, queries[round]));
+
+        benchmark.report("{} names, index p50 {} us, p99 {} us, p99.9 {} us, scan {} ms, misspelled name first in {}%",
+                index.size(),
+                lookups.percentileNanos(50) / 1e3,
+                lookups.percentileNanos(99) / 1e3,
+                lookups.percentileNanos(99.9) / 1e3,
+                String.format("%.2f", scans.getMeanNanos() / 1e6),
+                String.format("%.1f", foundFirst.get() * 100.0 / LOOKUPS));
+        assertThat(foundFirst.get(), greaterThan(LOOKUPS * 9 / 10));
+        assertThat(lookups.percentileNanos(99), lessThan(scans.getMeanNanos()));
+    }
+
+    private static int scan(String[] names, String query) {
+        String queryKey = SearchTerms.toKey(query);
+        int best = Integer.MAX_VALUE;
+        for (String name : names) {
+            best = Math.min(best, EditDistance.bounded(queryKey, SearchTerms.toKey(name), 3));
+        }
+        return best;
+    }
+
+    private static String misspell(String name, Random random) {
+        int at = 1 + random.nextInt(name.length() - 2);
+        switch (random.nextInt(4)) {
+            case 0:
+                return name.substring(0, at) + name.substring(at + 1);
+            case 1:
+                return name.substring(0, at) + (char) ('a' + random.nextInt(26)) + name.substring(at);
+            case 2:
+                return name.substring(0, at) + (char) ('a' + random.nextInt(26)) + name.substring(at + 1);
+            default:
+                return name.substring(0, at) + name.charAt(at + 1) + name.charAt(at) + name.substring(at + 2);
+        }
+    }
+
+    private static String name(Random random) {
+        String[] syllables = SYLLABLES.split(" ");
+        StringBuilder surname = new StringBuilder();
+        for (int i = 0; i < 3 + random.nextInt(2); i++) {
+            surname.append(syllables[random.nextInt(syllables.length)]);
+        }
+        return FIRST_NAMES[random.nextInt(FIRST_NAMES.length)] + " " + surname;
+    }
+}
@@ -0,0 +1,85 @@
+package com.rodrigopeleias.bookstoremanager.utils;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+import java.util.stream.Collectors;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.*;
+
+public class TrigramIndexTest {
+
+    @Test
+    void whenNameIsMisspelledThenClosestNamesShouldBeReturnedFirst() {
+        TrigramIndex index = new TrigramIndex(200, 20_000);
+        index.put(1L, "Machado de Assis");
+        index.put(2L, "Mário de Andrade");
+        index.put(3L, "Clarice Lispector");
+        index.put(4L, "Machado");
+
+        List<TrigramIndex.Match> matches = index.search("machado de asis", 10);
+
+        assertThat(ids(matches), contains(1L));
+        assertThat(matches.get(0).getText(), is("Machado de Assis"));
+        assertThat(matches.get(0).getDistance(), is(1));
+        assertThat(ids(index.search("machdo", 10)), contains(4L, 1L));
+    }
+
+    @Test
+    void whenOnlyPartOfTheNameIsTypedThenMatchingWordsShouldBeCompared() {
+        TrigramIndex index = new TrigramIndex(200, 20_000);
+        index.put(1L, "J. R. R. Tolkien");
+        index.put(2L, "Christopher Tolkien");
+        index.put(3L, "J. K. Rowling");
+
+        assertThat(ids(index.search("tolkein", 10)), containsInAnyOrder(1L, 2L));
+        assertThat(ids(index.search("rowlign", 10)), contains(3L));
+        assertThat(index.search("tolkein", 10).get(0).getDistance(), is(1));
+    }
+
+    @Test
+    void whenNamesAreTooDifferentThenNothingShouldBeReturned() {
+        TrigramIndex index = new TrigramIndex(200, 20_000);
+        index.put(1L, "Machado de Assis");
+
+        assertThat(index.search("saramago", 10), is(empty()));
+        assertThat(index.search("", 10), is(empty()));
+        assertThat(index.search("machado", 0), is(empty()));
+    }
+
+    @Test
+    void whenEntriesAreReplacedOrRemovedThenSearchShouldReflectIt() {
+        TrigramIndex index = new TrigramIndex(200, 20_000);
+        index.put(1L, "Machado de Assis");
+        index.put(1L, "Clarice Lispector");
+        index.put(2L, "Cecília Meireles");
+
+        assertThat(index.search("machado de assis", 10), is(empty()));
+        assertThat(ids(index.search("clarise lispector", 10)), contains(1L));
+
+        assertThat(index.remove(1L), is(true));
+        assertThat(index.remove(1L), is(false));
+        assertThat(index.search("clarise lispector", 10), is(empty()));
+        assertThat(ids(index.search("cecilia meirelles", 10)), contains(2L));
+        assertThat(index.size(), is(1));
+    }
+
+    @Test
+    void whenManyNamesShareTrigramsThenResultsShouldBeLimited() {
+        TrigramIndex index = new TrigramIndex(5, 20_000);
+        for (long id = 1; id <= 50; id++) {
+            index.put(id, "Silva " + id);
+        }
+        index.put(100L, "Sylva");
+
+        List<TrigramIndex.Match> matches = index.search("silva", 3);
+
+        assertThat(matches, hasSize(3));
+        assertThat(matches.get(0).getDistance(), is(0));
+    }
+
+    private static List<Long> ids(List<TrigramIndex.Match> matches) {
+        return matches.stream().map(TrigramIndex.Match::getId).collect(Collectors.toList());
+    }
+}